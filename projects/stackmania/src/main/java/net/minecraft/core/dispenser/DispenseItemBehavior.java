@@ -751,13 +751,19 @@ public interface DispenseItemBehavior {
             level.captureTreeGeneration = true;
             // CraftBukkit end
 
+            // Stackmania start - block entities of the captured tree are never placed, do not keep shadowing the real ones
+            try {
             if (!BoneMealItem.growCrop(p_123417_, level, blockpos) && !BoneMealItem.growWaterPlant(p_123417_, level, blockpos, (Direction)null)) {
                this.setSuccess(false);
             } else if (!level.isClientSide) {
                level.levelEvent(1505, blockpos, 0);
             }
+            } finally {
+               level.captureTreeGeneration = false;
+               level.capturedTileEntities.clear();
+            }
+            // Stackmania end
             // CraftBukkit start
-            level.captureTreeGeneration = false;
             if (level.capturedBlockStates.size() > 0) {
                TreeType treeType = SaplingBlock.treeType;
                SaplingBlock.treeType = null;
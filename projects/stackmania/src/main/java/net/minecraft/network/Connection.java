@@ -175,6 +175,7 @@ public class Connection extends SimpleChannelInboundHandler<Packet<?>> {
          }
 
          ++this.receivedPackets;
+         com.stackmania.network.NetworkMetrics.recordPacketIn(); // Stackmania
       }
 
    }
@@ -206,6 +207,7 @@ public class Connection extends SimpleChannelInboundHandler<Packet<?>> {
       ConnectionProtocol connectionprotocol = ConnectionProtocol.getProtocolForPacket(p_129521_);
       ConnectionProtocol connectionprotocol1 = this.getCurrentProtocol();
       ++this.sentPackets;
+      com.stackmania.network.NetworkMetrics.recordPacketOut(); // Stackmania
       if (connectionprotocol1 != connectionprotocol) {
          if (connectionprotocol == null) {
             throw new IllegalStateException("Encountered packet without set protocol: " + p_129521_);
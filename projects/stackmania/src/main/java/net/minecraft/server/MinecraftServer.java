@@ -726,6 +726,7 @@ public abstract class MinecraftServer extends ReentrantBlockableEventLoop<TickTa
          LOGGER.info("Saving players");
          this.playerList.saveAll();
          this.playerList.removeAll();
+         this.playerDataStorage.flush(); // Stackmania - wait for asynchronous player saves
          try { Thread.sleep(100); } catch (InterruptedException ex) {} // CraftBukkit - SPIGOT-625 - give server at least a chance to send packets
       }
 
@@ -1016,6 +1017,7 @@ public abstract class MinecraftServer extends ReentrantBlockableEventLoop<TickTa
 
    public void tickServer(BooleanSupplier p_129871_) {
       long i = Util.getNanos();
+      com.stackmania.profiler.LagSpikeCatcher.tickStart(i); // Stackmania
       
       // Stackmania: Pre-tick optimization
       StackmaniaTickOptimizer.getInstance().preTickOptimize(i);
@@ -1032,13 +1034,22 @@ public abstract class MinecraftServer extends ReentrantBlockableEventLoop<TickTa
       if (autosavePeriod > 0 && this.tickCount % autosavePeriod == 0) { // CraftBukkit
          LOGGER.debug("Autosave started");
          this.profiler.push("save");
-         this.saveEverything(true, false, false);
+         com.stackmania.world.ChunkSaveQueue.autosave = true; // Stackmania
+         try {
+            this.saveEverything(true, false, false);
+         } finally {
+            com.stackmania.world.ChunkSaveQueue.autosave = false; // Stackmania
+         }
          this.profiler.pop();
          LOGGER.debug("Autosave finished");
       }
 
       this.profiler.push("tallying");
       long j = this.tickTimes[this.tickCount % 100] = Util.getNanos() - i;
+      com.stackmania.profiler.LagSpikeCatcher.tickEnd(j); // Stackmania
+      com.stackmania.metrics.ServerMetrics.onTick(this, j); // Stackmania
+      com.stackmania.metrics.TickTimes.SERVER.record(j); // Stackmania
+      com.stackmania.metrics.TickTimes.onTickEnd(this.tickCount); // Stackmania
       this.averageTickTime = this.averageTickTime * 0.8F + (float)j / 1000000.0F * 0.19999999F;
       long k = Util.getNanos();
       this.frameTimer.logFrameDuration(k - i);
@@ -1098,7 +1109,9 @@ public abstract class MinecraftServer extends ReentrantBlockableEventLoop<TickTa
    }
 
    public void tickChildren(BooleanSupplier p_129954_) {
+      long pluginStart = Util.getNanos(); // Stackmania
       this.server.getScheduler().mainThreadHeartbeat(this.tickCount); // CraftBukkit
+      com.stackmania.metrics.TickTimes.PLUGIN_TASKS.record(Util.getNanos() - pluginStart); // Stackmania
       this.profiler.push("commandFunctions");
       this.getFunctions().tick();
       this.profiler.popPush("levels");
@@ -1137,7 +1150,10 @@ public abstract class MinecraftServer extends ReentrantBlockableEventLoop<TickTa
 
          this.profiler.pop();
          this.profiler.pop();
-         perWorldTickTimes.computeIfAbsent(serverlevel.dimension(), k -> new long[100])[this.tickCount % 100] = Util.getNanos() - tickStart;
+         long levelTickTime = Util.getNanos() - tickStart; // Stackmania
+         perWorldTickTimes.computeIfAbsent(serverlevel.dimension(), k -> new long[100])[this.tickCount % 100] = levelTickTime;
+         com.stackmania.metrics.ServerMetrics.onLevelTick(serverlevel, levelTickTime); // Stackmania
+         serverlevel.tickTimes.record(com.stackmania.metrics.TickTimes.Phase.TOTAL, levelTickTime); // Stackmania
       }
 
       this.profiler.popPush("connection");
@@ -56,6 +56,7 @@ public class ChunkHolder {
    private int queueLevel;
    final ChunkPos pos;
    private boolean hasChangedSections;
+   boolean pendingBroadcast; // Stackmania
    private final ShortSet[] changedBlocksPerSection;
    private final BitSet blockChangedLightSectionFilter = new BitSet();
    private final BitSet skyChangedLightSectionFilter = new BitSet();
@@ -172,9 +173,19 @@ public class ChunkHolder {
          }
 
          this.changedBlocksPerSection[i].add(SectionPos.sectionRelativePos(p_140057_));
+         this.markPendingBroadcast(); // Stackmania
       }
    }
 
+   // Stackmania start
+   private void markPendingBroadcast() {
+      if (!this.pendingBroadcast && this.playerProvider instanceof ChunkMap chunkMap) {
+         this.pendingBroadcast = true;
+         chunkMap.markPendingBroadcast(this);
+      }
+   }
+   // Stackmania end
+
    public void sectionLightChanged(LightLayer p_140037_, int p_140038_) {
       Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure> either = this.getFutureIfPresent(ChunkStatus.INITIALIZE_LIGHT).getNow((Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>)null);
       if (either != null) {
@@ -192,6 +203,7 @@ public class ChunkHolder {
                   } else {
                      this.blockChangedLightSectionFilter.set(k);
                   }
+                  this.markPendingBroadcast(); // Stackmania
 
                }
             }
@@ -21,7 +21,9 @@ import it.unimi.dsi.fastutil.longs.Long2LongMap;
 import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongList;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import it.unimi.dsi.fastutil.longs.LongSet;
 import it.unimi.dsi.fastutil.objects.ObjectIterator;
@@ -141,6 +143,10 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
    private final Long2ByteMap chunkTypeCache = new Long2ByteOpenHashMap();
    private final Long2LongMap chunkSaveCooldowns = new Long2LongOpenHashMap();
    private final Queue<Runnable> unloadQueue = Queues.newConcurrentLinkedQueue();
+   private final List<ChunkHolder> pendingBroadcasts = new ArrayList<>(); // Stackmania
+   private final com.stackmania.world.ChunkSaveQueue saveQueue = new com.stackmania.world.ChunkSaveQueue(this); // Stackmania
+   private final java.util.ArrayDeque<ChunkHolder> autosaveQueue = new java.util.ArrayDeque<>(); // Stackmania
+   private final com.stackmania.world.PlayerProximityMap spawnProximityMap = new com.stackmania.world.PlayerProximityMap(8); // Stackmania - players within spawning range of a chunk
    int viewDistance;
 
    // CraftBukkit start - recursion-safe executor for Chunk loadCallback() and unloadCallback()
@@ -412,6 +418,7 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
    }
 
    public void close() throws IOException {
+      this.saveQueue.flush(); // Stackmania
       try {
          this.queueSorter.close();
          this.poiManager.close();
@@ -446,7 +453,18 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
          this.processUnloads(() -> {
             return true;
          });
+         this.autosaveQueue.clear(); // Stackmania
+         this.saveQueue.flush(); // Stackmania
          this.flushWorker();
+      // Stackmania start - spread the autosave over the next ticks
+      } else if (com.stackmania.world.ChunkSaveQueue.autosave && com.mohistmc.MohistConfig.autosave_chunks_per_tick > 0) {
+         this.autosaveQueue.clear();
+         for (ChunkHolder chunkholder : this.visibleChunkMap.values()) {
+            if (chunkholder.wasAccessibleSinceLastSave()) {
+               this.autosaveQueue.add(chunkholder);
+            }
+         }
+      // Stackmania end
       } else {
          this.visibleChunkMap.values().forEach(this::saveChunkIfNeeded);
       }
@@ -462,9 +480,38 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
          this.processUnloads(p_140281_);
       }
 
+      // Stackmania start
+      profilerfiller.popPush("autosave");
+      int saved = 0;
+      ChunkHolder autosaved;
+      while (saved < com.mohistmc.MohistConfig.autosave_chunks_per_tick && (autosaved = this.autosaveQueue.poll()) != null) {
+         if (this.saveChunkIfNeeded(autosaved)) {
+            ++saved;
+         }
+      }
+      // Stackmania end
+      profilerfiller.popPush("chunk_send"); // Stackmania
+      this.sendQueuedChunks(); // Stackmania
       profilerfiller.pop();
    }
 
+   // Stackmania start
+   private void sendQueuedChunks() {
+      Long2ObjectMap<MutableObject<ClientboundLevelChunkWithLightPacket>> packets = new Long2ObjectOpenHashMap<>();
+      for (ServerPlayer player : this.level.players()) {
+         // Chunks that stopped being ready are dropped by the queue and queued again once they are
+         LongList chunks = com.stackmania.world.ChunkSendQueue.of(player).poll(player, this.viewDistance, pos -> {
+            ChunkHolder holder = this.getVisibleChunkIfPresent(pos);
+            return holder != null && holder.getTickingChunk() != null;
+         });
+         for (int i = 0; i < chunks.size(); i++) {
+            long pos = chunks.getLong(i);
+            this.playerLoadedChunk(player, packets.computeIfAbsent(pos, k -> new MutableObject<>()), this.getVisibleChunkIfPresent(pos).getTickingChunk());
+         }
+      }
+   }
+   // Stackmania end
+
    public boolean hasWork() {
       return this.lightEngine.hasLightWork() || !this.pendingUnloads.isEmpty() || !this.updatingChunkMap.isEmpty() || this.poiManager.hasWork() || !this.toDrop.isEmpty() || !this.unloadQueue.isEmpty() || this.queueSorter.hasWork() || this.distanceManager.hasTickets();
    }
@@ -571,6 +618,7 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
    }
 
    private CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>> scheduleChunkLoad(ChunkPos p_140418_) {
+      long loadStart = System.nanoTime(); // Stackmania
       return this.readChunk(p_140418_).thenApply((p_214925_) -> {
          return p_214925_.filter((p_214928_) -> {
             boolean flag = isChunkDataValid(p_214928_);
@@ -584,6 +632,7 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
          this.level.getProfiler().incrementCounter("chunkLoad");
          if (p_269770_.isPresent()) {
             ChunkAccess chunkaccess = ChunkSerializer.read(this.level, this.poiManager, p_140418_, p_269770_.get());
+            com.stackmania.metrics.ServerMetrics.onChunkLoad(System.nanoTime() - loadStart); // Stackmania
             this.markPosition(p_140418_, chunkaccess.getStatus().getChunkType());
             return Either.left(chunkaccess);
          } else {
@@ -786,6 +835,12 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
          p_214882_.ifLeft((p_287368_) -> {
             MutableObject<ClientboundLevelChunkWithLightPacket> mutableobject = new MutableObject<>();
             this.getPlayers(p_143054_.getPos(), false).forEach((p_214911_) -> {
+               // Stackmania start - queue for the rate limited sender
+               if (com.mohistmc.MohistConfig.chunk_send_queue) {
+                  com.stackmania.world.ChunkSendQueue.of(p_214911_).add(p_143054_.getPos().toLong());
+                  return;
+               }
+               // Stackmania end
                this.playerLoadedChunk(p_214911_, mutableobject, p_287368_);
             });
          });
@@ -856,9 +911,18 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
             }
 
             this.level.getProfiler().incrementCounter("chunkSave");
-            CompoundTag compoundtag = ChunkSerializer.write(this.level, p_140259_);
+            List<Runnable> deferred = com.mohistmc.MohistConfig.async_chunk_saving ? new ArrayList<>() : null; // Stackmania
+            CompoundTag compoundtag = ChunkSerializer.write(this.level, p_140259_, deferred); // Stackmania
             net.minecraftforge.common.MinecraftForge.EVENT_BUS.post(new net.minecraftforge.event.level.ChunkDataEvent.Save(p_140259_, p_140259_.getWorldForge() != null ? p_140259_.getWorldForge() : this.level, compoundtag));
-            this.write(chunkpos, compoundtag);
+            // Stackmania start - encode block states and write off the main thread
+            if (deferred != null && !deferred.isEmpty()) {
+               this.saveQueue.submit(chunkpos, compoundtag, deferred);
+            } else if (this.saveQueue.getPending(chunkpos) != null) {
+               this.saveQueue.submit(chunkpos, compoundtag, List.of());
+            } else {
+               this.write(chunkpos, compoundtag);
+            }
+            // Stackmania end
             this.markPosition(chunkpos, chunkstatus.getChunkType());
             return true;
          } catch (Exception exception) {
@@ -919,7 +983,13 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
             if (chunkholder != null) {
                LevelChunk levelchunk = chunkholder.getTickingChunk();
                if (levelchunk != null) {
-                  this.playerLoadedChunk(p_183755_, p_183757_, levelchunk);
+                  // Stackmania start - queue for the rate limited sender
+                  if (com.mohistmc.MohistConfig.chunk_send_queue) {
+                     com.stackmania.world.ChunkSendQueue.of(p_183755_).add(p_183756_.toLong());
+                  } else {
+                     this.playerLoadedChunk(p_183755_, p_183757_, levelchunk);
+                  }
+                  // Stackmania end
                }
 
                DebugPackets.sendPoiPacketsForChunk(this.level, p_183756_);
@@ -927,8 +997,12 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
          }
 
          if (!p_183759_ && p_183758_) {
-            p_183755_.untrackChunk(p_183756_);
-            net.minecraftforge.event.ForgeEventFactory.fireChunkUnWatch(p_183755_, p_183756_, this.level);
+            // Stackmania start - a chunk still queued or dropped as not ready was never sent nor watched
+            if (com.stackmania.world.ChunkSendQueue.of(p_183755_).forget(this.level, p_183756_.toLong())) {
+               p_183755_.untrackChunk(p_183756_);
+               net.minecraftforge.event.ForgeEventFactory.fireChunkUnWatch(p_183755_, p_183756_, this.level);
+            }
+            // Stackmania end
          }
 
       }
@@ -946,6 +1020,33 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
       return Iterables.unmodifiableIterable(this.visibleChunkMap.values());
    }
 
+   // Stackmania start
+   void markPendingBroadcast(ChunkHolder holder) {
+      this.pendingBroadcasts.add(holder);
+   }
+
+   /**
+    * Send the block and light changes of every chunk changed since the last call,
+    * instead of visiting every ticking chunk.
+    */
+   void broadcastPendingChanges() {
+      List<ChunkHolder> holders = new ArrayList<>(this.pendingBroadcasts);
+      this.pendingBroadcasts.clear();
+      for (ChunkHolder holder : holders) {
+         LevelChunk chunk = holder.getTickingChunk();
+         if (chunk != null) {
+            holder.pendingBroadcast = false;
+            holder.broadcastChanges(chunk);
+         } else if (this.getVisibleChunkIfPresent(holder.pos.toLong()) == holder) {
+            // Not ticking yet, keep the changes until it can broadcast them
+            this.pendingBroadcasts.add(holder);
+         } else {
+            holder.pendingBroadcast = false;
+         }
+      }
+   }
+   // Stackmania end
+
    void dumpChunks(Writer p_140275_) throws IOException {
       CsvOutput csvoutput = CsvOutput.builder().addColumn("x").addColumn("z").addColumn("level").addColumn("in_memory").addColumn("status").addColumn("full_status").addColumn("accessible_ready").addColumn("ticking_ready").addColumn("entity_ticking_ready").addColumn("ticket").addColumn("spawning").addColumn("block_entity_count").addColumn("ticking_ticket").addColumn("ticking_level").addColumn("block_ticks").addColumn("fluid_ticks").build(p_140275_);
       TickingTracker tickingtracker = this.distanceManager.tickingTracker();
@@ -984,6 +1085,14 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
       }
    }
 
+   // Stackmania start - never read a chunk older than its pending save
+   @Override
+   public CompletableFuture<Optional<CompoundTag>> read(ChunkPos pos) {
+      CompletableFuture<Void> pending = this.saveQueue.getPending(pos);
+      return pending == null ? super.read(pos) : pending.thenCompose(v -> super.read(pos));
+   }
+   // Stackmania end
+
    private CompletableFuture<Optional<CompoundTag>> readChunk(ChunkPos p_214964_) {
       return this.read(p_214964_).thenApplyAsync((p_214907_) -> {
          return p_214907_.map(this::upgradeChunkTag);
@@ -1017,7 +1126,7 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
       if (!this.distanceManager.hasPlayersNearby(i)) {
          return false;
       } else {
-         for(ServerPlayer serverplayer : this.playerMap.getPlayers(i)) {
+         for(ServerPlayer serverplayer : this.spawnProximityMap.getPlayers(i)) { // Stackmania - only players in range
             this.mobSpawnRange.set(blockRange);
             if (this.playerIsCloseEnoughForSpawning(serverplayer, p_183880_)) {
                return true;
@@ -1035,7 +1144,7 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
       } else {
          ImmutableList.Builder<ServerPlayer> builder = ImmutableList.builder();
 
-         for(ServerPlayer serverplayer : this.playerMap.getPlayers(i)) {
+         for(ServerPlayer serverplayer : this.spawnProximityMap.getPlayers(i)) { // Stackmania - only players in range
             if (this.playerIsCloseEnoughForSpawning(serverplayer, p_183889_)) {
                builder.add(serverplayer);
             }
@@ -1073,6 +1182,7 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
       int j = SectionPos.blockToSectionCoord(p_140193_.getBlockZ());
       if (p_140194_) {
          this.playerMap.addPlayer(ChunkPos.asLong(i, j), p_140193_, flag);
+         this.spawnProximityMap.add(p_140193_, ChunkPos.asLong(i, j)); // Stackmania
          this.updatePlayerPos(p_140193_);
          if (!flag) {
             this.distanceManager.addPlayer(SectionPos.of(p_140193_), p_140193_);
@@ -1080,6 +1190,8 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
       } else {
          SectionPos sectionpos = p_140193_.getLastSectionPos();
          this.playerMap.removePlayer(sectionpos.chunk().toLong(), p_140193_);
+         this.spawnProximityMap.remove(p_140193_); // Stackmania
+         com.stackmania.world.ChunkSendQueue.of(p_140193_).clear(); // Stackmania
          if (!flag1) {
             this.distanceManager.removePlayer(sectionpos, p_140193_);
          }
@@ -1141,6 +1253,7 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
 
          if (i != j) {
             this.playerMap.updatePlayer(i, j, p_140185_);
+            this.spawnProximityMap.move(p_140185_, j); // Stackmania
          }
       }
 
@@ -1323,6 +1436,7 @@ public class ChunkMap extends ChunkStorage implements ChunkHolder.PlayerProvider
       }
 
       p_183761_.trackChunk(p_183763_.getPos(), p_183762_.getValue());
+      com.stackmania.world.ChunkSendQueue.of(p_183761_).markSent(this.level, p_183763_.getPos().toLong()); // Stackmania
       DebugPackets.sendPoiPacketsForChunk(this.level, p_183763_.getPos());
       List<Entity> list = Lists.newArrayList();
       List<Entity> list1 = Lists.newArrayList();
@@ -200,6 +200,7 @@ public abstract class DistanceManager {
           SortedArraySet<Ticket<?>> tickets = forcedTickets.get(p_140819_);
           if (tickets != null) {
               tickets.remove(p_140820_);
+              if (tickets.isEmpty()) forcedTickets.remove(p_140819_); // Stackmania - keep the map to chunks that force ticks
           }
       }
       removeTicketCB.set(removed);
@@ -344,6 +345,26 @@ public abstract class DistanceManager {
       return this.naturalSpawnChunkCounter.chunks.containsKey(p_140848_);
    }
 
+   // Stackmania start
+   /**
+    * Chunks that may get random ticks and natural spawning: those within spawning
+    * range of a player, tracked incrementally as players move, and those with a
+    * force ticking ticket. Each chunk is passed once.
+    */
+   public void forEachTickCandidate(java.util.function.LongConsumer action) {
+      this.naturalSpawnChunkCounter.runAllUpdates();
+      LongIterator iterator = this.naturalSpawnChunkCounter.chunks.keySet().iterator();
+      while (iterator.hasNext()) {
+         action.accept(iterator.nextLong());
+      }
+      for (Long2ObjectMap.Entry<SortedArraySet<Ticket<?>>> entry : this.forcedTickets.long2ObjectEntrySet()) {
+         if (!entry.getValue().isEmpty() && !this.naturalSpawnChunkCounter.chunks.containsKey(entry.getLongKey())) {
+            action.accept(entry.getLongKey());
+         }
+      }
+   }
+   // Stackmania end
+
    public String getDebugStatus() {
       return this.ticketThrottler.getDebugStatus();
    }
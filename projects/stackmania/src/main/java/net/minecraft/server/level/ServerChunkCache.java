@@ -222,6 +222,20 @@ public class ServerChunkCache extends ChunkSource {
       return completablefuture;
    }
 
+   // Stackmania start - same as getChunkFuture but never blocks the main thread, so many requests can be in flight at once
+   public CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>> getChunkFutureNonBlocking(int x, int z, ChunkStatus status, boolean load) {
+      if (Thread.currentThread() == this.mainThread) {
+         return this.getChunkFutureMainThread(x, z, status, load);
+      }
+
+      return CompletableFuture.supplyAsync(() -> {
+         return this.getChunkFutureMainThread(x, z, status, load);
+      }, this.mainThreadProcessor).thenCompose((future) -> {
+         return future;
+      });
+   }
+   // Stackmania end
+
    private CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>> getChunkFutureMainThread(int p_8457_, int p_8458_, ChunkStatus p_8459_, boolean p_8460_) {
       ChunkPos chunkpos = new ChunkPos(p_8457_, p_8458_);
       long i = chunkpos.toLong();
@@ -372,12 +386,24 @@ public class ServerChunkCache extends ChunkSource {
          profilerfiller.popPush("filteringLoadedChunks");
          List<ServerChunkCache.ChunkAndHolder> list = Lists.newArrayListWithCapacity(l);
 
-         for(ChunkHolder chunkholder : this.chunkMap.getChunks()) {
-            LevelChunk levelchunk = chunkholder.getTickingChunk();
-            if (levelchunk != null) {
-               list.add(new ServerChunkCache.ChunkAndHolder(levelchunk, chunkholder));
+         // Stackmania start - only visit chunks near a player or force ticked, the others would be skipped below
+         if (com.mohistmc.MohistConfig.incremental_chunk_ticking) {
+            this.distanceManager.forEachTickCandidate(pos -> {
+               ChunkHolder chunkholder = this.getVisibleChunkIfPresent(pos);
+               LevelChunk levelchunk = chunkholder == null ? null : chunkholder.getTickingChunk();
+               if (levelchunk != null) {
+                  list.add(new ServerChunkCache.ChunkAndHolder(levelchunk, chunkholder));
+               }
+            });
+         } else {
+            for(ChunkHolder chunkholder : this.chunkMap.getChunks()) {
+               LevelChunk levelchunk = chunkholder.getTickingChunk();
+               if (levelchunk != null) {
+                  list.add(new ServerChunkCache.ChunkAndHolder(levelchunk, chunkholder));
+               }
             }
          }
+         // Stackmania end
 
          profilerfiller.popPush("spawnAndTick");
          boolean flag2 = this.level.getGameRules().getBoolean(GameRules.RULE_DOMOBSPAWNING) && !level.players().isEmpty(); // CraftBukkit
@@ -385,6 +411,7 @@ public class ServerChunkCache extends ChunkSource {
 
          for(ServerChunkCache.ChunkAndHolder serverchunkcache$chunkandholder : list) {
             LevelChunk levelchunk1 = serverchunkcache$chunkandholder.chunk;
+            com.stackmania.profiler.LagSpikeCatcher.context = levelchunk1; // Stackmania
             ChunkPos chunkpos = levelchunk1.getPos();
             if ((this.level.isNaturalSpawningAllowed(chunkpos) && this.chunkMap.anyPlayerCloseEnoughForSpawning(chunkpos)) || this.distanceManager.shouldForceTicks(chunkpos.toLong())) {
                levelchunk1.incrementInhabitedTime(j);
@@ -397,6 +424,7 @@ public class ServerChunkCache extends ChunkSource {
                }
             }
          }
+         com.stackmania.profiler.LagSpikeCatcher.context = null; // Stackmania
 
          profilerfiller.popPush("customSpawners");
          if (flag2) {
@@ -404,9 +432,7 @@ public class ServerChunkCache extends ChunkSource {
          }
 
          profilerfiller.popPush("broadcast");
-         list.forEach((p_184022_) -> {
-            p_184022_.holder.broadcastChanges(p_184022_.chunk);
-         });
+         this.chunkMap.broadcastPendingChanges(); // Stackmania - only chunks with changes
          profilerfiller.pop();
          profilerfiller.pop();
          this.chunkMap.tick();
@@ -237,6 +237,7 @@ public class ServerLevel extends Level implements WorldGenLevel {
    private final MinecraftServer server;
    public final ServerLevelData serverLevelData;
    final EntityTickList entityTickList = new EntityTickList();
+   public final com.stackmania.metrics.TickTimes.LevelTickTimes tickTimes = com.stackmania.metrics.TickTimes.forLevel(this.dimension()); // Stackmania
    public final PersistentEntitySectionManager<Entity> entityManager;
    private final GameEventDispatcher gameEventDispatcher;
    public boolean noSave;
@@ -447,17 +448,21 @@ public class ServerLevel extends Level implements WorldGenLevel {
       profilerfiller.popPush("tickPending");
       if (!this.isDebug()) {
          long k = this.getGameTime();
+         long phaseStart = Util.getNanos(); // Stackmania
          profilerfiller.push("blockTicks");
          this.blockTicks.tick(k, 65536, this::tickBlock);
          profilerfiller.popPush("fluidTicks");
          this.fluidTicks.tick(k, 65536, this::tickFluid);
          profilerfiller.pop();
+         this.tickTimes.record(com.stackmania.metrics.TickTimes.Phase.SCHEDULED_TICKS, Util.getNanos() - phaseStart); // Stackmania
       }
 
       profilerfiller.popPush("raid");
       this.raids.tick();
       profilerfiller.popPush("chunkSource");
+      long chunkStart = Util.getNanos(); // Stackmania
       this.getChunkSource().tick(p_8794_, true);
+      this.tickTimes.record(com.stackmania.metrics.TickTimes.Phase.CHUNKS, Util.getNanos() - chunkStart); // Stackmania
       profilerfiller.popPush("blockEvents");
       this.runBlockEvents();
       this.handlingTick = false;
@@ -475,6 +480,7 @@ public class ServerLevel extends Level implements WorldGenLevel {
             profilerfiller.pop();
          }
 
+         long entityStart = Util.getNanos(); // Stackmania
          ActivationRange.activateEntities(this); // Spigot
          this.entityTickList.forEach((p_184065_) -> {
             if (p_184065_ == null) return;
@@ -504,8 +510,16 @@ public class ServerLevel extends Level implements WorldGenLevel {
                }
             }
          });
+         // Stackmania start
+         profilerfiller.push("merge");
+         com.stackmania.entity.EntityMerging.mergeQueued(this);
          profilerfiller.pop();
+         // Stackmania end
+         profilerfiller.pop();
+         long blockEntityStart = Util.getNanos(); // Stackmania
+         this.tickTimes.record(com.stackmania.metrics.TickTimes.Phase.ENTITIES, blockEntityStart - entityStart); // Stackmania
          this.tickBlockEntities();
+         this.tickTimes.record(com.stackmania.metrics.TickTimes.Phase.BLOCK_ENTITIES, Util.getNanos() - blockEntityStart); // Stackmania
          spigotConfig.currentPrimedTnt = 0; // Spigot // Mohist move form Level#tickBlockEntities
       }
 
@@ -1085,8 +1099,12 @@ public class ServerLevel extends Level implements WorldGenLevel {
          if (BanEntity.check(p_8873_)) {
             return false;
          }
-         if (!AsyncCatcher.catchAsync() && p_8873_.spawnReason.get() != null && !CraftEventFactory.doEntityAddEventCalling(this, p_8873_, p_8873_.spawnReason.getAndSet(SpawnReason.DEFAULT))) {
-            return false;
+         if (!AsyncCatcher.catchAsync() && p_8873_.spawnReason != null) {
+            SpawnReason spawnReason = p_8873_.spawnReason; // Stackmania - plain field
+            p_8873_.spawnReason = SpawnReason.DEFAULT;
+            if (!CraftEventFactory.doEntityAddEventCalling(this, p_8873_, spawnReason)) {
+               return false;
+            }
          }
          if (this.entityManager.addNewEntity(p_8873_)) {
             p_8873_.onAddedToWorld();
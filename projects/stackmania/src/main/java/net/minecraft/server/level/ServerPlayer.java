@@ -22,7 +22,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nullable;
 import net.minecraft.BlockUtil.FoundRectangle;
 import net.minecraft.ChatFormatting;
@@ -925,10 +924,8 @@ public class ServerPlayer extends Player {
    }
 
    // Mohsit start
-   public AtomicReference<TeleportCause> changeDimensionCause = new AtomicReference<>(TeleportCause.UNKNOWN);
-
    public Entity changeDimensionCB(ServerLevel serverlevel, TeleportCause teleportCause) {
-      changeDimensionCause.set(teleportCause);
+      this.eventContext().setChangeDimensionCause(teleportCause); // Stackmania
       return changeDimension(serverlevel);
    }
 
@@ -952,7 +949,7 @@ public class ServerPlayer extends Player {
          // CraftBukkit - start
          Location enter = this.getBukkitEntity().getLocation();
          exit = (server == null) ? null : new Location(p_9180_.getWorld(), portalinfoBukkit.pos.x, portalinfoBukkit.pos.y, portalinfoBukkit.pos.z, portalinfoBukkit.yRot, portalinfoBukkit.xRot);
-         final PlayerTeleportEvent tpEvent = new PlayerTeleportEvent(this.getBukkitEntity(), enter, exit, changeDimensionCause.getAndSet(TeleportCause.UNKNOWN));
+         final PlayerTeleportEvent tpEvent = new PlayerTeleportEvent(this.getBukkitEntity(), enter, exit, this.peekEventContext() == null ? TeleportCause.UNKNOWN : this.peekEventContext().takeChangeDimensionCause());
          Bukkit.getServer().getPluginManager().callEvent(tpEvent);
          if (tpEvent.isCancelled() || tpEvent.getTo() == null) {
             return null;
@@ -1161,7 +1158,11 @@ public class ServerPlayer extends Player {
          return bedResult; // return immediately if the result is not bypassable by plugins
       }
 
-      if (startSleepInBed_force.getAndSet(false)) {
+      // Stackmania start
+      boolean force = this.startSleepInBed_force;
+      this.startSleepInBed_force = false;
+      // Stackmania end
+      if (force) { // Stackmania
          bedResult = Either.right(Unit.INSTANCE);
       }
 
@@ -1583,8 +1584,6 @@ public class ServerPlayer extends Player {
    }
 
    // Mohist start
-   public AtomicReference<TeleportCause> teleportToS$cause = new AtomicReference<>(TeleportCause.UNKNOWN);
-
    public boolean teleportTo(ServerLevel p_265564_, double p_265424_, double p_265680_, double p_265312_, Set<RelativeMovement> p_265192_, float p_265059_, float p_265266_) {
       ChunkPos chunkpos = new ChunkPos(BlockPos.containing(p_265424_, p_265680_, p_265312_));
       p_265564_.getChunkSource().addRegionTicket(TicketType.POST_TELEPORT, chunkpos, 1, this.getId());
@@ -1593,11 +1592,12 @@ public class ServerPlayer extends Player {
          this.stopSleepInBed(true, true);
       }
 
+      TeleportCause cause = this.peekEventContext() == null ? TeleportCause.UNKNOWN : this.peekEventContext().takeTeleportCause(); // Stackmania
       if (p_265564_ == this.level()) {
-         this.connection.teleport$cause(teleportToS$cause.getAndSet(TeleportCause.UNKNOWN));
+         this.connection.teleport$cause(cause);
          this.connection.teleport(p_265424_, p_265680_, p_265312_, p_265059_, p_265266_, p_265192_);
       } else {
-         this.teleportTo$cause.set(teleportToS$cause.getAndSet(TeleportCause.UNKNOWN));
+         this.eventContext().setLevelTeleportCause(cause);
          this.teleportTo(p_265564_, p_265424_, p_265680_, p_265312_, p_265059_, p_265266_);
       }
 
@@ -1606,7 +1606,7 @@ public class ServerPlayer extends Player {
    }
 
    public boolean teleportTo(ServerLevel pLevel, double pX, double pY, double pZ, Set<RelativeMovement> pRelativeMovements, float pYRot, float pXRot, TeleportCause cause) {
-      teleportToS$cause.set(cause);
+      this.eventContext().setTeleportCause(cause); // Stackmania
       return teleportTo(pLevel, pX, pY, pZ, pRelativeMovements, pYRot, pXRot);
    }
    // Mohist end
@@ -1841,12 +1841,11 @@ public class ServerPlayer extends Player {
    }
 
    // Mohist start
-   public AtomicReference<TeleportCause> teleportTo$cause = new AtomicReference<>(TeleportCause.UNKNOWN);
    // CraftBukkit start
    public void teleportTo(ServerLevel p_9000_, double p_9001_, double p_9002_, double p_9003_, float p_9004_, float p_9005_) {
       this.setCamera(this);
       this.stopRiding();
-      TeleportCause teleportCause = teleportTo$cause.getAndSet(TeleportCause.UNKNOWN);
+      TeleportCause teleportCause = this.peekEventContext() == null ? TeleportCause.UNKNOWN : this.peekEventContext().takeLevelTeleportCause(); // Stackmania
       if (teleportCause != TeleportCause.UNKNOWN) {
          this.getBukkitEntity().teleport(new Location(p_9000_.getWorld(), p_9001_, p_9002_, p_9003_, p_9004_, p_9005_), teleportCause);
          return;
@@ -1882,7 +1881,7 @@ public class ServerPlayer extends Player {
    }
 
    public void teleportTo(ServerLevel pNewLevel, double pX, double pY, double pZ, float pYaw, float pPitch, TeleportCause cause) {
-      teleportTo$cause.set(cause);
+      this.eventContext().setLevelTeleportCause(cause); // Stackmania
       teleportTo(pNewLevel, pX, pY, pZ, pYaw, pPitch);
    }
    // Mohist end
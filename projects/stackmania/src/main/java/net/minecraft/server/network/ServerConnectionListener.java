@@ -3,6 +3,10 @@ package net.minecraft.server.network;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.mojang.logging.LogUtils;
+import com.stackmania.network.ConnectionMetricsHandler;
+import com.stackmania.network.NettyTransport;
+import com.stackmania.network.NetworkMetrics;
+import com.stackmania.network.NetworkSettings;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelException;
@@ -12,15 +16,13 @@ import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.epoll.Epoll;
 import io.netty.channel.epoll.EpollEventLoopGroup;
-import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.local.LocalAddress;
 import io.netty.channel.local.LocalServerChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.ServerSocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.util.HashedWheelTimer;
 import io.netty.util.Timeout;
@@ -58,6 +60,7 @@ public class ServerConnectionListener {
    public volatile boolean running;
    private final List<ChannelFuture> channels = Collections.synchronizedList(Lists.newArrayList());
    final List<Connection> connections = Collections.synchronizedList(Lists.newArrayList());
+   private EventLoopGroup transportGroup; // Stackmania
 
    public ServerConnectionListener(MinecraftServer p_9707_) {
       this.server = p_9707_;
@@ -68,25 +71,35 @@ public class ServerConnectionListener {
       if (p_9712_ == null) p_9712_ = new java.net.InetSocketAddress(p_9713_).getAddress();
       net.minecraftforge.network.DualStackUtils.checkIPv6(p_9712_);
       synchronized(this.channels) {
-         Class<? extends ServerSocketChannel> oclass;
-         LazyLoadedValue<? extends EventLoopGroup> lazyloadedvalue;
-         if (Epoll.isAvailable() && this.server.isEpollEnabled()) {
-            oclass = EpollServerSocketChannel.class;
-            lazyloadedvalue = SERVER_EPOLL_EVENT_GROUP;
-            LOGGER.info("Using epoll channel type");
-         } else {
-            oclass = NioServerSocketChannel.class;
-            lazyloadedvalue = SERVER_EVENT_GROUP;
-            LOGGER.info("Using default channel type");
+         // Stackmania start - configurable transport, socket options and metrics
+         NetworkSettings settings = NetworkSettings.bind(com.mohistmc.MohistConfig.yml);
+         NettyTransport transport = NettyTransport.resolve(settings.transport(), this.server.isEpollEnabled());
+         Class<? extends ServerSocketChannel> oclass = transport.serverChannelClass();
+         EventLoopGroup eventloopgroup = this.getTransportGroup(transport, settings.ioThreads());
+         LOGGER.info("Using {} channel type with {} IO threads", transport, settings.ioThreads() > 0 ? settings.ioThreads() : "default");
+
+         ServerBootstrap serverbootstrap = new ServerBootstrap();
+         serverbootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(settings.writeBufferLowWaterMark(), settings.writeBufferHighWaterMark()));
+         if (settings.sendBufferSize() > 0) {
+            serverbootstrap.childOption(ChannelOption.SO_SNDBUF, settings.sendBufferSize());
+         }
+         if (settings.receiveBufferSize() > 0) {
+            serverbootstrap.childOption(ChannelOption.SO_RCVBUF, settings.receiveBufferSize());
          }
+         // Stackmania end
 
-         this.channels.add((new ServerBootstrap()).channel(oclass).childHandler(new ChannelInitializer<Channel>() {
+         this.channels.add(serverbootstrap.channel(oclass).childHandler(new ChannelInitializer<Channel>() {
             protected void initChannel(Channel p_9729_) {
                try {
-                  p_9729_.config().setOption(ChannelOption.TCP_NODELAY, true);
+                  p_9729_.config().setOption(ChannelOption.TCP_NODELAY, settings.tcpNoDelay()); // Stackmania
                } catch (ChannelException channelexception) {
                }
 
+               // Stackmania start - per-connection backpressure metrics, kept closest to the socket
+               if (settings.metrics()) {
+                  p_9729_.pipeline().addFirst(ConnectionMetricsHandler.NAME, new ConnectionMetricsHandler());
+               }
+               // Stackmania end
                ChannelPipeline channelpipeline = p_9729_.pipeline().addLast("timeout", new ReadTimeoutHandler(READ_TIMEOUT)).addLast("legacy_query", new LegacyQueryHandler(ServerConnectionListener.this));
                Connection.configureSerialization(channelpipeline, PacketFlow.SERVERBOUND);
                int i = ServerConnectionListener.this.server.getRateLimitPacketsPerSecond();
@@ -95,9 +108,26 @@ public class ServerConnectionListener {
                channelpipeline.addLast("packet_handler", connection);
                connection.setListener(new ServerHandshakePacketListenerImpl(ServerConnectionListener.this.server, connection));
             }
-         }).group(lazyloadedvalue.get()).localAddress(p_9712_, p_9713_).option(ChannelOption.AUTO_READ, false).bind().syncUninterruptibly()); // CraftBukkit
+         }).group(eventloopgroup).localAddress(p_9712_, p_9713_).option(ChannelOption.AUTO_READ, false).bind().syncUninterruptibly()); // CraftBukkit
+      }
+   }
+
+   // Stackmania start
+   private EventLoopGroup getTransportGroup(NettyTransport transport, int ioThreads) {
+      if (this.transportGroup == null) {
+         if (transport == NettyTransport.NIO && ioThreads <= 0) {
+            this.transportGroup = SERVER_EVENT_GROUP.get();
+         } else if (transport == NettyTransport.EPOLL && ioThreads <= 0) {
+            this.transportGroup = SERVER_EPOLL_EVENT_GROUP.get();
+         } else {
+            this.transportGroup = transport.newEventLoopGroup(ioThreads, (new ThreadFactoryBuilder()).setNameFormat(transport.getThreadNameFormat()).setDaemon(true).setThreadFactory(net.minecraftforge.fml.util.thread.SidedThreadGroups.SERVER).build());
+         }
+         NetworkMetrics.setTransport(transport, this.transportGroup instanceof io.netty.util.concurrent.MultithreadEventExecutorGroup group ? group.executorCount() : ioThreads);
       }
+
+      return this.transportGroup;
    }
+   // Stackmania end
 
    public SocketAddress startMemoryChannel() {
       ChannelFuture channelfuture;
@@ -57,7 +57,7 @@ public class MobEffect implements net.minecraftforge.common.extensions.IForgeMob
    public void applyEffectTick(LivingEntity p_19467_, int p_19468_) {
       if (this == MobEffects.REGENERATION) {
          if (p_19467_.getHealth() < p_19467_.getMaxHealth()) {
-            p_19467_.regainReason0.set(RegainReason.MAGIC_REGEN); // Mohist
+            p_19467_.pushHealReason(RegainReason.MAGIC_REGEN); // Mohist
             p_19467_.heal(1.0F);
          }
       } else if (this == MobEffects.POISON) {
@@ -87,7 +87,7 @@ public class MobEffect implements net.minecraftforge.common.extensions.IForgeMob
             p_19467_.hurt(p_19467_.damageSources().magic(), (float)(6 << p_19468_));
          }
       } else {
-         p_19467_.regainReason0.set(RegainReason.MAGIC); // Mohist
+         p_19467_.pushHealReason(RegainReason.MAGIC); // Mohist
          p_19467_.heal((float)Math.max(4 << p_19468_, 0));
       }
 
@@ -107,7 +107,7 @@ public class MobEffect implements net.minecraftforge.common.extensions.IForgeMob
          }
       } else {
          int i = (int)(p_19466_ * (double)(4 << p_19465_) + 0.5D);
-         p_19464_.regainReason0.set(RegainReason.MAGIC); // Mohist
+         p_19464_.pushHealReason(RegainReason.MAGIC); // Mohist
          p_19464_.heal((float)i);
       }
 
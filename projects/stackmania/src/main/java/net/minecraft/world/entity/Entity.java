@@ -7,6 +7,7 @@ import com.google.common.collect.Sets;
 import com.mohistmc.MohistConfig;
 import com.mohistmc.plugins.ban.bans.BanEntity;
 import com.mojang.logging.LogUtils;
+import com.stackmania.entity.EntityEventContext;
 import it.unimi.dsi.fastutil.objects.Object2DoubleArrayMap;
 import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
 import java.util.Arrays;
@@ -17,9 +18,7 @@ import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -290,11 +289,28 @@ public abstract class Entity extends net.minecraftforge.common.capabilities.Capa
    public void inactiveTick() { }
    // Spigot end
 
-   public AtomicReference<CreatureSpawnEvent.SpawnReason> spawnReason = new AtomicReference<>(CreatureSpawnEvent.SpawnReason.DEFAULT);
+   public CreatureSpawnEvent.SpawnReason spawnReason = CreatureSpawnEvent.SpawnReason.DEFAULT; // Stackmania - plain field, only touched by the owning thread
 
    public void spawnReason(CreatureSpawnEvent.SpawnReason spawnReason) {
-      this.spawnReason.set(spawnReason);
+      this.spawnReason = spawnReason;
    }
+
+   // Stackmania start - allocated by the first overload passing a Bukkit event argument
+   @Nullable
+   private EntityEventContext stackmania$eventContext;
+
+   public EntityEventContext eventContext() {
+      if (this.stackmania$eventContext == null) {
+         this.stackmania$eventContext = new EntityEventContext();
+      }
+      return this.stackmania$eventContext;
+   }
+
+   @Nullable
+   public EntityEventContext peekEventContext() {
+      return this.stackmania$eventContext;
+   }
+   // Stackmania end
    public float getBukkitYaw() {
       return this.yRot;
    }
@@ -697,11 +713,11 @@ public abstract class Entity extends net.minecraftforge.common.capabilities.Capa
             this.level.getCraftServer().getPluginManager().callEvent(combustEvent);
 
             if (!combustEvent.isCancelled()) {
-               callEvent.set(false);
+               callEvent = false;
                this.setSecondsOnFire(combustEvent.getDuration());
             }
          } else {
-            callEvent.set(false);
+            callEvent = false;
             // This will be called every single tick the entity is in lava, so don't throw an event
             this.setSecondsOnFire(15);
          }
@@ -715,7 +731,9 @@ public abstract class Entity extends net.minecraftforge.common.capabilities.Capa
    }
 
    public void setSecondsOnFire(int p_20255_) {
-      if (this.callEvent.getAndSet(true)) {
+      boolean callEvent = this.callEvent;
+      this.callEvent = true;
+      if (callEvent) {
          EntityCombustEvent event = new EntityCombustEvent(this.getBukkitEntity(), p_20255_);
          this.level.getCraftServer().getPluginManager().callEvent(event);
 
@@ -738,9 +756,9 @@ public abstract class Entity extends net.minecraftforge.common.capabilities.Capa
    }
 
    // Mohist start
-   public AtomicBoolean callEvent = new AtomicBoolean(true);
+   public boolean callEvent = true; // Stackmania - plain field
    public void setSecondsOnFire(int i, boolean callEvent) {
-      this.callEvent.set(callEvent);
+      this.callEvent = callEvent;
       setSecondsOnFire(i);
    }
    // Mohist end
@@ -2739,7 +2757,7 @@ public abstract class Entity extends net.minecraftforge.common.capabilities.Capa
          EntityCombustByEntityEvent entityCombustEvent = new EntityCombustByEntityEvent(stormBukkitEntity, thisBukkitEntity, 8);
          pluginManager.callEvent(entityCombustEvent);
          if (!entityCombustEvent.isCancelled()) {
-            this.callEvent.set(false);
+            this.callEvent = false;
             this.setSecondsOnFire(entityCombustEvent.getDuration());
          }
          // CraftBukkit end
@@ -2918,11 +2936,9 @@ public abstract class Entity extends net.minecraftforge.common.capabilities.Capa
       return changeDimension(p_20118_, p_20118_.getPortalForcer());
    }
 
-   private AtomicReference<PositionImpl> mohist$postion = new AtomicReference<>();
-
    @Nullable
    public Entity teleportTo(ServerLevel pDestination, PositionImpl location) {
-      mohist$postion.set(location);
+      this.eventContext().setTeleportPosition(location); // Stackmania
       return this.changeDimension(pDestination);
    }
 
@@ -2938,7 +2954,8 @@ public abstract class Entity extends net.minecraftforge.common.capabilities.Capa
          }
          // CraftBukkit end
          this.level.getProfiler().push("reposition");
-         PositionImpl location = mohist$postion.get();
+         EntityEventContext eventContext = this.peekEventContext(); // Stackmania
+         PositionImpl location = eventContext == null ? null : eventContext.takeTeleportPosition();
          PortalInfo portalinfo = (location == null) ? teleporter.getPortalInfo(this, p_20118_, this::findDimensionEntryPoint) : new PortalInfo(new Vec3(location.x(), location.y(), location.z()), Vec3.ZERO, this.yRot, this.xRot);
          if (portalinfo == null) {
             return null;
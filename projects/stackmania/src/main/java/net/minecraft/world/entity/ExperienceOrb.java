@@ -189,7 +189,7 @@ public class ExperienceOrb extends Entity {
          this.followingPlayer = this.level().getNearestPlayer(this, 8.0D);
       }
 
-      if (this.level() instanceof ServerLevel) {
+      if (this.level() instanceof ServerLevel && !com.stackmania.entity.EntityMerging.queue(this)) { // Stackmania - merged per section after the entity tick
          for(ExperienceOrb experienceorb : this.level().getEntities(EntityTypeTest.forClass(ExperienceOrb.class), this.getBoundingBox().inflate(0.5D), this::canMerge)) {
             this.merge(experienceorb);
          }
@@ -224,7 +224,7 @@ public class ExperienceOrb extends Entity {
       }
    }
 
-   private boolean canMerge(ExperienceOrb p_147087_) {
+   public boolean canMerge(ExperienceOrb p_147087_) { // Stackmania - private -> public
       return p_147087_ != this && canMerge(p_147087_, this.getId(), this.value);
    }
 
@@ -232,7 +232,7 @@ public class ExperienceOrb extends Entity {
       return !p_147089_.isRemoved() && (p_147089_.getId() - p_147090_) % 40 == 0 && p_147089_.value == p_147091_;
    }
 
-   private void merge(ExperienceOrb p_147101_) {
+   public void merge(ExperienceOrb p_147101_) { // Stackmania - private -> public
       this.count += p_147101_.count;
       this.age = Math.min(this.age, p_147101_.age);
       p_147101_.discard();
@@ -6,13 +6,14 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.util.concurrent.AtomicDouble;
 import com.mohistmc.optimizations.EmeraldClose;
 import com.mohistmc.plugins.ban.bans.BanItem;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.logging.LogUtils;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.Dynamic;
+import com.stackmania.entity.EntityEventContext;
+import com.stackmania.entity.MobEffectMap;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -24,9 +25,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import javax.annotation.Nullable;
@@ -190,7 +188,7 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
    private static final int MAX_HEAD_ROTATION_RELATIVE_TO_BODY = 50;
    private final AttributeMap attributes;
    public CombatTracker combatTracker = new CombatTracker(this);
-   public final Map<MobEffect, MobEffectInstance> activeEffects = new ConcurrentHashMap<>(); // Mohist
+   public final Map<MobEffect, MobEffectInstance> activeEffects = new MobEffectMap(this); // Stackmania - compact, copy on write
    private final NonNullList<ItemStack> lastHandItemStacks = NonNullList.withSize(2, ItemStack.EMPTY);
    private final NonNullList<ItemStack> lastArmorItemStacks = NonNullList.withSize(4, ItemStack.EMPTY);
    public boolean swinging;
@@ -283,8 +281,6 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
    }
    // Spigot end
    // Mohist start
-   public AtomicInteger invulnerableDurationAtom = new AtomicInteger(20);
-
    protected LivingEntity(EntityType<? extends LivingEntity> p_20966_, Level p_20967_) {
       super(p_20966_, p_20967_);
       this.attributes = new AttributeMap(DefaultAttributes.getSupplier(p_20966_));
@@ -709,13 +705,12 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
    }
 
    // Mohist start
-   public AtomicBoolean silent0 = new AtomicBoolean(false);
    public void onEquipItem(EquipmentSlot p_238393_, ItemStack p_238394_, ItemStack p_238395_) {
       boolean flag = p_238395_.isEmpty() && p_238394_.isEmpty();
       if (!flag && !ItemStack.isSameItemSameTags(p_238394_, p_238395_) && !this.firstTick) {
          Equipable equipable = Equipable.get(p_238395_);
          if (equipable != null && !this.isSpectator() && equipable.getEquipmentSlot() == p_238393_) {
-            if (!this.level().isClientSide() && !this.isSilent() && !silent0.getAndSet(false)) {
+            if (!this.level().isClientSide() && !this.isSilent() && !this.takeSilentEquip()) { // Stackmania
                this.level().playSound((Player)null, this.getX(), this.getY(), this.getZ(), equipable.getEquipSound(), this.getSoundSource(), 1.0F, 1.0F);
             }
 
@@ -730,7 +725,7 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
    // CraftBukkit start
    // Mohist start
    public void onEquipItem(EquipmentSlot pSlot, ItemStack pOldItem, ItemStack pNewItem, boolean silent) {
-      silent0.set(silent);
+      this.setSilentEquip(silent);
       onEquipItem(pSlot, pOldItem, pNewItem);
    }
    // CraftBukkit end
@@ -1005,7 +1000,6 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
    }
 
    //Mohist start
-   public AtomicReference<EntityPotionEffectEvent.Cause> removeAllEffectsCause = new AtomicReference<>(EntityPotionEffectEvent.Cause.UNKNOWN);
    public boolean removeAllEffects() {
       if (this.level().isClientSide) {
          return false;
@@ -1019,7 +1013,7 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
             try {
                if (net.minecraftforge.common.MinecraftForge.EVENT_BUS.post(new net.minecraftforge.event.entity.living.MobEffectEvent.Remove(this, effect)))
                   continue;
-               EntityPotionEffectEvent event = CraftEventFactory.callEntityPotionEffectChangeEvent(this, effect, null, removeAllEffectsCause.getAndSet(EntityPotionEffectEvent.Cause.UNKNOWN), EntityPotionEffectEvent.Action.CLEARED);
+               EntityPotionEffectEvent event = CraftEventFactory.callEntityPotionEffectChangeEvent(this, effect, null, this.takeRemoveAllEffectsCause(), EntityPotionEffectEvent.Action.CLEARED);
                if (event.isCancelled()) {
                   continue;
                }
@@ -1035,7 +1029,7 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
    }
 
    public boolean removeAllEffects(EntityPotionEffectEvent.Cause cause) {
-      removeAllEffectsCause.set(cause);
+      this.eventContext().setRemoveAllEffectsCause(cause);
       return removeAllEffects();
    }
    // Mohist end
@@ -1048,6 +1042,12 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
       return this.activeEffects;
    }
 
+   // Stackmania start - for plugins reading effects off the server thread
+   public Map<MobEffect, MobEffectInstance> getActiveEffectsSnapshot() {
+      return ((MobEffectMap) this.activeEffects).snapshot();
+   }
+   // Stackmania end
+
    public boolean hasEffect(MobEffect p_21024_) {
       return this.activeEffects.containsKey(p_21024_);
    }
@@ -1151,11 +1151,10 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
    }
 
    // Mohist start
-   public AtomicReference<EntityPotionEffectEvent.Cause> removeEffectNoUpdateCause = new AtomicReference<>(EntityPotionEffectEvent.Cause.UNKNOWN);
    @Nullable
    public MobEffectInstance removeEffectNoUpdate(@Nullable MobEffect p_21164_) {
       if (isTickingEffects) {
-         effectsToProcess.add(new ProcessableEffect(p_21164_, removeEffectNoUpdateCause.getAndSet(EntityPotionEffectEvent.Cause.UNKNOWN)));
+         effectsToProcess.add(new ProcessableEffect(p_21164_, this.takeRemoveEffectCause()));
          return null;
       }
 
@@ -1164,7 +1163,7 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
          return null;
       }
 
-      EntityPotionEffectEvent event = CraftEventFactory.callEntityPotionEffectChangeEvent(this, effect, null, removeEffectNoUpdateCause.getAndSet(EntityPotionEffectEvent.Cause.UNKNOWN));
+      EntityPotionEffectEvent event = CraftEventFactory.callEntityPotionEffectChangeEvent(this, effect, null, this.takeRemoveEffectCause());
       if (event.isCancelled()) {
          return null;
       }
@@ -1173,7 +1172,7 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
 
    @Nullable
    public MobEffectInstance c(@Nullable MobEffect pEffect, EntityPotionEffectEvent.Cause cause) {
-      removeEffectNoUpdateCause.set(cause);
+      this.eventContext().setRemoveEffectCause(cause);
       return removeEffectNoUpdate(pEffect);
    }
 
@@ -1189,7 +1188,7 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
    }
 
    public boolean removeEffect(MobEffect pEffect, EntityPotionEffectEvent.Cause cause) {
-      removeEffectNoUpdateCause.set(cause);
+      this.eventContext().setRemoveEffectCause(cause);
       return removeEffect(pEffect);
    }
    // Mohist end
@@ -1241,10 +1240,8 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
 
    }
 
-   public AtomicReference<RegainReason> regainReason0 = new AtomicReference<>(RegainReason.CUSTOM);
-
    public void pushHealReason(EntityRegainHealthEvent.RegainReason regainReason) {
-      this.regainReason0.set(regainReason);
+      this.eventContext().setRegainReason(regainReason); // Stackmania
    }
 
    public void heal(float p_21116_) {
@@ -1252,7 +1249,7 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
       if (p_21116_ <= 0) return;
       float f = this.getHealth();
       if (f > 0.0F) {
-         EntityRegainHealthEvent event = new EntityRegainHealthEvent(this.getBukkitEntity(), p_21116_, regainReason0.getAndSet(RegainReason.CUSTOM));
+         EntityRegainHealthEvent event = new EntityRegainHealthEvent(this.getBukkitEntity(), p_21116_, this.takeRegainReason());
          // Suppress during worldgen
          if (this.valid) {
             this.level.getCraftServer().getPluginManager().callEvent(event);
@@ -1266,7 +1263,7 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
    }
 
    public void heal(float pHealAmount, EntityRegainHealthEvent.RegainReason regainReason) {
-      this.regainReason0.set(regainReason);
+      this.pushHealReason(regainReason);
       this.heal(pHealAmount);
    }
 
@@ -1277,9 +1274,9 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
       return this.entityData.get(DATA_HEALTH_ID);
    }
 
-   public AtomicBoolean fake$setHealth = new AtomicBoolean(false);
+   public boolean fake$setHealth = false; // Stackmania - plain field
    public void fake$setHealth(boolean fake) {
-      fake$setHealth.set(fake);
+      this.fake$setHealth = fake;
    }
    public void setHealth(float p_21154_) {
       // Paper start - Check for NaN
@@ -1287,7 +1284,9 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
           System.err.println("[NAN-HEALTH] " + getScoreboardName() + " had NaN health set");
       } } // Paper end - Check for NaN
       // CraftBukkit start - Handle scaled health
-      if (this instanceof ServerPlayer serverPlayer && !fake$setHealth.getAndSet(false) && serverPlayer.initialized) {
+      boolean fakeSetHealth = this.fake$setHealth; // Stackmania
+      this.fake$setHealth = false;
+      if (this instanceof ServerPlayer serverPlayer && !fakeSetHealth && serverPlayer.initialized) {
          org.bukkit.craftbukkit.v1_20_R1.entity.CraftPlayer player = serverPlayer.getBukkitEntity();
          // Squeeze
          if (p_21154_ < 0.0F) {
@@ -1377,7 +1376,7 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
             // CraftBukkit end
 
             this.lastHurt = p_21017_;
-            if (this.invulnerableDuration == invulnerableDurationAtom.get()) {
+            if (this.invulnerableDuration == 20) { // Stackmania - was an AtomicInteger that was never changed
                this.invulnerableTime = 20; // CraftBukkit - restore use of maxNoDamageTicks
             } else {
                this.invulnerableTime = this.invulnerableDuration;
@@ -1521,8 +1520,7 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
             }
 
             this.setHealth(1.0F);
-            removeAllEffectsCause.set(EntityPotionEffectEvent.Cause.TOTEM);
-            this.removeAllEffects();
+            this.removeAllEffects(EntityPotionEffectEvent.Cause.TOTEM);
             addEffectCause.set(EntityPotionEffectEvent.Cause.TOTEM);
             this.addEffect(new MobEffectInstance(MobEffects.REGENERATION, 900, 1));
             addEffectCause.set(EntityPotionEffectEvent.Cause.TOTEM);
@@ -1905,10 +1903,10 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
    }
 
    // Mohist start
-   protected AtomicBoolean apoli_mixin = new AtomicBoolean(false);
+   protected boolean apoli_mixin = false; // Stackmania - plain field
    protected float getDamageAfterArmorAbsorb(DamageSource p_21162_, float p_21163_) {
       if (!p_21162_.is(DamageTypeTags.BYPASSES_ARMOR)) {
-         apoli_mixin.set(true);
+         apoli_mixin = true;
          this.hurtArmor(p_21162_, p_21163_); // Mohist
          p_21163_ = CombatRules.getDamageAfterAbsorb(p_21163_, (float)this.getArmorValue(), (float)this.getAttributeValue(Attributes.ARMOR_TOUGHNESS));
       }
@@ -1956,9 +1954,11 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
 
    protected void actuallyHurt(DamageSource p_21240_, float p_21241_) {
       if (injectedHurt) {
-         canDamage.set(damageEntity0(p_21240_, p_21241_));
-         if (damage.get() != -999) {
-            this.setHealth(this.getHealth() - (float) damage.getAndSet(-999));
+         canDamage = damageEntity0(p_21240_, p_21241_);
+         if (damage != -999) {
+            float amount = (float) damage;
+            damage = -999;
+            this.setHealth(this.getHealth() - amount);
          }
       } else {
          if (!this.isInvulnerableTo(p_21240_)) {
@@ -1989,11 +1989,46 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
    }
 
    protected boolean injectedHurt = true;
-   public AtomicBoolean canDamage = new AtomicBoolean(false);
-   public AtomicDouble damage = new AtomicDouble(-999);
+   // Stackmania start - plain fields, only touched by the thread ticking the entity
+   public boolean canDamage = false;
+   public double damage = -999;
    public boolean canDamage() {
-      return canDamage.getAndSet(false);
+      boolean canDamage = this.canDamage;
+      this.canDamage = false;
+      return canDamage;
+   }
+
+   protected void setSilentEquip(boolean silent) {
+      if (silent || this.peekEventContext() != null) {
+         this.eventContext().setSilentEquip(silent);
+      }
+   }
+
+   private boolean takeSilentEquip() {
+      EntityEventContext context = this.peekEventContext();
+      return context != null && context.takeSilentEquip();
    }
+
+   private EntityPotionEffectEvent.Cause takeRemoveAllEffectsCause() {
+      EntityEventContext context = this.peekEventContext();
+      return context == null ? EntityPotionEffectEvent.Cause.UNKNOWN : context.takeRemoveAllEffectsCause();
+   }
+
+   private EntityPotionEffectEvent.Cause takeRemoveEffectCause() {
+      EntityEventContext context = this.peekEventContext();
+      return context == null ? EntityPotionEffectEvent.Cause.UNKNOWN : context.takeRemoveEffectCause();
+   }
+
+   private RegainReason takeRegainReason() {
+      EntityEventContext context = this.peekEventContext();
+      return context == null ? RegainReason.CUSTOM : context.takeRegainReason();
+   }
+
+   private PlayerTeleportEvent.TeleportCause takeRandomTeleportCause() {
+      EntityEventContext context = this.peekEventContext();
+      return context == null ? PlayerTeleportEvent.TeleportCause.UNKNOWN : context.takeRandomTeleportCause();
+   }
+   // Stackmania end
    // Mohist end
 
    // CraftBukkit start
@@ -2004,7 +2039,7 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
          p_21241_ = ForgeHooks.onLivingHurt(this, p_21240_, p_21241_);
          // If the damage is negative return true
          if (p_21241_ < 0) {
-            canDamage.set(true);
+            canDamage = true;
             return true;
          }
          final float originalDamage = p_21241_;
@@ -2102,7 +2137,7 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
             ((Player) p_21240_.getEntity()).resetAttackStrengthTicker(); // Moved from Player in order to make the cooldown reset get called after the damage event is fired
          }
          if (event.isCancelled()) {
-            this.canDamage.set(false);
+            this.canDamage = false;
             return false;
          }
 
@@ -2168,14 +2203,14 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
             // CraftBukkit end
             this.getCombatTracker().recordDamage(p_21240_, p_21241_);
             // Mohist start
-            this.damage.set(p_21241_);
+            this.damage = p_21241_;
             // Mohist end
             // CraftBukkit start
             if (!human) {
                this.setAbsorptionAmount(this.getAbsorptionAmount() - p_21241_);
             }
             this.gameEvent(GameEvent.ENTITY_DAMAGE, p_21240_.getEntity());
-            this.canDamage.set(true);
+            this.canDamage = true;
             return true;
          } else {
             // Duplicate triggers if blocking
@@ -2190,17 +2225,17 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
                if (p_21240_.getEntity() instanceof ServerPlayer serverPlayer) {
                   CriteriaTriggers.PLAYER_HURT_ENTITY.trigger(serverPlayer, this, p_21240_, p_21241_, originalDamage, true);
                }
-               this.canDamage.set(false);
+               this.canDamage = false;
                return false;
             } else {
                boolean eo = originalDamage > 0;
-               this.canDamage.set(eo);
+               this.canDamage = eo;
                return eo;
             }
             // CraftBukkit end
          }
       }
-      this.canDamage.set(false);
+      this.canDamage = false;
       return false;
    }
 
@@ -3776,8 +3811,6 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
       return this.fallFlyTicks;
    }
 
-   public AtomicReference<PlayerTeleportEvent.TeleportCause> randomTeleportCause = new AtomicReference<>(PlayerTeleportEvent.TeleportCause.UNKNOWN);
-
    public boolean randomTeleport(double p_20985_, double p_20986_, double p_20987_, boolean p_20988_) {
       double d0 = this.getX();
       double d1 = this.getY();
@@ -3821,7 +3854,7 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
                   }
                } else {
                   // player teleport event is called in the underlining code
-                  if (((ServerPlayer) this).connection.teleport(p_20985_, d3, p_20987_, this.getYRot(), this.getXRot(), java.util.Collections.emptySet(), randomTeleportCause.getAndSet(PlayerTeleportEvent.TeleportCause.UNKNOWN))) {
+                  if (((ServerPlayer) this).connection.teleport(p_20985_, d3, p_20987_, this.getYRot(), this.getXRot(), java.util.Collections.emptySet(), this.takeRandomTeleportCause())) {
                      return false;
                   }
                }
@@ -3846,7 +3879,7 @@ public abstract class LivingEntity extends Entity implements Attackable, net.min
    }
 
    public Optional<Boolean> randomTeleport(double pX, double pY, double pZ, boolean pBroadcastTeleport, org.bukkit.event.player.PlayerTeleportEvent.TeleportCause cause) {
-      randomTeleportCause.set(cause);
+      this.eventContext().setRandomTeleportCause(cause);
       boolean v = randomTeleport(pX, pY, pZ, pBroadcastTeleport);
       return Optional.of(v);
    }
@@ -5,7 +5,6 @@ import java.util.Arrays;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import javax.annotation.Nullable;
 import net.minecraft.core.BlockPos;
@@ -1323,7 +1322,7 @@ public abstract class Mob extends LivingEntity implements Targeting {
             }
 
             // CraftBukkit start
-            if (CraftEventFactory.callEntityTransformEvent(this, t, this.transformReason.getAndSet(EntityTransformEvent.TransformReason.UNKNOWN)).isCancelled()) {
+            if (CraftEventFactory.callEntityTransformEvent(this, t, this.peekEventContext() == null ? EntityTransformEvent.TransformReason.UNKNOWN : this.peekEventContext().takeTransformReason()).isCancelled()) {
                return null;
             }
             this.level().addFreshEntity(t);
@@ -1341,9 +1340,8 @@ public abstract class Mob extends LivingEntity implements Targeting {
    }
 
    // Mohist start
-   public AtomicReference<EntityTransformEvent.TransformReason> transformReason = new AtomicReference<>(EntityTransformEvent.TransformReason.UNKNOWN);
    public void transformReasonAndspawnReason(EntityTransformEvent.TransformReason transformReason, CreatureSpawnEvent.SpawnReason spawnReason) {
-      this.transformReason.set(transformReason);
+      this.eventContext().setTransformReason(transformReason); // Stackmania
       this.spawnReason(spawnReason);
    }
    @Nullable
@@ -1519,7 +1517,7 @@ public abstract class Mob extends LivingEntity implements Targeting {
          org.bukkit.Bukkit.getPluginManager().callEvent(combustEvent);
 
          if (!combustEvent.isCancelled()) {
-            p_21372_.callEvent.set(false);
+            p_21372_.callEvent = false;
             p_21372_.setSecondsOnFire(combustEvent.getDuration());
          }
          // CraftBukkit end
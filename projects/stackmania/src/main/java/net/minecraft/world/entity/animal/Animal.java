@@ -2,7 +2,6 @@ package net.minecraft.world.entity.animal;
 
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nullable;
 import net.minecraft.advancements.CriteriaTriggers;
 import net.minecraft.core.BlockPos;
@@ -256,9 +255,8 @@ public abstract class Animal extends AgeableMob {
    }
 
    // Mohist start
-   public AtomicInteger experience = new AtomicInteger(this.getRandom().nextInt(7) + 1);
    public void experience(int exp) {
-      experience.set(exp);
+      this.eventContext().setBreedExperience(exp); // Stackmania
    }
 
    public void finalizeSpawnChildFromBreeding(ServerLevel pLevel, Animal pAnimal, @Nullable AgeableMob pBaby, int experience) {
@@ -281,7 +279,10 @@ public abstract class Animal extends AgeableMob {
       p_277963_.broadcastEntityEvent(this, (byte)18);
       if (p_277963_.getGameRules().getBoolean(GameRules.RULE_DOMOBLOOT)) {
          // CraftBukkit start - use event experience
-         int exp = experience.getAndSet(this.getRandom().nextInt(7) + 1);
+         // Stackmania start - the event experience is kept in the event context
+         Integer breedExperience = this.peekEventContext() == null ? null : this.peekEventContext().takeBreedExperience();
+         int exp = breedExperience == null ? this.getRandom().nextInt(7) + 1 : breedExperience;
+         // Stackmania end
          if (exp > 0) {
             p_277963_.addFreshEntity(new ExperienceOrb(p_277963_, this.getX(), this.getY(), this.getZ(), exp));
          }
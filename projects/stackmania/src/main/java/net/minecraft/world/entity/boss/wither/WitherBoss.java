@@ -256,7 +256,7 @@ public class WitherBoss extends Monster implements PowerableMob, RangedAttackMob
 
          this.setInvulnerableTicks(k1);
          if (this.tickCount % 10 == 0) {
-            this.regainReason0.set(EntityRegainHealthEvent.RegainReason.WITHER_SPAWN);
+            this.pushHealReason(EntityRegainHealthEvent.RegainReason.WITHER_SPAWN);
             this.heal(10.0F);
          }
 
@@ -343,7 +343,7 @@ public class WitherBoss extends Monster implements PowerableMob, RangedAttackMob
          }
 
          if (this.tickCount % 20 == 0) {
-            this.regainReason0.set(EntityRegainHealthEvent.RegainReason.REGEN); // CraftBukkit
+            this.pushHealReason(EntityRegainHealthEvent.RegainReason.REGEN); // CraftBukkit
             this.heal(1.0F);
          }
 
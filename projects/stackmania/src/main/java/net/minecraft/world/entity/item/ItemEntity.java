@@ -162,7 +162,11 @@ public class ItemEntity extends Entity implements TraceableEntity {
          boolean flag = Mth.floor(this.xo) != Mth.floor(this.getX()) || Mth.floor(this.yo) != Mth.floor(this.getY()) || Mth.floor(this.zo) != Mth.floor(this.getZ());
          int i = flag ? 2 : 40;
          if (this.tickCount % i == 0 && !this.level().isClientSide && this.isMergable()) {
-            this.mergeWithNeighbours();
+            // Stackmania start - merged per section after the entity tick
+            if (!com.stackmania.entity.EntityMerging.queue(this)) {
+               this.mergeWithNeighbours();
+            }
+            // Stackmania end
          }
 
          if (this.age != -32768) {
@@ -225,12 +229,12 @@ public class ItemEntity extends Entity implements TraceableEntity {
       }
    }
 
-   private boolean isMergable() {
+   public boolean isMergable() { // Stackmania - private -> public
       ItemStack itemstack = this.getItem();
       return this.isAlive() && this.pickupDelay != 32767 && this.age != -32768 && this.age < 6000 && itemstack.getCount() < itemstack.getMaxStackSize();
    }
 
-   private void tryToMerge(ItemEntity p_32016_) {
+   public void tryToMerge(ItemEntity p_32016_) { // Stackmania - private -> public
       ItemStack itemstack = this.getItem();
       ItemStack itemstack1 = p_32016_.getItem();
       if (Objects.equals(this.target, p_32016_.target) && areMergable(itemstack, itemstack1)) {
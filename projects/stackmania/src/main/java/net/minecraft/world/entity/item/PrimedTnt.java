@@ -24,6 +24,7 @@ public class PrimedTnt extends Entity implements TraceableEntity {
    public LivingEntity owner;
    public float yield = 4; // CraftBukkit - add field
    public boolean isIncendiary = false; // CraftBukkit - add field
+   public int mergedCount = 1; // Stackmania - TNT merged into this one, see TntMerging
 
    public PrimedTnt(EntityType<? extends PrimedTnt> p_32076_, Level p_32077_) {
       super(p_32076_, p_32077_);
@@ -72,7 +73,11 @@ public class PrimedTnt extends Entity implements TraceableEntity {
          // CraftBukkit start - Need to reverse the order of the explosion and the entity death so we have a location for the event
          // this.discard();
          if (!this.level().isClientSide) {
-            this.explode();
+            // Stackmania start - once per merged TNT
+            for (int n = 0; n < this.mergedCount; ++n) {
+               this.explode();
+            }
+            // Stackmania end
          }
          this.discard();
          // CraftBukkit end
@@ -81,6 +86,7 @@ public class PrimedTnt extends Entity implements TraceableEntity {
          if (this.level().isClientSide) {
             this.level().addParticle(ParticleTypes.SMOKE, this.getX(), this.getY() + 0.5D, this.getZ(), 0.0D, 0.0D, 0.0D);
          }
+         com.stackmania.entity.TntMerging.tryMerge(this); // Stackmania
       }
 
    }
@@ -97,10 +103,16 @@ public class PrimedTnt extends Entity implements TraceableEntity {
 
    protected void addAdditionalSaveData(CompoundTag p_32097_) {
       p_32097_.putShort("Fuse", (short)this.getFuse());
+      // Stackmania start
+      if (this.mergedCount > 1) {
+         p_32097_.putInt("StackmaniaMerged", this.mergedCount);
+      }
+      // Stackmania end
    }
 
    protected void readAdditionalSaveData(CompoundTag p_32091_) {
       this.setFuse(p_32091_.getShort("Fuse"));
+      this.mergedCount = Math.max(1, p_32091_.getInt("StackmaniaMerged")); // Stackmania
    }
 
    @Nullable
@@ -2,7 +2,6 @@ package net.minecraft.world.entity.monster;
 
 import com.mohistmc.paper.event.entity.CreeperIgniteEvent;
 import java.util.Collection;
-import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.Nullable;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.syncher.EntityDataAccessor;
@@ -280,9 +279,10 @@ public class Creeper extends Monster implements PowerableMob {
    }
 
    // Mohist start - paper api
-   public AtomicBoolean ignited = new AtomicBoolean(true);
+   public boolean ignited = true; // Stackmania - plain field, only used from the ticking thread
    public void ignite() {
-      boolean i = ignited.getAndSet(true);
+      boolean i = this.ignited;
+      this.ignited = true;
       if (isIgnited() != i) {
          CreeperIgniteEvent event = new CreeperIgniteEvent((org.bukkit.entity.Creeper) getBukkitEntity(), i);
          if (event.callEvent()) {
@@ -292,7 +292,7 @@ public class Creeper extends Monster implements PowerableMob {
    }
 
    public void setIgnited(boolean ignited) {
-      this.ignited.set(ignited);
+      this.ignited = ignited;
       ignite();
    }
    // Mohist end
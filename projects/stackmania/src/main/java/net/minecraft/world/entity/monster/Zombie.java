@@ -338,7 +338,7 @@ public class Zombie extends Monster {
             this.level.getCraftServer().getPluginManager().callEvent(event);
 
             if (!event.isCancelled()) {
-               p_34276_.callEvent.set(false);
+               p_34276_.callEvent = false;
                p_34276_.setSecondsOnFire(event.getDuration());
             }
             // CraftBukkit end
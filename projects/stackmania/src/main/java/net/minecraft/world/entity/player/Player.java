@@ -13,8 +13,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import javax.annotation.Nullable;
 import net.minecraft.Util;
@@ -666,10 +664,10 @@ public abstract class Player extends LivingEntity implements net.minecraftforge.
    }
 
    // Mohist start
-   public AtomicBoolean callEventA = new AtomicBoolean(true);
+   public boolean callEventA = true; // Stackmania - plain field, only used from the ticking thread
    @Nullable
    public ItemEntity drop(ItemStack pDroppedItem, boolean pDropAround, boolean pIncludeThrowerName, boolean callEven) {
-      callEventA.set(callEven);
+      this.callEventA = callEven;
       return drop(pDroppedItem, pDropAround, pIncludeThrowerName);
    }
    // Mohist end
@@ -706,7 +704,9 @@ public abstract class Player extends LivingEntity implements net.minecraftforge.
          }
 
          // CraftBukkit start - fire PlayerDropItemEvent
-         if (callEventA.getAndSet(true)) { // SPIGOT-2942: Add boolean to call event
+         boolean callEvent = this.callEventA; // Stackmania
+         this.callEventA = true; // Stackmania
+         if (callEvent) { // SPIGOT-2942: Add boolean to call event
             org.bukkit.entity.Player player = (org.bukkit.entity.Player) this.getBukkitEntity();
             Item drop = (Item) itementity.getBukkitEntity();
 
@@ -958,7 +958,10 @@ public abstract class Player extends LivingEntity implements net.minecraftforge.
    }
 
    protected void hurtArmor(DamageSource p_36251_, float p_36252_) {
-      if (apoli_mixin.getAndSet(false)) return;
+      if (apoli_mixin) {
+         apoli_mixin = false;
+         return;
+      }
       this.inventory.hurtArmor(p_36251_, p_36252_, Inventory.ALL_ARMOR_SLOTS);
    }
 
@@ -1005,8 +1008,10 @@ public abstract class Player extends LivingEntity implements net.minecraftforge.
    protected void actuallyHurt(DamageSource p_36312_, float p_36313_) {
       if (injectedHurt) {
          damageEntity0(p_36312_, p_36313_);
-         if (damage.get() != -999) {
-            this.setHealth(this.getHealth() - (float) damage.getAndSet(-999));
+         if (damage != -999) {
+            float amount = (float) damage;
+            damage = -999;
+            this.setHealth(this.getHealth() - amount);
          }
       } else {
          if (!this.isInvulnerableTo(p_36312_)) {
@@ -1245,7 +1250,7 @@ public abstract class Player extends LivingEntity implements net.minecraftforge.
 
                      if (!combustEvent.isCancelled()) {
                         flag4 = true;
-                        p_36347_.callEvent.set(false);
+                        p_36347_.callEvent = false;
                         p_36347_.setSecondsOnFire(combustEvent.getDuration());
                      }
                      // CraftBukkit end
@@ -1356,7 +1361,7 @@ public abstract class Player extends LivingEntity implements net.minecraftforge.
                         org.bukkit.Bukkit.getPluginManager().callEvent(combustEvent);
 
                         if (!combustEvent.isCancelled()) {
-                           entity.callEvent.set(false);
+                           entity.callEvent = false;
                            entity.setSecondsOnFire(combustEvent.getDuration());
                         }
                         // CraftBukkit end
@@ -1456,9 +1461,9 @@ public abstract class Player extends LivingEntity implements net.minecraftforge.
       return this.containerMenu != this.inventoryMenu;
    }
 
-   protected AtomicBoolean startSleepInBed_force = new AtomicBoolean(false);
+   protected boolean startSleepInBed_force = false; // Stackmania - plain field, only used from the ticking thread
    public Player forceSleepInBed(boolean force) {
-      startSleepInBed_force.set(force);
+      this.startSleepInBed_force = force;
       return this;
    }
 
@@ -1850,7 +1855,7 @@ public abstract class Player extends LivingEntity implements net.minecraftforge.
       if (!this.abilities.invulnerable) {
          if (!this.level.isClientSide) {
             // CraftBukkit start
-            EntityExhaustionEvent event = CraftEventFactory.callPlayerExhaustionEvent(this, this.reason.getAndSet(EntityExhaustionEvent.ExhaustionReason.UNKNOWN), p_36400_);
+            EntityExhaustionEvent event = CraftEventFactory.callPlayerExhaustionEvent(this, this.takeExhaustionReason(), p_36400_); // Stackmania
             if (!event.isCancelled()) {
                this.foodData.addExhaustion(event.getExhaustion());
             }
@@ -1862,10 +1867,18 @@ public abstract class Player extends LivingEntity implements net.minecraftforge.
 
    // Mohist start
    // CraftBukkit start
-   private AtomicReference<EntityExhaustionEvent.ExhaustionReason> reason = new AtomicReference<>(EntityExhaustionEvent.ExhaustionReason.UNKNOWN);
+   private EntityExhaustionEvent.ExhaustionReason reason = EntityExhaustionEvent.ExhaustionReason.UNKNOWN; // Stackmania - plain field, only used from the ticking thread
    public void exhaustionReason(EntityExhaustionEvent.ExhaustionReason exhaustionReason) {
-      reason.set(exhaustionReason);
+      this.reason = exhaustionReason;
+   }
+
+   // Stackmania start
+   private EntityExhaustionEvent.ExhaustionReason takeExhaustionReason() {
+      EntityExhaustionEvent.ExhaustionReason exhaustionReason = this.reason;
+      this.reason = EntityExhaustionEvent.ExhaustionReason.UNKNOWN;
+      return exhaustionReason;
    }
+   // Stackmania end
    public void causeFoodExhaustion(float f, EntityExhaustionEvent.ExhaustionReason reason) {
       this.exhaustionReason(reason);
       causeFoodExhaustion(f);
@@ -1966,7 +1979,7 @@ public abstract class Player extends LivingEntity implements net.minecraftforge.
    // CraftBukkit start
    @Override
    public void setItemSlot(EquipmentSlot enumitemslot, ItemStack itemstack, boolean silent) {
-      this.silent0.set(silent);
+      this.setSilentEquip(silent);
       setItemSlot(enumitemslot, itemstack);
    }
    // CraftBukkit end
@@ -2017,7 +2030,7 @@ public abstract class Player extends LivingEntity implements net.minecraftforge.
    }
 
    // Mohist start
-   public AtomicBoolean spawnEntityFromShoulder = new AtomicBoolean(true);
+   public boolean spawnEntityFromShoulder = true; // Stackmania - plain field, only used from the ticking thread
 
    private void respawnEntityOnShoulder(CompoundTag p_36371_) {
       if (!this.level.isClientSide && !p_36371_.isEmpty()) {
@@ -2028,14 +2041,16 @@ public abstract class Player extends LivingEntity implements net.minecraftforge.
 
             p_276001_.setPos(this.getX(), this.getY() + (double)0.7F, this.getZ());
             boolean canAdd = ((ServerLevel)this.level).addWithUUID(p_276001_);
-            spawnEntityFromShoulder.set(canAdd);
+            this.spawnEntityFromShoulder = canAdd;
          });
       }
    }
 
    private boolean spawnEntityFromShoulder(CompoundTag pEntityCompound) { // CraftBukkit void->boolean
       respawnEntityOnShoulder(pEntityCompound);
-      return spawnEntityFromShoulder.getAndSet(true);
+      boolean spawned = this.spawnEntityFromShoulder; // Stackmania
+      this.spawnEntityFromShoulder = true; // Stackmania
+      return spawned;
    }
    // Mohist end
 
@@ -374,7 +374,7 @@ public abstract class AbstractArrow extends Projectile {
          EntityCombustByEntityEvent combustEvent = new EntityCombustByEntityEvent(this.getBukkitEntity(), entity.getBukkitEntity(), 5);
          org.bukkit.Bukkit.getPluginManager().callEvent(combustEvent);
          if (!combustEvent.isCancelled()) {
-            entity.callEvent.set(false);
+            entity.callEvent = false;
             entity.setSecondsOnFire(combustEvent.getDuration());
          }
          // CraftBukkit end
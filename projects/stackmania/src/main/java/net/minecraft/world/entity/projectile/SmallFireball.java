@@ -40,7 +40,7 @@ public class SmallFireball extends Fireball {
          entity.level().getCraftServer().getPluginManager().callEvent(event);
 
          if (!event.isCancelled()) {
-            entity.callEvent.set(false);
+            entity.callEvent = false;
             entity.setSecondsOnFire(event.getDuration());
          }
          // CraftBukkit end
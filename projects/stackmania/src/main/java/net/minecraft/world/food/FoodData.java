@@ -90,7 +90,7 @@ public class FoodData {
          ++this.tickTimer;
          if (this.tickTimer >= this.saturatedRegenRate) { // CraftBukkit
             float f = Math.min(this.saturationLevel, 6.0F);
-            p_38711_.regainReason0.set(EntityRegainHealthEvent.RegainReason.SATIATED);
+            p_38711_.pushHealReason(EntityRegainHealthEvent.RegainReason.SATIATED);
             p_38711_.heal(f / 6.0F);
             p_38711_.exhaustionReason(org.bukkit.event.entity.EntityExhaustionEvent.ExhaustionReason.REGEN);
             p_38711_.causeFoodExhaustion(f);
@@ -103,7 +103,7 @@ public class FoodData {
             atomicInteger.set(unsaturatedRegenRate);
          }
          if (this.tickTimer >= atomicInteger.get()) { // CraftBukkit - add regen rate manipulation
-            p_38711_.regainReason0.set(EntityRegainHealthEvent.RegainReason.SATIATED);
+            p_38711_.pushHealReason(EntityRegainHealthEvent.RegainReason.SATIATED);
             p_38711_.heal(1.0F);
             p_38711_.exhaustionReason(org.bukkit.event.entity.EntityExhaustionEvent.ExhaustionReason.REGEN); // CraftBukkit - EntityExhaustionEvent
             p_38711_.causeFoodExhaustion(6.0f);
@@ -37,7 +37,7 @@ public class ChorusFruitItem extends Item {
                p_40713_.gameEvent(GameEvent.TELEPORT, vec3, GameEvent.Context.of(p_40714_));
             net.minecraftforge.event.entity.EntityTeleportEvent.ChorusFruit event = net.minecraftforge.event.ForgeEventFactory.onChorusFruitTeleport(p_40714_, d3, d4, d5);
             if (event.isCanceled()) return itemstack;
-            p_40714_.randomTeleportCause.set(PlayerTeleportEvent.TeleportCause.CHORUS_FRUIT); // Mohist
+            p_40714_.eventContext().setRandomTeleportCause(PlayerTeleportEvent.TeleportCause.CHORUS_FRUIT); // Mohist
             if (p_40714_.randomTeleport(event.getTargetX(), event.getTargetY(), event.getTargetZ(), true)) {
                // CraftBukkit end
                SoundEvent soundevent = p_40714_ instanceof Fox ? SoundEvents.FOX_TELEPORT : SoundEvents.CHORUS_FRUIT_TELEPORT;
@@ -59,6 +59,7 @@ public class Item implements FeatureElement, ItemLike, net.minecraftforge.common
    public static final int EAT_DURATION = 32;
    public static final int MAX_BAR_WIDTH = 13;
    private final Holder.Reference<Item> builtInRegistryHolder = BuiltInRegistries.ITEM.createIntrusiveHolder(this);
+   public org.bukkit.Material stackmania$material; // Stackmania - filled by CraftMagicNumbers.rebuildLookupTables
    public final Rarity rarity;
    private final int maxStackSize;
    private final int maxDamage;
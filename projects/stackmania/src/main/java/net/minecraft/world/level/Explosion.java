@@ -213,7 +213,7 @@ public class Explosion {
                   d5 /= d13;
                   d7 /= d13;
                   d9 /= d13;
-                  double d14 = (double)getSeenPercent(vec3, entity);
+                  double d14 = (double)com.stackmania.world.Explosions.getSeenPercent(vec3, entity); // Stackmania - cached for the tick
                   double d10 = (1.0D - d12) * d14;
                   // CraftBukkit start
 
@@ -235,7 +235,7 @@ public class Explosion {
                         // Calculate damage separately for each EntityComplexPart
                         double d7part;
                         if (list.contains(entityComplexPart) && (d7part = Math.sqrt(entityComplexPart.distanceToSqr(vec3)) / f2) <= 1.0D) {
-                           double d13part = (1.0D - d7part) * getSeenPercent(vec3, entityComplexPart);
+                           double d13part = (1.0D - d7part) * com.stackmania.world.Explosions.getSeenPercent(vec3, entityComplexPart); // Stackmania
                            entityComplexPart.hurt(this.getDamageSource(), (float) ((int) ((d13part * d13part + d13part) / 2.0D * 7.0D * (double) f2 + 1.0D)));
                         }
                      }
@@ -305,36 +305,44 @@ public class Explosion {
          // CraftBukkit start
          bworld = this.level.getWorld();
          explode = this.source == null ? null : this.source.getBukkitEntity();
-         location = new Location(bworld, this.x, this.y, this.z);
-
-         blockList = new ObjectArrayList<>();
-         for (int i1 = this.toBlow.size() - 1; i1 >= 0; i1--) {
-            BlockPos cpos = this.toBlow.get(i1);
-            org.bukkit.block.Block bblock = CraftBlock.at(this.level, cpos);
-            if (!bblock.getType().isAir()) {
-               blockList.add(bblock);
+         // Stackmania start - without listeners only drop the air blocks, as the event path does
+         if ((explode != null ? EntityExplodeEvent.getHandlerList() : BlockExplodeEvent.getHandlerList()).getRegisteredListeners().length == 0) {
+            cancelled = false;
+            yield = this.blockInteraction == Explosion.BlockInteraction.DESTROY_WITH_DECAY ? 1.0F / this.radius : 1.0F;
+            this.toBlow.removeIf(pos -> this.level.getBlockState(pos).isAir());
+         } else {
+            location = new Location(bworld, this.x, this.y, this.z);
+
+            blockList = new ObjectArrayList<>();
+            for (int i1 = this.toBlow.size() - 1; i1 >= 0; i1--) {
+               BlockPos cpos = this.toBlow.get(i1);
+               org.bukkit.block.Block bblock = CraftBlock.at(this.level, cpos);
+               if (!bblock.getType().isAir()) {
+                  blockList.add(bblock);
+               }
             }
-         }
 
-         if (explode != null) {
-            EntityExplodeEvent event = new EntityExplodeEvent(explode, location, blockList, this.blockInteraction == Explosion.BlockInteraction.DESTROY_WITH_DECAY ? 1.0F / this.radius : 1.0F);
-            this.level.getCraftServer().getPluginManager().callEvent(event);
-            cancelled = event.isCancelled();
-            bukkitBlocks = event.blockList();
-            yield = event.getYield();
-         } else {
-            BlockExplodeEvent event = new BlockExplodeEvent(location.getBlock(), blockList, this.blockInteraction == Explosion.BlockInteraction.DESTROY_WITH_DECAY ? 1.0F / this.radius : 1.0F);
-            this.level.getCraftServer().getPluginManager().callEvent(event);
-            cancelled = event.isCancelled();
-            bukkitBlocks = event.blockList();
-            yield = event.getYield();
-         }
+            if (explode != null) {
+               EntityExplodeEvent event = new EntityExplodeEvent(explode, location, blockList, this.blockInteraction == Explosion.BlockInteraction.DESTROY_WITH_DECAY ? 1.0F / this.radius : 1.0F);
+               this.level.getCraftServer().getPluginManager().callEvent(event);
+               cancelled = event.isCancelled();
+               bukkitBlocks = event.blockList();
+               yield = event.getYield();
+            } else {
+               BlockExplodeEvent event = new BlockExplodeEvent(location.getBlock(), blockList, this.blockInteraction == Explosion.BlockInteraction.DESTROY_WITH_DECAY ? 1.0F / this.radius : 1.0F);
+               this.level.getCraftServer().getPluginManager().callEvent(event);
+               cancelled = event.isCancelled();
+               bukkitBlocks = event.blockList();
+               yield = event.getYield();
+            }
 
-         this.toBlow.clear();
-         for (org.bukkit.block.Block bblock : bukkitBlocks) {
-            BlockPos coords = new BlockPos(bblock.getX(), bblock.getY(), bblock.getZ());
-            toBlow.add(coords);
+            this.toBlow.clear();
+            for (org.bukkit.block.Block bblock : bukkitBlocks) {
+               BlockPos coords = new BlockPos(bblock.getX(), bblock.getY(), bblock.getZ());
+               toBlow.add(coords);
+            }
          }
+         // Stackmania end
 
          if (cancelled) {
             this.wasCanceled = true;
@@ -342,6 +350,7 @@ public class Explosion {
          }
          // CraftBukkit end
 
+         Map<BlockPos, Block> removed = new java.util.LinkedHashMap<>(); // Stackmania
          for(BlockPos blockpos : this.toBlow) {
             BlockState blockstate = this.level.getBlockState(blockpos);
             Block block = blockstate.getBlock();
@@ -375,11 +384,28 @@ public class Explosion {
                   }
                }
 
-               blockstate.onBlockExploded(this.level, blockpos, this);
+               // Stackmania start - neighbor updates are sent once all blocks are removed
+               if (com.stackmania.world.Explosions.canBatch(this.level, blockstate)) {
+                  this.level.setBlock(blockpos, Blocks.AIR.defaultBlockState(), 2);
+                  block.wasExploded(this.level, blockpos, this);
+                  removed.put(blockpos1, block);
+               } else {
+                  blockstate.onBlockExploded(this.level, blockpos, this);
+               }
+               // Stackmania end
                this.level.getProfiler().pop();
             }
          }
 
+         // Stackmania start
+         if (!removed.isEmpty()) {
+            com.stackmania.world.Explosions.updateNeighbors(this.level, removed);
+         }
+         if (!this.toBlow.isEmpty()) {
+            com.stackmania.world.Explosions.blocksChanged();
+         }
+         // Stackmania end
+
          for(Pair<ItemStack, BlockPos> pair : objectarraylist) {
             Block.popResource(this.level, pair.getSecond(), pair.getFirst());
          }
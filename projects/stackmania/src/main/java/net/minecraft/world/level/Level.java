@@ -7,10 +7,8 @@ import com.mohistmc.api.event.block.SetBlockEvent;
 import com.mohistmc.forge.ForgeInjectBukkit;
 import com.mojang.serialization.Codec;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
@@ -152,8 +150,10 @@ public abstract class Level extends net.minecraftforge.common.capabilities.Capab
    public boolean preventPoiUpdated = false; // CraftBukkit - SPIGOT-5710
    public boolean captureBlockStates = false;
    public boolean captureTreeGeneration = false;
-   public Map<BlockPos, CapturedBlockState> capturedBlockStates = new java.util.LinkedHashMap<>();
-   public Map<BlockPos, BlockEntity> capturedTileEntities = new HashMap<>();
+   // Stackmania start - keyed by BlockPos.asLong, cleared and reused between captures
+   public final it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap<CapturedBlockState> capturedBlockStates = new it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap<>();
+   public final it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap<BlockEntity> capturedTileEntities = new it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap<>();
+   // Stackmania end
    public List<ItemEntity> captureDrops;
    public final it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap<SpawnCategory> ticksPerSpawnCategory = new it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap<>();
    public boolean populating;
@@ -315,8 +315,6 @@ public abstract class Level extends net.minecraftforge.common.capabilities.Capab
       return this.setBlock(p_46601_, p_46602_, p_46603_, 512);
    }
 
-   public AtomicBoolean setBlock$captured = new AtomicBoolean(false);
-
    public boolean setBlock(BlockPos p_46605_, BlockState p_46606_, int p_46607_, int p_46608_) {
       {
          if (SetBlockEvent.getHandlerList().getRegisteredListeners().length > 0 && this.getWorld() != null) {
@@ -331,10 +329,10 @@ public abstract class Level extends net.minecraftforge.common.capabilities.Capab
       }
       // CraftBukkit start - tree generation
       if (this.captureTreeGeneration) {
-         CapturedBlockState blockstate = capturedBlockStates.get(p_46605_);
+         CapturedBlockState blockstate = capturedBlockStates.get(p_46605_.asLong());
          if (blockstate == null) {
             blockstate = CapturedBlockState.getTreeBlockState(this, p_46605_, p_46607_);
-            this.capturedBlockStates.put(p_46605_.immutable(), blockstate);
+            this.capturedBlockStates.put(p_46605_.asLong(), blockstate);
          }
          blockstate.setData(p_46606_);
          return true;
@@ -349,10 +347,11 @@ public abstract class Level extends net.minecraftforge.common.capabilities.Capab
          Block block = p_46606_.getBlock();
 
          // CraftBukkit start - capture blockstates
-         if (this.captureBlockStates && !this.capturedBlockStates.containsKey(p_46605_)) {
+         boolean captured = false; // Stackmania - local instead of a shared AtomicBoolean, nested setBlock calls cannot clobber it
+         if (this.captureBlockStates && !this.capturedBlockStates.containsKey(p_46605_.asLong())) {
             CapturedBlockState blockstate = CapturedBlockState.getBlockState(this, p_46605_, p_46607_);
-            this.capturedBlockStates.put(p_46605_.immutable(), blockstate);
-            setBlock$captured.set(true);
+            this.capturedBlockStates.put(p_46605_.asLong(), blockstate);
+            captured = true;
          }
          // CraftBukkit end
 
@@ -371,13 +370,14 @@ public abstract class Level extends net.minecraftforge.common.capabilities.Capab
 
          if (blockstate == null) {
             // CraftBukkit start - remove blockstate if failed (or the same)
-            if (this.captureBlockStates && setBlock$captured.getAndSet(false)) {
-               this.capturedBlockStates.remove(p_46605_);
+            if (captured) {
+               this.capturedBlockStates.remove(p_46605_.asLong());
             }
             // CraftBukkit end
             if (blockSnapshot != null) this.capturedBlockSnapshots.remove(blockSnapshot);
             return false;
          } else {
+            com.stackmania.world.Explosions.blockChanged(this, p_46605_); // Stackmania - cached explosion exposure may be stale
             BlockState blockstate1 = this.getBlockState(p_46605_);
             if ((p_46607_ & 128) == 0 && blockstate1 != blockstate && (blockstate1.getLightBlock(this, p_46605_) != oldOpacity || blockstate1.getLightEmission(this, p_46605_) != oldLight || blockstate1.useShapeForLightOcclusion() || blockstate.useShapeForLightOcclusion())) {
                this.getProfiler().push("queueCheckLight");
@@ -540,7 +540,7 @@ public abstract class Level extends net.minecraftforge.common.capabilities.Capab
    public BlockState getBlockState(BlockPos p_46732_) {
       // CraftBukkit start - tree generation
       if (captureTreeGeneration) {
-         CapturedBlockState previous = capturedBlockStates.get(p_46732_);
+         CapturedBlockState previous = capturedBlockStates.get(p_46732_.asLong());
          if (previous != null) {
             return previous.getHandle();
          }
@@ -662,9 +662,11 @@ public abstract class Level extends net.minecraftforge.common.capabilities.Capab
          if (tickingblockentity.isRemoved()) {
             iterator.remove();
          } else if (this.shouldTickBlocksAt(tickingblockentity.getPos())) {
+            com.stackmania.profiler.LagSpikeCatcher.context = tickingblockentity; // Stackmania
             tickingblockentity.tick();
          }
       }
+      com.stackmania.profiler.LagSpikeCatcher.context = null; // Stackmania
 
       this.tickingBlockEntities = false;
       profilerfiller.pop();
@@ -673,10 +675,12 @@ public abstract class Level extends net.minecraftforge.common.capabilities.Capab
    public <T extends Entity> void guardEntityTick(Consumer<T> p_46654_, T p_46655_) {
       try {
          net.minecraftforge.server.timings.TimeTracker.ENTITY_UPDATE.trackStart(p_46655_);
+         com.stackmania.profiler.LagSpikeCatcher.context = p_46655_; // Stackmania
          p_46654_.accept(p_46655_);
       } catch (Throwable throwable) {
          p_46655_.discard();
       } finally {
+         com.stackmania.profiler.LagSpikeCatcher.context = null; // Stackmania
          net.minecraftforge.server.timings.TimeTracker.ENTITY_UPDATE.trackEnd(p_46655_);
       }
    }
@@ -751,8 +755,11 @@ public abstract class Level extends net.minecraftforge.common.capabilities.Capab
 
    @Nullable
    public BlockEntity getBlockEntity(BlockPos p_46716_) {
-      if (capturedTileEntities.containsKey(p_46716_)) {
-         return capturedTileEntities.get(p_46716_);
+      if (!capturedTileEntities.isEmpty()) { // Stackmania - skip the lookup outside of captures
+         BlockEntity captured = capturedTileEntities.get(p_46716_.asLong());
+         if (captured != null) {
+            return captured;
+         }
       }
       // CraftBukkit end
       if (this.isOutsideBuildHeight(p_46716_)) {
@@ -772,7 +779,7 @@ public abstract class Level extends net.minecraftforge.common.capabilities.Capab
       if (!this.isOutsideBuildHeight(blockpos)) {
          // CraftBukkit start
          if (captureBlockStates) {
-            capturedTileEntities.put(blockpos.immutable(), p_151524_);
+            capturedTileEntities.put(blockpos.asLong(), p_151524_);
             return;
          }
          // CraftBukkit end
@@ -46,6 +46,19 @@ public class LocalMobCapCalculator {
       return false;
    }
 
+   // Stackmania start - per-player caps with the world spawn limit
+   public boolean canSpawn(MobCategory category, ChunkPos pos, int limit) {
+      for(ServerPlayer serverplayer : this.getPlayersNear(pos)) {
+         LocalMobCapCalculator.MobCounts counts = this.playerMobCounts.get(serverplayer);
+         if (counts == null || counts.counts.getOrDefault(category, 0) < limit) {
+            return true;
+         }
+      }
+
+      return false;
+   }
+   // Stackmania end
+
    static class MobCounts {
       private final Object2IntMap<MobCategory> counts = new Object2IntOpenHashMap<>(MobCategory.values().length);
 
@@ -524,6 +524,11 @@ public final class NaturalSpawner {
       }
 
       boolean canSpawnForCategory(MobCategory pCategory, ChunkPos pPos, int limit) {
+         // Stackmania start - each player near the chunk has its own cap, the world wide cap no longer applies
+         if (com.mohistmc.MohistConfig.per_player_mob_caps) {
+            return this.localMobCapCalculator.canSpawn(pCategory, pPos, limit);
+         }
+         // Stackmania end
          int i = limit * this.spawnableChunkCount / NaturalSpawner.MAGIC_NUMBER;
          if (this.mobCategoryCounts.getInt(pCategory) >= i) {
             return false;
@@ -119,7 +119,7 @@ public abstract class BaseFireBlock extends Block {
             p_49261_.getCraftServer().getPluginManager().callEvent(event);
 
             if (!event.isCancelled()) {
-               p_49263_.callEvent.set(false);
+               p_49263_.callEvent = false;
                p_49263_.setSecondsOnFire(event.getDuration());
             }
             // CraftBukkit end
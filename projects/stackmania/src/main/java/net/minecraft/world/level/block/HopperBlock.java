@@ -135,6 +135,11 @@ public class HopperBlock extends BaseEntityBlock {
    }
 
    public void neighborChanged(BlockState p_54078_, Level p_54079_, BlockPos p_54080_, Block p_54081_, BlockPos p_54082_, boolean p_54083_) {
+      // Stackmania start
+      if (p_54079_.getBlockEntity(p_54080_) instanceof HopperBlockEntity hopper) {
+         hopper.getNeighborCache().clear();
+      }
+      // Stackmania end
       this.checkPoweredState(p_54079_, p_54080_, p_54078_, 4);
    }
 
@@ -228,6 +228,12 @@ public class RedStoneWireBlock extends Block {
    }
 
    private void updatePowerStrength(Level p_55531_, BlockPos p_55532_, BlockState p_55533_) {
+      // Stackmania start - update the whole wire network at once
+      if (com.stackmania.world.RedstoneWires.isEnabled(p_55531_) && p_55531_.getBlockState(p_55532_) == p_55533_) {
+         com.stackmania.world.RedstoneWires.update(p_55531_, p_55532_, this);
+         return;
+      }
+      // Stackmania end
       int i = this.calculateTargetStrength(p_55531_, p_55532_);
       // CraftBukkit start
       int oldPower = p_55533_.getValue(POWER);
@@ -279,6 +285,15 @@ public class RedStoneWireBlock extends Block {
       return Math.max(i, j - 1);
    }
 
+   // Stackmania start - the power a wire takes from anything but other wires
+   public int getExternalSignal(Level level, BlockPos pos) {
+      this.shouldSignal = false;
+      int i = level.getBestNeighborSignal(pos);
+      this.shouldSignal = true;
+      return i;
+   }
+   // Stackmania end
+
    private int getWireSignal(BlockState p_55649_) {
       return p_55649_.is(this) ? p_55649_.getValue(POWER) : 0;
    }
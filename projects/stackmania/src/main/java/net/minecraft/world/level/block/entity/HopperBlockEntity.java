@@ -44,6 +44,7 @@ public class HopperBlockEntity extends RandomizableContainerBlockEntity implemen
    private NonNullList<ItemStack> items = NonNullList.withSize(5, ItemStack.EMPTY);
    private int cooldownTime = -1;
    private long tickedGameTime;
+   private final com.stackmania.world.HopperNeighborCache neighborCache = new com.stackmania.world.HopperNeighborCache(); // Stackmania
 
    // CraftBukkit start - add fields and methods
    public List<HumanEntity> transaction = new java.util.ArrayList<HumanEntity>();
@@ -257,7 +258,7 @@ public class HopperBlockEntity extends RandomizableContainerBlockEntity implemen
    public static boolean addItem(Container p_59332_, ItemEntity p_59333_) {
       boolean flag = false;
       // CraftBukkit start
-      if (p_59332_.getOwner() != null) {
+      if (InventoryPickupItemEvent.getHandlerList().getRegisteredListeners().length > 0 && p_59332_.getOwner() != null) { // Stackmania - skip when nobody listens
          InventoryPickupItemEvent event = new InventoryPickupItemEvent(p_59332_.getOwner().getInventory(), (org.bukkit.entity.Item) p_59333_.getBukkitEntity());
          p_59333_.level.getCraftServer().getPluginManager().callEvent(event);
          if (event.isCancelled()) {
@@ -377,6 +378,7 @@ public class HopperBlockEntity extends RandomizableContainerBlockEntity implemen
    // CraftBukkit start
    @Nullable
    private static Container runHopperInventorySearchEvent(Container inventory, CraftBlock hopper, CraftBlock searchLocation, HopperInventorySearchEvent.ContainerType containerType) {
+      // Stackmania - callers skip this when nobody listens
       HopperInventorySearchEvent event = new HopperInventorySearchEvent((inventory != null) ? new CraftInventory(inventory) : null, containerType, hopper, searchLocation);
       Bukkit.getServer().getPluginManager().callEvent(event);
       CraftInventory craftInventory = (CraftInventory) event.getInventory();
@@ -384,12 +386,19 @@ public class HopperBlockEntity extends RandomizableContainerBlockEntity implemen
    }
    // CraftBukkit end
 
+   // Stackmania start
+   private static boolean hasSearchListeners() {
+      return HopperInventorySearchEvent.getHandlerList().getRegisteredListeners().length > 0;
+   }
+   // Stackmania end
+
    @Nullable
    public static Container getAttachedContainer(Level p_155593_, BlockPos p_155594_, BlockState p_155595_) {
       Direction direction = p_155595_.getValue(HopperBlock.FACING);
       // CraftBukkit start
       BlockPos searchPosition = p_155594_.relative(direction);
       Container inventory = getContainerAt(p_155593_, p_155594_.relative(direction));
+      if (!hasSearchListeners()) return inventory; // Stackmania
 
       CraftBlock hopper = CraftBlock.at(p_155593_, p_155594_);
       CraftBlock searchBlock = CraftBlock.at(p_155593_, searchPosition);
@@ -401,6 +410,7 @@ public class HopperBlockEntity extends RandomizableContainerBlockEntity implemen
    public static Container getSourceContainer(Level p_155597_, Hopper p_155598_) {
       // CraftBukkit start
       Container inventory = getContainerAt(p_155597_, p_155598_.getLevelX(), p_155598_.getLevelY() + 1.0D, p_155598_.getLevelZ());
+      if (!hasSearchListeners()) return inventory; // Stackmania
 
       BlockPos blockPosition = BlockPos.containing(p_155598_.getLevelX(), p_155598_.getLevelY(), p_155598_.getLevelZ());
       CraftBlock hopper = CraftBlock.at(p_155597_, blockPosition);
@@ -439,8 +449,9 @@ public class HopperBlockEntity extends RandomizableContainerBlockEntity implemen
          }
       }
 
-      if (container == null) {
-         List<Entity> list = p_59348_.getEntities((Entity)null, new AABB(p_59349_ - 0.5D, p_59350_ - 0.5D, p_59351_ - 0.5D, p_59349_ + 0.5D, p_59350_ + 0.5D, p_59351_ + 0.5D), EntitySelector.CONTAINER_ENTITY_SELECTOR);
+      AABB box = new AABB(p_59349_ - 0.5D, p_59350_ - 0.5D, p_59351_ - 0.5D, p_59349_ + 0.5D, p_59350_ + 0.5D, p_59351_ + 0.5D); // Stackmania
+      if (container == null && com.stackmania.world.HopperNeighborCache.mayHaveContainerEntities(p_59348_, box)) { // Stackmania - no section nearby holds one
+         List<Entity> list = p_59348_.getEntities((Entity)null, box, EntitySelector.CONTAINER_ENTITY_SELECTOR);
          if (!list.isEmpty()) {
             container = (Container)list.get(p_59348_.random.nextInt(list.size()));
          }
@@ -506,4 +517,10 @@ public class HopperBlockEntity extends RandomizableContainerBlockEntity implemen
    public long getLastUpdateTime() {
       return this.tickedGameTime;
    }
+
+   // Stackmania start
+   public com.stackmania.world.HopperNeighborCache getNeighborCache() {
+      return this.neighborCache;
+   }
+   // Stackmania end
 }
@@ -310,9 +310,7 @@ public abstract class ChunkAccess implements BlockGetter, BiomeManager.NoiseBiom
    public abstract CompoundTag getBlockEntityNbtForSaving(BlockPos p_62104_);
 
    public final void findBlockLightSources(BiConsumer<BlockPos, BlockState> p_285269_) {
-      this.findBlocks((p_284897_, pos) -> {
-         return p_284897_.getLightEmission(this, pos) != 0;
-      }, p_285269_);
+      com.stackmania.world.LightSources.find(this, p_285269_); // Stackmania - only ask blocks overriding the positional hook
    }
 
    public void findBlocks(Predicate<BlockState> p_285343_, BiConsumer<BlockPos, BlockState> p_285030_) {
@@ -9,6 +9,7 @@ import it.unimi.dsi.fastutil.longs.LongSet;
 import it.unimi.dsi.fastutil.shorts.ShortList;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import javax.annotation.Nullable;
@@ -261,6 +262,17 @@ public class ChunkSerializer {
    // CraftBukkit end
 
    public static CompoundTag write(ServerLevel p_63455_, ChunkAccess p_63456_) {
+      return write(p_63455_, p_63456_, null);
+   }
+
+   // Stackmania start
+   /**
+    * With a deferred list, the block states of each section are copied instead of
+    * encoded, and the encoders are added to the list to be run off the main thread.
+    * The tag is incomplete until they all ran.
+    */
+   public static CompoundTag write(ServerLevel p_63455_, ChunkAccess p_63456_, @Nullable List<Runnable> deferred) {
+   // Stackmania end
       ChunkPos chunkpos = p_63456_.getPos();
       CompoundTag compoundtag = NbtUtils.addCurrentDataVersion(new CompoundTag());
       compoundtag.putInt("xPos", chunkpos.x);
@@ -304,19 +316,26 @@ public class ChunkSerializer {
             CompoundTag compoundtag1 = new CompoundTag();
             if (flag1) {
                LevelChunkSection levelchunksection = alevelchunksection[j];
-               compoundtag1.put("block_states", BLOCK_STATE_CODEC.encodeStart(NbtOps.INSTANCE, levelchunksection.getStates()).getOrThrow(false, LOGGER::error));
+               // Stackmania start - copy now, encode later
+               if (deferred != null) {
+                  PalettedContainer<BlockState> states = levelchunksection.getStates().copy();
+                  deferred.add(() -> compoundtag1.put("block_states", BLOCK_STATE_CODEC.encodeStart(NbtOps.INSTANCE, states).getOrThrow(false, LOGGER::error)));
+               } else {
+                  compoundtag1.put("block_states", BLOCK_STATE_CODEC.encodeStart(NbtOps.INSTANCE, levelchunksection.getStates()).getOrThrow(false, LOGGER::error));
+               }
+               // Stackmania end
                compoundtag1.put("biomes", codec.encodeStart(NbtOps.INSTANCE, levelchunksection.getBiomes()).getOrThrow(false, LOGGER::error));
             }
 
             if (datalayer != null && !datalayer.isEmpty()) {
-               compoundtag1.putByteArray("BlockLight", datalayer.getData());
+               compoundtag1.putByteArray("BlockLight", deferred != null ? datalayer.getData().clone() : datalayer.getData()); // Stackmania - the light engine keeps writing to it
             }
 
             if (datalayer1 != null && !datalayer1.isEmpty()) {
-               compoundtag1.putByteArray("SkyLight", datalayer1.getData());
+               compoundtag1.putByteArray("SkyLight", deferred != null ? datalayer1.getData().clone() : datalayer1.getData()); // Stackmania
             }
 
-            if (!compoundtag1.isEmpty()) {
+            if (!compoundtag1.isEmpty() || flag1) { // Stackmania - block states may still be pending
                compoundtag1.putByte("Y", (byte)i);
                listtag.add(compoundtag1);
             }
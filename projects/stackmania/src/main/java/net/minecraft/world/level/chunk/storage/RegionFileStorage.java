@@ -20,10 +20,12 @@ public final class RegionFileStorage implements AutoCloseable {
    public final Long2ObjectLinkedOpenHashMap<RegionFile> regionCache = new Long2ObjectLinkedOpenHashMap<>();
    private final Path folder;
    private final boolean sync;
+   private final RegionFileVersion version; // Stackmania - per world codec for new writes
 
    RegionFileStorage(Path p_196954_, boolean p_196955_) {
       this.folder = p_196954_;
       this.sync = p_196955_;
+      this.version = com.stackmania.world.RegionCompression.forFolder(p_196954_); // Stackmania
    }
 
    private AtomicBoolean mohist$existingOnly = new AtomicBoolean(true);
@@ -41,7 +43,7 @@ public final class RegionFileStorage implements AutoCloseable {
          FileUtil.createDirectoriesSafe(this.folder);
          Path path = this.folder.resolve("r." + p_63712_.getRegionX() + "." + p_63712_.getRegionZ() + ".mca");
          if (mohist$existingOnly.get() && !java.nio.file.Files.exists(path)) return null; // CraftBukkit
-         RegionFile regionfile1 = new RegionFile(path, this.folder, this.sync);
+         RegionFile regionfile1 = new RegionFile(path, this.folder, this.version, this.sync); // Stackmania
          this.regionCache.putAndMoveToFirst(i, regionfile1);
          return regionfile1;
       }
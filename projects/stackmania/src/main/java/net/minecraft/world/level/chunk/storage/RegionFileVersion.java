@@ -6,6 +6,8 @@ import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -30,6 +32,10 @@ public class RegionFileVersion {
    }, (p_196962_) -> {
       return p_196962_;
    }));
+   // Stackmania start - LZ4 chunks, id 4 as in later vanilla versions, only when lz4-java is on the classpath
+   @Nullable
+   public static final RegionFileVersion VERSION_LZ4 = registerLz4();
+   // Stackmania end
    private final int id;
    private final RegionFileVersion.StreamWrapper<InputStream> inputWrapper;
    private final RegionFileVersion.StreamWrapper<OutputStream> outputWrapper;
@@ -45,6 +51,57 @@ public class RegionFileVersion {
       return p_63759_;
    }
 
+   // Stackmania start
+   @Nullable
+   private static RegionFileVersion registerLz4() {
+      try {
+         Constructor<? extends InputStream> input = Class.forName("net.jpountz.lz4.LZ4BlockInputStream").asSubclass(InputStream.class).getConstructor(InputStream.class);
+         Constructor<? extends OutputStream> output = Class.forName("net.jpountz.lz4.LZ4BlockOutputStream").asSubclass(OutputStream.class).getConstructor(OutputStream.class);
+         return register(new RegionFileVersion(4, (in) -> {
+            return new FastBufferedInputStream(newStream(input, in));
+         }, (out) -> {
+            return new BufferedOutputStream(newStream(output, out));
+         }));
+      } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+         return null;
+      }
+   }
+
+   private static <T> T newStream(Constructor<? extends T> constructor, T stream) throws IOException {
+      try {
+         return constructor.newInstance(stream);
+      } catch (java.lang.reflect.InvocationTargetException e) {
+         throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+      } catch (ReflectiveOperationException e) {
+         throw new IOException(e);
+      }
+   }
+
+   /**
+    * Deflate with the given compression level. Shares id 2 with {@link #VERSION_DEFLATE}, which reads it.
+    */
+   public static RegionFileVersion deflate(int level) {
+      if (level == Deflater.DEFAULT_COMPRESSION) {
+         return VERSION_DEFLATE;
+      }
+      return new RegionFileVersion(2, (in) -> {
+         return new FastBufferedInputStream(new InflaterInputStream(in));
+      }, (out) -> {
+         Deflater deflater = new Deflater(level);
+         return new BufferedOutputStream(new DeflaterOutputStream(out, deflater) {
+            @Override
+            public void close() throws IOException {
+               try {
+                  super.close();
+               } finally {
+                  deflater.end();
+               }
+            }
+         });
+      });
+   }
+   // Stackmania end
+
    @Nullable
    public static RegionFileVersion fromId(int p_63757_) {
       return VERSIONS.get(p_63757_);
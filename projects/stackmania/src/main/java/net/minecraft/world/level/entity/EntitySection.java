@@ -13,6 +13,7 @@ public class EntitySection<T extends EntityAccess> {
    private static final Logger LOGGER = LogUtils.getLogger();
    private final ClassInstanceMultiMap<T> storage;
    private Visibility chunkStatus;
+   private int containerEntities; // Stackmania - entities hoppers can search for
 
    public EntitySection(Class<T> p_156831_, Visibility p_156832_) {
       this.chunkStatus = p_156832_;
@@ -21,12 +22,23 @@ public class EntitySection<T extends EntityAccess> {
 
    public void add(T p_188347_) {
       this.storage.add(p_188347_);
+      if (p_188347_ instanceof net.minecraft.world.Container) ++this.containerEntities; // Stackmania
    }
 
    public boolean remove(T p_188356_) {
-      return this.storage.remove(p_188356_);
+      // Stackmania start
+      boolean removed = this.storage.remove(p_188356_);
+      if (removed && p_188356_ instanceof net.minecraft.world.Container) --this.containerEntities;
+      return removed;
+      // Stackmania end
    }
 
+   // Stackmania start
+   public boolean hasContainerEntities() {
+      return this.containerEntities > 0;
+   }
+   // Stackmania end
+
    public AbortableIterationConsumer.Continuation getEntities(AABB p_262016_, AbortableIterationConsumer<T> p_261863_) {
       for(T t : this.storage) {
          if (t.getBoundingBox().intersects(p_262016_) && p_261863_.accept(t).shouldAbort()) {
@@ -371,6 +371,17 @@ public class PersistentEntitySectionManager<T extends EntityAccess> implements A
       return this.knownUuids.contains(p_157551_);
    }
 
+   // Stackmania start - lets hoppers skip the container entity search
+   public boolean hasContainerEntities(net.minecraft.world.phys.AABB box) {
+      boolean[] found = new boolean[1];
+      this.sectionStorage.forEachAccessibleNonEmptySection(box, (section) -> {
+         found[0] = section.hasContainerEntities();
+         return found[0] ? net.minecraft.util.AbortableIterationConsumer.Continuation.ABORT : net.minecraft.util.AbortableIterationConsumer.Continuation.CONTINUE;
+      });
+      return found[0];
+   }
+   // Stackmania end
+
    public LevelEntityGetter<T> getEntityGetter() {
       return this.entityGetter;
    }
@@ -12,6 +12,7 @@ import net.minecraft.world.level.chunk.LightChunkGetter;
 
 public final class BlockLightEngine extends LightEngine<BlockLightSectionStorage.BlockDataLayerStorageMap, BlockLightSectionStorage> {
    private final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+   private final com.stackmania.world.BlockLightFill fill; // Stackmania
 
    public BlockLightEngine(LightChunkGetter p_75492_) {
       this(p_75492_, new BlockLightSectionStorage(p_75492_));
@@ -20,6 +21,7 @@ public final class BlockLightEngine extends LightEngine<BlockLightSectionStorage
    @VisibleForTesting
    public BlockLightEngine(LightChunkGetter p_278252_, BlockLightSectionStorage p_278255_) {
       super(p_278252_, p_278255_);
+      this.fill = new com.stackmania.world.BlockLightFill(p_278252_, (section) -> this.storage.getDataLayer(section, true), this.storage::getDataLayerToWrite, this.storage.sectionsAffectedByLightUpdates::add); // Stackmania
    }
 
    protected void checkNode(long p_285169_) {
@@ -105,19 +107,52 @@ public final class BlockLightEngine extends LightEngine<BlockLightSectionStorage
    }
 
    private int getEmission(long p_285243_, BlockState p_284973_) {
-      int i = p_284973_.getLightEmission(chunkSource.getLevel(), mutablePos);
+      int i = com.stackmania.world.LightSources.getLightEmission(p_284973_, chunkSource.getLevel(), mutablePos); // Stackmania
       return i > 0 && this.storage.lightOnInSection(SectionPos.blockToSection(p_285243_)) ? i : 0;
    }
 
    public void propagateLightSources(ChunkPos p_285274_) {
       this.setLightEnabled(p_285274_, true);
+      // Stackmania start - light the chunk in one pass, with the increases of the next update
+      if (com.mohistmc.MohistConfig.batched_block_light) {
+         this.fill.add(p_285274_);
+         return;
+      }
+      this.enqueueLightSources(p_285274_);
+   }
+
+   private void enqueueLightSources(ChunkPos p_285274_) {
+      // Stackmania end
       LightChunk lightchunk = this.chunkSource.getChunkForLighting(p_285274_.x, p_285274_.z);
       if (lightchunk != null) {
          lightchunk.findBlockLightSources((p_285266_, p_285452_) -> {
-            int i = p_285452_.getLightEmission(chunkSource.getLevel(), p_285266_);
+            int i = com.stackmania.world.LightSources.getLightEmission(p_285452_, chunkSource.getLevel(), p_285266_); // Stackmania
             this.enqueueIncrease(p_285266_.asLong(), LightEngine.QueueEntry.increaseLightFromEmission(i, isEmptyShape(p_285452_)));
          });
       }
 
    }
+
+   // Stackmania start
+   @Override
+   protected int propagateQueuedSources() {
+      if (!this.fill.hasWork()) {
+         return 0;
+      }
+      if (!com.mohistmc.MohistConfig.verify_block_light) {
+         return this.fill.run(null);
+      }
+      // Other increases first, so each chunk is compared on its own
+      int i = this.propagateIncreases();
+      return i + this.fill.run((chunk) -> {
+         this.enqueueLightSources(new ChunkPos(chunk));
+         this.propagateIncreases();
+      });
+   }
+
+   @Override
+   public boolean hasLightWork() {
+      return super.hasLightWork() || this.fill.hasWork();
+   }
+   // Stackmania end
 }
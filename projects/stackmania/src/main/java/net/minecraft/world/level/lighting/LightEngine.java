@@ -147,6 +147,7 @@ public abstract class LightEngine<M extends DataLayerStorageMap<M>, S extends La
       this.blockNodesToCheck.trim(512);
       int i = 0;
       i += this.propagateDecreases();
+      i += this.propagateQueuedSources(); // Stackmania
       i += this.propagateIncreases();
       this.clearChunkCache();
       this.storage.markNewInconsistencies(this);
@@ -154,7 +155,7 @@ public abstract class LightEngine<M extends DataLayerStorageMap<M>, S extends La
       return i;
    }
 
-   private int propagateIncreases() {
+   protected int propagateIncreases() { // Stackmania - private -> protected
       int i;
       for(i = 0; !this.increaseQueue.isEmpty(); ++i) {
          long j = this.increaseQueue.dequeueLong();
@@ -185,6 +186,16 @@ public abstract class LightEngine<M extends DataLayerStorageMap<M>, S extends La
       return i;
    }
 
+   // Stackmania start
+   /**
+    * Spread the light of sources queued outside of the increase queue, after the
+    * decreases and before the increases.
+    */
+   protected int propagateQueuedSources() {
+      return 0;
+   }
+   // Stackmania end
+
    protected void enqueueDecrease(long p_285228_, long p_285464_) {
       this.decreaseQueue.enqueue(p_285228_);
       this.decreaseQueue.enqueue(p_285464_);
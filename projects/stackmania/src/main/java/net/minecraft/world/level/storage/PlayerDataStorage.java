@@ -1,7 +1,9 @@
 package net.minecraft.world.level.storage;
 
 import com.mojang.datafixers.DataFixer;
+import com.mohistmc.MohistConfig;
 import com.mojang.logging.LogUtils;
+import com.stackmania.player.PlayerDataWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
@@ -20,22 +22,28 @@ public class PlayerDataStorage {
    private static final Logger LOGGER = LogUtils.getLogger();
    private final File playerDir;
    protected final DataFixer fixerUpper;
+   private final PlayerDataWriter writer; // Stackmania
 
    public PlayerDataStorage(LevelStorageSource.LevelStorageAccess p_78430_, DataFixer p_78431_) {
       this.fixerUpper = p_78431_;
       this.playerDir = p_78430_.getLevelPath(LevelResource.PLAYER_DATA_DIR).toFile();
       this.playerDir.mkdirs();
+      this.writer = new PlayerDataWriter(this.playerDir); // Stackmania
    }
 
    public void save(Player p_78434_) {
       if (org.spigotmc.SpigotConfig.disablePlayerDataSaving) return; // Spigot
       try {
          CompoundTag compoundtag = p_78434_.saveWithoutId(new CompoundTag());
-         File file1 = File.createTempFile(p_78434_.getStringUUID() + "-", ".dat", this.playerDir);
-         NbtIo.writeCompressed(compoundtag, file1);
-         File file2 = new File(this.playerDir, p_78434_.getStringUUID() + ".dat");
-         File file3 = new File(this.playerDir, p_78434_.getStringUUID() + ".dat_old");
-         Util.safeReplaceFile(file2, file1, file3);
+         // Stackmania start - compress and write off the server thread
+         if (MohistConfig.async_player_saving) {
+            // copy so nothing the player still references is written concurrently
+            this.writer.save(p_78434_.getUUID(), p_78434_.getName().getString(), compoundtag.copy());
+         } else {
+            this.writer.await(p_78434_.getUUID());
+            this.writer.write(p_78434_.getUUID(), compoundtag);
+         }
+         // Stackmania end
          net.minecraftforge.event.ForgeEventFactory.firePlayerSavingEvent(p_78434_, playerDir, p_78434_.getStringUUID());
       } catch (Exception exception) {
          LOGGER.warn("Failed to save player data for {}", (Object)p_78434_.getName().getString());
@@ -43,11 +51,21 @@ public class PlayerDataStorage {
 
    }
 
+   // Stackmania start
+   /**
+    * Wait until every queued player save is written, called when the server stops.
+    */
+   public void flush() {
+      this.writer.flush();
+   }
+   // Stackmania end
+
    @Nullable
    public CompoundTag load(Player p_78436_) {
       CompoundTag compoundtag = null;
 
       try {
+         this.writer.await(p_78436_.getUUID()); // Stackmania - read what was saved last
          File file1 = new File(this.playerDir, p_78436_.getStringUUID() + ".dat");
          // Spigot Start
          boolean usingWrongFile = false;
@@ -115,6 +133,7 @@ public class PlayerDataStorage {
    // CraftBukkit start
    public CompoundTag getPlayerData(String s) {
       try {
+         this.writer.await(s); // Stackmania
          File file1 = new File(this.playerDir, s + ".dat");
          if (file1.exists()) {
             return NbtIo.readCompressed((InputStream) (new FileInputStream(file1)));
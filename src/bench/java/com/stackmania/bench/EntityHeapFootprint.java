@@ -0,0 +1,70 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.bench;
+
+import com.stackmania.entity.EntityEventContext;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.vm.VM;
+
+/**
+ * Heap footprint of the fields entities allocate for themselves, per entity type.
+ *
+ * Entities cannot be created outside of a running server, so the classes are
+ * inspected instead of instances: for each type, the shallow size of the entity
+ * and the objects its per-instance Atomic* fields allocate, through the whole
+ * class hierarchy. Run it on two commits to compare them, e.g. the baseline and
+ * the current tree:
+ *
+ *   ./gradlew :stackmania:bench -PbenchClass=com.stackmania.bench.EntityHeapFootprint
+ *
+ * The lazily allocated {@link EntityEventContext} is listed separately, an
+ * entity only holds one after a CraftBukkit overload passed an event argument.
+ */
+public class EntityHeapFootprint {
+
+    private static final List<String> TYPES = List.of(
+            "net.minecraft.world.entity.item.ItemEntity",
+            "net.minecraft.world.entity.ExperienceOrb",
+            "net.minecraft.world.entity.decoration.ArmorStand",
+            "net.minecraft.world.entity.animal.Cow",
+            "net.minecraft.world.entity.animal.Sheep",
+            "net.minecraft.world.entity.animal.Chicken",
+            "net.minecraft.world.entity.monster.Zombie",
+            "net.minecraft.world.entity.monster.Skeleton",
+            "net.minecraft.world.entity.monster.Creeper",
+            "net.minecraft.world.entity.npc.Villager",
+            "net.minecraft.server.level.ServerPlayer");
+
+    public static void main(String[] args) throws ClassNotFoundException {
+        System.out.println(VM.current().details());
+        System.out.printf("%-12s %10s %8s %12s %14s%n", "type", "shallow B", "atomics", "atomics B", "per 50k MB");
+        ClassLoader loader = EntityHeapFootprint.class.getClassLoader();
+        for (String name : TYPES) {
+            Class<?> type = Class.forName(name, false, loader);
+            long shallow = ClassLayout.parseClass(type).instanceSize();
+            int atomics = 0;
+            long atomicBytes = 0;
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && isAtomic(field.getType())) {
+                        atomics++;
+                        atomicBytes += ClassLayout.parseClass(field.getType()).instanceSize();
+                    }
+                }
+            }
+            System.out.printf("%-12s %10d %8d %12d %14.1f%n", type.getSimpleName(), shallow, atomics, atomicBytes, (shallow + atomicBytes) * 50_000 / 1e6);
+        }
+        System.out.printf("EntityEventContext, when allocated: %d B%n", ClassLayout.parseClass(EntityEventContext.class).instanceSize());
+    }
+
+    private static boolean isAtomic(Class<?> type) {
+        return type.getName().startsWith("java.util.concurrent.atomic.")
+                || type.getName().equals("com.google.common.util.concurrent.AtomicDouble");
+    }
+}
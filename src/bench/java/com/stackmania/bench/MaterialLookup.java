@@ -0,0 +1,103 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Cost of the Block/Material lookups of CraftMagicNumbers, before and after the
+ * dense tables, with 40,000 entries as on a large modpack.
+ *
+ * Blocks can only be created while their registry is open and Material is an
+ * enum, so the lookups are modelled: the HashMaps keyed by identity-hashed
+ * objects the maps used, the Material slot stored on each Block, and the array
+ * indexed by Material.ordinal(). Two access patterns are timed, uniform over all
+ * entries, and 64 hot entries, which resembles getType() over a chunk where few
+ * distinct blocks repeat. Each round runs 20M lookups per structure; the mean of
+ * the last three of six rounds is printed, in ns per lookup.
+ *
+ *   ./gradlew :stackmania:bench -PbenchClass=com.stackmania.bench.MaterialLookup
+ */
+public class MaterialLookup {
+
+    private static final int ENTRIES = 40_000;
+    private static final int LOOKUPS = 20_000_000;
+    private static final int ROUNDS = 6;
+    private static final int MEASURED = 3;
+
+    private static final class Material {
+        private final int ordinal;
+
+        private Material(int ordinal) {
+            this.ordinal = ordinal;
+        }
+    }
+
+    private static final class Block {
+        private Material material;
+    }
+
+    public static void main(String[] args) {
+        Material[] materials = new Material[ENTRIES];
+        Block[] blocks = new Block[ENTRIES];
+        Map<Block, Material> blockMaterial = new HashMap<>();
+        Map<Material, Block> materialBlock = new HashMap<>();
+        Block[] blockByOrdinal = new Block[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            materials[i] = new Material(i);
+            blocks[i] = new Block();
+            blocks[i].material = materials[i];
+            blockMaterial.put(blocks[i], materials[i]);
+            materialBlock.put(materials[i], blocks[i]);
+            blockByOrdinal[i] = blocks[i];
+        }
+
+        Random random = new Random(42);
+        int[] uniform = new int[LOOKUPS];
+        int[] hot = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            uniform[i] = random.nextInt(ENTRIES);
+            hot[i] = random.nextInt(64) * 613 % ENTRIES;
+        }
+
+        System.out.printf("%-10s %16s %8s %16s %8s%n", "pattern", "Block->Material", "slot", "Material->Block", "array");
+        for (int p = 0; p < 2; p++) {
+            int[] order = p == 0 ? uniform : hot;
+            double[] total = new double[4];
+            long sink = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                long t0 = System.nanoTime();
+                for (int i : order) {
+                    sink += blockMaterial.get(blocks[i]).ordinal;
+                }
+                long t1 = System.nanoTime();
+                for (int i : order) {
+                    sink += blocks[i].material.ordinal;
+                }
+                long t2 = System.nanoTime();
+                for (int i : order) {
+                    sink += materialBlock.get(materials[i]).material.ordinal;
+                }
+                long t3 = System.nanoTime();
+                for (int i : order) {
+                    sink += blockByOrdinal[materials[i].ordinal].material.ordinal;
+                }
+                long t4 = System.nanoTime();
+                if (round >= ROUNDS - MEASURED) {
+                    total[0] += t1 - t0;
+                    total[1] += t2 - t1;
+                    total[2] += t3 - t2;
+                    total[3] += t4 - t3;
+                }
+            }
+            double scale = (double) MEASURED * LOOKUPS;
+            System.out.printf("%-10s %16.1f %8.1f %16.1f %8.1f   (%d)%n", p == 0 ? "uniform" : "hot 64",
+                    total[0] / scale, total[1] / scale, total[2] / scale, total[3] / scale, sink & 1);
+        }
+    }
+}
@@ -15,6 +15,21 @@ import com.mohistmc.commands.PluginCommand;
 import com.mohistmc.commands.ShowsCommand;
 import com.mohistmc.plugins.MohistPlugin;
 import com.mohistmc.util.YamlUtils;
+import com.stackmania.capability.CapabilityStatsCommand;
+import com.stackmania.event.EventBridgeCommand;
+import com.stackmania.event.EventTimingsCommand;
+import com.stackmania.event.ForgeEventBridge;
+import com.stackmania.event.ListenerTimings;
+import com.stackmania.metrics.MetricsHttpServer;
+import com.stackmania.metrics.ThreadAccounting;
+import com.stackmania.metrics.ThreadsCommand;
+import com.stackmania.metrics.TickTimesCommand;
+import com.stackmania.network.NetworkCommand;
+import com.stackmania.network.NetworkSettings;
+import com.stackmania.profiler.LagSpikeCommand;
+import com.stackmania.profiler.ProfilerCommand;
+import com.stackmania.world.RegionCompactCommand;
+import com.stackmania.world.pregen.PregenCommand;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
@@ -83,6 +98,16 @@ public class MohistConfig {
         commands.put("bans", new BansCommand("bans"));
         commands.put("shows", new ShowsCommand("shows"));
         commands.put("ping", new PingCommand("ping"));
+        commands.put("netstats", new NetworkCommand("netstats"));
+        commands.put("pregen", new PregenCommand("pregen"));
+        commands.put("capstats", new CapabilityStatsCommand("capstats"));
+        commands.put("eventbridge", new EventBridgeCommand("eventbridge"));
+        commands.put("eventtimings", new EventTimingsCommand("eventtimings"));
+        commands.put("profiler", new ProfilerCommand("profiler"));
+        commands.put("lagspikes", new LagSpikeCommand("lagspikes"));
+        commands.put("ticktimes", new TickTimesCommand("ticktimes"));
+        commands.put("threads", new ThreadsCommand("threads"));
+        commands.put("regioncompact", new RegionCompactCommand("regioncompact"));
 
         MohistPlugin.registerCommands(commands);
 
@@ -267,6 +292,62 @@ public class MohistConfig {
     public static int custom_lava_speed_nether;
     public static String ping_status_version;
 
+    public static int pregen_parallelism;
+    public static int pregen_max_loaded_chunks;
+    public static int pregen_report_interval;
+
+    public static boolean capability_cache = true;
+    public static boolean lazy_event_bridge = true;
+    public static int event_timing_sample_rate = 32;
+    public static boolean async_player_saving = true;
+
+    public static int profiler_interval_ms;
+    public static int profiler_max_depth;
+    public static String profiler_output_dir;
+
+    public static boolean lag_spikes_enabled;
+    public static int lag_spikes_threshold_ms;
+    public static int lag_spikes_sample_interval_ms;
+    public static int lag_spikes_history;
+    public static boolean lag_spikes_write_reports;
+    public static String lag_spikes_output_dir;
+
+    public static boolean metrics_enabled;
+    public static String metrics_bind;
+    public static int metrics_port;
+    public static String metrics_path;
+    public static int metrics_snapshot_interval;
+
+    public static boolean thread_accounting;
+    public static int thread_accounting_interval;
+
+    public static boolean incremental_chunk_ticking = true;
+    public static boolean per_player_mob_caps = true;
+    public static boolean chunk_send_queue = true;
+    public static int chunk_send_rate_per_player = 8;
+    public static int chunk_send_rate_global = 64;
+    public static boolean async_chunk_saving = false;
+    public static int chunk_save_max_pending = 1024;
+    public static int autosave_chunks_per_tick = 24;
+    public static boolean batched_block_light = false;
+    public static boolean verify_block_light = false;
+    public static String region_compression = "deflate";
+    public static int region_compression_level = -1;
+    public static List<String> region_compression_worlds = List.of();
+    public static int region_compact_threads = 0;
+
+    public static boolean explosion_density_cache = true;
+    public static boolean explosion_batch_block_updates = true;
+    public static boolean merge_primed_tnt = true;
+
+    public static boolean batched_merging = true;
+    public static int crowded_section_items = 128;
+
+    public static boolean hopper_neighbor_cache = true;
+
+    public static String redstone_engine = "vanilla";
+    public static List<String> redstone_engine_worlds = List.of();
+
     private static void mohist() {
         show_logo = getBoolean("mohist.show_logo", true);
         mohist_lang = getString("mohist.lang", Locale.getDefault().toString());
@@ -356,4 +437,106 @@ public class MohistConfig {
         getBoolean("keepinventory.world.inventory", false);
         getBoolean("keepinventory.world.exp", false);
     }
+
+    private static void pregen() {
+        pregen_parallelism = Math.max(1, getInt("pregen.parallelism", 32));
+        pregen_max_loaded_chunks = getInt("pregen.max_loaded_chunks", 8192);
+        pregen_report_interval = Math.max(1, getInt("pregen.report_interval_seconds", 30));
+    }
+
+    private static void capabilities() {
+        capability_cache = getBoolean("capabilities.dispatcher_cache", true);
+    }
+
+    private static void events() {
+        lazy_event_bridge = getBoolean("events.lazy_forge_bridge", true);
+        ForgeEventBridge.refreshAll();
+        event_timing_sample_rate = getInt("events.timing_sample_rate", 32);
+        ListenerTimings.configure();
+    }
+
+    private static void players() {
+        async_player_saving = getBoolean("players.async_save", true);
+    }
+
+    private static void profiler() {
+        profiler_interval_ms = Math.max(1, getInt("profiler.interval_ms", 10));
+        profiler_max_depth = Math.max(8, getInt("profiler.max_stack_depth", 256));
+        profiler_output_dir = getString("profiler.output_dir", "profiler");
+    }
+
+    private static void lagSpikes() {
+        lag_spikes_enabled = getBoolean("lag_spikes.enabled", true);
+        lag_spikes_threshold_ms = Math.max(1, getInt("lag_spikes.threshold_ms", 300));
+        lag_spikes_sample_interval_ms = Math.max(1, getInt("lag_spikes.sample_interval_ms", 2));
+        lag_spikes_history = Math.max(1, getInt("lag_spikes.history", 20));
+        lag_spikes_write_reports = getBoolean("lag_spikes.write_reports", true);
+        lag_spikes_output_dir = getString("lag_spikes.output_dir", "lagspikes");
+    }
+
+    private static void metrics() {
+        metrics_enabled = getBoolean("metrics.enabled", false);
+        metrics_bind = getString("metrics.bind", "127.0.0.1");
+        metrics_port = getInt("metrics.port", 9225);
+        metrics_path = getString("metrics.path", "/metrics");
+        metrics_snapshot_interval = Math.max(20, getInt("metrics.snapshot_interval_ticks", 100));
+        MetricsHttpServer.configure();
+    }
+
+    private static void threads() {
+        thread_accounting = getBoolean("threads.accounting", true);
+        thread_accounting_interval = Math.max(1, getInt("threads.sample_interval_seconds", 5));
+        ThreadAccounting.configure();
+    }
+
+    private static void chunks() {
+        incremental_chunk_ticking = getBoolean("chunks.incremental_ticking", true);
+        per_player_mob_caps = getBoolean("chunks.per_player_mob_caps", true);
+        chunk_send_queue = getBoolean("chunks.send_queue", true);
+        chunk_send_rate_per_player = Math.max(1, getInt("chunks.send_rate_per_player", 8));
+        chunk_send_rate_global = Math.max(1, getInt("chunks.send_rate_global", 64));
+        async_chunk_saving = getBoolean("chunks.async_save", false);
+        chunk_save_max_pending = Math.max(1, getInt("chunks.async_save_max_pending", 1024));
+        autosave_chunks_per_tick = getInt("chunks.autosave_chunks_per_tick", 24);
+        // First lighting of new chunks only, block updates and sky light stay vanilla
+        batched_block_light = getBoolean("chunks.batched_block_light", false);
+        verify_block_light = getBoolean("chunks.verify_block_light", false);
+        region_compression = getString("chunks.region_compression", "deflate");
+        region_compression_level = Math.max(-1, Math.min(9, getInt("chunks.region_compression_level", -1)));
+        region_compression_worlds = getStringList("chunks.region_compression_worlds", List.of());
+        region_compact_threads = getInt("chunks.region_compact_threads", 0);
+    }
+
+    private static void explosions() {
+        explosion_density_cache = getBoolean("explosions.density_cache", true);
+        explosion_batch_block_updates = getBoolean("explosions.batch_block_updates", true);
+        merge_primed_tnt = getBoolean("explosions.merge_primed_tnt", true);
+    }
+
+    private static void merging() {
+        batched_merging = getBoolean("merging.batched", true);
+        crowded_section_items = getInt("merging.crowded_section_items", 128);
+    }
+
+    private static void hoppers() {
+        hopper_neighbor_cache = getBoolean("hoppers.neighbor_cache", true);
+    }
+
+    private static void redstone() {
+        redstone_engine = getString("redstone.engine", "vanilla");
+        redstone_engine_worlds = getStringList("redstone.engine_worlds", List.of());
+    }
+
+    private static void network() {
+        // The listener keeps the settings it was bound with, these apply after a restart
+        NetworkSettings.configure(new NetworkSettings(
+                getString("network.transport", "auto"),
+                getInt("network.io_threads", 0),
+                getBoolean("network.tcp_nodelay", true),
+                getInt("network.so_sndbuf", -1),
+                getInt("network.so_rcvbuf", -1),
+                getInt("network.write_buffer_water_mark.low", NetworkSettings.DEFAULT_WRITE_BUFFER_LOW_WATER_MARK),
+                getInt("network.write_buffer_water_mark.high", NetworkSettings.DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK),
+                getBoolean("network.metrics", true)));
+    }
 }
\ No newline at end of file
@@ -25,17 +25,46 @@ import com.mohistmc.eventhandler.dispatcher.ItemEventDispatcher;
 import com.mohistmc.eventhandler.dispatcher.PlayerEventDispatcher;
 import com.mohistmc.eventhandler.dispatcher.ServerEventDispatcher;
 import com.mohistmc.eventhandler.dispatcher.WorldEventDispatcher;
+import com.stackmania.event.ForgeEventBridge;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.entity.ProjectileImpactEvent;
+import net.minecraftforge.event.entity.item.ItemExpireEvent;
+import net.minecraftforge.event.entity.living.LivingChangeTargetEvent;
+import net.minecraftforge.event.entity.player.AdvancementEvent;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import org.bukkit.event.block.BlockIgniteEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityInteractEvent;
+import org.bukkit.event.entity.EntityTargetLivingEntityEvent;
+import org.bukkit.event.entity.ItemDespawnEvent;
+import org.bukkit.event.player.PlayerAdvancementDoneEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.world.WorldLoadEvent;
 
 public class EventDispatcherRegistry {
 
     public static void init() {
-        MinecraftForge.EVENT_BUS.register(new PlayerEventDispatcher());
-        MinecraftForge.EVENT_BUS.register(new WorldEventDispatcher());
-        MinecraftForge.EVENT_BUS.register(new ItemEventDispatcher());
-        MinecraftForge.EVENT_BUS.register(new EntityEventDispatcher());
-        MinecraftForge.EVENT_BUS.register(new BlockEventDispatcher());
+        PlayerEventDispatcher player = new PlayerEventDispatcher();
+        WorldEventDispatcher world = new WorldEventDispatcher();
+        ItemEventDispatcher item = new ItemEventDispatcher();
+        EntityEventDispatcher entity = new EntityEventDispatcher();
+        BlockEventDispatcher block = new BlockEventDispatcher();
+        MinecraftForge.EVENT_BUS.register(player);
+        MinecraftForge.EVENT_BUS.register(world);
+        MinecraftForge.EVENT_BUS.register(block);
         MinecraftForge.EVENT_BUS.register(new ServerEventDispatcher());
+
+        // Stackmania start - these only fire Bukkit events, listen to Forge while a plugin listens to Bukkit
+        ForgeEventBridge.init();
+        ForgeEventBridge.bridge(AdvancementEvent.class, false, player::onAdvancementDone, PlayerAdvancementDoneEvent.class);
+        ForgeEventBridge.bridge(LevelEvent.Load.class, true, world::onWorldLoadEvent, WorldLoadEvent.class);
+        ForgeEventBridge.bridge(ItemExpireEvent.class, true, item::onItemExpireEvent, ItemDespawnEvent.class);
+        ForgeEventBridge.bridge(LivingChangeTargetEvent.class, true, entity::changeTargetEvent, EntityTargetLivingEntityEvent.class);
+        ForgeEventBridge.bridge(ProjectileImpactEvent.class, true, block::onProjectileHit, BlockIgniteEvent.class);
+        ForgeEventBridge.bridge(BlockEvent.FarmlandTrampleEvent.class, false, block::onFarmlandBreak,
+                PlayerInteractEvent.class, EntityInteractEvent.class, EntityChangeBlockEvent.class);
+        // Stackmania end
         MohistMC.LOGGER.info("EventDispatcherRegistry initialized");
     }
 }
@@ -36,7 +36,6 @@ import org.bukkit.event.entity.EntityInteractEvent;
 
 public class BlockEventDispatcher {
 
-    @SubscribeEvent(receiveCanceled = true)
     public void onProjectileHit(ProjectileImpactEvent event) {
         HitResult hitResult = event.getRayTraceResult();
         Block block = event.getProjectile().getBlockStateOn().getBlock();
@@ -136,7 +135,6 @@ public class BlockEventDispatcher {
         }
     }
 
-    @SubscribeEvent
     public void onFarmlandBreak(BlockEvent.FarmlandTrampleEvent event) {
         Entity entity = event.getEntity();
         Cancellable cancellable;
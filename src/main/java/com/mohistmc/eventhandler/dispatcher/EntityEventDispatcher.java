@@ -21,7 +21,6 @@ package com.mohistmc.eventhandler.dispatcher;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.Mob;
 import net.minecraftforge.event.entity.living.LivingChangeTargetEvent;
-import net.minecraftforge.eventbus.api.SubscribeEvent;
 import org.bukkit.Bukkit;
 import org.bukkit.craftbukkit.v1_20_R1.entity.CraftLivingEntity;
 import org.bukkit.event.entity.EntityTargetEvent;
@@ -30,7 +29,6 @@ import org.spigotmc.AsyncCatcher;
 
 public class EntityEventDispatcher {
 
-    @SubscribeEvent(receiveCanceled = true)
     public void changeTargetEvent(LivingChangeTargetEvent event) {
         EntityTargetEvent.TargetReason reason = event.getReason();
         LivingEntity entityliving = event.getNewTarget();
@@ -19,12 +19,10 @@
 package com.mohistmc.eventhandler.dispatcher;
 
 import net.minecraftforge.event.entity.item.ItemExpireEvent;
-import net.minecraftforge.eventbus.api.SubscribeEvent;
 import org.bukkit.craftbukkit.v1_20_R1.event.CraftEventFactory;
 
 public class ItemEventDispatcher {
 
-    @SubscribeEvent(receiveCanceled = true)
     public void onItemExpireEvent(ItemExpireEvent event) {
         event.setCanceled(CraftEventFactory.callItemDespawnEvent(event.getEntity()).isCancelled());
     }
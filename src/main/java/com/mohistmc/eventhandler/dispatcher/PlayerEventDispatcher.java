@@ -33,7 +33,6 @@ import org.bukkit.event.player.PlayerAdvancementDoneEvent;
 public class PlayerEventDispatcher {
 
     //For PlayerAdvancementDoneEvent
-    @SubscribeEvent
     public void onAdvancementDone(AdvancementEvent event) {
         if (event.getEntity() instanceof ServerPlayer player) {
             Bukkit.getPluginManager().callEvent(new PlayerAdvancementDoneEvent(player.getBukkitEntity(), event.getAdvancement().bukkit));
@@ -30,7 +30,6 @@ import org.bukkit.event.world.WorldLoadEvent;
 public class WorldEventDispatcher {
 
     //For WorldLoadEvent
-    @SubscribeEvent(receiveCanceled = true)
     public void onWorldLoadEvent(LevelEvent.Load event) {
         if (event.getLevel() instanceof ServerLevel handle) {
             CraftWorld craftWorld = handle.getWorld();
@@ -96,6 +96,7 @@ public class ForgeInjectBukkit {
     public static void init() {
         addEnumMaterialInItems();
         addEnumMaterialsInBlocks();
+        CraftMagicNumbers.rebuildLookupTables(); // Stackmania
         addEnumBiome();
         addEnumEnchantment();
         addEnumEffectAndPotion();
@@ -0,0 +1,113 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.capability;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import net.minecraft.server.MinecraftServer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Per owner type counters for the CapabilityDispatcher lookup cache.
+ *
+ * Each dispatcher resolves its counter once when it is created, so recording a
+ * query is a flag check and two LongAdder increments. Nothing is recorded unless
+ * collection was started with /capstats start.
+ */
+public class CapabilityCacheStats {
+
+    private static final Map<Class<?>, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Counter UNKNOWN = new Counter(Object.class);
+
+    private static volatile boolean enabled = false;
+    private static volatile int startTick;
+
+    public static Counter forType(@Nullable Class<?> type) {
+        return type == null ? UNKNOWN : COUNTERS.computeIfAbsent(type, Counter::new);
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void start() {
+        reset();
+        enabled = true;
+    }
+
+    public static void stop() {
+        enabled = false;
+    }
+
+    public static void reset() {
+        for (Counter counter : COUNTERS.values()) {
+            counter.reset();
+        }
+        UNKNOWN.reset();
+        startTick = MinecraftServer.currentTick;
+    }
+
+    public static int getTicksSampled() {
+        return Math.max(1, MinecraftServer.currentTick - startTick);
+    }
+
+    /**
+     * Owner types ordered by number of queries, most queried first.
+     */
+    public static List<Counter> getTop(int limit) {
+        List<Counter> list = new ArrayList<>(COUNTERS.values());
+        list.add(UNKNOWN);
+        list.removeIf(counter -> counter.getQueries() == 0);
+        list.sort(Comparator.comparingLong(Counter::getQueries).reversed());
+        return list.size() > limit ? list.subList(0, limit) : list;
+    }
+
+    public static final class Counter {
+        private final Class<?> type;
+        private final LongAdder queries = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+
+        Counter(Class<?> type) {
+            this.type = type;
+        }
+
+        public void record(boolean hit) {
+            if (!enabled) return;
+            queries.increment();
+            if (hit) hits.increment();
+        }
+
+        void reset() {
+            queries.reset();
+            hits.reset();
+        }
+
+        public String getTypeName() {
+            return type == Object.class ? "unknown" : type.getName();
+        }
+
+        public long getQueries() {
+            return queries.sum();
+        }
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public double getHitRate() {
+            long q = getQueries();
+            return q == 0 ? 0.0 : getHits() * 100.0 / q;
+        }
+
+        public double getQueriesPerTick() {
+            return getQueries() / (double) getTicksSampled();
+        }
+    }
+}
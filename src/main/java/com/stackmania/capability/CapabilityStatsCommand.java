@@ -0,0 +1,99 @@
+/*
+ * Stackmania - Valonia Games
+ * Capability cache statistics command
+ */
+
+package com.stackmania.capability;
+
+import com.mohistmc.MohistConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * /capstats command - Capability lookup cache hit rate per owner type
+ *
+ * Usage:
+ * /capstats start - Reset counters and start collecting
+ * /capstats stop - Stop collecting
+ * /capstats [top [count]] - Show the most queried owner types
+ */
+public class CapabilityStatsCommand extends Command {
+
+    private static final List<String> SUBCOMMANDS = List.of("start", "stop", "top");
+
+    public CapabilityStatsCommand(String name) {
+        super(name);
+        this.description = "Stackmania Capability Cache Statistics";
+        this.usageMessage = "/capstats [start|stop|top [count]]";
+        this.setPermission("stackmania.command.capstats");
+    }
+
+    @Override
+    public @NotNull List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, String[] args) {
+        List<String> list = new ArrayList<>();
+        if (args.length == 1 && testPermissionSilent(sender)) {
+            for (String sub : SUBCOMMANDS) {
+                if (sub.startsWith(args[0].toLowerCase(Locale.ROOT))) list.add(sub);
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public boolean execute(@NotNull CommandSender sender, @NotNull String label, String[] args) {
+        if (!testPermission(sender)) {
+            return false;
+        }
+
+        String sub = args.length == 0 ? "top" : args[0].toLowerCase(Locale.ROOT);
+        switch (sub) {
+            case "start" -> {
+                CapabilityCacheStats.start();
+                sender.sendMessage(ChatColor.GREEN + "Capability statistics collection started");
+            }
+            case "stop" -> {
+                CapabilityCacheStats.stop();
+                sender.sendMessage(ChatColor.GREEN + "Capability statistics collection stopped");
+            }
+            case "top" -> {
+                int limit = 10;
+                if (args.length > 1) {
+                    try {
+                        limit = Math.max(1, Integer.parseInt(args[1]));
+                    } catch (NumberFormatException e) {
+                        sender.sendMessage(ChatColor.RED + "Invalid count: " + args[1]);
+                        return false;
+                    }
+                }
+                showTop(sender, limit);
+            }
+            default -> {
+                sender.sendMessage(ChatColor.RED + "Usage: " + usageMessage);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void showTop(CommandSender sender, int limit) {
+        sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + "Capability Cache" + ChatColor.GOLD + " ═══════");
+        sender.sendMessage(ChatColor.WHITE + "Cache: " + (MohistConfig.capability_cache ? ChatColor.GREEN + "enabled" : ChatColor.RED + "disabled")
+                + ChatColor.WHITE + " | Collecting: " + (CapabilityCacheStats.isEnabled() ? ChatColor.GREEN + "yes" : ChatColor.YELLOW + "no")
+                + ChatColor.WHITE + " | Ticks: " + ChatColor.AQUA + CapabilityCacheStats.getTicksSampled());
+
+        List<CapabilityCacheStats.Counter> top = CapabilityCacheStats.getTop(limit);
+        if (top.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "No capability queries recorded, use /capstats start");
+            return;
+        }
+        for (CapabilityCacheStats.Counter counter : top) {
+            sender.sendMessage(String.format("%s%s%s: %.1f queries/tick, %.1f%% hits",
+                    ChatColor.WHITE, counter.getTypeName(), ChatColor.GRAY, counter.getQueriesPerTick(), counter.getHitRate()));
+        }
+    }
+}
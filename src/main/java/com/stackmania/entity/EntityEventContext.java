@@ -0,0 +1,160 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.entity;
+
+import net.minecraft.core.PositionImpl;
+import org.bukkit.event.entity.EntityPotionEffectEvent;
+import org.bukkit.event.entity.EntityRegainHealthEvent;
+import org.bukkit.event.entity.EntityTransformEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Bukkit event arguments handed from a CraftBukkit overload, such as heal with a
+ * regain reason or teleport with a cause, to the vanilla method it delegates to.
+ *
+ * Most entities never go through those overloads, so an entity only allocates its
+ * context the first time an argument is stored and reuses it afterwards. Like the
+ * rest of the entity state it is only touched by the thread ticking the entity.
+ * Each value goes back to its default once it has been taken.
+ */
+public final class EntityEventContext {
+
+    private EntityPotionEffectEvent.Cause removeAllEffectsCause = EntityPotionEffectEvent.Cause.UNKNOWN;
+    private EntityPotionEffectEvent.Cause removeEffectCause = EntityPotionEffectEvent.Cause.UNKNOWN;
+    private EntityRegainHealthEvent.RegainReason regainReason = EntityRegainHealthEvent.RegainReason.CUSTOM;
+    private PlayerTeleportEvent.TeleportCause randomTeleportCause = PlayerTeleportEvent.TeleportCause.UNKNOWN;
+    private PlayerTeleportEvent.TeleportCause changeDimensionCause = PlayerTeleportEvent.TeleportCause.UNKNOWN;
+    private PlayerTeleportEvent.TeleportCause teleportCause = PlayerTeleportEvent.TeleportCause.UNKNOWN;
+    private PlayerTeleportEvent.TeleportCause levelTeleportCause = PlayerTeleportEvent.TeleportCause.UNKNOWN;
+    private EntityTransformEvent.TransformReason transformReason = EntityTransformEvent.TransformReason.UNKNOWN;
+    @Nullable
+    private PositionImpl teleportPosition;
+    @Nullable
+    private Integer breedExperience;
+    private boolean silentEquip;
+
+    public void setRemoveAllEffectsCause(EntityPotionEffectEvent.Cause cause) {
+        this.removeAllEffectsCause = cause;
+    }
+
+    public EntityPotionEffectEvent.Cause takeRemoveAllEffectsCause() {
+        EntityPotionEffectEvent.Cause cause = this.removeAllEffectsCause;
+        this.removeAllEffectsCause = EntityPotionEffectEvent.Cause.UNKNOWN;
+        return cause;
+    }
+
+    public void setRemoveEffectCause(EntityPotionEffectEvent.Cause cause) {
+        this.removeEffectCause = cause;
+    }
+
+    public EntityPotionEffectEvent.Cause takeRemoveEffectCause() {
+        EntityPotionEffectEvent.Cause cause = this.removeEffectCause;
+        this.removeEffectCause = EntityPotionEffectEvent.Cause.UNKNOWN;
+        return cause;
+    }
+
+    public void setRegainReason(EntityRegainHealthEvent.RegainReason reason) {
+        this.regainReason = reason;
+    }
+
+    public EntityRegainHealthEvent.RegainReason takeRegainReason() {
+        EntityRegainHealthEvent.RegainReason reason = this.regainReason;
+        this.regainReason = EntityRegainHealthEvent.RegainReason.CUSTOM;
+        return reason;
+    }
+
+    public void setRandomTeleportCause(PlayerTeleportEvent.TeleportCause cause) {
+        this.randomTeleportCause = cause;
+    }
+
+    public PlayerTeleportEvent.TeleportCause takeRandomTeleportCause() {
+        PlayerTeleportEvent.TeleportCause cause = this.randomTeleportCause;
+        this.randomTeleportCause = PlayerTeleportEvent.TeleportCause.UNKNOWN;
+        return cause;
+    }
+
+    public void setChangeDimensionCause(PlayerTeleportEvent.TeleportCause cause) {
+        this.changeDimensionCause = cause;
+    }
+
+    public PlayerTeleportEvent.TeleportCause takeChangeDimensionCause() {
+        PlayerTeleportEvent.TeleportCause cause = this.changeDimensionCause;
+        this.changeDimensionCause = PlayerTeleportEvent.TeleportCause.UNKNOWN;
+        return cause;
+    }
+
+    /**
+     * Cause of a same level teleport with relative movements.
+     */
+    public void setTeleportCause(PlayerTeleportEvent.TeleportCause cause) {
+        this.teleportCause = cause;
+    }
+
+    public PlayerTeleportEvent.TeleportCause takeTeleportCause() {
+        PlayerTeleportEvent.TeleportCause cause = this.teleportCause;
+        this.teleportCause = PlayerTeleportEvent.TeleportCause.UNKNOWN;
+        return cause;
+    }
+
+    /**
+     * Cause of a teleport that may move the player to another level.
+     */
+    public void setLevelTeleportCause(PlayerTeleportEvent.TeleportCause cause) {
+        this.levelTeleportCause = cause;
+    }
+
+    public PlayerTeleportEvent.TeleportCause takeLevelTeleportCause() {
+        PlayerTeleportEvent.TeleportCause cause = this.levelTeleportCause;
+        this.levelTeleportCause = PlayerTeleportEvent.TeleportCause.UNKNOWN;
+        return cause;
+    }
+
+    public void setTeleportPosition(@Nullable PositionImpl position) {
+        this.teleportPosition = position;
+    }
+
+    @Nullable
+    public PositionImpl takeTeleportPosition() {
+        PositionImpl position = this.teleportPosition;
+        this.teleportPosition = null;
+        return position;
+    }
+
+    public void setTransformReason(EntityTransformEvent.TransformReason reason) {
+        this.transformReason = reason;
+    }
+
+    public EntityTransformEvent.TransformReason takeTransformReason() {
+        EntityTransformEvent.TransformReason reason = this.transformReason;
+        this.transformReason = EntityTransformEvent.TransformReason.UNKNOWN;
+        return reason;
+    }
+
+    /**
+     * Experience an animal drops for breeding, as set by the EntityBreedEvent.
+     */
+    public void setBreedExperience(int experience) {
+        this.breedExperience = experience;
+    }
+
+    @Nullable
+    public Integer takeBreedExperience() {
+        Integer experience = this.breedExperience;
+        this.breedExperience = null;
+        return experience;
+    }
+
+    public void setSilentEquip(boolean silent) {
+        this.silentEquip = silent;
+    }
+
+    public boolean takeSilentEquip() {
+        boolean silent = this.silentEquip;
+        this.silentEquip = false;
+        return silent;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.entity;
+
+import com.mohistmc.MohistConfig;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.ExperienceOrb;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.entity.EntityTypeTest;
+import net.minecraft.world.phys.AABB;
+
+/**
+ * Item and experience orb merging, batched per chunk section.
+ *
+ * Instead of each item querying the entities around it when it wants to merge,
+ * it is queued under its chunk section and the level merges the queue once its
+ * entities ticked. Each section then queries its surroundings once and buckets
+ * the results by item, or by value for orbs, so a merge only compares stacks that
+ * could combine. The merge rules, Spigot's merge-radius.item and the item merge
+ * event stay the same.
+ *
+ * A section holding more than merging.crowded_section_items items is merged as a
+ * whole, every stack with every stack of the same item in the section regardless
+ * of the radius. Items are never removed for being too many.
+ *
+ * Only accessed from the server thread.
+ */
+public class EntityMerging {
+
+    private static final Map<ServerLevel, Queue> QUEUES = new WeakHashMap<>();
+    private static long itemMerges;
+    private static long orbMerges;
+
+    private static final class Queue {
+        private final Long2ObjectLinkedOpenHashMap<ObjectArrayList<ItemEntity>> items = new Long2ObjectLinkedOpenHashMap<>();
+        private final Long2ObjectLinkedOpenHashMap<ObjectArrayList<ExperienceOrb>> orbs = new Long2ObjectLinkedOpenHashMap<>();
+    }
+
+    /**
+     * Queue an item that wants to merge with its neighbours.
+     *
+     * @return false if batching is off and the item should merge by itself
+     */
+    public static boolean queue(ItemEntity item) {
+        if (!MohistConfig.batched_merging || !(item.level() instanceof ServerLevel level)) {
+            return false;
+        }
+        queueOf(level).items.computeIfAbsent(SectionPos.asLong(item.blockPosition()), k -> new ObjectArrayList<>()).add(item);
+        return true;
+    }
+
+    /**
+     * Queue an orb that wants to merge with its neighbours.
+     *
+     * @return false if batching is off and the orb should merge by itself
+     */
+    public static boolean queue(ExperienceOrb orb) {
+        if (!MohistConfig.batched_merging || !(orb.level() instanceof ServerLevel level)) {
+            return false;
+        }
+        queueOf(level).orbs.computeIfAbsent(SectionPos.asLong(orb.blockPosition()), k -> new ObjectArrayList<>()).add(orb);
+        return true;
+    }
+
+    private static Queue queueOf(ServerLevel level) {
+        return QUEUES.computeIfAbsent(level, k -> new Queue());
+    }
+
+    /**
+     * Merge everything queued in the level, called after its entities ticked.
+     */
+    public static void mergeQueued(ServerLevel level) {
+        Queue queue = QUEUES.get(level);
+        if (queue == null) {
+            return;
+        }
+        while (!queue.items.isEmpty()) {
+            long section = queue.items.firstLongKey();
+            mergeItems(level, section, queue.items.removeFirst());
+        }
+        while (!queue.orbs.isEmpty()) {
+            long section = queue.orbs.firstLongKey();
+            mergeOrbs(level, section, queue.orbs.removeFirst());
+        }
+    }
+
+    private static void mergeItems(ServerLevel level, long section, List<ItemEntity> queued) {
+        double radius = level.spigotConfig.itemMerge;
+        AABB area = sectionBox(section).inflate(radius + 1.0D);
+        List<ItemEntity> candidates = level.getEntitiesOfClass(ItemEntity.class, area, ItemEntity::isMergable);
+        if (candidates.size() < 2) {
+            return;
+        }
+
+        Map<Item, ObjectArrayList<ItemEntity>> byItem = new IdentityHashMap<>();
+        ObjectArrayList<ItemEntity> inSection = new ObjectArrayList<>();
+        for (ItemEntity candidate : candidates) {
+            byItem.computeIfAbsent(candidate.getItem().getItem(), k -> new ObjectArrayList<>()).add(candidate);
+            if (SectionPos.asLong(candidate.blockPosition()) == section) {
+                inSection.add(candidate);
+            }
+        }
+        int crowdedAt = MohistConfig.crowded_section_items;
+        boolean crowded = crowdedAt > 0 && inSection.size() > crowdedAt;
+
+        for (ItemEntity item : crowded ? inSection : queued) {
+            if (!item.isMergable()) {
+                continue;
+            }
+            List<ItemEntity> same = byItem.get(item.getItem().getItem());
+            if (same == null) {
+                continue;
+            }
+            AABB reach = item.getBoundingBox().inflate(radius, radius - 0.5D, radius);
+            for (ItemEntity other : same) {
+                if (other == item || !other.isMergable()) {
+                    continue;
+                }
+                if (!reach.intersects(other.getBoundingBox()) && !(crowded && SectionPos.asLong(other.blockPosition()) == section)) {
+                    continue;
+                }
+                item.tryToMerge(other);
+                if (item.isRemoved() || other.isRemoved()) {
+                    itemMerges++;
+                }
+                if (item.isRemoved()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private static void mergeOrbs(ServerLevel level, long section, List<ExperienceOrb> queued) {
+        AABB area = sectionBox(section).inflate(1.5D);
+        List<ExperienceOrb> candidates = level.getEntities(EntityTypeTest.forClass(ExperienceOrb.class), area, orb -> !orb.isRemoved());
+        if (candidates.size() < 2) {
+            return;
+        }
+
+        Int2ObjectOpenHashMap<ObjectArrayList<ExperienceOrb>> byValue = new Int2ObjectOpenHashMap<>();
+        for (ExperienceOrb candidate : candidates) {
+            byValue.computeIfAbsent(candidate.getValue(), k -> new ObjectArrayList<>()).add(candidate);
+        }
+        for (ExperienceOrb orb : queued) {
+            if (orb.isRemoved()) {
+                continue;
+            }
+            List<ExperienceOrb> same = byValue.get(orb.getValue());
+            if (same == null) {
+                continue;
+            }
+            AABB reach = orb.getBoundingBox().inflate(0.5D);
+            for (ExperienceOrb other : same) {
+                if (orb.canMerge(other) && reach.intersects(other.getBoundingBox())) {
+                    orb.merge(other);
+                    orbMerges++;
+                }
+            }
+        }
+    }
+
+    private static AABB sectionBox(long section) {
+        double x = SectionPos.sectionToBlockCoord(SectionPos.x(section));
+        double y = SectionPos.sectionToBlockCoord(SectionPos.y(section));
+        double z = SectionPos.sectionToBlockCoord(SectionPos.z(section));
+        return new AABB(x, y, z, x + 16.0D, y + 16.0D, z + 16.0D);
+    }
+
+    public static long getItemMerges() {
+        return itemMerges;
+    }
+
+    public static long getOrbMerges() {
+        return orbMerges;
+    }
+}
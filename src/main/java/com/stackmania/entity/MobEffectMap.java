@@ -0,0 +1,276 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.entity;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import net.minecraft.world.effect.MobEffect;
+import net.minecraft.world.effect.MobEffectInstance;
+import net.minecraft.world.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+import org.spigotmc.AsyncCatcher;
+
+/**
+ * Active effects of a living entity.
+ *
+ * Most entities have no effect at all and the rest rarely more than three, so the
+ * effects are kept in a single array of key/value pairs searched by identity. An
+ * entity without effects shares one empty array.
+ *
+ * Every change installs a new array. Iterators walk the array they started with, so
+ * the effect tick may add or remove effects while it iterates, as the
+ * ConcurrentHashMap used before allowed, and other threads reading through
+ * {@link #snapshot()} never see a half written table. Changes to an entity that is
+ * in a world are only allowed from the server thread.
+ */
+public final class MobEffectMap extends AbstractMap<MobEffect, MobEffectInstance> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private final Entity owner;
+    private volatile Object[] table = EMPTY;
+
+    public MobEffectMap(Entity owner) {
+        this.owner = owner;
+    }
+
+    private static int indexOf(Object[] table, Object key) {
+        for (int i = 0; i < table.length; i += 2) {
+            if (table[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void checkThread() {
+        if (owner.valid) {
+            AsyncCatcher.catchOp("mob effect change");
+        }
+    }
+
+    @Override
+    public int size() {
+        return table.length >> 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return table.length == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(table, key) >= 0;
+    }
+
+    @Override
+    public MobEffectInstance get(Object key) {
+        Object[] table = this.table;
+        int i = indexOf(table, key);
+        return i < 0 ? null : (MobEffectInstance) table[i + 1];
+    }
+
+    @Override
+    public MobEffectInstance put(MobEffect key, MobEffectInstance value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        checkThread();
+        Object[] table = this.table;
+        int i = indexOf(table, key);
+        if (i >= 0) {
+            Object[] copy = table.clone();
+            copy[i + 1] = value;
+            this.table = copy;
+            return (MobEffectInstance) table[i + 1];
+        }
+        Object[] copy = Arrays.copyOf(table, table.length + 2);
+        copy[table.length] = key;
+        copy[table.length + 1] = value;
+        this.table = copy;
+        return null;
+    }
+
+    @Override
+    public MobEffectInstance remove(Object key) {
+        Object[] table = this.table;
+        int i = indexOf(table, key);
+        if (i < 0) {
+            return null;
+        }
+        checkThread();
+        if (table.length == 2) {
+            this.table = EMPTY;
+        } else {
+            Object[] copy = new Object[table.length - 2];
+            System.arraycopy(table, 0, copy, 0, i);
+            System.arraycopy(table, i + 2, copy, i, table.length - i - 2);
+            this.table = copy;
+        }
+        return (MobEffectInstance) table[i + 1];
+    }
+
+    @Override
+    public void clear() {
+        if (table.length != 0) {
+            checkThread();
+            table = EMPTY;
+        }
+    }
+
+    /**
+     * Immutable copy of the current effects, safe to use from any thread.
+     */
+    public Map<MobEffect, MobEffectInstance> snapshot() {
+        Object[] table = this.table;
+        if (table.length == 0) {
+            return ImmutableMap.of();
+        }
+        ImmutableMap.Builder<MobEffect, MobEffectInstance> builder = ImmutableMap.builderWithExpectedSize(table.length >> 1);
+        for (int i = 0; i < table.length; i += 2) {
+            builder.put((MobEffect) table[i], (MobEffectInstance) table[i + 1]);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public @NotNull Set<Entry<MobEffect, MobEffectInstance>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public @NotNull Iterator<Entry<MobEffect, MobEffectInstance>> iterator() {
+                return new Itr<>() {
+                    @Override
+                    Entry<MobEffect, MobEffectInstance> element(Object[] table, int i) {
+                        return new EffectEntry((MobEffect) table[i], (MobEffectInstance) table[i + 1]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return MobEffectMap.this.size();
+            }
+
+            @Override
+            public void clear() {
+                MobEffectMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public @NotNull Set<MobEffect> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public @NotNull Iterator<MobEffect> iterator() {
+                return new Itr<>() {
+                    @Override
+                    MobEffect element(Object[] table, int i) {
+                        return (MobEffect) table[i];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return MobEffectMap.this.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                return MobEffectMap.this.remove(o) != null;
+            }
+
+            @Override
+            public void clear() {
+                MobEffectMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public @NotNull Collection<MobEffectInstance> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public @NotNull Iterator<MobEffectInstance> iterator() {
+                return new Itr<>() {
+                    @Override
+                    MobEffectInstance element(Object[] table, int i) {
+                        return (MobEffectInstance) table[i + 1];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return MobEffectMap.this.size();
+            }
+
+            @Override
+            public void clear() {
+                MobEffectMap.this.clear();
+            }
+        };
+    }
+
+    private abstract class Itr<T> implements Iterator<T> {
+        private final Object[] table = MobEffectMap.this.table;
+        private int next;
+        private int last = -1;
+
+        abstract T element(Object[] table, int i);
+
+        @Override
+        public boolean hasNext() {
+            return next < table.length;
+        }
+
+        @Override
+        public T next() {
+            if (next >= table.length) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next += 2;
+            return element(table, last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            MobEffectMap.this.remove(table[last]);
+            last = -1;
+        }
+    }
+
+    private final class EffectEntry extends SimpleEntry<MobEffect, MobEffectInstance> {
+        EffectEntry(MobEffect key, MobEffectInstance value) {
+            super(key, value);
+        }
+
+        @Override
+        public MobEffectInstance setValue(MobEffectInstance value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.entity;
+
+import com.mohistmc.MohistConfig;
+import java.util.HashMap;
+import java.util.Map;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.item.PrimedTnt;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Merges primed TNT that are indistinguishable into one entity.
+ *
+ * A cannon primes dozens of TNT in the same spot with the same motion and fuse;
+ * from then on they follow the same path and explode on the same tick, each one
+ * ticking, colliding and being sent to players on its own. After its tick a TNT
+ * looks for an earlier one of this tick with the same class, level, position,
+ * motion, fuse, owner, yield and fire; when found it adds its count to that one
+ * and is discarded. The survivor explodes once per merged TNT. Explosions at the
+ * exact position of a TNT do not push it, so the survivor ends up where each of
+ * the merged TNT would have. Spigot's max-tnt-per-tick counts the survivor once.
+ *
+ * Only accessed from the server thread.
+ */
+public class TntMerging {
+
+    private static final Map<Key, PrimedTnt> CANDIDATES = new HashMap<>();
+    private static int candidatesTick = Integer.MIN_VALUE;
+
+    private record Key(Class<?> type, Level level, Vec3 position, Vec3 motion, int fuse, LivingEntity owner,
+                       float yield, boolean incendiary) {
+    }
+
+    /**
+     * Merge a TNT that finished its tick into an equal one.
+     *
+     * @return true if the TNT was merged and discarded
+     */
+    public static boolean tryMerge(PrimedTnt tnt) {
+        if (!MohistConfig.merge_primed_tnt || tnt.level().isClientSide || tnt.isRemoved()) {
+            return false;
+        }
+        int tick = MinecraftServer.currentTick;
+        if (candidatesTick != tick) {
+            candidatesTick = tick;
+            CANDIDATES.clear();
+        }
+        Key key = new Key(tnt.getClass(), tnt.level(), tnt.position(), tnt.getDeltaMovement(), tnt.getFuse(), tnt.getOwner(),
+                tnt.yield, tnt.isIncendiary);
+        PrimedTnt target = CANDIDATES.putIfAbsent(key, tnt);
+        if (target == null || target == tnt || target.isRemoved()) {
+            if (target != null && target.isRemoved()) {
+                CANDIDATES.put(key, tnt);
+            }
+            return false;
+        }
+        target.mergedCount += tnt.mergedCount;
+        tnt.discard();
+        return true;
+    }
+}
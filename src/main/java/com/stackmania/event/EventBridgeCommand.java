@@ -0,0 +1,69 @@
+/*
+ * Stackmania - Valonia Games
+ * Forge to Bukkit event bridge command
+ */
+
+package com.stackmania.event;
+
+import com.mohistmc.MohistConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * /eventbridge command - Forge events translated to Bukkit events
+ *
+ * Usage:
+ * /eventbridge - List bridged events with calls/s and time spent
+ * /eventbridge reset - Reset the counters
+ */
+public class EventBridgeCommand extends Command {
+
+    public EventBridgeCommand(String name) {
+        super(name);
+        this.description = "Stackmania Forge to Bukkit Event Bridge";
+        this.usageMessage = "/eventbridge [reset]";
+        this.setPermission("stackmania.command.eventbridge");
+    }
+
+    @Override
+    public @NotNull List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, String[] args) {
+        List<String> list = new ArrayList<>();
+        if (args.length == 1 && testPermissionSilent(sender) && "reset".startsWith(args[0].toLowerCase(Locale.ROOT))) {
+            list.add("reset");
+        }
+        return list;
+    }
+
+    @Override
+    public boolean execute(@NotNull CommandSender sender, @NotNull String label, String[] args) {
+        if (!testPermission(sender)) {
+            return false;
+        }
+
+        if (args.length > 0) {
+            if (!args[0].equalsIgnoreCase("reset")) {
+                sender.sendMessage(ChatColor.RED + "Usage: " + usageMessage);
+                return false;
+            }
+            ForgeEventBridge.reset();
+            sender.sendMessage(ChatColor.GREEN + "Event bridge counters reset");
+            return true;
+        }
+
+        sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + "Event Bridge" + ChatColor.GOLD + " ═══════");
+        sender.sendMessage(ChatColor.WHITE + "Lazy subscription: " + (MohistConfig.lazy_event_bridge ? ChatColor.GREEN + "enabled" : ChatColor.RED + "disabled")
+                + ChatColor.WHITE + " | Sampled: " + ChatColor.AQUA + String.format("%.0fs", ForgeEventBridge.getSecondsSampled()));
+        for (ForgeEventBridge.Bridge<?> bridge : ForgeEventBridge.getBridges()) {
+            String state = bridge.isActive() ? ChatColor.GREEN + "on " : ChatColor.DARK_GRAY + "off";
+            sender.sendMessage(String.format("%s %s%s %s-> %s%s%s: %.1f/s, %.3f ms/s",
+                    state, ChatColor.WHITE, bridge.getForgeEventName(), ChatColor.GRAY, ChatColor.WHITE, bridge.getBukkitEventNames(),
+                    ChatColor.GRAY, bridge.getCallsPerSecond(), bridge.getMillisPerSecond()));
+        }
+        return true;
+    }
+}
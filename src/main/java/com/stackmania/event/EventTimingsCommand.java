@@ -0,0 +1,120 @@
+/*
+ * Stackmania - Valonia Games
+ * Event handler cost command
+ */
+
+package com.stackmania.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * /eventtimings command - Sampled cost of Bukkit and Forge event handlers
+ *
+ * Usage:
+ * /eventtimings [count] - Owners and their most expensive events, in ms/tick
+ * /eventtimings <plugin:name|mod:id> - Every event handled by one owner
+ * /eventtimings reset - Reset the counters
+ */
+public class EventTimingsCommand extends Command {
+
+    public EventTimingsCommand(String name) {
+        super(name);
+        this.description = "Stackmania Event Handler Timings";
+        this.usageMessage = "/eventtimings [count|owner|reset]";
+        this.setPermission("stackmania.command.eventtimings");
+    }
+
+    @Override
+    public @NotNull List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, String[] args) {
+        List<String> list = new ArrayList<>();
+        if (args.length == 1 && testPermissionSilent(sender)) {
+            String prefix = args[0].toLowerCase(Locale.ROOT);
+            if ("reset".startsWith(prefix)) list.add("reset");
+            for (ListenerTimings.Entry owner : ListenerTimings.getOwners()) {
+                if (owner.owner().toLowerCase(Locale.ROOT).startsWith(prefix)) list.add(owner.owner());
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public boolean execute(@NotNull CommandSender sender, @NotNull String label, String[] args) {
+        if (!testPermission(sender)) {
+            return false;
+        }
+        if (!ListenerTimings.isEnabled()) {
+            sender.sendMessage(ChatColor.RED + "Event timings are disabled, set events.timing_sample_rate above 0 in the configuration");
+            return false;
+        }
+
+        int limit = 10;
+        if (args.length > 0) {
+            if (args[0].equalsIgnoreCase("reset")) {
+                ListenerTimings.reset();
+                sender.sendMessage(ChatColor.GREEN + "Event timings reset");
+                return true;
+            }
+            try {
+                limit = Math.max(1, Integer.parseInt(args[0]));
+            } catch (NumberFormatException e) {
+                return showOwner(sender, args[0]);
+            }
+        }
+
+        int ticks = ListenerTimings.getTicksSampled();
+        sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + "Event Timings" + ChatColor.GOLD + " ═══════");
+        sender.sendMessage(ChatColor.WHITE + "Sampled: " + ChatColor.AQUA + ticks + " ticks" + ChatColor.WHITE
+                + " | 1 in " + ChatColor.AQUA + ListenerTimings.getSampleRate() + ChatColor.WHITE + " dispatches timed");
+        List<ListenerTimings.Entry> owners = ListenerTimings.getOwners();
+        if (owners.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "No handlers timed yet");
+            return true;
+        }
+        List<ListenerTimings.Entry> handlers = ListenerTimings.getHandlers();
+        for (ListenerTimings.Entry owner : owners.subList(0, Math.min(limit, owners.size()))) {
+            sendLine(sender, owner.owner(), owner, ticks);
+            int shown = 0;
+            for (ListenerTimings.Entry handler : handlers) {
+                if (shown == 3) break;
+                if (!handler.owner().equals(owner.owner())) continue;
+                sendLine(sender, "  " + handler.event(), handler, ticks);
+                shown++;
+            }
+        }
+        return true;
+    }
+
+    private boolean showOwner(CommandSender sender, String owner) {
+        int ticks = ListenerTimings.getTicksSampled();
+        List<ListenerTimings.Entry> handlers = new ArrayList<>();
+        for (ListenerTimings.Entry handler : ListenerTimings.getHandlers()) {
+            if (handler.owner().equalsIgnoreCase(owner)) handlers.add(handler);
+        }
+        if (handlers.isEmpty()) {
+            sender.sendMessage(ChatColor.RED + "No timed handlers for " + owner);
+            return false;
+        }
+        sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + handlers.get(0).owner() + ChatColor.GOLD + " ═══════");
+        for (ListenerTimings.Entry handler : handlers) {
+            sendLine(sender, handler.event(), handler, ticks);
+        }
+        return true;
+    }
+
+    private static void sendLine(CommandSender sender, String name, ListenerTimings.Entry entry, int ticks) {
+        double millisPerTick = entry.nanos() / 1.0E6 / ticks;
+        sender.sendMessage(String.format(Locale.ROOT, "%s%s%s: %s%.3f ms/tick%s, %.1f calls/tick, %.1f µs/call",
+                ChatColor.WHITE, name, ChatColor.GRAY, color(millisPerTick), millisPerTick, ChatColor.GRAY,
+                (double) entry.calls() / ticks, entry.calls() == 0 ? 0 : entry.nanos() / 1.0E3 / entry.calls()));
+    }
+
+    private static ChatColor color(double millisPerTick) {
+        return millisPerTick < 1 ? ChatColor.GREEN : millisPerTick < 5 ? ChatColor.YELLOW : ChatColor.RED;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.event;
+
+import com.mohistmc.MohistConfig;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Runs Forge to Bukkit event translators only while a plugin listens.
+ *
+ * Each bridge knows the Bukkit HandlerLists it feeds. When a list gains its first
+ * listener the translator is switched on, and it is switched off again once none
+ * of its lists have listeners, so Forge events nobody on the Bukkit side cares
+ * about no longer go through the translation and callEvent at all. Translators
+ * stay registered on the Forge bus from startup and only check the switch, which
+ * keeps their place among the other listeners of the same priority: adding them
+ * later would run them after every listener registered in between.
+ *
+ * Only translators that have no effect besides firing the Bukkit event may be
+ * bridged; the others stay registered on the Forge bus permanently.
+ */
+public class ForgeEventBridge {
+
+    private static final Logger LOGGER = LogManager.getLogger("Stackmania/EventBridge");
+    private static final List<Bridge<?>> BRIDGES = new CopyOnWriteArrayList<>();
+
+    private static volatile long resetTime = System.nanoTime();
+
+    public static void init() {
+        HandlerList.setChangeListener(ForgeEventBridge::onHandlerListChanged);
+    }
+
+    @SafeVarargs
+    public static <T extends Event> void bridge(Class<T> forgeEvent, boolean receiveCanceled, Consumer<T> handler,
+                                                Class<? extends org.bukkit.event.Event>... bukkitEvents) {
+        Bridge<T> bridge = new Bridge<>(forgeEvent, handler, bukkitEvents);
+        BRIDGES.add(bridge);
+        MinecraftForge.EVENT_BUS.addListener(EventPriority.NORMAL, receiveCanceled, forgeEvent, bridge.listener);
+        bridge.refresh();
+    }
+
+    /**
+     * Re-evaluate every bridge, used when the configuration changes.
+     */
+    public static void refreshAll() {
+        for (Bridge<?> bridge : BRIDGES) {
+            bridge.refresh();
+        }
+    }
+
+    private static void onHandlerListChanged(HandlerList list) {
+        for (Bridge<?> bridge : BRIDGES) {
+            if (bridge.watches(list)) {
+                bridge.refresh();
+            }
+        }
+    }
+
+    public static void reset() {
+        for (Bridge<?> bridge : BRIDGES) {
+            bridge.calls.reset();
+            bridge.nanos.reset();
+        }
+        resetTime = System.nanoTime();
+    }
+
+    public static double getSecondsSampled() {
+        return Math.max(1.0, (System.nanoTime() - resetTime) / 1.0E9);
+    }
+
+    /**
+     * Bridges ordered by time spent, most expensive first.
+     */
+    public static List<Bridge<?>> getBridges() {
+        List<Bridge<?>> list = new ArrayList<>(BRIDGES);
+        list.sort(Comparator.comparingLong((Bridge<?> bridge) -> bridge.getNanos()).reversed());
+        return list;
+    }
+
+    private static HandlerList getHandlerList(Class<? extends org.bukkit.event.Event> type) {
+        for (Class<?> clazz = type; clazz != null && clazz != org.bukkit.event.Event.class; clazz = clazz.getSuperclass()) {
+            try {
+                Method method = clazz.getDeclaredMethod("getHandlerList");
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    break;
+                }
+                method.setAccessible(true);
+                return (HandlerList) method.invoke(null);
+            } catch (NoSuchMethodException ignored) {
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Unable to get the handler list of " + type.getName(), e);
+            }
+        }
+        throw new IllegalArgumentException(type.getName() + " has no static getHandlerList method");
+    }
+
+    public static final class Bridge<T extends Event> {
+        private final Class<T> forgeEvent;
+        private final Consumer<T> handler;
+        private final HandlerList[] handlerLists;
+        private final String[] bukkitEvents;
+        private final Consumer<T> listener = this::dispatch;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private volatile boolean active;
+
+        private Bridge(Class<T> forgeEvent, Consumer<T> handler, Class<? extends org.bukkit.event.Event>[] bukkitEvents) {
+            this.forgeEvent = forgeEvent;
+            this.handler = handler;
+            this.handlerLists = new HandlerList[bukkitEvents.length];
+            this.bukkitEvents = new String[bukkitEvents.length];
+            for (int i = 0; i < bukkitEvents.length; i++) {
+                this.handlerLists[i] = getHandlerList(bukkitEvents[i]);
+                this.bukkitEvents[i] = bukkitEvents[i].getSimpleName();
+            }
+        }
+
+        private void dispatch(T event) {
+            if (!active) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                handler.accept(event);
+            } finally {
+                nanos.add(System.nanoTime() - start);
+                calls.increment();
+            }
+        }
+
+        boolean watches(HandlerList list) {
+            for (HandlerList handlerList : handlerLists) {
+                if (handlerList == list) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean hasListeners() {
+            for (HandlerList handlerList : handlerLists) {
+                if (handlerList.getRegisteredListeners().length > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized void refresh() {
+            boolean wanted = !MohistConfig.lazy_event_bridge || hasListeners();
+            if (wanted == active) {
+                return;
+            }
+            active = wanted;
+            LOGGER.debug("{} {} for {}", wanted ? "Translating" : "Stopped translating", getForgeEventName(), getBukkitEventNames());
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public String getForgeEventName() {
+            String name = forgeEvent.getName();
+            return name.substring(name.lastIndexOf('.') + 1).replace('$', '.');
+        }
+
+        public String getBukkitEventNames() {
+            return String.join(", ", bukkitEvents);
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getNanos() {
+            return nanos.sum();
+        }
+
+        public double getCallsPerSecond() {
+            return getCalls() / getSecondsSampled();
+        }
+
+        /**
+         * Milliseconds spent in the translator and the Bukkit listeners per second.
+         */
+        public double getMillisPerSecond() {
+            return getNanos() / 1.0E6 / getSecondsSampled();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.event;
+
+import com.mohistmc.MohistConfig;
+import com.stackmania.profiler.CodeOwners;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.IEventBusInvokeDispatcher;
+import net.minecraftforge.eventbus.api.IEventListener;
+import org.bukkit.plugin.RegisteredListener;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Sampled cost of event handlers, per plugin or mod and per event type.
+ *
+ * One dispatch out of events.timing_sample_rate is timed, on the Bukkit side
+ * every RegisteredListener of a sampled callEvent, on the Forge side every
+ * listener of a sampled post. The measured time and call are multiplied by the
+ * rate, so the totals estimate the full cost while unsampled dispatches only pay
+ * for a counter increment. The sample counters are not synchronized; a lost
+ * increment only moves the sample by one dispatch.
+ *
+ * Forge events are only seen when posted through {@link #post(Event)}, which
+ * ForgeEventFactory and ForgeHooks do. Events posted straight to the Forge bus
+ * elsewhere are not accounted.
+ */
+public class ListenerTimings {
+
+    private static final String UNKNOWN = "unknown";
+
+    private static final Map<Key, Timing> TIMINGS = new ConcurrentHashMap<>();
+    private static final Map<IEventListener, String> FORGE_OWNERS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final IEventBusInvokeDispatcher TIMED_DISPATCHER = ListenerTimings::invokeTimed;
+
+    private static int sampleMask = 31;
+    private static int bukkitCounter;
+    private static int forgeCounter;
+    private static volatile int resetTick = MinecraftServer.currentTick;
+
+    private record Key(String owner, String event) {
+    }
+
+    private static final class Timing {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+
+    public record Entry(String owner, String event, long calls, long nanos) {
+    }
+
+    /**
+     * Apply events.timing_sample_rate, rounded up to a power of two. 0 disables timing.
+     */
+    public static void configure() {
+        int rate = Math.min(MohistConfig.event_timing_sample_rate, 1 << 20);
+        if (rate <= 0) {
+            sampleMask = -1;
+        } else {
+            sampleMask = (rate == 1 ? 1 : Integer.highestOneBit(rate - 1) << 1) - 1;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return sampleMask >= 0;
+    }
+
+    public static int getSampleRate() {
+        return sampleMask + 1;
+    }
+
+    /**
+     * Whether the next Bukkit callEvent should time its listeners.
+     */
+    public static boolean sampleBukkit() {
+        int mask = sampleMask;
+        return mask >= 0 && (bukkitCounter++ & mask) == 0;
+    }
+
+    public static void recordBukkit(RegisteredListener listener, org.bukkit.event.Event event, long nanos) {
+        record("plugin:" + listener.getPlugin().getName(), event.getEventName(), nanos);
+    }
+
+    /**
+     * Post a Forge event on the main bus, timing its listeners if this post is sampled.
+     */
+    public static boolean post(Event event) {
+        int mask = sampleMask;
+        if (mask < 0 || (forgeCounter++ & mask) != 0) {
+            return MinecraftForge.EVENT_BUS.post(event);
+        }
+        return MinecraftForge.EVENT_BUS.post(event, TIMED_DISPATCHER);
+    }
+
+    private static void invokeTimed(IEventListener listener, Event event) {
+        long start = System.nanoTime();
+        try {
+            listener.invoke(event);
+        } finally {
+            record(forgeOwnerOf(listener), event.getClass().getSimpleName(), System.nanoTime() - start);
+        }
+    }
+
+    private static void record(String owner, String event, long nanos) {
+        Timing timing = TIMINGS.computeIfAbsent(new Key(owner, event), k -> new Timing());
+        int rate = sampleMask + 1;
+        timing.calls.add(rate);
+        timing.nanos.add(nanos * rate);
+    }
+
+    private static String forgeOwnerOf(IEventListener listener) {
+        String owner = FORGE_OWNERS.get(listener);
+        if (owner == null) {
+            owner = resolveForgeOwner(listener);
+            FORGE_OWNERS.put(listener, owner);
+        }
+        return owner;
+    }
+
+    /**
+     * ASMEventHandler describes its target as "ASM: target method(desc)", with the
+     * target either a class or an instance. Lambda listeners capture the mod's
+     * consumer, so their fields are searched one level deep.
+     */
+    private static String resolveForgeOwner(IEventListener listener) {
+        String description = listener.toString();
+        if (description.startsWith("ASM: ")) {
+            String target = description.substring(5);
+            if (target.startsWith("class ")) {
+                target = target.substring(6);
+            }
+            int end = target.indexOf(' ');
+            target = end < 0 ? target : target.substring(0, end);
+            int hash = target.indexOf('@');
+            target = hash < 0 ? target : target.substring(0, hash);
+            String owner = ownerOfClass(target);
+            if (owner != null) {
+                return owner;
+            }
+        }
+        String owner = ownerOf(listener.getClass());
+        if (owner != null) {
+            return owner;
+        }
+        for (Field field : listener.getClass().getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) continue;
+            try {
+                field.setAccessible(true);
+                Object value = field.get(listener);
+                owner = value == null ? null : ownerOf(value.getClass());
+                if (owner != null) {
+                    return owner;
+                }
+            } catch (ReflectiveOperationException | RuntimeException ignored) {
+                // Fields of classes in closed modules cannot be read
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private static String ownerOf(Class<?> clazz) {
+        try {
+            return "plugin:" + JavaPlugin.getProvidingPlugin(clazz).getName();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ownerOfClass(clazz.getName());
+        }
+    }
+
+    private static String ownerOfClass(String className) {
+        int lambda = className.indexOf("$$Lambda");
+        return CodeOwners.modOf(lambda < 0 ? className : className.substring(0, lambda));
+    }
+
+    public static void reset() {
+        TIMINGS.clear();
+        resetTick = MinecraftServer.currentTick;
+    }
+
+    /**
+     * Ticks covered by the current counters, at least 1.
+     */
+    public static int getTicksSampled() {
+        return Math.max(1, MinecraftServer.currentTick - resetTick);
+    }
+
+    /**
+     * Every owner and event pair, most expensive first.
+     */
+    public static List<Entry> getHandlers() {
+        List<Entry> list = new ArrayList<>();
+        for (Map.Entry<Key, Timing> entry : TIMINGS.entrySet()) {
+            list.add(new Entry(entry.getKey().owner, entry.getKey().event, entry.getValue().calls.sum(), entry.getValue().nanos.sum()));
+        }
+        list.sort(Comparator.comparingLong(Entry::nanos).reversed());
+        return list;
+    }
+
+    /**
+     * Totals per owner over all events, most expensive first. The event of each entry is empty.
+     */
+    public static List<Entry> getOwners() {
+        Map<String, long[]> totals = new HashMap<>();
+        for (Entry entry : getHandlers()) {
+            long[] total = totals.computeIfAbsent(entry.owner(), k -> new long[2]);
+            total[0] += entry.calls();
+            total[1] += entry.nanos();
+        }
+        List<Entry> list = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+            list.add(new Entry(entry.getKey(), "", entry.getValue()[0], entry.getValue()[1]));
+        }
+        list.sort(Comparator.comparingLong(Entry::nanos).reversed());
+        return list;
+    }
+}
@@ -6,15 +6,14 @@
 package com.stackmania.material;
 
 import com.stackmania.core.StackmaniaCore;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
 import org.apache.logging.log4j.Logger;
 import org.bukkit.Material;
-
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import org.bukkit.craftbukkit.v1_20_R1.util.CraftMagicNumbers;
 
 /**
- * Manages a unified cache of Bukkit Materials to prevent double-injection issues.
+ * Manages a unified view of Bukkit Materials to prevent double-injection issues.
  * 
  * PROBLEM SOLVED:
  * In Mohist, when a Forge mod adds a block that also has an item form,
@@ -22,19 +21,14 @@ import java.util.concurrent.ConcurrentHashMap;
  * creating duplicate entries or corrupted state.
  * 
  * SOLUTION:
- * This cache ensures each material is registered only once, with proper
- * tracking of whether it's a block, item, or both.
+ * Material.addMaterial reuses the existing constant for a name, so each material
+ * is registered only once. This class no longer keeps maps of its own: lookups go
+ * through Material's name table and the dense tables in CraftMagicNumbers.
  */
 public class MaterialCacheManager {
     
     private static final Logger LOGGER = StackmaniaCore.LOGGER;
     
-    // Cache keyed by normalized material name
-    private static final Map<String, MaterialEntry> materialCache = new ConcurrentHashMap<>();
-    
-    // Cache keyed by ResourceLocation for quick lookup
-    private static final Map<ResourceLocation, MaterialEntry> resourceCache = new ConcurrentHashMap<>();
-    
     private static boolean initialized = false;
     private static int duplicatesAvoided = 0;
     
@@ -45,8 +39,6 @@ public class MaterialCacheManager {
         if (initialized) return;
         
         LOGGER.info("[MaterialCache] Initializing material cache manager...");
-        materialCache.clear();
-        resourceCache.clear();
         duplicatesAvoided = 0;
         initialized = true;
     }
@@ -56,70 +48,59 @@ public class MaterialCacheManager {
      */
     public static void shutdown() {
         LOGGER.info("[MaterialCache] Shutting down. Avoided {} duplicate registrations.", duplicatesAvoided);
-        materialCache.clear();
-        resourceCache.clear();
         initialized = false;
     }
     
     /**
-     * Get an existing material from cache by normalized name
+     * Get an existing material by normalized name
      */
     public static Material get(String normalizedName) {
-        MaterialEntry entry = materialCache.get(normalizedName);
-        return entry != null ? entry.material : null;
+        return Material.getMaterial(normalizedName);
     }
     
     /**
-     * Get an existing material from cache by ResourceLocation
+     * Get an existing material by ResourceLocation, preferring the item form
      */
     public static Material get(ResourceLocation resourceLocation) {
-        MaterialEntry entry = resourceCache.get(resourceLocation);
-        return entry != null ? entry.material : null;
+        return BuiltInRegistries.ITEM.getOptional(resourceLocation).map(CraftMagicNumbers::getMaterial)
+                .or(() -> BuiltInRegistries.BLOCK.getOptional(resourceLocation).map(CraftMagicNumbers::getMaterial))
+                .orElse(null);
     }
     
     /**
      * Check if a material is already registered
      */
     public static boolean isRegistered(String normalizedName) {
-        return materialCache.containsKey(normalizedName);
+        return get(normalizedName) != null;
     }
     
     /**
      * Check if a material is already registered by ResourceLocation
      */
     public static boolean isRegistered(ResourceLocation resourceLocation) {
-        return resourceCache.containsKey(resourceLocation);
+        return get(resourceLocation) != null;
     }
     
     /**
-     * Register a new material in the cache
+     * Register a new material
      * Returns the existing material if already registered (avoiding duplicates)
      */
     public static Material register(String normalizedName, Material material, ResourceLocation resourceLocation, 
                                     boolean isBlock, boolean isItem) {
         
-        // Check if already exists
-        MaterialEntry existing = materialCache.get(normalizedName);
-        if (existing != null) {
+        Material existing = Material.getMaterial(normalizedName);
+        if (existing != null && existing != material) {
             // Update flags if needed (a material can be both block and item)
-            if (isBlock && !existing.isBlock) {
-                existing.isBlock = true;
+            if (isBlock && !existing.isForgeBlock) {
+                existing.isForgeBlock = true;
                 LOGGER.debug("[MaterialCache] Updated {} to include block form", normalizedName);
             }
-            if (isItem && !existing.isItem) {
-                existing.isItem = true;
+            if (isItem && !existing.isForgeItem) {
+                existing.isForgeItem = true;
                 LOGGER.debug("[MaterialCache] Updated {} to include item form", normalizedName);
             }
             duplicatesAvoided++;
-            return existing.material;
-        }
-        
-        // Create new entry
-        MaterialEntry entry = new MaterialEntry(material, resourceLocation, isBlock, isItem);
-        materialCache.put(normalizedName, entry);
-        
-        if (resourceLocation != null) {
-            resourceCache.put(resourceLocation, entry);
+            return existing;
         }
         
         LOGGER.debug("[MaterialCache] Registered new material: {} (block={}, item={})", 
@@ -133,30 +114,13 @@ public class MaterialCacheManager {
      */
     public static String getStats() {
         return String.format("Materials: %d, Duplicates Avoided: %d", 
-            materialCache.size(), duplicatesAvoided);
+            size(), duplicatesAvoided);
     }
     
     /**
      * Get the number of registered materials
      */
     public static int size() {
-        return materialCache.size();
-    }
-    
-    /**
-     * Entry holder for cached materials
-     */
-    private static class MaterialEntry {
-        final Material material;
-        final ResourceLocation resourceLocation;
-        boolean isBlock;
-        boolean isItem;
-        
-        MaterialEntry(Material material, ResourceLocation resourceLocation, boolean isBlock, boolean isItem) {
-            this.material = material;
-            this.resourceLocation = resourceLocation;
-            this.isBlock = isBlock;
-            this.isItem = isItem;
-        }
+        return Material.values().length;
     }
 }
@@ -0,0 +1,63 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Duration histogram with fixed buckets.
+ *
+ * Recording is a bucket search and two LongAdder increments, so it can be called
+ * from the server thread and the chunk workers without locking. Values are
+ * recorded in nanoseconds and exposed in seconds.
+ */
+public final class Histogram {
+
+    /** Bucket upper bounds in milliseconds, suited for tick and chunk load times. */
+    public static final double[] TICK_BUCKETS = {1, 2.5, 5, 10, 20, 30, 40, 50, 75, 100, 150, 250, 500, 1000, 2500};
+    /** Bucket upper bounds in milliseconds for garbage collection pauses. */
+    public static final double[] PAUSE_BUCKETS = {1, 5, 10, 25, 50, 100, 200, 500, 1000, 5000};
+
+    private final long[] boundsNanos;
+    private final double[] boundsSeconds;
+    private final LongAdder[] buckets;
+    private final LongAdder sumNanos = new LongAdder();
+
+    public Histogram(double[] boundsMillis) {
+        this.boundsNanos = new long[boundsMillis.length];
+        this.boundsSeconds = new double[boundsMillis.length];
+        this.buckets = new LongAdder[boundsMillis.length + 1];
+        for (int i = 0; i < boundsMillis.length; i++) {
+            boundsNanos[i] = (long) (boundsMillis[i] * 1_000_000L);
+            boundsSeconds[i] = boundsMillis[i] / 1000.0;
+        }
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void observeNanos(long nanos) {
+        int i = 0;
+        while (i < boundsNanos.length && nanos > boundsNanos[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        sumNanos.add(nanos);
+    }
+
+    void write(MetricsWriter writer, String name, String labels) {
+        long cumulative = 0;
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        for (int i = 0; i < boundsSeconds.length; i++) {
+            cumulative += buckets[i].sum();
+            writer.sample(name + "_bucket", prefix + "le=\"" + boundsSeconds[i] + "\"", cumulative);
+        }
+        cumulative += buckets[boundsSeconds.length].sum();
+        writer.sample(name + "_bucket", prefix + "le=\"+Inf\"", cumulative);
+        writer.sample(name + "_sum", labels, sumNanos.sum() / 1e9);
+        writer.sample(name + "_count", labels, cumulative);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.metrics;
+
+import com.mohistmc.MohistConfig;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Minimal HTTP endpoint serving {@link ServerMetrics#scrape()}.
+ *
+ * Scrapes come every few seconds from one or two collectors, so a single thread
+ * answering one request per connection is enough and keeps the server free of an
+ * HTTP library. Only GET on metrics.path is answered.
+ */
+public class MetricsHttpServer {
+
+    private static final Logger LOGGER = LogManager.getLogger("Stackmania/Metrics");
+    private static final int MAX_HEADER_LINES = 100;
+
+    private static ServerSocket socket;
+    private static String boundTo;
+
+    /**
+     * Start, restart or stop the endpoint to match the configuration.
+     */
+    public static synchronized void configure() {
+        String target = MohistConfig.metrics_enabled ? MohistConfig.metrics_bind + ":" + MohistConfig.metrics_port : null;
+        if (target != null && target.equals(boundTo)) {
+            return;
+        }
+        stop();
+        if (target == null) {
+            return;
+        }
+        try {
+            ServerSocket server = new ServerSocket();
+            server.setReuseAddress(true);
+            server.bind(new InetSocketAddress(MohistConfig.metrics_bind, MohistConfig.metrics_port));
+            socket = server;
+            boundTo = target;
+            ServerMetrics.listenToGc();
+            Thread thread = new Thread(() -> accept(server), "Stackmania-Metrics");
+            thread.setDaemon(true);
+            thread.start();
+            LOGGER.info("Metrics available on http://{}{}", target, MohistConfig.metrics_path);
+        } catch (IOException e) {
+            LOGGER.error("Failed to bind the metrics endpoint to {}", target, e);
+        }
+    }
+
+    public static synchronized void stop() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+            socket = null;
+            boundTo = null;
+        }
+    }
+
+    private static void accept(ServerSocket server) {
+        while (!server.isClosed()) {
+            try (Socket client = server.accept()) {
+                client.setSoTimeout(5000);
+                handle(client);
+            } catch (SocketException e) {
+                if (server.isClosed()) return;
+            } catch (Exception e) {
+                LOGGER.debug("Metrics request failed", e);
+            }
+        }
+    }
+
+    private static void handle(Socket client) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.ISO_8859_1));
+        String request = reader.readLine();
+        if (request == null) {
+            return;
+        }
+        for (int i = 0; i < MAX_HEADER_LINES; i++) {
+            String header = reader.readLine();
+            if (header == null || header.isEmpty()) break;
+        }
+
+        String[] parts = request.split(" ");
+        String path = parts.length > 1 ? parts[1] : "";
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        OutputStream out = client.getOutputStream();
+        if (!parts[0].equals("GET")) {
+            respond(out, "405 Method Not Allowed", "text/plain", "Method not allowed\n");
+        } else if (!path.equals(MohistConfig.metrics_path)) {
+            respond(out, "404 Not Found", "text/plain", "Metrics are served on " + MohistConfig.metrics_path + "\n");
+        } else {
+            respond(out, "200 OK", "text/plain; version=0.0.4; charset=utf-8", ServerMetrics.scrape());
+        }
+    }
+
+    private static void respond(OutputStream out, String status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String head = "HTTP/1.1 " + status + "\r\n"
+                + "Content-Type: " + contentType + "\r\n"
+                + "Content-Length: " + bytes.length + "\r\n"
+                + "Connection: close\r\n\r\n";
+        out.write(head.getBytes(StandardCharsets.ISO_8859_1));
+        out.write(bytes);
+        out.flush();
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.metrics;
+
+import com.mohistmc.MohistConfig;
+import com.stackmania.entity.EntityMerging;
+import com.stackmania.network.NetworkMetrics;
+import com.stackmania.world.ChunkSaveQueue;
+import com.stackmania.world.RedstoneWires;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ChunkHolder;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+/**
+ * Server telemetry exposed by {@link MetricsHttpServer}.
+ *
+ * Durations are recorded into {@link Histogram}s straight from the hot paths.
+ * Entity, block entity and chunk counts cannot be read safely off the server
+ * thread, so the server thread counts them every metrics.snapshot_interval ticks
+ * and publishes an immutable snapshot. Everything else is read when scraped.
+ */
+public class ServerMetrics {
+
+    private static final String GC_NOTIFICATION = "com.sun.management.gc.notification";
+
+    private static final Histogram TICK = new Histogram(Histogram.TICK_BUCKETS);
+    private static final Histogram CHUNK_LOAD = new Histogram(Histogram.TICK_BUCKETS);
+    private static final Map<ResourceKey<Level>, Histogram> LEVEL_TICKS = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> GC_PAUSES = new ConcurrentHashMap<>();
+
+    private static volatile List<LevelSnapshot> snapshot = List.of();
+    private static boolean gcListening;
+
+    private record LevelSnapshot(String dimension, int loadedChunks, Object2IntMap<String> entities, Object2IntMap<String> blockEntities) {
+    }
+
+    /**
+     * Called by the server thread at the end of every tick.
+     */
+    public static void onTick(MinecraftServer server, long tickNanos) {
+        if (!MohistConfig.metrics_enabled) {
+            return;
+        }
+        TICK.observeNanos(tickNanos);
+        if (server.getTickCount() % Math.max(1, MohistConfig.metrics_snapshot_interval) == 0) {
+            takeSnapshot(server);
+        }
+    }
+
+    public static void onLevelTick(ServerLevel level, long tickNanos) {
+        if (MohistConfig.metrics_enabled) {
+            LEVEL_TICKS.computeIfAbsent(level.dimension(), k -> new Histogram(Histogram.TICK_BUCKETS)).observeNanos(tickNanos);
+        }
+    }
+
+    /**
+     * Time from scheduling a chunk load until the chunk is deserialized, may be called from any thread.
+     */
+    public static void onChunkLoad(long nanos) {
+        if (MohistConfig.metrics_enabled) {
+            CHUNK_LOAD.observeNanos(nanos);
+        }
+    }
+
+    static synchronized void listenToGc() {
+        if (gcListening) {
+            return;
+        }
+        gcListening = true;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(bean instanceof NotificationEmitter emitter)) continue;
+            Histogram pauses = GC_PAUSES.computeIfAbsent(bean.getName(), k -> new Histogram(Histogram.PAUSE_BUCKETS));
+            emitter.addNotificationListener((notification, handback) -> {
+                if (GC_NOTIFICATION.equals(notification.getType()) && notification.getUserData() instanceof CompositeData data
+                        && data.get("gcInfo") instanceof CompositeData info && info.get("duration") instanceof Long millis) {
+                    pauses.observeNanos(millis * 1_000_000L);
+                }
+            }, null, null);
+        }
+    }
+
+    private static void takeSnapshot(MinecraftServer server) {
+        List<LevelSnapshot> levels = new ArrayList<>();
+        for (ServerLevel level : server.getAllLevels()) {
+            Object2IntOpenHashMap<String> entities = new Object2IntOpenHashMap<>();
+            for (Entity entity : level.getAllEntities()) {
+                entities.addTo(EntityType.getKey(entity.getType()).toString(), 1);
+            }
+            Object2IntOpenHashMap<String> blockEntities = new Object2IntOpenHashMap<>();
+            for (ChunkHolder holder : level.getChunkSource().chunkMap.visibleChunkMap.values()) {
+                LevelChunk chunk = holder.getFullChunkNow();
+                if (chunk == null) continue;
+                for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+                    blockEntities.addTo(String.valueOf(BlockEntityType.getKey(blockEntity.getType())), 1);
+                }
+            }
+            levels.add(new LevelSnapshot(level.dimension().location().toString(), level.getChunkSource().getLoadedChunksCount(), entities, blockEntities));
+        }
+        snapshot = List.copyOf(levels);
+    }
+
+    /**
+     * Current metrics in the text exposition format.
+     */
+    public static String scrape() {
+        MetricsWriter out = new MetricsWriter();
+        MinecraftServer server = MinecraftServer.getServer();
+
+        if (server != null) {
+            out.header("stackmania_tps", "gauge", "Ticks per second averaged over 1, 5 and 15 minutes");
+            String[] windows = {"1m", "5m", "15m"};
+            for (int i = 0; i < windows.length; i++) {
+                out.sample("stackmania_tps", MetricsWriter.label("window", windows[i]), Math.min(20.0, server.recentTps[i]));
+            }
+            out.header("stackmania_players_online", "gauge", "Connected players");
+            out.sample("stackmania_players_online", "", server.getPlayerCount());
+        }
+
+        out.header("stackmania_tick_duration_seconds", "histogram", "Duration of a full server tick");
+        TICK.write(out, "stackmania_tick_duration_seconds", "");
+        out.header("stackmania_level_tick_duration_seconds", "histogram", "Duration of the tick of one dimension");
+        LEVEL_TICKS.forEach((dimension, histogram) ->
+                histogram.write(out, "stackmania_level_tick_duration_seconds", MetricsWriter.label("dimension", dimension.location().toString())));
+        out.header("stackmania_chunk_load_duration_seconds", "histogram", "Time to read and deserialize a chunk from disk");
+        CHUNK_LOAD.write(out, "stackmania_chunk_load_duration_seconds", "");
+        out.header("stackmania_chunk_saves_queued", "gauge", "Chunk saves waiting to be encoded off the server thread");
+        out.sample("stackmania_chunk_saves_queued", "", ChunkSaveQueue.getQueued());
+        out.header("stackmania_entity_merges_total", "counter", "Items and experience orbs merged into another");
+        out.sample("stackmania_entity_merges_total", MetricsWriter.label("type", "item"), EntityMerging.getItemMerges());
+        out.sample("stackmania_entity_merges_total", MetricsWriter.label("type", "experience_orb"), EntityMerging.getOrbMerges());
+        out.header("stackmania_redstone_wire_changes_total", "counter", "Wire power changes made by the network redstone engine");
+        out.sample("stackmania_redstone_wire_changes_total", "", RedstoneWires.getWireChanges());
+        out.header("stackmania_redstone_neighbor_updates_total", "counter", "Neighbor updates sent by the network redstone engine");
+        out.sample("stackmania_redstone_neighbor_updates_total", "", RedstoneWires.getNeighborUpdates());
+
+        List<LevelSnapshot> levels = snapshot;
+        out.header("stackmania_loaded_chunks", "gauge", "Loaded chunks per dimension");
+        for (LevelSnapshot level : levels) {
+            out.sample("stackmania_loaded_chunks", MetricsWriter.label("dimension", level.dimension()), level.loadedChunks());
+        }
+        out.header("stackmania_entities", "gauge", "Entities per dimension and type");
+        for (LevelSnapshot level : levels) {
+            writeCounts(out, "stackmania_entities", level.dimension(), level.entities());
+        }
+        out.header("stackmania_block_entities", "gauge", "Block entities in loaded chunks per dimension and type");
+        for (LevelSnapshot level : levels) {
+            writeCounts(out, "stackmania_block_entities", level.dimension(), level.blockEntities());
+        }
+
+        out.header("stackmania_network_bytes_total", "counter", "Bytes through player connections");
+        out.sample("stackmania_network_bytes_total", MetricsWriter.label("direction", "in"), NetworkMetrics.getBytesIn());
+        out.sample("stackmania_network_bytes_total", MetricsWriter.label("direction", "out"), NetworkMetrics.getBytesOut());
+        out.header("stackmania_network_packets_total", "counter", "Packets handled and sent");
+        out.sample("stackmania_network_packets_total", MetricsWriter.label("direction", "in"), NetworkMetrics.getPacketsIn());
+        out.sample("stackmania_network_packets_total", MetricsWriter.label("direction", "out"), NetworkMetrics.getPacketsOut());
+        out.header("stackmania_network_connections", "gauge", "Open player connections");
+        out.sample("stackmania_network_connections", "", NetworkMetrics.getConnectionCount());
+
+        out.header("stackmania_gc_pause_seconds", "histogram", "Garbage collection pauses per collector");
+        GC_PAUSES.forEach((name, histogram) ->
+                histogram.write(out, "stackmania_gc_pause_seconds", MetricsWriter.label("gc", name)));
+        out.header("stackmania_gc_collections_total", "counter", "Collections per collector");
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        for (GarbageCollectorMXBean bean : collectors) {
+            out.sample("stackmania_gc_collections_total", MetricsWriter.label("gc", bean.getName()), Math.max(0, bean.getCollectionCount()));
+        }
+        out.header("stackmania_gc_collection_seconds_total", "counter", "Time spent collecting per collector");
+        for (GarbageCollectorMXBean bean : collectors) {
+            out.sample("stackmania_gc_collection_seconds_total", MetricsWriter.label("gc", bean.getName()), Math.max(0, bean.getCollectionTime()) / 1000.0);
+        }
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        out.header("stackmania_heap_bytes", "gauge", "Heap memory");
+        out.sample("stackmania_heap_bytes", MetricsWriter.label("kind", "used"), heap.getUsed());
+        out.sample("stackmania_heap_bytes", MetricsWriter.label("kind", "committed"), heap.getCommitted());
+        out.sample("stackmania_heap_bytes", MetricsWriter.label("kind", "max"), heap.getMax());
+        return out.toString();
+    }
+
+    private static void writeCounts(MetricsWriter out, String name, String dimension, Object2IntMap<String> counts) {
+        String dimensionLabel = MetricsWriter.label("dimension", dimension);
+        for (Object2IntMap.Entry<String> entry : counts.object2IntEntrySet()) {
+            out.sample(name, dimensionLabel + "," + MetricsWriter.label("type", entry.getKey()), entry.getIntValue());
+        }
+    }
+}
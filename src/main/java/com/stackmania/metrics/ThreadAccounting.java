@@ -0,0 +1,269 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.metrics;
+
+import com.mohistmc.MohistConfig;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Continuous CPU time and allocation accounting per thread pool.
+ *
+ * Every threads.sample_interval_seconds a daemon thread reads the CPU time and the
+ * allocated bytes of all threads from the ThreadMXBean, takes the difference to
+ * the previous sample and adds it up per pool. Pools are the server thread, the
+ * worker pools, Netty and the Bukkit async scheduler; any other thread, Stackmania's
+ * own included, is pooled by its name with the numbers removed, which groups the
+ * threads of one mod. Async Bukkit tasks are also
+ * measured around each run and charged to their plugin, as a breakdown of the
+ * scheduler pool.
+ *
+ * The last {@link #HISTORY} samples of each pool are kept to report rates over the
+ * last sample, one minute and five minutes.
+ */
+public class ThreadAccounting {
+
+    public static final int HISTORY = 60;
+
+    private static final Logger LOGGER = LogManager.getLogger("Stackmania/Threads");
+    private static final Pattern NUMBERS = Pattern.compile("\\d+");
+    private static final java.lang.management.ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean HOTSPOT_THREADS =
+            THREADS instanceof com.sun.management.ThreadMXBean bean ? bean : null;
+
+    private static final Map<String, Pool> POOLS = new ConcurrentHashMap<>();
+    private static final Map<Plugin, long[]> TASK_TOTALS_SEEN = new HashMap<>();
+    private static final Map<Plugin, TaskCost> TASK_COSTS = new ConcurrentHashMap<>();
+    private static final Map<Long, long[]> PREVIOUS = new HashMap<>();
+    private static volatile List<ThreadSample> lastThreads = List.of();
+    private static volatile Thread sampler;
+
+    public record ThreadSample(String name, String pool, double cpuPercent, double allocatedPerSecond) {
+    }
+
+    private static final class TaskCost {
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+    }
+
+    /**
+     * Start the sampler thread if accounting is enabled, called when the configuration loads.
+     */
+    public static synchronized void configure() {
+        if (!MohistConfig.thread_accounting || sampler != null) {
+            return;
+        }
+        if (THREADS.isThreadCpuTimeSupported() && !THREADS.isThreadCpuTimeEnabled()) {
+            THREADS.setThreadCpuTimeEnabled(true);
+        }
+        if (HOTSPOT_THREADS != null && HOTSPOT_THREADS.isThreadAllocatedMemorySupported() && !HOTSPOT_THREADS.isThreadAllocatedMemoryEnabled()) {
+            HOTSPOT_THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+        sampler = new Thread(ThreadAccounting::run, "Stackmania-ThreadAccounting");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    public static String poolOf(String threadName) {
+        if (threadName.equals("Server thread")) return "server thread";
+        if (threadName.startsWith("Worker-")) return "chunk workers";
+        if (threadName.startsWith("IO-Worker-")) return "io workers";
+        if (threadName.contains("Netty")) return "netty";
+        if (threadName.startsWith("Craft Scheduler Thread")) return "bukkit async scheduler";
+        return NUMBERS.matcher(threadName).replaceAll("#");
+    }
+
+    /**
+     * CPU time of the calling thread, or 0 when it cannot be measured.
+     */
+    public static long currentCpuNanos() {
+        return sampler == null ? 0 : THREADS.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * Bytes allocated by the calling thread so far, or 0 when it cannot be measured.
+     */
+    public static long currentAllocatedBytes() {
+        return sampler == null || HOTSPOT_THREADS == null ? 0 : HOTSPOT_THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Charge the cost of an async task that started at the given counters to its plugin.
+     */
+    public static void recordTask(Plugin plugin, long cpuAtStart, long allocatedAtStart) {
+        if (sampler == null) {
+            return;
+        }
+        TaskCost cost = TASK_COSTS.computeIfAbsent(plugin, k -> new TaskCost());
+        cost.cpuNanos.add(Math.max(0, currentCpuNanos() - cpuAtStart));
+        cost.allocatedBytes.add(Math.max(0, currentAllocatedBytes() - allocatedAtStart));
+    }
+
+    private static void run() {
+        long last = System.nanoTime();
+        while (true) {
+            try {
+                TimeUnit.SECONDS.sleep(Math.max(1, MohistConfig.thread_accounting_interval));
+                long now = System.nanoTime();
+                sample(now - last);
+                last = now;
+            } catch (InterruptedException e) {
+                return;
+            } catch (Throwable t) {
+                LOGGER.error("Thread accounting failed", t);
+            }
+        }
+    }
+
+    private static void sample(long elapsed) {
+        long[] ids = THREADS.getAllThreadIds();
+        ThreadInfo[] infos = THREADS.getThreadInfo(ids);
+        long[] cpu = new long[ids.length];
+        long[] allocated = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            cpu[i] = THREADS.getThreadCpuTime(ids[i]);
+        }
+        if (HOTSPOT_THREADS != null && HOTSPOT_THREADS.isThreadAllocatedMemoryEnabled()) {
+            allocated = HOTSPOT_THREADS.getThreadAllocatedBytes(ids);
+        }
+
+        Map<String, long[]> deltas = new HashMap<>();
+        Map<Long, long[]> seen = new HashMap<>();
+        List<ThreadSample> threads = new ArrayList<>();
+        double seconds = elapsed / 1e9;
+        for (int i = 0; i < ids.length; i++) {
+            if (infos[i] == null || cpu[i] < 0) continue;
+            long[] now = {cpu[i], Math.max(0, allocated[i])};
+            seen.put(ids[i], now);
+            long[] before = PREVIOUS.get(ids[i]);
+            long cpuDelta = before == null ? 0 : Math.max(0, now[0] - before[0]);
+            long allocDelta = before == null ? 0 : Math.max(0, now[1] - before[1]);
+            String pool = poolOf(infos[i].getThreadName());
+            long[] delta = deltas.computeIfAbsent(pool, k -> new long[3]);
+            delta[0] += cpuDelta;
+            delta[1] += allocDelta;
+            delta[2]++;
+            threads.add(new ThreadSample(infos[i].getThreadName(), pool, cpuDelta * 100.0 / elapsed, allocDelta / seconds));
+        }
+        PREVIOUS.clear();
+        PREVIOUS.putAll(seen);
+
+        for (Map.Entry<Plugin, TaskCost> entry : TASK_COSTS.entrySet()) {
+            long[] totals = {entry.getValue().cpuNanos.sum(), entry.getValue().allocatedBytes.sum()};
+            long[] before = TASK_TOTALS_SEEN.put(entry.getKey(), totals);
+            long[] delta = deltas.computeIfAbsent("plugin tasks: " + entry.getKey().getName(), k -> new long[3]);
+            delta[0] += before == null ? totals[0] : totals[0] - before[0];
+            delta[1] += before == null ? totals[1] : totals[1] - before[1];
+        }
+
+        for (Pool pool : POOLS.values()) {
+            long[] delta = deltas.remove(pool.name);
+            pool.add(elapsed, delta == null ? new long[3] : delta);
+        }
+        for (Map.Entry<String, long[]> entry : deltas.entrySet()) {
+            POOLS.computeIfAbsent(entry.getKey(), Pool::new).add(elapsed, entry.getValue());
+        }
+        POOLS.values().removeIf(Pool::isIdle);
+
+        threads.sort(Comparator.comparingDouble(ThreadSample::cpuPercent).reversed());
+        lastThreads = List.copyOf(threads);
+    }
+
+    /**
+     * Pools ordered by CPU usage over the given number of samples, busiest first.
+     */
+    public static List<Pool> getPools(int samples) {
+        List<Pool> list = new ArrayList<>(POOLS.values());
+        list.sort(Comparator.comparingDouble((Pool pool) -> pool.getCpuPercent(samples)).reversed());
+        return list;
+    }
+
+    /**
+     * Threads ordered by CPU usage in the last sample, busiest first.
+     */
+    public static List<ThreadSample> getThreads() {
+        return lastThreads;
+    }
+
+    public static boolean isAllocationSupported() {
+        return HOTSPOT_THREADS != null && HOTSPOT_THREADS.isThreadAllocatedMemorySupported();
+    }
+
+    public static final class Pool {
+        private final String name;
+        private final long[] elapsed = new long[HISTORY];
+        private final long[] cpu = new long[HISTORY];
+        private final long[] allocated = new long[HISTORY];
+        private volatile int threads;
+        private volatile int count;
+
+        private Pool(String name) {
+            this.name = name;
+        }
+
+        private synchronized void add(long elapsedNanos, long[] delta) {
+            int i = count % HISTORY;
+            elapsed[i] = elapsedNanos;
+            cpu[i] = delta[0];
+            allocated[i] = delta[1];
+            threads = (int) delta[2];
+            count++;
+        }
+
+        private synchronized boolean isIdle() {
+            if (count < HISTORY) return false;
+            for (int i = 0; i < HISTORY; i++) {
+                if (cpu[i] != 0 || allocated[i] != 0) return false;
+            }
+            return threads == 0;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * CPU usage over the last samples, 100 means one core fully busy.
+         */
+        public synchronized double getCpuPercent(int samples) {
+            long[] sums = sum(samples);
+            return sums[0] == 0 ? 0 : sums[1] * 100.0 / sums[0];
+        }
+
+        public synchronized double getAllocatedPerSecond(int samples) {
+            long[] sums = sum(samples);
+            return sums[0] == 0 ? 0 : sums[2] / (sums[0] / 1e9);
+        }
+
+        private long[] sum(int samples) {
+            long[] sums = new long[3];
+            int n = Math.min(Math.min(samples, HISTORY), count);
+            for (int k = 1; k <= n; k++) {
+                int i = (count - k) % HISTORY;
+                sums[0] += elapsed[i];
+                sums[1] += cpu[i];
+                sums[2] += allocated[i];
+            }
+            return sums;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Stackmania - Valonia Games
+ * Thread CPU and allocation command
+ */
+
+package com.stackmania.metrics;
+
+import com.mohistmc.MohistConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * /threads command - CPU usage and allocation rate per thread pool
+ *
+ * Usage:
+ * /threads [now|1m|5m] - Pools ordered by CPU usage over the window
+ * /threads top [count] - Busiest single threads in the last sample
+ */
+public class ThreadsCommand extends Command {
+
+    private static final List<String> SUBCOMMANDS = List.of("now", "1m", "5m", "top");
+
+    public ThreadsCommand(String name) {
+        super(name);
+        this.description = "Stackmania Thread Accounting";
+        this.usageMessage = "/threads [now|1m|5m|top [count]]";
+        this.setPermission("stackmania.command.threads");
+    }
+
+    @Override
+    public @NotNull List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, String[] args) {
+        List<String> list = new ArrayList<>();
+        if (args.length == 1 && testPermissionSilent(sender)) {
+            for (String sub : SUBCOMMANDS) {
+                if (sub.startsWith(args[0].toLowerCase(Locale.ROOT))) list.add(sub);
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public boolean execute(@NotNull CommandSender sender, @NotNull String label, String[] args) {
+        if (!testPermission(sender)) {
+            return false;
+        }
+        if (!MohistConfig.thread_accounting) {
+            sender.sendMessage(ChatColor.RED + "Thread accounting is disabled, enable threads.accounting in the configuration");
+            return false;
+        }
+
+        String sub = args.length == 0 ? "1m" : args[0].toLowerCase(Locale.ROOT);
+        int interval = Math.max(1, MohistConfig.thread_accounting_interval);
+        switch (sub) {
+            case "now" -> showPools(sender, "last " + interval + "s", 1);
+            case "1m" -> showPools(sender, "1m", Math.max(1, 60 / interval));
+            case "5m" -> showPools(sender, "5m", Math.max(1, 300 / interval));
+            case "top" -> {
+                int limit = 10;
+                if (args.length > 1) {
+                    try {
+                        limit = Math.max(1, Integer.parseInt(args[1]));
+                    } catch (NumberFormatException e) {
+                        sender.sendMessage(ChatColor.RED + "Invalid count: " + args[1]);
+                        return false;
+                    }
+                }
+                showThreads(sender, limit);
+            }
+            default -> {
+                sender.sendMessage(ChatColor.RED + "Usage: " + usageMessage);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void showPools(CommandSender sender, String window, int samples) {
+        sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + "Thread Pools (" + window + ")" + ChatColor.GOLD + " ═══════");
+        List<ThreadAccounting.Pool> pools = ThreadAccounting.getPools(samples);
+        if (pools.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "No samples yet");
+            return;
+        }
+        for (ThreadAccounting.Pool pool : pools) {
+            double cpu = pool.getCpuPercent(samples);
+            double alloc = pool.getAllocatedPerSecond(samples);
+            if (cpu < 0.05 && alloc < 1024) continue;
+            sender.sendMessage(String.format(Locale.ROOT, "%s%s%s (%d): %s%.1f%% cpu%s, %s/s",
+                    ChatColor.WHITE, pool.getName(), ChatColor.GRAY, pool.getThreads(),
+                    ChatColor.AQUA, cpu, ChatColor.GRAY, formatBytes(alloc)));
+        }
+        if (!ThreadAccounting.isAllocationSupported()) {
+            sender.sendMessage(ChatColor.YELLOW + "This JVM does not report allocations per thread");
+        }
+    }
+
+    private void showThreads(CommandSender sender, int limit) {
+        sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + "Busiest Threads" + ChatColor.GOLD + " ═══════");
+        List<ThreadAccounting.ThreadSample> threads = ThreadAccounting.getThreads();
+        if (threads.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "No samples yet");
+            return;
+        }
+        for (ThreadAccounting.ThreadSample thread : threads.subList(0, Math.min(limit, threads.size()))) {
+            sender.sendMessage(String.format(Locale.ROOT, "%s%s%s [%s]: %s%.1f%% cpu%s, %s/s",
+                    ChatColor.WHITE, thread.name(), ChatColor.GRAY, thread.pool(),
+                    ChatColor.AQUA, thread.cpuPercent(), ChatColor.GRAY, formatBytes(thread.allocatedPerSecond())));
+        }
+    }
+
+    private static String formatBytes(double bytes) {
+        if (bytes >= 1024 * 1024 * 1024) return String.format(Locale.ROOT, "%.2f GiB", bytes / (1024 * 1024 * 1024));
+        if (bytes >= 1024 * 1024) return String.format(Locale.ROOT, "%.1f MiB", bytes / (1024 * 1024));
+        return String.format(Locale.ROOT, "%.0f KiB", bytes / 1024);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Rolling histogram of one tick phase.
+ *
+ * Buckets are log-linear like HdrHistogram: values are taken in microseconds and
+ * every power of two is split into 16 buckets, so a reported percentile is at most
+ * 1/16 above the real value. Values above ~33 s land in the last bucket.
+ *
+ * The current 5 second slot is filled by {@link #record(long)}. Every 100 ticks
+ * {@link #roll()} moves it into a ring of 12 slots (the last minute) and adds it
+ * to the running minute, which goes into a ring of 15 minutes once complete. All
+ * arrays are allocated up front; recording and rolling never allocate.
+ *
+ * Only the server thread records and rolls. Summaries read from other threads may
+ * be slightly inconsistent.
+ */
+public final class TickHistogram {
+
+    public enum Window {
+        FIVE_SECONDS("5s"), ONE_MINUTE("1m"), FIFTEEN_MINUTES("15m");
+
+        private final String label;
+
+        Window(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    public record Summary(long count, double p50, double p95, double p99, double max) {
+    }
+
+    private static final int SLOTS_PER_MINUTE = 12;
+    private static final int MINUTES = 15;
+    private static final int SUB_BUCKETS = 16;
+    private static final int MAX_EXPONENT = 25;
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - 3) * SUB_BUCKETS;
+
+    private final int[] current = new int[BUCKETS];
+    private long currentMax;
+    private final int[][] slots = new int[SLOTS_PER_MINUTE][BUCKETS];
+    private final long[] slotMax = new long[SLOTS_PER_MINUTE];
+    private final int[] minute = new int[BUCKETS];
+    private long minuteMax;
+    private final int[][] minutes = new int[MINUTES][BUCKETS];
+    private final long[] minutesMax = new long[MINUTES];
+    private int slot = -1;
+    private int slotCount;
+
+    static int bucketOf(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int mantissa = (int) (micros >>> (exponent - 4)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - 4) * SUB_BUCKETS + mantissa;
+    }
+
+    /**
+     * Highest value of a bucket in milliseconds.
+     */
+    static double upperBoundMillis(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return (bucket + 1) / 1000.0;
+        }
+        int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + 4;
+        int mantissa = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + mantissa + 1) << (exponent - 4)) / 1000.0;
+    }
+
+    public void record(long nanos) {
+        current[bucketOf(nanos)]++;
+        if (nanos > currentMax) {
+            currentMax = nanos;
+        }
+    }
+
+    /**
+     * Close the current 5 second slot.
+     */
+    void roll() {
+        slot = (slot + 1) % SLOTS_PER_MINUTE;
+        System.arraycopy(current, 0, slots[slot], 0, BUCKETS);
+        slotMax[slot] = currentMax;
+        for (int i = 0; i < BUCKETS; i++) {
+            minute[i] += current[i];
+        }
+        minuteMax = Math.max(minuteMax, currentMax);
+        Arrays.fill(current, 0);
+        currentMax = 0;
+
+        if (++slotCount % SLOTS_PER_MINUTE == 0) {
+            int m = (slotCount / SLOTS_PER_MINUTE - 1) % MINUTES;
+            System.arraycopy(minute, 0, minutes[m], 0, BUCKETS);
+            minutesMax[m] = minuteMax;
+            Arrays.fill(minute, 0);
+            minuteMax = 0;
+        }
+    }
+
+    public Summary summary(Window window) {
+        int[] merged = new int[BUCKETS];
+        long max = 0;
+        switch (window) {
+            case FIVE_SECONDS -> {
+                if (slot >= 0) {
+                    add(merged, slots[slot]);
+                    max = slotMax[slot];
+                }
+            }
+            case ONE_MINUTE -> {
+                for (int i = 0; i < SLOTS_PER_MINUTE; i++) {
+                    add(merged, slots[i]);
+                    max = Math.max(max, slotMax[i]);
+                }
+            }
+            case FIFTEEN_MINUTES -> {
+                for (int i = 0; i < MINUTES; i++) {
+                    add(merged, minutes[i]);
+                    max = Math.max(max, minutesMax[i]);
+                }
+                // until fifteen minutes are complete include the running minute
+                if (slotCount < SLOTS_PER_MINUTE * MINUTES) {
+                    add(merged, minute);
+                    max = Math.max(max, minuteMax);
+                }
+            }
+        }
+        long count = 0;
+        for (int c : merged) {
+            count += c;
+        }
+        double maxMillis = max / 1_000_000.0;
+        return new Summary(count, percentile(merged, count, 0.50, maxMillis), percentile(merged, count, 0.95, maxMillis),
+                percentile(merged, count, 0.99, maxMillis), maxMillis);
+    }
+
+    private static void add(int[] into, int[] from) {
+        for (int i = 0; i < BUCKETS; i++) {
+            into[i] += from[i];
+        }
+    }
+
+    private static double percentile(int[] buckets, long count, double quantile, double maxMillis) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * quantile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundMillis(i), maxMillis);
+            }
+        }
+        return maxMillis;
+    }
+}
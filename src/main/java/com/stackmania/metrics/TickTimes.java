@@ -0,0 +1,90 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tick time histograms for the whole server and for every phase of every dimension.
+ *
+ * Each ServerLevel holds its {@link LevelTickTimes} in a field, so recording a
+ * phase is an array increment without any lookup. The server calls
+ * {@link #onTickEnd(int)} once per tick to close the 5 second slots.
+ */
+public class TickTimes {
+
+    public enum Phase {
+        TOTAL("total"),
+        SCHEDULED_TICKS("scheduled ticks"),
+        CHUNKS("chunks"),
+        ENTITIES("entities"),
+        BLOCK_ENTITIES("block entities");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    public static final TickHistogram SERVER = new TickHistogram();
+    public static final TickHistogram PLUGIN_TASKS = new TickHistogram();
+
+    private static final int TICKS_PER_SLOT = 100;
+    private static final Map<ResourceKey<Level>, LevelTickTimes> LEVELS = new ConcurrentHashMap<>();
+
+    public static LevelTickTimes forLevel(ResourceKey<Level> dimension) {
+        return LEVELS.computeIfAbsent(dimension, k -> new LevelTickTimes());
+    }
+
+    @Nullable
+    public static LevelTickTimes getLevel(ResourceKey<Level> dimension) {
+        return LEVELS.get(dimension);
+    }
+
+    public static Map<ResourceKey<Level>, LevelTickTimes> getLevels() {
+        return LEVELS;
+    }
+
+    public static void onTickEnd(int tickCount) {
+        if (tickCount % TICKS_PER_SLOT != 0) {
+            return;
+        }
+        SERVER.roll();
+        PLUGIN_TASKS.roll();
+        for (LevelTickTimes level : LEVELS.values()) {
+            for (TickHistogram histogram : level.phases) {
+                histogram.roll();
+            }
+        }
+    }
+
+    public static final class LevelTickTimes {
+        private final TickHistogram[] phases = new TickHistogram[Phase.values().length];
+
+        private LevelTickTimes() {
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = new TickHistogram();
+            }
+        }
+
+        public void record(Phase phase, long nanos) {
+            phases[phase.ordinal()].record(nanos);
+        }
+
+        public TickHistogram get(Phase phase) {
+            return phases[phase.ordinal()];
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Stackmania - Valonia Games
+ * Tick time percentiles command
+ */
+
+package com.stackmania.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * /ticktimes command - Tick time percentiles per dimension and phase
+ *
+ * Usage:
+ * /ticktimes [5s|1m|15m] - Server, plugin tasks and the total of every dimension
+ * /ticktimes <dimension> [5s|1m|15m] - Every phase of one dimension
+ */
+public class TickTimesCommand extends Command {
+
+    public TickTimesCommand(String name) {
+        super(name);
+        this.description = "Stackmania Tick Time Percentiles";
+        this.usageMessage = "/ticktimes [dimension] [5s|1m|15m]";
+        this.setPermission("stackmania.command.ticktimes");
+    }
+
+    @Override
+    public @NotNull List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, String[] args) {
+        List<String> list = new ArrayList<>();
+        if (!testPermissionSilent(sender) || args.length > 2) {
+            return list;
+        }
+        String prefix = args[args.length - 1].toLowerCase(Locale.ROOT);
+        for (TickHistogram.Window window : TickHistogram.Window.values()) {
+            if (window.getLabel().startsWith(prefix)) list.add(window.getLabel());
+        }
+        if (args.length == 1) {
+            for (ResourceKey<Level> dimension : TickTimes.getLevels().keySet()) {
+                String name = dimension.location().toString();
+                if (name.startsWith(prefix) || dimension.location().getPath().startsWith(prefix)) list.add(name);
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public boolean execute(@NotNull CommandSender sender, @NotNull String label, String[] args) {
+        if (!testPermission(sender)) {
+            return false;
+        }
+
+        TickHistogram.Window window = TickHistogram.Window.ONE_MINUTE;
+        TickTimes.LevelTickTimes level = null;
+        String levelName = null;
+        for (String arg : args) {
+            TickHistogram.Window parsed = parseWindow(arg);
+            if (parsed != null) {
+                window = parsed;
+                continue;
+            }
+            boolean found = false;
+            for (Map.Entry<ResourceKey<Level>, TickTimes.LevelTickTimes> entry : TickTimes.getLevels().entrySet()) {
+                if (entry.getKey().location().toString().equalsIgnoreCase(arg) || entry.getKey().location().getPath().equalsIgnoreCase(arg)) {
+                    level = entry.getValue();
+                    levelName = entry.getKey().location().toString();
+                    found = true;
+                }
+            }
+            if (!found) {
+                sender.sendMessage(ChatColor.RED + "Unknown dimension or window: " + arg);
+                return false;
+            }
+        }
+
+        if (level == null) {
+            sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + "Tick Times (" + window.getLabel() + ")" + ChatColor.GOLD + " ═══════");
+            sendLine(sender, "server", TickTimes.SERVER.summary(window));
+            sendLine(sender, "plugin tasks", TickTimes.PLUGIN_TASKS.summary(window));
+            for (Map.Entry<ResourceKey<Level>, TickTimes.LevelTickTimes> entry : TickTimes.getLevels().entrySet()) {
+                sendLine(sender, entry.getKey().location().toString(), entry.getValue().get(TickTimes.Phase.TOTAL).summary(window));
+            }
+        } else {
+            sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + levelName + " (" + window.getLabel() + ")" + ChatColor.GOLD + " ═══════");
+            for (TickTimes.Phase phase : TickTimes.Phase.values()) {
+                sendLine(sender, phase.getLabel(), level.get(phase).summary(window));
+            }
+        }
+        return true;
+    }
+
+    private static TickHistogram.Window parseWindow(String arg) {
+        for (TickHistogram.Window window : TickHistogram.Window.values()) {
+            if (window.getLabel().equalsIgnoreCase(arg)) return window;
+        }
+        return null;
+    }
+
+    private static void sendLine(CommandSender sender, String name, TickHistogram.Summary summary) {
+        if (summary.count() == 0) {
+            sender.sendMessage(ChatColor.WHITE + name + ChatColor.GRAY + ": no ticks recorded yet");
+            return;
+        }
+        sender.sendMessage(String.format(Locale.ROOT, "%s%s%s: p50 %s%.2f%s, p95 %s%.2f%s, p99 %s%.2f%s, max %s%.2f%s ms",
+                ChatColor.WHITE, name, ChatColor.GRAY,
+                color(summary.p50()), summary.p50(), ChatColor.GRAY,
+                color(summary.p95()), summary.p95(), ChatColor.GRAY,
+                color(summary.p99()), summary.p99(), ChatColor.GRAY,
+                color(summary.max()), summary.max(), ChatColor.GRAY));
+    }
+
+    private static ChatColor color(double millis) {
+        return millis < 40 ? ChatColor.GREEN : millis < 50 ? ChatColor.YELLOW : ChatColor.RED;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.ChannelPromise;
+import net.minecraft.network.Connection;
+import net.minecraft.server.network.ServerGamePacketListenerImpl;
+
+/**
+ * Sits at the head of each player pipeline and counts the raw bytes going through
+ * the socket plus how often and how long the channel stays above the high water mark.
+ *
+ * All mutation happens on the channel's event loop; readers on other threads only
+ * see slightly stale values, which is fine for reporting.
+ */
+public class ConnectionMetricsHandler extends ChannelDuplexHandler {
+
+    public static final String NAME = "stackmania_metrics";
+
+    private Channel channel;
+    private volatile long bytesIn;
+    private volatile long bytesOut;
+    private volatile int unwritableEvents;
+    private volatile long unwritableNanos;
+    private long unwritableSince = -1L;
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) throws Exception {
+        this.channel = ctx.channel();
+        NetworkMetrics.register(this);
+        super.channelActive(ctx);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        NetworkMetrics.unregister(this);
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof ByteBuf buf) {
+            int bytes = buf.readableBytes();
+            this.bytesIn += bytes;
+            NetworkMetrics.recordIn(bytes);
+        }
+        super.channelRead(ctx, msg);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof ByteBuf buf) {
+            int bytes = buf.readableBytes();
+            this.bytesOut += bytes;
+            NetworkMetrics.recordOut(bytes);
+        }
+        super.write(ctx, msg, promise);
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        long now = System.nanoTime();
+        if (!ctx.channel().isWritable()) {
+            if (this.unwritableSince < 0) {
+                this.unwritableSince = now;
+                this.unwritableEvents++;
+                NetworkMetrics.recordUnwritable();
+            }
+        } else if (this.unwritableSince >= 0) {
+            this.unwritableNanos += now - this.unwritableSince;
+            this.unwritableSince = -1L;
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    public long getBytesIn() {
+        return bytesIn;
+    }
+
+    public long getBytesOut() {
+        return bytesOut;
+    }
+
+    public int getUnwritableEvents() {
+        return unwritableEvents;
+    }
+
+    /**
+     * Total time spent above the high water mark, including the current stall.
+     */
+    public long getUnwritableMillis() {
+        long total = unwritableNanos;
+        long since = unwritableSince;
+        if (since >= 0) {
+            total += System.nanoTime() - since;
+        }
+        return total / 1_000_000L;
+    }
+
+    public long getPendingBytes() {
+        Channel ch = this.channel;
+        if (ch == null) return 0L;
+        ChannelOutboundBuffer buffer = ch.unsafe().outboundBuffer();
+        return buffer == null ? 0L : buffer.totalPendingWriteBytes();
+    }
+
+    public boolean isWritable() {
+        Channel ch = this.channel;
+        return ch == null || ch.isWritable();
+    }
+
+    public String getName() {
+        Channel ch = this.channel;
+        if (ch == null) return "?";
+        if (ch.pipeline().get("packet_handler") instanceof Connection connection
+                && connection.getPacketListener() instanceof ServerGamePacketListenerImpl listener) {
+            return listener.getPlayer().getScoreboardName();
+        }
+        return String.valueOf(ch.remoteAddress());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.network;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Netty transports the server listener can bind with.
+ *
+ * io_uring is looked up reflectively because netty-incubator-transport-io_uring
+ * is not shipped with the server; dropping the jar into the libraries makes it available.
+ */
+public enum NettyTransport {
+
+    NIO("Netty Server IO #%d") {
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public Class<? extends ServerSocketChannel> serverChannelClass() {
+            return NioServerSocketChannel.class;
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads, ThreadFactory factory) {
+            return new NioEventLoopGroup(threads, factory);
+        }
+    },
+
+    EPOLL("Netty Epoll Server IO #%d") {
+        @Override
+        public boolean isAvailable() {
+            return Epoll.isAvailable();
+        }
+
+        @Override
+        public Class<? extends ServerSocketChannel> serverChannelClass() {
+            return EpollServerSocketChannel.class;
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads, ThreadFactory factory) {
+            return new EpollEventLoopGroup(threads, factory);
+        }
+    },
+
+    IO_URING("Netty IOUring Server IO #%d") {
+        private static final String PACKAGE = "io.netty.incubator.channel.uring.";
+
+        @Override
+        public boolean isAvailable() {
+            try {
+                return (Boolean) Class.forName(PACKAGE + "IOUring").getMethod("isAvailable").invoke(null);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return false;
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Class<? extends ServerSocketChannel> serverChannelClass() {
+            try {
+                return (Class<? extends ServerSocketChannel>) Class.forName(PACKAGE + "IOUringServerSocketChannel");
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("io_uring transport is not on the classpath", e);
+            }
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads, ThreadFactory factory) {
+            try {
+                return (EventLoopGroup) Class.forName(PACKAGE + "IOUringEventLoopGroup")
+                        .getConstructor(int.class, ThreadFactory.class)
+                        .newInstance(threads, factory);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not create io_uring event loop group", e);
+            }
+        }
+    };
+
+    private static final Logger LOGGER = LogManager.getLogger("Stackmania/Network");
+
+    private final String threadNameFormat;
+
+    NettyTransport(String threadNameFormat) {
+        this.threadNameFormat = threadNameFormat;
+    }
+
+    public abstract boolean isAvailable();
+
+    public abstract Class<? extends ServerSocketChannel> serverChannelClass();
+
+    public abstract EventLoopGroup newEventLoopGroup(int threads, ThreadFactory factory);
+
+    public String getThreadNameFormat() {
+        return threadNameFormat;
+    }
+
+    /**
+     * Resolve the configured transport name to one that can actually be used on this machine.
+     *
+     * @param configured    "auto", "nio", "epoll" or "io_uring"
+     * @param nativeAllowed value of use-native-transport from server.properties
+     */
+    public static NettyTransport resolve(String configured, boolean nativeAllowed) {
+        String name = configured == null ? "auto" : configured.trim().toLowerCase(Locale.ROOT);
+
+        if (name.equals("auto")) {
+            if (nativeAllowed) {
+                if (IO_URING.isAvailable()) return IO_URING;
+                if (EPOLL.isAvailable()) return EPOLL;
+            }
+            return NIO;
+        }
+
+        NettyTransport requested;
+        try {
+            requested = valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Unknown network transport '{}', falling back to auto", configured);
+            return resolve("auto", nativeAllowed);
+        }
+
+        if (requested != NIO && !nativeAllowed) {
+            LOGGER.warn("Transport {} requested but use-native-transport is disabled, using NIO", requested);
+            return NIO;
+        }
+        if (!requested.isAvailable()) {
+            LOGGER.warn("Transport {} is not available on this system, falling back to auto", requested);
+            return resolve("auto", nativeAllowed);
+        }
+        return requested;
+    }
+}
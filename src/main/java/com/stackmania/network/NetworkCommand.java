@@ -0,0 +1,117 @@
+/*
+ * Stackmania - Valonia Games
+ * Network statistics command
+ */
+
+package com.stackmania.network;
+
+import com.mohistmc.MohistConfig;
+import com.stackmania.world.ChunkSendQueue;
+import net.minecraft.server.level.ServerPlayer;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /netstats command - Show Netty transport and per-connection backpressure
+ *
+ * Usage:
+ * /netstats - Show transport and totals
+ * /netstats top [count] - Show connections with the most queued outbound bytes
+ * /netstats chunks [count] - Show players with the most chunks waiting to be sent
+ */
+public class NetworkCommand extends Command {
+
+    public NetworkCommand(String name) {
+        super(name);
+        this.description = "Stackmania Network Statistics";
+        this.usageMessage = "/netstats [top|chunks [count]]";
+        this.setPermission("stackmania.command.netstats");
+    }
+
+    @Override
+    public boolean execute(CommandSender sender, String label, String[] args) {
+        if (!testPermission(sender)) {
+            return false;
+        }
+
+        if (args.length == 0) {
+            showSummary(sender);
+        } else if (args[0].equalsIgnoreCase("top") || args[0].equalsIgnoreCase("chunks")) {
+            int limit = 10;
+            if (args.length > 1) {
+                try {
+                    limit = Math.max(1, Integer.parseInt(args[1]));
+                } catch (NumberFormatException e) {
+                    sender.sendMessage(ChatColor.RED + "Invalid count: " + args[1]);
+                    return false;
+                }
+            }
+            if (args[0].equalsIgnoreCase("top")) {
+                showTop(sender, limit);
+            } else {
+                showChunkQueues(sender, limit);
+            }
+        } else {
+            sender.sendMessage(ChatColor.RED + "Usage: " + usageMessage);
+        }
+        return true;
+    }
+
+    private void showSummary(CommandSender sender) {
+        sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + "Stackmania Network" + ChatColor.GOLD + " ═══════");
+        sender.sendMessage(ChatColor.WHITE + "Transport: " + ChatColor.AQUA + NetworkMetrics.getTransport()
+                + ChatColor.WHITE + " | IO threads: " + ChatColor.AQUA + NetworkMetrics.getIoThreads());
+        NetworkSettings settings = NetworkSettings.get();
+        sender.sendMessage(ChatColor.WHITE + "TCP_NODELAY: " + ChatColor.AQUA + settings.tcpNoDelay()
+                + ChatColor.WHITE + " | SO_SNDBUF: " + ChatColor.AQUA + bufferSize(settings.sendBufferSize())
+                + ChatColor.WHITE + " | Water marks: " + ChatColor.AQUA
+                + settings.writeBufferLowWaterMark() / 1024 + "K/" + settings.writeBufferHighWaterMark() / 1024 + "K");
+        if (NetworkSettings.isRestartPending()) {
+            sender.sendMessage(ChatColor.YELLOW + "stackmania.yml has changed network settings, they apply after a restart");
+        }
+        if (!settings.metrics()) {
+            sender.sendMessage(ChatColor.YELLOW + "Per-connection metrics are disabled (network.metrics)");
+            return;
+        }
+        sender.sendMessage(ChatColor.WHITE + "Connections: " + ChatColor.AQUA + NetworkMetrics.getConnectionCount()
+                + ChatColor.WHITE + " | Backlogged: " + ChatColor.YELLOW + NetworkMetrics.getBackloggedCount());
+        sender.sendMessage(ChatColor.WHITE + "Total in: " + ChatColor.AQUA + NetworkMetrics.getBytesIn() / 1024 / 1024 + " MB"
+                + ChatColor.WHITE + " | Total out: " + ChatColor.AQUA + NetworkMetrics.getBytesOut() / 1024 / 1024 + " MB");
+        sender.sendMessage(ChatColor.WHITE + "Unwritable events: " + ChatColor.YELLOW + NetworkMetrics.getUnwritableEvents());
+    }
+
+    private void showTop(CommandSender sender, int limit) {
+        List<ConnectionMetricsHandler> top = NetworkMetrics.getTopByPendingBytes(limit);
+        sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + "Top " + top.size() + " by queued bytes" + ChatColor.GOLD + " ═══════");
+        for (ConnectionMetricsHandler handler : top) {
+            sender.sendMessage(String.format("%s%s%s: queued %s%d KB%s, out %d MB, stalls %d (%d ms)",
+                    ChatColor.WHITE, handler.getName(), ChatColor.GRAY,
+                    handler.isWritable() ? ChatColor.GREEN : ChatColor.RED, handler.getPendingBytes() / 1024, ChatColor.GRAY,
+                    handler.getBytesOut() / 1024 / 1024, handler.getUnwritableEvents(), handler.getUnwritableMillis()));
+        }
+    }
+
+    private void showChunkQueues(CommandSender sender, int limit) {
+        sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + "Chunk send queues" + ChatColor.GOLD + " ═══════");
+        sender.sendMessage(ChatColor.WHITE + "Queue: " + (MohistConfig.chunk_send_queue ? ChatColor.GREEN + "enabled" : ChatColor.RED + "disabled")
+                + ChatColor.WHITE + " | Rate: " + ChatColor.AQUA + MohistConfig.chunk_send_rate_per_player + "/tick per player, "
+                + MohistConfig.chunk_send_rate_global + "/tick total");
+        List<Map.Entry<ServerPlayer, ChunkSendQueue>> queues = new ArrayList<>(ChunkSendQueue.getQueues().entrySet());
+        queues.sort((a, b) -> Integer.compare(b.getValue().size(), a.getValue().size()));
+        for (Map.Entry<ServerPlayer, ChunkSendQueue> entry : queues.subList(0, Math.min(limit, queues.size()))) {
+            ChunkSendQueue queue = entry.getValue();
+            sender.sendMessage(String.format("%s%s%s: queued %s%d%s, sent %d",
+                    ChatColor.WHITE, entry.getKey().getScoreboardName(), ChatColor.GRAY,
+                    queue.size() == 0 ? ChatColor.GREEN : ChatColor.YELLOW, queue.size(), ChatColor.GRAY, queue.getSent()));
+        }
+    }
+
+    private static String bufferSize(int size) {
+        return size > 0 ? size / 1024 + "K" : "os default";
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.network;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server wide network counters and the set of live per-connection handlers.
+ */
+public class NetworkMetrics {
+
+    private static final Set<ConnectionMetricsHandler> CONNECTIONS = ConcurrentHashMap.newKeySet();
+    private static final LongAdder BYTES_IN = new LongAdder();
+    private static final LongAdder BYTES_OUT = new LongAdder();
+    private static final LongAdder UNWRITABLE_EVENTS = new LongAdder();
+    private static final LongAdder PACKETS_IN = new LongAdder();
+    private static final LongAdder PACKETS_OUT = new LongAdder();
+
+    private static volatile NettyTransport transport = NettyTransport.NIO;
+    private static volatile int ioThreads;
+
+    static void register(ConnectionMetricsHandler handler) {
+        CONNECTIONS.add(handler);
+    }
+
+    static void unregister(ConnectionMetricsHandler handler) {
+        CONNECTIONS.remove(handler);
+    }
+
+    static void recordIn(int bytes) {
+        BYTES_IN.add(bytes);
+    }
+
+    static void recordOut(int bytes) {
+        BYTES_OUT.add(bytes);
+    }
+
+    static void recordUnwritable() {
+        UNWRITABLE_EVENTS.increment();
+    }
+
+    public static void recordPacketIn() {
+        PACKETS_IN.increment();
+    }
+
+    public static void recordPacketOut() {
+        PACKETS_OUT.increment();
+    }
+
+    public static void setTransport(NettyTransport transport, int ioThreads) {
+        NetworkMetrics.transport = transport;
+        NetworkMetrics.ioThreads = ioThreads;
+    }
+
+    public static NettyTransport getTransport() {
+        return transport;
+    }
+
+    public static int getIoThreads() {
+        return ioThreads;
+    }
+
+    public static long getBytesIn() {
+        return BYTES_IN.sum();
+    }
+
+    public static long getBytesOut() {
+        return BYTES_OUT.sum();
+    }
+
+    public static long getPacketsIn() {
+        return PACKETS_IN.sum();
+    }
+
+    public static long getPacketsOut() {
+        return PACKETS_OUT.sum();
+    }
+
+    public static long getUnwritableEvents() {
+        return UNWRITABLE_EVENTS.sum();
+    }
+
+    public static int getConnectionCount() {
+        return CONNECTIONS.size();
+    }
+
+    public static int getBackloggedCount() {
+        int count = 0;
+        for (ConnectionMetricsHandler handler : CONNECTIONS) {
+            if (!handler.isWritable()) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Connections ordered by bytes currently queued for the socket, largest first.
+     */
+    public static List<ConnectionMetricsHandler> getTopByPendingBytes(int limit) {
+        List<ConnectionMetricsHandler> list = new ArrayList<>(CONNECTIONS);
+        list.sort(Comparator.comparingLong(ConnectionMetricsHandler::getPendingBytes).reversed());
+        return list.size() > limit ? list.subList(0, limit) : list;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.network;
+
+import javax.annotation.Nullable;
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * Listener settings under "network" in stackmania.yml.
+ *
+ * The TCP listener is bound before MohistConfig.init runs, so the settings are
+ * read straight from the yml file at bind time and that instance is kept for the
+ * listener's lifetime: every connection is set up with it, and it is what
+ * {@link #get()} returns. A config reload only replaces the configured settings;
+ * they apply after a restart, which {@link #isRestartPending()} tells.
+ */
+public record NetworkSettings(String transport, int ioThreads, boolean tcpNoDelay, int sendBufferSize, int receiveBufferSize,
+                              int writeBufferLowWaterMark, int writeBufferHighWaterMark, boolean metrics) {
+
+    public static final int DEFAULT_WRITE_BUFFER_LOW_WATER_MARK = 32 * 1024;
+    public static final int DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK = 64 * 1024;
+    public static final NetworkSettings DEFAULTS = new NetworkSettings("auto", 0, true, -1, -1,
+            DEFAULT_WRITE_BUFFER_LOW_WATER_MARK, DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK, true);
+
+    private static NetworkSettings configured = DEFAULTS;
+    @Nullable
+    private static NetworkSettings bound;
+
+    /**
+     * Netty's WriteBufferWaterMark throws at channel init for a negative low
+     * mark or a high mark below the low one.
+     */
+    public NetworkSettings {
+        writeBufferLowWaterMark = Math.max(0, writeBufferLowWaterMark);
+        writeBufferHighWaterMark = Math.max(writeBufferLowWaterMark, writeBufferHighWaterMark);
+    }
+
+    public static NetworkSettings load(ConfigurationSection yml) {
+        return new NetworkSettings(
+                yml.getString("network.transport", DEFAULTS.transport),
+                yml.getInt("network.io_threads", DEFAULTS.ioThreads),
+                yml.getBoolean("network.tcp_nodelay", DEFAULTS.tcpNoDelay),
+                yml.getInt("network.so_sndbuf", DEFAULTS.sendBufferSize),
+                yml.getInt("network.so_rcvbuf", DEFAULTS.receiveBufferSize),
+                yml.getInt("network.write_buffer_water_mark.low", DEFAULTS.writeBufferLowWaterMark),
+                yml.getInt("network.write_buffer_water_mark.high", DEFAULTS.writeBufferHighWaterMark),
+                yml.getBoolean("network.metrics", DEFAULTS.metrics));
+    }
+
+    /**
+     * The settings the listener binds with, kept until the server stops.
+     */
+    public static NetworkSettings bind(ConfigurationSection yml) {
+        bound = configured = load(yml);
+        return bound;
+    }
+
+    /**
+     * Settings read by a config (re)load, applied at the next bind.
+     */
+    public static void configure(NetworkSettings settings) {
+        configured = settings;
+    }
+
+    /**
+     * The settings in use: those bound with, or the configured ones before the
+     * listener is bound.
+     */
+    public static NetworkSettings get() {
+        return bound != null ? bound : configured;
+    }
+
+    public static NetworkSettings getConfigured() {
+        return configured;
+    }
+
+    /**
+     * Whether stackmania.yml changed the network settings since the listener was bound.
+     */
+    public static boolean isRestartPending() {
+        return bound != null && !bound.equals(configured);
+    }
+}
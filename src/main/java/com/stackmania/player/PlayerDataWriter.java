@@ -0,0 +1,147 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.player;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.minecraft.Util;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Compresses and writes player data files on a dedicated thread.
+ *
+ * The server thread only takes the NBT snapshot. Files are written to a temporary
+ * file, synced and then swapped in with the usual .dat_old backup. Saves of the
+ * same player that are still queued are merged, only the newest snapshot is
+ * written. Anything reading a player file calls {@link #await(UUID)} first so it
+ * never sees data older than the last save.
+ */
+public class PlayerDataWriter {
+
+    private static final Logger LOGGER = LogManager.getLogger("Stackmania/PlayerData");
+
+    private final File playerDir;
+    private final Map<UUID, PendingSave> pending = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Stackmania-PlayerData");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public PlayerDataWriter(File playerDir) {
+        this.playerDir = playerDir;
+    }
+
+    /**
+     * Queue a snapshot for writing. The tag must not be modified afterwards.
+     */
+    public void save(UUID uuid, String name, CompoundTag tag) {
+        PendingSave[] created = new PendingSave[1];
+        pending.compute(uuid, (key, existing) -> {
+            if (existing != null && existing.replace(tag)) {
+                return existing;
+            }
+            return created[0] = new PendingSave(tag);
+        });
+        if (created[0] != null) {
+            PendingSave save = created[0];
+            executor.execute(() -> run(uuid, name, save));
+        }
+    }
+
+    private void run(UUID uuid, String name, PendingSave save) {
+        try {
+            write(uuid, save.begin());
+        } catch (Exception e) {
+            LOGGER.warn("Failed to save player data for {}", name, e);
+        } finally {
+            pending.remove(uuid, save);
+            save.done.complete(null);
+        }
+    }
+
+    /**
+     * Write a snapshot on the calling thread, used when asynchronous saving is disabled.
+     */
+    public void write(UUID uuid, CompoundTag tag) throws IOException {
+        File temp = File.createTempFile(uuid + "-", ".dat", playerDir);
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            NbtIo.writeCompressed(tag, out);
+            out.getFD().sync();
+        }
+        File file = new File(playerDir, uuid + ".dat");
+        File backup = new File(playerDir, uuid + ".dat_old");
+        Util.safeReplaceFile(file, temp, backup);
+    }
+
+    /**
+     * Wait until the pending save of a player, if any, is on disk.
+     */
+    public void await(UUID uuid) {
+        PendingSave save = pending.get(uuid);
+        if (save != null) {
+            save.done.join();
+        }
+    }
+
+    /**
+     * Same as {@link #await(UUID)} for a player file name, ignored when the name is not a UUID.
+     */
+    public void await(String fileName) {
+        try {
+            await(UUID.fromString(fileName));
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    /**
+     * Wait for every pending save, called when the server stops.
+     */
+    public void flush() {
+        for (PendingSave save : pending.values()) {
+            save.done.join();
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private static final class PendingSave {
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private CompoundTag tag;
+        private boolean started;
+
+        PendingSave(CompoundTag tag) {
+            this.tag = tag;
+        }
+
+        synchronized boolean replace(CompoundTag tag) {
+            if (started) {
+                return false;
+            }
+            this.tag = tag;
+            return true;
+        }
+
+        synchronized CompoundTag begin() {
+            started = true;
+            CompoundTag tag = this.tag;
+            this.tag = null;
+            return tag;
+        }
+    }
+}
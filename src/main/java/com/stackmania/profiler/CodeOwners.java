@@ -0,0 +1,115 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.profiler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.minecraftforge.fml.ModList;
+import net.minecraftforge.forgespi.language.IModFileInfo;
+import net.minecraftforge.forgespi.language.ModFileScanData;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.java.PluginClassLoader;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Maps the class of a stack frame to the plugin or mod that owns it.
+ *
+ * Plugin classes are found through the plugin class loaders, mod classes through
+ * the package ownership recorded in the Forge scan data of each mod file. Minecraft
+ * and Forge themselves are not owners. Results are cached per class name, the
+ * instance is created for one profiling run and only used by the sampler thread.
+ */
+public final class CodeOwners {
+
+    public static final String SERVER = "server";
+    private static final Set<String> PLATFORM_MODS = Set.of("minecraft", "forge", "mohist", "stackmania");
+    private static volatile Map<String, String> modPackages;
+
+    private final List<PluginOwner> plugins = new ArrayList<>();
+    private final Map<String, String> cache = new HashMap<>();
+
+    CodeOwners() {
+        for (Plugin plugin : Bukkit.getPluginManager().getPlugins()) {
+            if (plugin.getClass().getClassLoader() instanceof PluginClassLoader loader) {
+                plugins.add(new PluginOwner(loader, "plugin:" + plugin.getName()));
+            }
+        }
+    }
+
+    private static Map<String, String> modPackages() {
+        Map<String, String> packages = modPackages;
+        if (packages == null) {
+            packages = new HashMap<>();
+            for (IModFileInfo file : ModList.get().getModFiles()) {
+                if (file.getMods().isEmpty()) continue;
+                String modId = file.getMods().get(0).getModId();
+                if (PLATFORM_MODS.contains(modId)) continue;
+                for (ModFileScanData.ClassData data : file.getFile().getScanResult().getClasses()) {
+                    packages.putIfAbsent(packageOf(data.clazz().getClassName()), "mod:" + modId);
+                }
+            }
+            modPackages = packages;
+        }
+        return packages;
+    }
+
+    /**
+     * "mod:id" of the mod owning a class, or null for Minecraft, Forge and unknown classes.
+     */
+    @Nullable
+    public static String modOf(String className) {
+        return modPackages().get(packageOf(className));
+    }
+
+    private static String packageOf(String className) {
+        int dot = className.lastIndexOf('.');
+        return dot < 0 ? "" : className.substring(0, dot);
+    }
+
+    /**
+     * Owner of the innermost plugin or mod frame, or {@link #SERVER}.
+     */
+    String ownerOf(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            String owner = ownerOf(frame.getClassName());
+            if (owner != null) {
+                return owner;
+            }
+        }
+        return SERVER;
+    }
+
+    @Nullable
+    private String ownerOf(String className) {
+        String owner = cache.get(className);
+        if (owner == null) {
+            owner = resolve(className);
+            cache.put(className, owner);
+        }
+        return owner.isEmpty() ? null : owner;
+    }
+
+    private String resolve(String className) {
+        if (className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.")
+                || className.startsWith("net.minecraft.") || className.startsWith("org.bukkit.")) {
+            return "";
+        }
+        for (PluginOwner plugin : plugins) {
+            if (plugin.loader.getLoadedClass(className) != null) {
+                return plugin.name;
+            }
+        }
+        String mod = modOf(className);
+        return mod == null ? "" : mod;
+    }
+
+    private record PluginOwner(PluginClassLoader loader, String name) {
+    }
+}
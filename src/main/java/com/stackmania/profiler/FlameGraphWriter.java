@@ -0,0 +1,144 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.profiler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes sampled stacks in the collapsed format ("frame;frame;frame count" per line,
+ * root first) understood by flamegraph.pl, speedscope and async-profiler converters,
+ * and a self-contained flame graph page next to it.
+ */
+final class FlameGraphWriter {
+
+    private static final String PAGE_HEAD = """
+            <!DOCTYPE html>
+            <html><head><meta charset="utf-8"><title>Stackmania profile</title>
+            <style>
+            body{font:12px monospace;margin:8px;background:#fff}
+            #graph{position:relative;width:100%}
+            .f{position:absolute;height:16px;line-height:16px;overflow:hidden;white-space:nowrap;
+               border-right:1px solid #fff;box-sizing:border-box;cursor:pointer;padding-left:2px}
+            #info{height:18px;margin-bottom:4px}
+            </style></head><body>
+            <div id="info">Click a frame to zoom, click the root to reset</div>
+            <div id="graph"></div>
+            <script>
+            const STACKS = [
+            """;
+
+    private static final String PAGE_TAIL = """
+            ];
+            const root = {name: 'all', value: 0, children: new Map()};
+            for (const [stack, count] of STACKS) {
+              let node = root;
+              root.value += count;
+              for (const name of stack.split(';')) {
+                let child = node.children.get(name);
+                if (!child) node.children.set(name, child = {name, value: 0, children: new Map()});
+                child.value += count;
+                node = child;
+              }
+            }
+            const graph = document.getElementById('graph');
+            const info = document.getElementById('info');
+            function color(name) {
+              if (name.startsWith('plugin:')) return '#7fbf7f';
+              if (name.startsWith('mod:')) return '#7fa7df';
+              let h = 0;
+              for (let i = 0; i < name.length; i++) h = (h * 31 + name.charCodeAt(i)) | 0;
+              return 'hsl(' + (20 + Math.abs(h) % 40) + ',80%,' + (55 + Math.abs(h >> 8) % 15) + '%)';
+            }
+            function render(focus) {
+              graph.innerHTML = '';
+              let depth = 0;
+              function draw(node, x, width, level) {
+                if (width < 0.05) return;
+                depth = Math.max(depth, level + 1);
+                const div = document.createElement('div');
+                div.className = 'f';
+                div.style.left = x + '%';
+                div.style.width = width + '%';
+                div.style.top = (level * 17) + 'px';
+                div.style.background = color(node.name);
+                div.textContent = node.name;
+                const pct = (node.value * 100 / root.value).toFixed(2);
+                div.title = node.name + ' (' + node.value + ' samples, ' + pct + '%)';
+                div.onmouseover = () => info.textContent = div.title;
+                div.onclick = () => render(node === focus ? root : node);
+                graph.appendChild(div);
+                let cx = x;
+                for (const child of node.children.values()) {
+                  const cw = width * child.value / node.value;
+                  draw(child, cx, cw, level + 1);
+                  cx += cw;
+                }
+              }
+              draw(focus, 0, 100, 0);
+              graph.style.height = (depth * 17) + 'px';
+            }
+            render(root);
+            </script></body></html>
+            """;
+
+    private FlameGraphWriter() {
+    }
+
+    /**
+     * @return the path of the flame graph page
+     */
+    static Path write(Path collapsed, Map<String, long[]> stacks) throws IOException {
+        Files.createDirectories(collapsed.toAbsolutePath().getParent());
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(stacks.entrySet());
+        entries.sort(Map.Entry.comparingByKey());
+
+        try (BufferedWriter writer = Files.newBufferedWriter(collapsed, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, long[]> entry : entries) {
+                writer.write(entry.getKey());
+                writer.write(' ');
+                writer.write(Long.toString(entry.getValue()[0]));
+                writer.newLine();
+            }
+        }
+
+        String name = collapsed.getFileName().toString();
+        Path html = collapsed.resolveSibling(name.substring(0, name.lastIndexOf('.')) + ".html");
+        try (BufferedWriter writer = Files.newBufferedWriter(html, StandardCharsets.UTF_8)) {
+            writer.write(PAGE_HEAD);
+            for (Map.Entry<String, long[]> entry : entries) {
+                writer.write("[\"");
+                writer.write(escape(entry.getKey()));
+                writer.write("\",");
+                writer.write(Long.toString(entry.getValue()[0]));
+                writer.write("],\n");
+            }
+            writer.write(PAGE_TAIL);
+        }
+        return html;
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 16);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '"' -> sb.append("\\\"");
+                case '<' -> sb.append("\\u003c");
+                case '>' -> sb.append("\\u003e");
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
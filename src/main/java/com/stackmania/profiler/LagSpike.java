@@ -0,0 +1,127 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.profiler;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples of the server thread taken during one slow tick.
+ */
+public final class LagSpike {
+
+    private static final int TOP = 10;
+    private static final int MAX_STACK_LINES = 60;
+
+    private final Date time;
+    private final int tick;
+    private final long durationNanos;
+    private final int samples;
+    private final Map<String, long[]> stacks;
+    private final Map<String, long[]> owners;
+    private final Map<String, long[]> leafFrames;
+    private final Map<String, long[]> contexts;
+
+    LagSpike(Date time, int tick, long durationNanos, int samples, Map<String, long[]> stacks,
+             Map<String, long[]> owners, Map<String, long[]> leafFrames, Map<String, long[]> contexts) {
+        this.time = time;
+        this.tick = tick;
+        this.durationNanos = durationNanos;
+        this.samples = samples;
+        this.stacks = stacks;
+        this.owners = owners;
+        this.leafFrames = leafFrames;
+        this.contexts = contexts;
+    }
+
+    private static List<Map.Entry<String, long[]>> top(Map<String, long[]> counts, int limit) {
+        List<Map.Entry<String, long[]>> list = new ArrayList<>(counts.entrySet());
+        list.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+        return list.size() > limit ? list.subList(0, limit) : list;
+    }
+
+    public Date getTime() {
+        return time;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public long getDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public String getTopOwner() {
+        List<Map.Entry<String, long[]>> top = top(owners, 1);
+        return top.isEmpty() ? CodeOwners.SERVER : top.get(0).getKey();
+    }
+
+    public List<String> getTopOwners(int limit) {
+        return percentages(owners, limit);
+    }
+
+    public List<String> getTopFrames(int limit) {
+        return percentages(leafFrames, limit);
+    }
+
+    public List<String> getTopContexts(int limit) {
+        return percentages(contexts, limit);
+    }
+
+    private List<String> percentages(Map<String, long[]> counts, int limit) {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : top(counts, limit)) {
+            lines.add(String.format("%5.1f%% %s", entry.getValue()[0] * 100.0 / Math.max(1, samples), entry.getKey()));
+        }
+        return lines;
+    }
+
+    /**
+     * Text report: summary, owners, hottest frames and what was being ticked, then
+     * the most sampled stack.
+     */
+    public List<String> report() {
+        List<String> lines = new ArrayList<>();
+        lines.add("Lag spike at " + time + ", tick " + tick);
+        lines.add("Duration: " + getDurationMillis() + " ms, samples: " + samples);
+        lines.add("");
+        lines.add("Owners:");
+        getTopOwners(TOP).forEach(line -> lines.add("  " + line));
+        lines.add("");
+        lines.add("Top frames:");
+        getTopFrames(TOP).forEach(line -> lines.add("  " + line));
+        lines.add("");
+        lines.add("Ticking:");
+        if (contexts.isEmpty()) {
+            lines.add("  nothing recorded");
+        } else {
+            getTopContexts(TOP).forEach(line -> lines.add("  " + line));
+        }
+        List<Map.Entry<String, long[]>> hottest = top(stacks, 1);
+        if (!hottest.isEmpty()) {
+            lines.add("");
+            lines.add("Most sampled stack (" + hottest.get(0).getValue()[0] + " samples):");
+            String[] frames = hottest.get(0).getKey().split(";");
+            for (int i = frames.length - 1, n = 0; i >= 0 && n < MAX_STACK_LINES; i--, n++) {
+                lines.add("  at " + frames[i]);
+            }
+        }
+        lines.add("");
+        lines.add("Collapsed stacks:");
+        for (Map.Entry<String, long[]> entry : top(stacks, Integer.MAX_VALUE)) {
+            lines.add(entry.getKey() + " " + entry.getValue()[0]);
+        }
+        return lines;
+    }
+}
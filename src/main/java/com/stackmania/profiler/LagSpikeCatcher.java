@@ -0,0 +1,214 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.profiler;
+
+import com.mohistmc.MohistConfig;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.entity.TickingBlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Catches server ticks that run longer than lag_spikes.threshold_ms.
+ *
+ * The server thread only publishes when a tick starts and ends and what it is
+ * ticking right now. A daemon thread sleeps until the running tick crosses the
+ * threshold, then samples the server thread every lag_spikes.sample_interval_ms
+ * until the tick ends. The samples of one tick make one {@link LagSpike}; the most
+ * recent spikes are kept in a ring buffer and each is written as a text report.
+ *
+ * The watchdog only reports ticks that hang for the whole crash timeout, this is
+ * meant for the short spikes it never sees.
+ */
+public class LagSpikeCatcher {
+
+    private static final Logger LOGGER = LogManager.getLogger("Stackmania/LagSpikes");
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static volatile Thread serverThread;
+    private static volatile long tickStart;
+    private static volatile int tickId;
+    private static volatile int lastTickId;
+    private static volatile long lastTickNanos;
+    private static Thread catcherThread;
+
+    /**
+     * What the server thread is ticking, an entity, a ticking block entity or a chunk.
+     * Written without synchronization, readers only use it to describe a sample.
+     */
+    @Nullable
+    public static Object context;
+
+    private static final ArrayDeque<LagSpike> history = new ArrayDeque<>();
+    private static CodeOwners codeOwners;
+    private static int ownersPluginCount = -1;
+
+    /**
+     * Called by the server thread when a tick starts.
+     */
+    public static void tickStart(long nanos) {
+        if (!MohistConfig.lag_spikes_enabled) {
+            return;
+        }
+        if (catcherThread == null) {
+            serverThread = Thread.currentThread();
+            catcherThread = new Thread(LagSpikeCatcher::run, "Stackmania-LagSpikes");
+            catcherThread.setDaemon(true);
+            catcherThread.start();
+        }
+        tickId++;
+        tickStart = nanos;
+    }
+
+    /**
+     * Called by the server thread when a tick ends.
+     */
+    public static void tickEnd(long tickNanos) {
+        if (tickStart == 0) {
+            return;
+        }
+        lastTickNanos = tickNanos;
+        lastTickId = tickId;
+        tickStart = 0;
+        context = null;
+    }
+
+    public static synchronized List<LagSpike> getHistory() {
+        return new ArrayList<>(history);
+    }
+
+    public static synchronized void clearHistory() {
+        history.clear();
+    }
+
+    private static void run() {
+        StringBuilder key = new StringBuilder(1024);
+        while (true) {
+            try {
+                long start = tickStart;
+                int id = tickId;
+                long threshold = TimeUnit.MILLISECONDS.toNanos(Math.max(1, MohistConfig.lag_spikes_threshold_ms));
+                long wait = start == 0 ? IDLE_POLL_NANOS : start + threshold - System.nanoTime();
+                if (start == 0 || wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(Math.min(wait, threshold));
+                    continue;
+                }
+                catchSpike(start, id, key);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Throwable t) {
+                LOGGER.error("Lag spike catcher failed", t);
+            }
+        }
+    }
+
+    private static void catchSpike(long start, int id, StringBuilder key) throws InterruptedException, IOException {
+        long interval = TimeUnit.MILLISECONDS.toNanos(Math.max(1, MohistConfig.lag_spikes_sample_interval_ms));
+        int maxDepth = Math.max(8, MohistConfig.profiler_max_depth);
+        Map<String, long[]> stacks = new HashMap<>();
+        Map<String, long[]> contexts = new HashMap<>();
+        List<StackTraceElement[]> samples = new ArrayList<>();
+        Thread thread = serverThread;
+        while (tickId == id && tickStart == start) {
+            StackTraceElement[] stack = thread.getStackTrace();
+            if (tickId != id || tickStart != start) break;
+            if (stack.length > 0) {
+                samples.add(stack);
+                key.setLength(0);
+                for (int i = Math.min(stack.length, maxDepth) - 1; i >= 0; i--) {
+                    if (key.length() > 0) key.append(';');
+                    key.append(stack[i].getClassName()).append('.').append(stack[i].getMethodName());
+                }
+                stacks.computeIfAbsent(key.toString(), k -> new long[1])[0]++;
+                String where = describe(context);
+                if (where != null) {
+                    contexts.computeIfAbsent(where, k -> new long[1])[0]++;
+                }
+            }
+            TimeUnit.NANOSECONDS.sleep(interval);
+        }
+        long duration = lastTickId == id ? lastTickNanos : System.nanoTime() - start;
+
+        CodeOwners owners = codeOwners();
+        Map<String, long[]> ownerCounts = new HashMap<>();
+        Map<String, long[]> leafCounts = new HashMap<>();
+        for (StackTraceElement[] stack : samples) {
+            ownerCounts.computeIfAbsent(owners.ownerOf(stack), k -> new long[1])[0]++;
+            leafCounts.computeIfAbsent(stack[0].toString(), k -> new long[1])[0]++;
+        }
+        LagSpike spike = new LagSpike(new Date(), id, duration, samples.size(), stacks, ownerCounts, leafCounts, contexts);
+        synchronized (LagSpikeCatcher.class) {
+            history.addFirst(spike);
+            while (history.size() > Math.max(1, MohistConfig.lag_spikes_history)) {
+                history.removeLast();
+            }
+        }
+        LOGGER.warn("Tick {} took {} ms, {} samples, mostly {}", id, TimeUnit.NANOSECONDS.toMillis(duration),
+                samples.size(), spike.getTopOwner());
+        if (MohistConfig.lag_spikes_write_reports && !samples.isEmpty()) {
+            write(spike);
+        }
+    }
+
+    private static CodeOwners codeOwners() {
+        int plugins = Bukkit.getServer() == null ? 0 : Bukkit.getPluginManager().getPlugins().length;
+        if (codeOwners == null || plugins != ownersPluginCount) {
+            codeOwners = new CodeOwners();
+            ownersPluginCount = plugins;
+        }
+        return codeOwners;
+    }
+
+    @Nullable
+    private static String describe(@Nullable Object context) {
+        if (context instanceof Entity entity) {
+            BlockPos pos = entity.blockPosition();
+            return "entity " + EntityType.getKey(entity.getType()) + " at " + pos.toShortString()
+                    + " in " + entity.level().dimension().location();
+        }
+        if (context instanceof TickingBlockEntity blockEntity) {
+            return "block entity " + blockEntity.getType() + " at " + blockEntity.getPos().toShortString();
+        }
+        if (context instanceof LevelChunk chunk) {
+            ChunkPos pos = chunk.getPos();
+            return "chunk " + pos.x + ", " + pos.z + " in " + chunk.getLevel().dimension().location();
+        }
+        return null;
+    }
+
+    private static void write(LagSpike spike) throws IOException {
+        Path dir = Path.of(MohistConfig.lag_spikes_output_dir);
+        Files.createDirectories(dir);
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(spike.getTime());
+        Path file = dir.resolve("spike-" + stamp + "-tick" + spike.getTick() + ".txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (String line : spike.report()) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+}
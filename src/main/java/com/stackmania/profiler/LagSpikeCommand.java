@@ -0,0 +1,115 @@
+/*
+ * Stackmania - Valonia Games
+ * Lag spike history command
+ */
+
+package com.stackmania.profiler;
+
+import com.mohistmc.MohistConfig;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * /lagspikes command - Recent ticks that exceeded the lag spike threshold
+ *
+ * Usage:
+ * /lagspikes [list] - Most recent spikes, newest first
+ * /lagspikes show <number> - Owners, frames and ticking context of one spike
+ * /lagspikes clear - Forget the recorded spikes
+ */
+public class LagSpikeCommand extends Command {
+
+    private static final List<String> SUBCOMMANDS = List.of("list", "show", "clear");
+
+    public LagSpikeCommand(String name) {
+        super(name);
+        this.description = "Stackmania Lag Spike Catcher";
+        this.usageMessage = "/lagspikes [list|show <number>|clear]";
+        this.setPermission("stackmania.command.lagspikes");
+    }
+
+    @Override
+    public @NotNull List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, String[] args) {
+        List<String> list = new ArrayList<>();
+        if (args.length == 1 && testPermissionSilent(sender)) {
+            for (String sub : SUBCOMMANDS) {
+                if (sub.startsWith(args[0].toLowerCase(Locale.ROOT))) list.add(sub);
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public boolean execute(@NotNull CommandSender sender, @NotNull String label, String[] args) {
+        if (!testPermission(sender)) {
+            return false;
+        }
+
+        String sub = args.length == 0 ? "list" : args[0].toLowerCase(Locale.ROOT);
+        switch (sub) {
+            case "list" -> showList(sender);
+            case "show" -> {
+                List<LagSpike> history = LagSpikeCatcher.getHistory();
+                int index;
+                try {
+                    index = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+                } catch (NumberFormatException e) {
+                    sender.sendMessage(ChatColor.RED + "Invalid number: " + args[1]);
+                    return false;
+                }
+                if (index < 1 || index > history.size()) {
+                    sender.sendMessage(ChatColor.RED + "No lag spike #" + index + ", " + history.size() + " recorded");
+                    return false;
+                }
+                showSpike(sender, history.get(index - 1));
+            }
+            case "clear" -> {
+                LagSpikeCatcher.clearHistory();
+                sender.sendMessage(ChatColor.GREEN + "Lag spike history cleared");
+            }
+            default -> {
+                sender.sendMessage(ChatColor.RED + "Usage: " + usageMessage);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void showList(CommandSender sender) {
+        sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + "Lag Spikes" + ChatColor.GOLD + " ═══════");
+        sender.sendMessage(ChatColor.WHITE + "Catcher: " + (MohistConfig.lag_spikes_enabled ? ChatColor.GREEN + "enabled" : ChatColor.RED + "disabled")
+                + ChatColor.WHITE + " | Threshold: " + ChatColor.AQUA + MohistConfig.lag_spikes_threshold_ms + " ms");
+        List<LagSpike> history = LagSpikeCatcher.getHistory();
+        if (history.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "No lag spikes recorded");
+            return;
+        }
+        SimpleDateFormat format = new SimpleDateFormat("HH:mm:ss", Locale.ROOT);
+        for (int i = 0; i < history.size(); i++) {
+            LagSpike spike = history.get(i);
+            sender.sendMessage(String.format("%s#%d %s%s %s%d ms%s, %s", ChatColor.WHITE, i + 1, ChatColor.GRAY,
+                    format.format(spike.getTime()), ChatColor.RED, spike.getDurationMillis(), ChatColor.GRAY, spike.getTopOwner()));
+        }
+    }
+
+    private void showSpike(CommandSender sender, LagSpike spike) {
+        sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + "Lag Spike, tick " + spike.getTick() + ChatColor.GOLD + " ═══════");
+        sender.sendMessage(ChatColor.WHITE + "Duration: " + ChatColor.RED + spike.getDurationMillis() + " ms"
+                + ChatColor.WHITE + " | Samples: " + ChatColor.AQUA + spike.getSamples());
+        sender.sendMessage(ChatColor.WHITE + "Owners:");
+        spike.getTopOwners(5).forEach(line -> sender.sendMessage(ChatColor.GRAY + "  " + line));
+        sender.sendMessage(ChatColor.WHITE + "Top frames:");
+        spike.getTopFrames(5).forEach(line -> sender.sendMessage(ChatColor.GRAY + "  " + line));
+        List<String> contexts = spike.getTopContexts(5);
+        if (!contexts.isEmpty()) {
+            sender.sendMessage(ChatColor.WHITE + "Ticking:");
+            contexts.forEach(line -> sender.sendMessage(ChatColor.GRAY + "  " + line));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Stackmania - Valonia Games
+ * Sampling profiler command
+ */
+
+package com.stackmania.profiler;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * /profiler command - Sample server threads and export a flame graph
+ *
+ * Usage:
+ * /profiler start [seconds] [main|workers|netty|all] - Start sampling, stops by itself after the given time
+ * /profiler stop - Stop and write the collapsed stacks and flame graph
+ * /profiler [status] - Samples so far and the most sampled plugins and mods
+ */
+public class ProfilerCommand extends Command {
+
+    private static final List<String> SUBCOMMANDS = List.of("start", "stop", "status");
+    private static final List<String> SCOPES = List.of("main", "workers", "netty", "all");
+
+    public ProfilerCommand(String name) {
+        super(name);
+        this.description = "Stackmania Sampling Profiler";
+        this.usageMessage = "/profiler [start [seconds] [main|workers|netty|all]|stop|status]";
+        this.setPermission("stackmania.command.profiler");
+    }
+
+    @Override
+    public @NotNull List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, String[] args) {
+        List<String> list = new ArrayList<>();
+        if (!testPermissionSilent(sender)) {
+            return list;
+        }
+        if (args.length == 1) {
+            for (String sub : SUBCOMMANDS) {
+                if (sub.startsWith(args[0].toLowerCase(Locale.ROOT))) list.add(sub);
+            }
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("start")) {
+            for (String scope : SCOPES) {
+                if (scope.startsWith(args[2].toLowerCase(Locale.ROOT))) list.add(scope);
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public boolean execute(@NotNull CommandSender sender, @NotNull String label, String[] args) {
+        if (!testPermission(sender)) {
+            return false;
+        }
+
+        String sub = args.length == 0 ? "status" : args[0].toLowerCase(Locale.ROOT);
+        switch (sub) {
+            case "start" -> {
+                int seconds = 0;
+                SamplingProfiler.Scope scope = SamplingProfiler.Scope.ALL;
+                try {
+                    if (args.length > 1) {
+                        seconds = Integer.parseInt(args[1]);
+                    }
+                    if (args.length > 2) {
+                        scope = SamplingProfiler.Scope.valueOf(args[2].toUpperCase(Locale.ROOT));
+                    }
+                } catch (IllegalArgumentException e) {
+                    sender.sendMessage(ChatColor.RED + "Usage: " + usageMessage);
+                    return false;
+                }
+                if (SamplingProfiler.isRunning()) {
+                    sender.sendMessage(ChatColor.RED + "The profiler is already running, use /profiler stop");
+                    return false;
+                }
+                SamplingProfiler.start(scope, seconds);
+                sender.sendMessage(ChatColor.GREEN + "Profiling " + scope.name().toLowerCase(Locale.ROOT) + " threads"
+                        + (seconds > 0 ? " for " + seconds + "s" : ", use /profiler stop to finish"));
+            }
+            case "stop" -> {
+                if (!SamplingProfiler.isRunning()) {
+                    sender.sendMessage(ChatColor.YELLOW + "The profiler is not running");
+                    return false;
+                }
+                Path output = SamplingProfiler.stop();
+                sender.sendMessage(ChatColor.GREEN + "Profiler stopped, writing " + output.toAbsolutePath());
+            }
+            case "status" -> showStatus(sender);
+            default -> {
+                sender.sendMessage(ChatColor.RED + "Usage: " + usageMessage);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void showStatus(CommandSender sender) {
+        SamplingProfiler.Session session = SamplingProfiler.getSession();
+        if (session == null) {
+            sender.sendMessage(ChatColor.YELLOW + "The profiler is not running, use /profiler start");
+            return;
+        }
+        sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + "Sampling Profiler" + ChatColor.GOLD + " ═══════");
+        long samples = session.getSamples();
+        sender.sendMessage(ChatColor.WHITE + "Threads: " + ChatColor.AQUA + session.getScope().name().toLowerCase(Locale.ROOT)
+                + ChatColor.WHITE + " | Running: " + ChatColor.AQUA + session.getSeconds() + "s"
+                + ChatColor.WHITE + " | Samples: " + ChatColor.AQUA + samples);
+        for (Map.Entry<String, Long> entry : session.getTopOwners(10)) {
+            sender.sendMessage(String.format("%s%s%s: %.1f%%", ChatColor.WHITE, entry.getKey(), ChatColor.GRAY,
+                    samples == 0 ? 0.0 : entry.getValue() * 100.0 / samples));
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.profiler;
+
+import com.mohistmc.MohistConfig;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import net.minecraft.server.MinecraftServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Sampling profiler for the server thread, the worker pools and the Netty threads.
+ *
+ * A daemon thread takes the stack of every selected runnable thread at a fixed
+ * interval and counts identical stacks, so the cost on the sampled threads is one
+ * stack walk per interval. Each sample is attributed to the innermost plugin or
+ * mod frame. When the run stops the counts are written as collapsed stacks and as
+ * a flame graph page.
+ */
+public class SamplingProfiler {
+
+    private static final Logger LOGGER = LogManager.getLogger("Stackmania/Profiler");
+    private static final long THREAD_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static volatile Session session;
+
+    public enum Scope {
+        MAIN, WORKERS, NETTY, ALL;
+
+        @Nullable
+        String groupOf(Thread thread, Thread serverThread) {
+            String group;
+            if (thread == serverThread) {
+                group = "Server thread";
+            } else if (thread.getName().startsWith("Worker-") || thread.getName().startsWith("IO-Worker-")) {
+                group = "Workers";
+            } else if (thread.getName().contains("Netty")) {
+                group = "Netty";
+            } else {
+                return null;
+            }
+            return switch (this) {
+                case MAIN -> thread == serverThread ? group : null;
+                case WORKERS -> group.equals("Workers") ? group : null;
+                case NETTY -> group.equals("Netty") ? group : null;
+                case ALL -> group;
+            };
+        }
+    }
+
+    public static boolean isRunning() {
+        return session != null;
+    }
+
+    @Nullable
+    public static Session getSession() {
+        return session;
+    }
+
+    /**
+     * Start sampling, optionally stopping by itself after the given number of seconds.
+     */
+    public static synchronized void start(Scope scope, int seconds) {
+        if (session != null) {
+            throw new IllegalStateException("The profiler is already running");
+        }
+        Session s = new Session(scope, Math.max(1, MohistConfig.profiler_interval_ms), seconds);
+        session = s;
+        Thread thread = new Thread(s::run, "Stackmania-Profiler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop sampling, the profile is written by the sampler thread.
+     *
+     * @return the path the collapsed stacks are written to
+     */
+    public static synchronized Path stop() {
+        Session s = session;
+        if (s == null) {
+            throw new IllegalStateException("The profiler is not running");
+        }
+        session = null;
+        s.running = false;
+        return s.output;
+    }
+
+    public static final class Session {
+        private final Scope scope;
+        private final long intervalNanos;
+        private final long deadline;
+        private final long startNanos = System.nanoTime();
+        private final Path output;
+        private final Map<String, long[]> stacks = new HashMap<>();
+        private final Map<String, LongAdder> owners = new ConcurrentHashMap<>();
+        private final LongAdder samples = new LongAdder();
+        private volatile boolean running = true;
+
+        private Session(Scope scope, int intervalMillis, int seconds) {
+            this.scope = scope;
+            this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+            this.deadline = seconds > 0 ? startNanos + TimeUnit.SECONDS.toNanos(seconds) : Long.MAX_VALUE;
+            String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+            this.output = Path.of(MohistConfig.profiler_output_dir, "profile-" + stamp + ".collapsed");
+        }
+
+        private void run() {
+            Thread serverThread = MinecraftServer.getServer().getRunningThread();
+            List<Thread> threads = new ArrayList<>();
+            List<String> groups = new ArrayList<>();
+            StringBuilder key = new StringBuilder(1024);
+            try {
+                CodeOwners codeOwners = new CodeOwners();
+                long next = System.nanoTime();
+                long nextRefresh = next;
+                while (running) {
+                    long now = System.nanoTime();
+                    if (now - deadline >= 0) {
+                        synchronized (SamplingProfiler.class) {
+                            if (session == this) {
+                                session = null;
+                            }
+                        }
+                        break;
+                    }
+                    if (now - nextRefresh >= 0) {
+                        selectThreads(serverThread, threads, groups);
+                        nextRefresh = now + THREAD_REFRESH_NANOS;
+                    }
+                    for (int i = 0; i < threads.size(); i++) {
+                        Thread thread = threads.get(i);
+                        if (thread.getState() != Thread.State.RUNNABLE) continue;
+                        StackTraceElement[] stack = thread.getStackTrace();
+                        if (stack.length == 0) continue;
+                        record(codeOwners, groups.get(i), stack, key);
+                    }
+                    next += intervalNanos;
+                    long sleep = next - System.nanoTime();
+                    if (sleep > 0) {
+                        TimeUnit.NANOSECONDS.sleep(sleep);
+                    } else {
+                        next = System.nanoTime();
+                    }
+                }
+            } catch (InterruptedException ignored) {
+            } catch (Throwable t) {
+                LOGGER.error("Sampling profiler failed", t);
+            }
+            running = false;
+            write();
+        }
+
+        private void selectThreads(Thread serverThread, List<Thread> threads, List<String> groups) {
+            threads.clear();
+            groups.clear();
+            ThreadGroup root = Thread.currentThread().getThreadGroup();
+            while (root.getParent() != null) {
+                root = root.getParent();
+            }
+            Thread[] all = new Thread[root.activeCount() + 16];
+            int count = root.enumerate(all, true);
+            for (int i = 0; i < count; i++) {
+                String group = scope.groupOf(all[i], serverThread);
+                if (group != null) {
+                    threads.add(all[i]);
+                    groups.add(group);
+                }
+            }
+        }
+
+        private void record(CodeOwners codeOwners, String group, StackTraceElement[] stack, StringBuilder key) {
+            String owner = codeOwners.ownerOf(stack);
+            key.setLength(0);
+            key.append(group).append(';').append(owner);
+            int depth = Math.min(stack.length, Math.max(1, MohistConfig.profiler_max_depth));
+            for (int i = depth - 1; i >= 0; i--) {
+                StackTraceElement frame = stack[i];
+                key.append(';').append(frame.getClassName()).append('.').append(frame.getMethodName());
+            }
+            stacks.computeIfAbsent(key.toString(), k -> new long[1])[0]++;
+            owners.computeIfAbsent(owner, k -> new LongAdder()).increment();
+            samples.increment();
+        }
+
+        private void write() {
+            try {
+                Path html = FlameGraphWriter.write(output, stacks);
+                LOGGER.info("Profile with {} samples written to {} and {}", getSamples(), output, html);
+            } catch (IOException e) {
+                LOGGER.error("Failed to write profile to {}", output, e);
+            }
+        }
+
+        public Scope getScope() {
+            return scope;
+        }
+
+        public long getSamples() {
+            return samples.sum();
+        }
+
+        public long getSeconds() {
+            return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Owners ordered by number of samples, most sampled first.
+         */
+        public List<Map.Entry<String, Long>> getTopOwners(int limit) {
+            List<Map.Entry<String, Long>> list = new ArrayList<>();
+            for (Map.Entry<String, LongAdder> entry : owners.entrySet()) {
+                list.add(Map.entry(entry.getKey(), entry.getValue().sum()));
+            }
+            list.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+            return list.size() > limit ? list.subList(0, limit) : list;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import javax.annotation.Nullable;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.DataLayer;
+import net.minecraft.world.level.chunk.LightChunk;
+import net.minecraft.world.level.chunk.LightChunkGetter;
+import net.minecraft.world.level.lighting.LightEngine;
+import net.minecraft.world.phys.shapes.Shapes;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Lights the block light sources of new chunks.
+ *
+ * Vanilla queues every source of a chunk and spreads the light one block at a
+ * time, looking up the section of the block and of each neighbour in the light
+ * storage maps, queueing two longs per block and marking the up to 27 sections
+ * around each block it lights for the client. Light from a chunk never leaves
+ * the chunk and its neighbours, so this fill works on that 3x3 area instead: the
+ * nibble arrays of its sections and its chunks are looked up once, positions are
+ * queued as one int relative to the area, and the sections to resend are marked
+ * once per section at the end.
+ *
+ * The fill runs where vanilla spreads its queued increases, after the decreases
+ * of the same update, and uses the same rules: Forge's positional emission for
+ * the sources, the opacity and occlusion shapes of the blocks, and no light into
+ * sections without storage or chunks that are not loaded. Spreading increases
+ * gives the same light whatever the order, so the result matches vanilla.
+ *
+ * With chunks.verify_block_light the fill writes into copies, vanilla then lights
+ * the chunk as usual and every section of the area is compared, logging chunks
+ * where the two differ.
+ *
+ * Only this first lighting of a chunk's sources goes through the fill. Block
+ * changes ({@code checkBlock}), light decreases and sky light stay on vanilla's
+ * queue, and chunks are lit one after the other on the light thread. Lighting
+ * non-adjacent chunks in parallel during generation is left for a follow-up: the
+ * light storage swaps its section maps on a single writer, so that needs a
+ * storage that takes concurrent writers first.
+ */
+public class BlockLightFill {
+
+    private static final Logger LOGGER = LogManager.getLogger("Stackmania/BlockLight");
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final BlockState OUTSIDE = Blocks.BEDROCK.defaultBlockState();
+    // The chunk and its neighbours, in blocks
+    private static final int SIZE = 48;
+    private static final int LEVEL_SHIFT = 27;
+    private static final int INDEX_MASK = (1 << LEVEL_SHIFT) - 1;
+    // The sections around a block that change for the client, by which faces of its section it touches
+    private static final int[] AFFECTED = new int[64];
+
+    static {
+        for (int i = 0; i < 64; i++) {
+            int mask = 0;
+            for (int dz = -1; dz <= 1; dz++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        if (touches(i, 0, dx) && touches(i, 2, dy) && touches(i, 4, dz)) {
+                            mask |= 1 << ((dz + 1) * 9 + (dy + 1) * 3 + dx + 1);
+                        }
+                    }
+                }
+            }
+            AFFECTED[i] = mask;
+        }
+    }
+
+    private final LightChunkGetter chunkSource;
+    private final LongFunction<DataLayer> layers;
+    private final LongFunction<DataLayer> writableLayers;
+    private final LongConsumer affectedSections;
+    private final LongArrayList pending = new LongArrayList();
+    private final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+    private final BlockPos.MutableBlockPos neighbor = new BlockPos.MutableBlockPos();
+
+    private BlockGetter level;
+    private int originX;
+    private int originZ;
+    private int minSection;
+    private int sections;
+    private final LightChunk[] chunks = new LightChunk[9];
+    private final boolean[] chunkLoaded = new boolean[9];
+    private DataLayer[] sectionLayers = new DataLayer[0];
+    // 0 not looked up, 1 read only, 2 writable, 3 not stored
+    private byte[] sectionStates = new byte[0];
+    private int[] sectionAffected = new int[0];
+    private int[] queue = new int[1024];
+    private int head;
+    private int tail;
+    @Nullable
+    private Long2ObjectOpenHashMap<DataLayer> scratch;
+
+    /**
+     * @param layers the nibble array of a section, null when its light is not stored
+     * @param writableLayers the nibble array of a section to write the light into
+     * @param affectedSections receives the sections whose light changed for the client
+     */
+    public BlockLightFill(LightChunkGetter chunkSource, LongFunction<DataLayer> layers, LongFunction<DataLayer> writableLayers, LongConsumer affectedSections) {
+        this.chunkSource = chunkSource;
+        this.layers = layers;
+        this.writableLayers = writableLayers;
+        this.affectedSections = affectedSections;
+    }
+
+    /**
+     * Light the sources of the chunk with the next update.
+     */
+    public void add(ChunkPos chunk) {
+        pending.add(chunk.toLong());
+    }
+
+    public boolean hasWork() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Light the sources of the added chunks.
+     *
+     * @param vanilla when set, lights a chunk the vanilla way to compare with
+     * @return the number of blocks the light spread from
+     */
+    public int run(@Nullable LongConsumer vanilla) {
+        int spread = 0;
+        try {
+            for (int i = 0; i < pending.size(); i++) {
+                long chunk = pending.getLong(i);
+                if (vanilla == null) {
+                    spread += fill(chunk);
+                } else {
+                    spread += verify(chunk, vanilla);
+                }
+            }
+        } finally {
+            pending.clear();
+            Arrays.fill(chunks, null);
+            level = null;
+            scratch = null;
+        }
+        return spread;
+    }
+
+    private int verify(long chunk, LongConsumer vanilla) {
+        int x = ChunkPos.getX(chunk);
+        int z = ChunkPos.getZ(chunk);
+        BlockGetter world = chunkSource.getLevel();
+        int lowest = world.getMinSection() - 1;
+        int highest = world.getMaxSection() + 1;
+        Long2ObjectOpenHashMap<DataLayer> before = new Long2ObjectOpenHashMap<>();
+        for (int dz = -1; dz <= 1; dz++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int y = lowest; y < highest; y++) {
+                    long section = SectionPos.asLong(x + dx, y, z + dz);
+                    DataLayer layer = layers.apply(section);
+                    if (layer != null) {
+                        before.put(section, layer.copy());
+                    }
+                }
+            }
+        }
+
+        scratch = new Long2ObjectOpenHashMap<>();
+        int spread = fill(chunk);
+        Long2ObjectOpenHashMap<DataLayer> filled = scratch;
+        scratch = null;
+        vanilla.accept(chunk);
+
+        int differences = 0;
+        BlockPos first = null;
+        int expectedLight = 0;
+        int foundLight = 0;
+        for (Long2ObjectMap.Entry<DataLayer> entry : before.long2ObjectEntrySet()) {
+            long section = entry.getLongKey();
+            DataLayer expected = filled.getOrDefault(section, entry.getValue());
+            DataLayer found = layers.apply(section);
+            if (found == null) {
+                continue;
+            }
+            for (int i = 0; i < 4096; i++) {
+                int lx = i & 15;
+                int lz = (i >> 4) & 15;
+                int ly = i >> 8;
+                if (expected.get(lx, ly, lz) != found.get(lx, ly, lz)) {
+                    if (differences++ == 0) {
+                        first = SectionPos.of(section).origin().offset(lx, ly, lz);
+                        expectedLight = expected.get(lx, ly, lz);
+                        foundLight = found.get(lx, ly, lz);
+                    }
+                }
+            }
+        }
+        if (differences > 0) {
+            LOGGER.warn("Block light of chunk {},{} differs from vanilla in {} blocks, first at {}: {} instead of {}", x, z, differences, first.toShortString(), expectedLight, foundLight);
+        }
+        return spread;
+    }
+
+    private int fill(long chunk) {
+        LightChunk center = chunkSource.getChunkForLighting(ChunkPos.getX(chunk), ChunkPos.getZ(chunk));
+        if (center == null) {
+            return 0;
+        }
+        level = chunkSource.getLevel();
+        originX = (ChunkPos.getX(chunk) - 1) << 4;
+        originZ = (ChunkPos.getZ(chunk) - 1) << 4;
+        minSection = level.getMinSection() - 1;
+        sections = level.getSectionsCount() + 2;
+        if (sectionStates.length < 9 * sections) {
+            sectionLayers = new DataLayer[9 * sections];
+            sectionStates = new byte[9 * sections];
+            sectionAffected = new int[9 * sections];
+        } else {
+            Arrays.fill(sectionLayers, null);
+            Arrays.fill(sectionStates, (byte) 0);
+            Arrays.fill(sectionAffected, 0);
+        }
+        Arrays.fill(chunks, null);
+        Arrays.fill(chunkLoaded, false);
+        chunks[4] = center;
+        chunkLoaded[4] = true;
+        head = tail = 0;
+
+        center.findBlockLightSources((source, state) -> {
+            int emission = LightSources.getLightEmission(state, level, source) & 15;
+            int x = source.getX();
+            int y = source.getY();
+            int z = source.getZ();
+            int section = section(x, y, z);
+            if (section < 0) {
+                return;
+            }
+            DataLayer layer = layer(section);
+            if (layer == null) {
+                return;
+            }
+            int stored = layer.get(x & 15, y & 15, z & 15);
+            if (stored < emission) {
+                set(section, x, y, z, emission);
+            }
+            offer(index(x, y, z), emission);
+        });
+
+        int spread = 0;
+        while (head != tail) {
+            int entry = queue[head++];
+            if (head == queue.length) {
+                head = 0;
+            }
+            int index = entry & INDEX_MASK;
+            int light = entry >>> LEVEL_SHIFT;
+            int x = originX + index % SIZE;
+            int z = originZ + (index / SIZE) % SIZE;
+            int y = (minSection << 4) + index / (SIZE * SIZE);
+            DataLayer own = layer(section(x, y, z));
+            if (own == null || own.get(x & 15, y & 15, z & 15) != light) {
+                continue;
+            }
+            spread++;
+            spreadFrom(x, y, z, light);
+        }
+
+        // Copies written while verifying are not shown to clients
+        for (int i = 0; i < 9 * sections && scratch == null; i++) {
+            int mask = sectionAffected[i];
+            if (mask == 0) {
+                continue;
+            }
+            long section = sectionKey(i);
+            for (int bit = 0; bit < 27; bit++) {
+                if ((mask & 1 << bit) != 0) {
+                    affectedSections.accept(SectionPos.offset(section, bit % 3 - 1, bit / 3 % 3 - 1, bit / 9 - 1));
+                }
+            }
+        }
+        return spread;
+    }
+
+    private void spreadFrom(int x, int y, int z, int light) {
+        BlockState state = null;
+        for (Direction direction : DIRECTIONS) {
+            int nx = x + direction.getStepX();
+            int ny = y + direction.getStepY();
+            int nz = z + direction.getStepZ();
+            int section = section(nx, ny, nz);
+            if (section < 0) {
+                continue;
+            }
+            DataLayer layer = layer(section);
+            if (layer == null) {
+                continue;
+            }
+            int stored = layer.get(nx & 15, ny & 15, nz & 15);
+            if (light - 1 <= stored) {
+                continue;
+            }
+            BlockState neighborState = state(nx, ny, nz);
+            int lit = light - Math.max(1, neighborState.getLightBlock(level, neighbor.set(nx, ny, nz)));
+            if (lit <= stored) {
+                continue;
+            }
+            if (state == null) {
+                state = state(x, y, z);
+            }
+            if (Shapes.faceShapeOccludes(LightEngine.getOcclusionShape(level, pos.set(x, y, z), state, direction),
+                    LightEngine.getOcclusionShape(level, neighbor.set(nx, ny, nz), neighborState, direction.getOpposite()))) {
+                continue;
+            }
+            set(section, nx, ny, nz, lit);
+            if (lit > 1) {
+                offer(index(nx, ny, nz), lit);
+            }
+        }
+    }
+
+    private void offer(int index, int light) {
+        queue[tail++] = index | light << LEVEL_SHIFT;
+        if (tail == queue.length) {
+            tail = 0;
+        }
+        if (tail == head) {
+            int[] grown = new int[queue.length * 2];
+            int split = queue.length - head;
+            System.arraycopy(queue, head, grown, 0, split);
+            System.arraycopy(queue, 0, grown, split, head);
+            head = 0;
+            tail = queue.length;
+            queue = grown;
+        }
+    }
+
+    private int index(int x, int y, int z) {
+        return ((y - (minSection << 4)) * SIZE + z - originZ) * SIZE + x - originX;
+    }
+
+    /**
+     * The section of the area holding the block, or -1 outside of it.
+     */
+    private int section(int x, int y, int z) {
+        int cx = (x - originX) >> 4;
+        int cz = (z - originZ) >> 4;
+        int sy = (y >> 4) - minSection;
+        if (cx < 0 || cx > 2 || cz < 0 || cz > 2 || sy < 0 || sy >= sections) {
+            return -1;
+        }
+        return (cz * 3 + cx) * sections + sy;
+    }
+
+    private long sectionKey(int section) {
+        int column = section / sections;
+        return SectionPos.asLong((originX >> 4) + column % 3, section % sections + minSection, (originZ >> 4) + column / 3);
+    }
+
+    @Nullable
+    private DataLayer layer(int section) {
+        switch (sectionStates[section]) {
+            case 0 -> {
+                DataLayer layer = layers.apply(sectionKey(section));
+                sectionLayers[section] = layer;
+                sectionStates[section] = (byte) (layer == null ? 3 : 1);
+                return layer;
+            }
+            case 3 -> {
+                return null;
+            }
+            default -> {
+                return sectionLayers[section];
+            }
+        }
+    }
+
+    private void set(int section, int x, int y, int z, int light) {
+        if (sectionStates[section] != 2) {
+            long key = sectionKey(section);
+            DataLayer layer;
+            if (scratch != null) {
+                layer = layer(section).copy();
+                scratch.put(key, layer);
+            } else {
+                layer = writableLayers.apply(key);
+            }
+            sectionLayers[section] = layer;
+            sectionStates[section] = 2;
+        }
+        int lx = x & 15;
+        int ly = y & 15;
+        int lz = z & 15;
+        sectionLayers[section].set(lx, ly, lz, light);
+        sectionAffected[section] |= AFFECTED[faces(lx) | faces(ly) << 2 | faces(lz) << 4];
+    }
+
+    private BlockState state(int x, int y, int z) {
+        int column = ((z - originZ) >> 4) * 3 + ((x - originX) >> 4);
+        if (!chunkLoaded[column]) {
+            chunks[column] = chunkSource.getChunkForLighting(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
+            chunkLoaded[column] = true;
+        }
+        LightChunk chunk = chunks[column];
+        return chunk == null ? OUTSIDE : chunk.getBlockState(pos.set(x, y, z));
+    }
+
+    /**
+     * Which faces of its section a coordinate touches, bit 0 the lower and bit 1 the upper.
+     */
+    private static int faces(int local) {
+        return (local == 0 ? 1 : 0) | (local == 15 ? 2 : 0);
+    }
+
+    private static boolean touches(int faces, int shift, int step) {
+        int axis = faces >> shift & 3;
+        return step == 0 || (step < 0 ? (axis & 1) != 0 : (axis & 2) != 0);
+    }
+}
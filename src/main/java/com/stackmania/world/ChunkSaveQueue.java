@@ -0,0 +1,111 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world;
+
+import com.mohistmc.MohistConfig;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.storage.ChunkStorage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Finishes chunk saves off the server thread.
+ *
+ * The server thread serializes everything that can change under it, block
+ * entities, entities, capabilities and ticks, and fires ChunkDataEvent.Save.
+ * The block states of the sections are only copied; encoding them is the bulk
+ * of the serialization and runs here, on one thread shared by all dimensions,
+ * before the tag is handed to the IOWorker that compresses and writes the
+ * region file. One thread keeps the saves of a chunk in order.
+ *
+ * Reads of a chunk wait for its pending save, and later saves of the chunk
+ * follow it through the queue. Once chunks.async_save_max_pending saves are
+ * queued, new ones are finished on the calling thread again.
+ *
+ * Since ChunkDataEvent.Save is fired before the block states are encoded, its
+ * listeners see sections without block_states. Mods reading or rewriting the
+ * blocks of a saved chunk need chunks.async_save off, which is the default.
+ */
+public class ChunkSaveQueue {
+
+    /**
+     * Set by the server while the periodic autosave runs, ChunkMap then spreads
+     * the chunk saves over the following ticks.
+     */
+    public static boolean autosave;
+
+    private static final Logger LOGGER = LogManager.getLogger("Stackmania/ChunkSave");
+    private static final AtomicInteger QUEUED = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Stackmania-ChunkSave");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ChunkStorage storage;
+    private final Map<Long, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+
+    public ChunkSaveQueue(ChunkStorage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Run the deferred encoders of a chunk tag and write it.
+     */
+    public void submit(ChunkPos pos, CompoundTag tag, List<Runnable> encoders) {
+        long key = pos.toLong();
+        if (QUEUED.get() >= MohistConfig.chunk_save_max_pending && !pending.containsKey(key)) {
+            encoders.forEach(Runnable::run);
+            storage.write(pos, tag);
+            return;
+        }
+        QUEUED.incrementAndGet();
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        pending.put(key, future);
+        EXECUTOR.execute(() -> {
+            try {
+                encoders.forEach(Runnable::run);
+                storage.write(pos, tag);
+            } catch (Throwable t) {
+                LOGGER.error("Failed to save chunk {},{}", pos.x, pos.z, t);
+            } finally {
+                QUEUED.decrementAndGet();
+                pending.remove(key, future);
+                future.complete(null);
+            }
+        });
+    }
+
+    /**
+     * The save of a chunk that is still being encoded, or null.
+     */
+    @Nullable
+    public CompletableFuture<Void> getPending(ChunkPos pos) {
+        return pending.get(pos.toLong());
+    }
+
+    /**
+     * Wait until every queued save of this storage reached the IOWorker.
+     */
+    public void flush() {
+        for (CompletableFuture<Void> future : pending.values()) {
+            future.join();
+        }
+    }
+
+    public static int getQueued() {
+        return QUEUED.get();
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world;
+
+import com.mohistmc.MohistConfig;
+import io.netty.channel.Channel;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongLists;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.LongPredicate;
+import javax.annotation.Nullable;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Chunks waiting to be sent to one player.
+ *
+ * ChunkMap queues a chunk here when it enters the view distance of the player or
+ * becomes ready while inside it, and sends at most chunks.send_rate_per_player
+ * per tick, also bounded by chunks.send_rate_global for the whole server. The
+ * nearest chunks to the point the player reaches within a second go first, so a
+ * fast flyer gets the chunks ahead of them before those on the sides. Nothing is
+ * sent while the connection is not writable. Only accessed from the server thread.
+ *
+ * The chunks actually sent are remembered too: a chunk can leave the view while
+ * it is queued or after it was dropped as not ready, and the player must then
+ * not be told to forget it, nor ChunkWatchEvent.UnWatch fire for it.
+ */
+public class ChunkSendQueue {
+
+    private static final Map<ServerPlayer, ChunkSendQueue> QUEUES = new WeakHashMap<>();
+    private static int globalBudget;
+    private static int budgetTick = Integer.MIN_VALUE;
+
+    private final LongLinkedOpenHashSet pending = new LongLinkedOpenHashSet();
+    // Chunks sent to the player in sentLevel, the client drops them all when changing level
+    private final LongOpenHashSet sentChunks = new LongOpenHashSet();
+    @Nullable
+    private ServerLevel sentLevel;
+    private long sent;
+
+    public static ChunkSendQueue of(ServerPlayer player) {
+        return QUEUES.computeIfAbsent(player, (key) -> new ChunkSendQueue());
+    }
+
+    public static Map<ServerPlayer, ChunkSendQueue> getQueues() {
+        return QUEUES;
+    }
+
+    public void add(long chunk) {
+        pending.add(chunk);
+    }
+
+    public void markSent(ServerLevel level, long chunk) {
+        if (level != sentLevel) {
+            sentChunks.clear();
+            sentLevel = level;
+        }
+        sentChunks.add(chunk);
+    }
+
+    /**
+     * Take a chunk that left the view out of the queue, whether it was sent to
+     * the player in that level and so has to be forgotten by them.
+     */
+    public boolean forget(ServerLevel level, long chunk) {
+        pending.remove(chunk);
+        return level == sentLevel && sentChunks.remove(chunk);
+    }
+
+    public void clear() {
+        pending.clear();
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    /**
+     * Take the chunks to send this tick, nearest to the look ahead point first.
+     * Everything is taken once the queue is disabled, so nothing stays behind.
+     * Chunks that are no longer ready are dropped without using the budget, they
+     * are queued again once they are.
+     */
+    public LongList poll(ServerPlayer player, int viewDistance, LongPredicate ready) {
+        if (pending.isEmpty()) {
+            return LongLists.EMPTY_LIST;
+        }
+        if (!MohistConfig.chunk_send_queue) {
+            LongList all = new LongArrayList(pending.size());
+            LongIterator iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                long chunk = iterator.nextLong();
+                if (ready.test(chunk)) {
+                    all.add(chunk);
+                }
+            }
+            pending.clear();
+            sent += all.size();
+            return all;
+        }
+        int tick = MinecraftServer.currentTick;
+        if (budgetTick != tick) {
+            budgetTick = tick;
+            globalBudget = MohistConfig.chunk_send_rate_global;
+        }
+        int count = Math.min(MohistConfig.chunk_send_rate_per_player, globalBudget);
+        if (count <= 0 || !isWritable(player)) {
+            return LongLists.EMPTY_LIST;
+        }
+
+        // One second of travel, at most half the view distance away
+        Vec3 motion = player.getDeltaMovement().multiply(20.0, 0.0, 20.0);
+        double distance = motion.horizontalDistance();
+        double limit = viewDistance * 8.0;
+        if (distance > limit) {
+            motion = motion.scale(limit / distance);
+        }
+        double centerX = (player.getX() + motion.x) / 16.0;
+        double centerZ = (player.getZ() + motion.z) / 16.0;
+
+        count = Math.min(count, pending.size());
+        long[] chunks = new long[count];
+        double[] scores = new double[count];
+        int found = 0;
+        LongIterator iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            long chunk = iterator.nextLong();
+            if (!ready.test(chunk)) {
+                iterator.remove();
+                continue;
+            }
+            double dx = ChunkPos.getX(chunk) + 0.5 - centerX;
+            double dz = ChunkPos.getZ(chunk) + 0.5 - centerZ;
+            double score = dx * dx + dz * dz;
+            if (found == count && score >= scores[count - 1]) {
+                continue;
+            }
+            int i = found == count ? count - 1 : found++;
+            while (i > 0 && scores[i - 1] > score) {
+                scores[i] = scores[i - 1];
+                chunks[i] = chunks[i - 1];
+                i--;
+            }
+            scores[i] = score;
+            chunks[i] = chunk;
+        }
+        for (int i = 0; i < found; i++) {
+            pending.remove(chunks[i]);
+        }
+        globalBudget -= found;
+        sent += found;
+        return LongArrayList.wrap(chunks, found);
+    }
+
+    private static boolean isWritable(ServerPlayer player) {
+        if (player.connection == null) {
+            return true;
+        }
+        Channel channel = player.connection.connection.channel;
+        return channel == null || channel.isWritable();
+    }
+}
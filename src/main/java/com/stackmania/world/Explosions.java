@@ -0,0 +1,141 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world;
+
+import com.mohistmc.MohistConfig;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.Explosion;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.redstone.NeighborUpdater;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.common.extensions.IForgeBlock;
+import net.minecraftforge.event.ForgeEventFactory;
+
+/**
+ * Shortcuts for explosions, which a TNT cannon or a modded nuke runs hundreds
+ * of times in one tick.
+ *
+ * Exposure: the share of an entity visible from an explosion costs up to a few
+ * hundred ray casts. It is cached for the tick by explosion position, level and
+ * entity bounding box, so stacked explosions only trace each entity once. The
+ * cache is dropped whenever an explosion removes blocks or a block changes in
+ * the box spanning the cached explosions and entities of its level. Entities
+ * with the same box share the result even where a block shape depends on the
+ * entity, such as scaffolding or powder snow.
+ *
+ * Block removal: blocks that keep Forge's default onBlockExploded are removed
+ * without neighbor updates, which are sent once the explosion removed all of
+ * them and only towards the neighbors that were not removed as well. Most of
+ * the updates of a crater go from one removed block to another.
+ */
+public class Explosions {
+
+    private static final Map<ExposureKey, Float> EXPOSURE = new HashMap<>();
+    private static final Map<Level, AABB> EXPOSURE_AREA = new HashMap<>();
+    private static int exposureTick = Integer.MIN_VALUE;
+
+    private static final ClassValue<Boolean> DEFAULT_REMOVAL = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("onBlockExploded", BlockState.class, Level.class, BlockPos.class, Explosion.class)
+                        .getDeclaringClass() == IForgeBlock.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private record ExposureKey(Level level, Vec3 origin, AABB box) {
+    }
+
+    /**
+     * {@link Explosion#getSeenPercent(Vec3, Entity)}, cached for the current tick.
+     */
+    public static float getSeenPercent(Vec3 origin, Entity entity) {
+        if (!MohistConfig.explosion_density_cache || entity.level().isClientSide) {
+            return Explosion.getSeenPercent(origin, entity);
+        }
+        int tick = MinecraftServer.currentTick;
+        if (exposureTick != tick) {
+            exposureTick = tick;
+            blocksChanged();
+        }
+        ExposureKey key = new ExposureKey(entity.level(), origin, entity.getBoundingBox());
+        Float cached = EXPOSURE.get(key);
+        if (cached == null) {
+            cached = Explosion.getSeenPercent(origin, entity);
+            EXPOSURE.put(key, cached);
+            // Slightly larger, so blocks touching the box on a face count as inside
+            AABB area = key.box().minmax(new AABB(origin, origin)).inflate(1.0E-7);
+            EXPOSURE_AREA.merge(key.level(), area, AABB::minmax);
+        }
+        return cached;
+    }
+
+    /**
+     * Forget cached exposures, the blocks between explosions and entities changed.
+     */
+    public static void blocksChanged() {
+        EXPOSURE.clear();
+        EXPOSURE_AREA.clear();
+    }
+
+    /**
+     * Forget cached exposures when a block changes where their rays may pass.
+     */
+    public static void blockChanged(Level level, BlockPos pos) {
+        if (level.isClientSide || EXPOSURE.isEmpty()) {
+            return;
+        }
+        AABB area = EXPOSURE_AREA.get(level);
+        if (area != null && area.intersects(pos.getX(), pos.getY(), pos.getZ(), pos.getX() + 1, pos.getY() + 1, pos.getZ() + 1)) {
+            blocksChanged();
+        }
+    }
+
+    /**
+     * Whether an exploded block may be removed through the batched path.
+     */
+    public static boolean canBatch(Level level, BlockState state) {
+        return MohistConfig.explosion_batch_block_updates && !level.isClientSide && DEFAULT_REMOVAL.get(state.getBlock().getClass());
+    }
+
+    /**
+     * Send the neighbor updates the batched removals skipped, leaving out the
+     * sides where the neighbor was removed by the same explosion.
+     */
+    public static void updateNeighbors(Level level, Map<BlockPos, Block> removed) {
+        for (Map.Entry<BlockPos, Block> entry : removed.entrySet()) {
+            BlockPos pos = entry.getKey();
+            EnumSet<Direction> directions = EnumSet.noneOf(Direction.class);
+            for (Direction direction : NeighborUpdater.UPDATE_ORDER) {
+                if (!removed.containsKey(pos.relative(direction))) {
+                    directions.add(direction);
+                }
+            }
+            if (directions.isEmpty()) {
+                continue;
+            }
+            if (ForgeEventFactory.onNeighborNotify(level, pos, level.getBlockState(pos), directions, false).isCanceled()) {
+                continue;
+            }
+            for (Direction direction : NeighborUpdater.UPDATE_ORDER) {
+                if (!directions.contains(direction)) continue;
+                level.neighborChanged(pos.relative(direction), entry.getValue(), pos);
+            }
+        }
+    }
+}
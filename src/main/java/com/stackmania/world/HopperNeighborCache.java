@@ -0,0 +1,95 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world;
+
+import java.util.Optional;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.AABB;
+import net.minecraftforge.common.capabilities.ForgeCapabilities;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.items.IItemHandler;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * The item handlers a hopper pushes into and pulls from.
+ *
+ * Resolving a neighbour costs a block state and block entity lookup and a
+ * capability query, twice per transfer attempt. A resolved handler is kept until
+ * its block entity is removed, its capability is invalidated or a neighbour of
+ * the hopper changes. Positions without a handler are looked up again each
+ * time, as a block entity can appear there without a neighbour update.
+ *
+ * Only block entities handing out the same LazyOptional on each query are kept.
+ * Some mods build a new one per query and never invalidate those they handed out
+ * before, so a kept one could stay present after the handler changed; such block
+ * entities are asked again on every transfer.
+ */
+public class HopperNeighborCache {
+
+    private final BlockEntity[] blockEntities = new BlockEntity[6];
+    @SuppressWarnings("unchecked")
+    private final LazyOptional<IItemHandler>[] handlers = new LazyOptional[6];
+    // Block entities found to build a new LazyOptional per query
+    private final BlockEntity[] uncacheable = new BlockEntity[6];
+
+    /**
+     * The handler of the block entity next to the hopper, seen from the given side.
+     */
+    public Optional<Pair<IItemHandler, Object>> get(Level level, BlockPos hopper, Direction direction, Direction side) {
+        int i = direction.ordinal();
+        BlockEntity blockEntity = blockEntities[i];
+        if (blockEntity != null) {
+            if (!blockEntity.isRemoved() && handlers[i].isPresent()) {
+                return handlers[i].resolve().map(handler -> ImmutablePair.of(handler, blockEntity));
+            }
+            blockEntities[i] = null;
+            handlers[i] = null;
+        }
+
+        BlockPos pos = hopper.relative(direction);
+        BlockState state = level.getBlockState(pos);
+        if (!state.hasBlockEntity()) {
+            return Optional.empty();
+        }
+        BlockEntity found = level.getBlockEntity(pos);
+        if (found == null) {
+            return Optional.empty();
+        }
+        LazyOptional<IItemHandler> handler = found.getCapability(ForgeCapabilities.ITEM_HANDLER, side);
+        if (!handler.isPresent()) {
+            return Optional.empty();
+        }
+        if (found != uncacheable[i] && found.getCapability(ForgeCapabilities.ITEM_HANDLER, side) == handler) {
+            blockEntities[i] = found;
+            handlers[i] = handler;
+        } else {
+            uncacheable[i] = found;
+        }
+        return handler.resolve().map(resolved -> ImmutablePair.of(resolved, found));
+    }
+
+    public void clear() {
+        for (int i = 0; i < 6; i++) {
+            blockEntities[i] = null;
+            handlers[i] = null;
+            uncacheable[i] = null;
+        }
+    }
+
+    /**
+     * Whether a container entity may intersect the box. Hoppers only search for
+     * minecarts and boats with chests when one is in a nearby entity section.
+     */
+    public static boolean mayHaveContainerEntities(Level level, AABB box) {
+        return !(level instanceof ServerLevel serverLevel) || serverLevel.entityManager.hasContainerEntities(box);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world;
+
+import java.util.function.BiConsumer;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ImposterProtoChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraftforge.common.extensions.IForgeBlock;
+
+/**
+ * Block light emission for the light engine.
+ *
+ * Forge asks each block for its emission at a position, so lighting a new chunk
+ * calls the hook for every block of each section holding a light source, with a
+ * fresh BlockPos each time. Only blocks overriding
+ * {@link IForgeBlock#getLightEmission(BlockState, BlockGetter, BlockPos)} can
+ * depend on the position; for all others the hook returns the emission the state
+ * already holds, which is read directly. Blocks overriding the hook are still
+ * asked at every position, so the light found is the same, and are still given
+ * an immutable copy of it as Forge does, since they may keep the position: the
+ * allocation per block remains for sections holding such a block.
+ */
+public class LightSources {
+
+    private static final ClassValue<Boolean> POSITIONAL = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("getLightEmission", BlockState.class, BlockGetter.class, BlockPos.class)
+                        .getDeclaringClass() != IForgeBlock.class;
+            } catch (NoSuchMethodException e) {
+                return true;
+            }
+        }
+    };
+
+    /**
+     * {@link BlockState#getLightEmission(BlockGetter, BlockPos)}, without the hook
+     * when the block does not override it.
+     */
+    public static int getLightEmission(BlockState state, BlockGetter level, BlockPos pos) {
+        return POSITIONAL.get(state.getBlock().getClass()) ? state.getLightEmission(level, pos) : state.getLightEmission();
+    }
+
+    /**
+     * The light sources of a chunk, as {@link ChunkAccess#findBlockLightSources}.
+     */
+    public static void find(ChunkAccess chunk, BiConsumer<BlockPos, BlockState> consumer) {
+        ChunkAccess blocks = chunk instanceof ImposterProtoChunk imposter ? imposter.getWrapped() : chunk;
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        Block lastBlock = null;
+        boolean positional = false;
+
+        for (int sectionY = blocks.getMinSection(); sectionY < blocks.getMaxSection(); ++sectionY) {
+            LevelChunkSection section = blocks.getSection(blocks.getSectionIndexFromSectionY(sectionY));
+            if (!section.maybeHas(state -> state.getLightEmission(chunk, BlockPos.ZERO) != 0)) {
+                continue;
+            }
+            BlockPos origin = SectionPos.of(blocks.getPos(), sectionY).origin();
+            for (int y = 0; y < 16; ++y) {
+                for (int z = 0; z < 16; ++z) {
+                    for (int x = 0; x < 16; ++x) {
+                        BlockState state = section.getBlockState(x, y, z);
+                        if (state.getBlock() != lastBlock) {
+                            lastBlock = state.getBlock();
+                            positional = POSITIONAL.get(lastBlock.getClass());
+                        }
+                        pos.setWithOffset(origin, x, y, z);
+                        int emission = positional ? state.getLightEmission(chunk, pos.immutable()) : state.getLightEmission();
+                        if (emission != 0) {
+                            consumer.accept(pos, state);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.List;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * Chunk to players within a fixed square chunk radius, updated when a player
+ * enters, leaves or crosses a chunk border.
+ *
+ * A move only touches the chunks that enter or leave the square, so a lookup
+ * costs one map access instead of a distance check against every player of the
+ * level. Only accessed from the server thread.
+ */
+public class PlayerProximityMap {
+
+    private final int radius;
+    private final Long2ObjectOpenHashMap<ObjectArrayList<ServerPlayer>> players = new Long2ObjectOpenHashMap<>();
+    private final Object2LongOpenHashMap<ServerPlayer> positions = new Object2LongOpenHashMap<>();
+
+    public PlayerProximityMap(int radius) {
+        this.radius = radius;
+    }
+
+    public void add(ServerPlayer player, long chunk) {
+        if (positions.containsKey(player)) {
+            move(player, chunk);
+            return;
+        }
+        positions.put(player, chunk);
+        int x = ChunkPos.getX(chunk);
+        int z = ChunkPos.getZ(chunk);
+        for (int cx = x - radius; cx <= x + radius; cx++) {
+            for (int cz = z - radius; cz <= z + radius; cz++) {
+                addTo(ChunkPos.asLong(cx, cz), player);
+            }
+        }
+    }
+
+    public void remove(ServerPlayer player) {
+        if (!positions.containsKey(player)) {
+            return;
+        }
+        long chunk = positions.removeLong(player);
+        int x = ChunkPos.getX(chunk);
+        int z = ChunkPos.getZ(chunk);
+        for (int cx = x - radius; cx <= x + radius; cx++) {
+            for (int cz = z - radius; cz <= z + radius; cz++) {
+                removeFrom(ChunkPos.asLong(cx, cz), player);
+            }
+        }
+    }
+
+    public void move(ServerPlayer player, long chunk) {
+        if (!positions.containsKey(player)) {
+            add(player, chunk);
+            return;
+        }
+        long from = positions.put(player, chunk);
+        if (from == chunk) {
+            return;
+        }
+        int oldX = ChunkPos.getX(from);
+        int oldZ = ChunkPos.getZ(from);
+        int newX = ChunkPos.getX(chunk);
+        int newZ = ChunkPos.getZ(chunk);
+        for (int cx = oldX - radius; cx <= oldX + radius; cx++) {
+            for (int cz = oldZ - radius; cz <= oldZ + radius; cz++) {
+                if (!inSquare(cx, cz, newX, newZ)) {
+                    removeFrom(ChunkPos.asLong(cx, cz), player);
+                }
+            }
+        }
+        for (int cx = newX - radius; cx <= newX + radius; cx++) {
+            for (int cz = newZ - radius; cz <= newZ + radius; cz++) {
+                if (!inSquare(cx, cz, oldX, oldZ)) {
+                    addTo(ChunkPos.asLong(cx, cz), player);
+                }
+            }
+        }
+    }
+
+    /**
+     * Players whose chunk is within the radius of the given chunk, empty if none.
+     */
+    public List<ServerPlayer> getPlayers(long chunk) {
+        ObjectArrayList<ServerPlayer> list = players.get(chunk);
+        return list == null ? List.of() : list;
+    }
+
+    private boolean inSquare(int x, int z, int centerX, int centerZ) {
+        return Math.abs(x - centerX) <= radius && Math.abs(z - centerZ) <= radius;
+    }
+
+    private void addTo(long chunk, ServerPlayer player) {
+        players.computeIfAbsent(chunk, k -> new ObjectArrayList<>(2)).add(player);
+    }
+
+    private void removeFrom(long chunk, ServerPlayer player) {
+        ObjectArrayList<ServerPlayer> list = players.get(chunk);
+        if (list != null && list.remove(player) && list.isEmpty()) {
+            players.remove(chunk);
+        }
+    }
+}
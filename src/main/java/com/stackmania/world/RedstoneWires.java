@@ -0,0 +1,340 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world;
+
+import com.mohistmc.MohistConfig;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.ArrayDeque;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.RedStoneWireBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.redstone.NeighborUpdater;
+import net.minecraftforge.event.ForgeEventFactory;
+import org.bukkit.craftbukkit.v1_20_R1.CraftWorld;
+import org.bukkit.craftbukkit.v1_20_R1.block.CraftBlock;
+import org.bukkit.event.block.BlockRedstoneEvent;
+
+/**
+ * An alternative to vanilla's redstone wire power propagation.
+ *
+ * Vanilla recalculates one wire at a time: each wire whose power changes
+ * notifies the neighbors of its neighbors, which recalculate in turn, so a line
+ * of wire being switched off first counts down and back up before it settles
+ * and sends around forty updates per step. This engine computes the final power
+ * of every wire the change reaches first, then sets them and sends each block
+ * around them a single neighbor update, in discovery order.
+ *
+ * When a wire loses power, the wires that may have drawn their power from it are
+ * reset and filled again from their other sources; when it gains power, the
+ * increase spreads to the wires it reaches. Wires read each other with the same
+ * rules as vanilla, so what connects and the final powers are the same;
+ * RedstoneWiresGameTest compares the two on generated networks. The
+ * order of neighbor updates differs, which contraptions relying on vanilla's
+ * order, such as some update-order dependent doors, may notice.
+ * BlockRedstoneEvent is fired for each wire that changes, and Forge's neighbor
+ * notify event for each block sending updates.
+ *
+ * redstone.engine selects vanilla or network and redstone.engine_worlds
+ * overrides it per world with entries like "redstone_world=network".
+ */
+public class RedstoneWires {
+
+    private static final Direction[] ALL = Direction.values();
+    private static long wireChanges;
+    private static long neighborUpdates;
+
+    public static boolean isEnabled(Level level) {
+        if (!(level instanceof ServerLevel)) {
+            return false;
+        }
+        CraftWorld world = level.getWorld();
+        String engine = MohistConfig.redstone_engine;
+        if (world != null) {
+            for (String entry : MohistConfig.redstone_engine_worlds) {
+                int split = entry.indexOf('=');
+                if (split > 0 && entry.substring(0, split).trim().equals(world.getName())) {
+                    engine = entry.substring(split + 1).trim();
+                }
+            }
+        }
+        return engine.equalsIgnoreCase("network");
+    }
+
+    /**
+     * Update the power of the wire at the position and of every wire it feeds.
+     */
+    public static void update(Level level, BlockPos pos, RedStoneWireBlock wire) {
+        new Network(level, wire).update(pos);
+    }
+
+    public static long getWireChanges() {
+        return wireChanges;
+    }
+
+    public static long getNeighborUpdates() {
+        return neighborUpdates;
+    }
+
+    private static final class Node {
+        private final BlockPos pos;
+        private final BlockState state;
+        private final int oldPower;
+        private int power;
+        private boolean reset;
+        private List<Node> sources;
+        private List<Node> readers;
+
+        private Node(BlockPos pos, BlockState state) {
+            this.pos = pos;
+            this.state = state;
+            this.oldPower = state.getValue(RedStoneWireBlock.POWER);
+            this.power = oldPower;
+        }
+    }
+
+    private static final class Network {
+        private final Level level;
+        private final RedStoneWireBlock wire;
+        private final Map<BlockPos, Node> nodes = new LinkedHashMap<>();
+        private final Set<BlockPos> notWire = new HashSet<>();
+        @SuppressWarnings("unchecked")
+        private final ArrayDeque<Node>[] queue = new ArrayDeque[16];
+
+        private Network(Level level, RedStoneWireBlock wire) {
+            this.level = level;
+            this.wire = wire;
+        }
+
+        private void update(BlockPos pos) {
+            Node start = node(pos);
+            if (start == null) {
+                return;
+            }
+            int target = target(start);
+            if (target == start.oldPower) {
+                return;
+            }
+
+            if (target < start.oldPower) {
+                // Every wire that may have drawn power from this one starts over
+                List<Node> lowered = new ObjectArrayList<>();
+                ArrayDeque<Node> search = new ArrayDeque<>();
+                start.reset = true;
+                lowered.add(start);
+                search.add(start);
+                while (!search.isEmpty()) {
+                    Node node = search.poll();
+                    for (Node reader : readers(node)) {
+                        if (!reader.reset && reader.oldPower > 0 && reader.oldPower < node.oldPower) {
+                            reader.reset = true;
+                            lowered.add(reader);
+                            search.add(reader);
+                        }
+                    }
+                }
+                for (Node node : lowered) {
+                    node.power = 0;
+                }
+                for (Node node : lowered) {
+                    node.power = target(node);
+                    offer(node);
+                }
+            } else {
+                start.power = target;
+                offer(start);
+            }
+            spread();
+            apply();
+        }
+
+        /**
+         * Hand power down to the readers, strongest wires first, so each wire
+         * is raised straight to its final power.
+         */
+        private void spread() {
+            for (int power = 15; power > 0; power--) {
+                ArrayDeque<Node> bucket = queue[power];
+                while (bucket != null && !bucket.isEmpty()) {
+                    Node node = bucket.poll();
+                    if (node.power != power) {
+                        continue;
+                    }
+                    for (Node reader : readers(node)) {
+                        if (power - 1 > reader.power) {
+                            reader.power = power - 1;
+                            offer(reader);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void offer(Node node) {
+            if (node.power <= 0) {
+                return;
+            }
+            ArrayDeque<Node> bucket = queue[node.power];
+            if (bucket == null) {
+                bucket = queue[node.power] = new ArrayDeque<>();
+            }
+            bucket.add(node);
+        }
+
+        private void apply() {
+            boolean fireEvents = BlockRedstoneEvent.getHandlerList().getRegisteredListeners().length > 0;
+            boolean altered = false;
+            Set<BlockPos> changed = new LinkedHashSet<>();
+            for (Node node : nodes.values()) {
+                if (node.power == node.oldPower) {
+                    continue;
+                }
+                int power = node.power;
+                if (fireEvents) {
+                    BlockRedstoneEvent event = new BlockRedstoneEvent(CraftBlock.at(level, node.pos), node.oldPower, power);
+                    level.getCraftServer().getPluginManager().callEvent(event);
+                    power = event.getNewCurrent();
+                    altered |= power != node.power;
+                    if (power == node.oldPower) {
+                        continue;
+                    }
+                }
+                if (level.getBlockState(node.pos) == node.state) {
+                    level.setBlock(node.pos, node.state.setValue(RedStoneWireBlock.POWER, power), 2);
+                }
+                changed.add(node.pos);
+                wireChanges++;
+            }
+            if (changed.isEmpty()) {
+                return;
+            }
+
+            Set<BlockPos> notifiers = new LinkedHashSet<>();
+            for (BlockPos pos : changed) {
+                notifiers.add(pos);
+                for (Direction direction : ALL) {
+                    notifiers.add(pos.relative(direction));
+                }
+            }
+            // Wires set by this update are already settled, unless a plugin changed one
+            Set<BlockPos> notified = altered ? new HashSet<>() : new HashSet<>(changed);
+            for (BlockPos notifier : notifiers) {
+                EnumSet<Direction> directions = EnumSet.noneOf(Direction.class);
+                for (Direction direction : NeighborUpdater.UPDATE_ORDER) {
+                    if (!notified.contains(notifier.relative(direction))) {
+                        directions.add(direction);
+                    }
+                }
+                if (directions.isEmpty()) {
+                    continue;
+                }
+                if (ForgeEventFactory.onNeighborNotify(level, notifier, level.getBlockState(notifier), directions, false).isCanceled()) {
+                    continue;
+                }
+                for (Direction direction : NeighborUpdater.UPDATE_ORDER) {
+                    if (!directions.contains(direction)) continue;
+                    BlockPos target = notifier.relative(direction);
+                    notified.add(target);
+                    level.neighborChanged(target, wire, notifier);
+                    neighborUpdates++;
+                }
+            }
+        }
+
+        /**
+         * The power a wire would take from its surroundings, as vanilla's
+         * calculateTargetStrength, with the powers found so far.
+         */
+        private int target(Node node) {
+            int power = wire.getExternalSignal(level, node.pos);
+            if (power < 15) {
+                for (Node source : sources(node)) {
+                    power = Math.max(power, source.power - 1);
+                }
+            }
+            return power;
+        }
+
+        private Node node(BlockPos pos) {
+            Node node = nodes.get(pos);
+            if (node != null || notWire.contains(pos)) {
+                return node;
+            }
+            BlockState state = level.getBlockState(pos);
+            if (!state.is(wire)) {
+                notWire.add(pos);
+                return null;
+            }
+            node = new Node(pos, state);
+            nodes.put(pos, node);
+            return node;
+        }
+
+        /**
+         * The wires a wire reads power from.
+         */
+        private List<Node> sources(Node node) {
+            if (node.sources != null) {
+                return node.sources;
+            }
+            List<Node> sources = new ObjectArrayList<>(4);
+            BlockPos above = node.pos.above();
+            boolean coveredAbove = level.getBlockState(above).isRedstoneConductor(level, above);
+            for (Direction direction : Direction.Plane.HORIZONTAL) {
+                BlockPos side = node.pos.relative(direction);
+                BlockState state = level.getBlockState(side);
+                addIfWire(sources, side);
+                boolean conductor = state.isRedstoneConductor(level, side);
+                if (conductor && !coveredAbove) {
+                    addIfWire(sources, side.above());
+                } else if (!conductor) {
+                    addIfWire(sources, side.below());
+                }
+            }
+            return node.sources = sources;
+        }
+
+        /**
+         * The wires that read power from a wire, those around it listing it as a source.
+         */
+        private List<Node> readers(Node node) {
+            if (node.readers != null) {
+                return node.readers;
+            }
+            List<Node> readers = new ObjectArrayList<>(4);
+            for (Direction direction : Direction.Plane.HORIZONTAL) {
+                BlockPos side = node.pos.relative(direction);
+                addReader(readers, node, side);
+                addReader(readers, node, side.above());
+                addReader(readers, node, side.below());
+            }
+            return node.readers = readers;
+        }
+
+        private void addIfWire(List<Node> list, BlockPos pos) {
+            Node node = node(pos);
+            if (node != null) {
+                list.add(node);
+            }
+        }
+
+        private void addReader(List<Node> readers, Node source, BlockPos pos) {
+            Node node = node(pos);
+            if (node != null && sources(node).contains(source)) {
+                readers.add(node);
+            }
+        }
+    }
+}
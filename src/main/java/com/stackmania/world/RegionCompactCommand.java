@@ -0,0 +1,131 @@
+/*
+ * Stackmania - Valonia Games
+ * Region compaction command
+ */
+
+package com.stackmania.world;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.World;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * /regioncompact command - Rewrite the region files of an unloaded world
+ *
+ * Usage:
+ * /regioncompact <world> - Compact the world folder, with its dimensions
+ * /regioncompact status - Progress of the running compaction
+ */
+public class RegionCompactCommand extends Command {
+
+    public RegionCompactCommand(String name) {
+        super(name);
+        this.description = "Stackmania Region Compactor";
+        this.usageMessage = "/regioncompact <world|status>";
+        this.setPermission("stackmania.command.regioncompact");
+    }
+
+    @Override
+    public @NotNull List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, String[] args) {
+        List<String> list = new ArrayList<>();
+        if (args.length == 1 && testPermissionSilent(sender)) {
+            String prefix = args[0].toLowerCase(Locale.ROOT);
+            if ("status".startsWith(prefix)) list.add("status");
+            File[] folders = Bukkit.getWorldContainer().listFiles();
+            if (folders != null) {
+                for (File folder : folders) {
+                    if (new File(folder, "level.dat").isFile() && folder.getName().toLowerCase(Locale.ROOT).startsWith(prefix)
+                            && loadedWorldIn(folder.toPath()) == null) {
+                        list.add(folder.getName());
+                    }
+                }
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public boolean execute(@NotNull CommandSender sender, @NotNull String label, String[] args) {
+        if (!testPermission(sender)) {
+            return false;
+        }
+        if (args.length != 1) {
+            sender.sendMessage(ChatColor.RED + "Usage: " + usageMessage);
+            return false;
+        }
+        if (args[0].equalsIgnoreCase("status")) {
+            showStatus(sender);
+            return true;
+        }
+
+        Path folder = new File(Bukkit.getWorldContainer(), args[0]).toPath();
+        if (!Files.isRegularFile(folder.resolve("level.dat"))) {
+            sender.sendMessage(ChatColor.RED + "No world folder named " + args[0]);
+            return false;
+        }
+        World loaded = loadedWorldIn(folder);
+        if (loaded != null) {
+            sender.sendMessage(ChatColor.RED + "World " + loaded.getName() + " uses this folder, unload it first");
+            return false;
+        }
+
+        try {
+            RegionCompactor.compact(folder, args[0]).thenAccept(progress -> {
+                sender.sendMessage(ChatColor.GREEN + "Compacted " + progress.getWorld() + ": " + ChatColor.WHITE
+                        + formatSize(progress.getBytesBefore()) + " -> " + formatSize(progress.getBytesAfter())
+                        + ChatColor.GRAY + " (" + progress.getChunks() + " chunks)");
+                if (progress.getSkipped() > 0) {
+                    sender.sendMessage(ChatColor.YELLOW + "" + progress.getSkipped() + " regions left untouched, see the log");
+                }
+            });
+        } catch (IllegalStateException e) {
+            sender.sendMessage(ChatColor.RED + e.getMessage());
+            return false;
+        } catch (IOException e) {
+            sender.sendMessage(ChatColor.RED + "Failed to list the region files: " + e.getMessage());
+            return false;
+        }
+        sender.sendMessage(ChatColor.GREEN + "Compacting " + args[0] + ", do not load it until this is done");
+        return true;
+    }
+
+    private void showStatus(CommandSender sender) {
+        RegionCompactor.Progress progress = RegionCompactor.getRunning();
+        sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + "Region Compaction" + ChatColor.GOLD + " ═══════");
+        if (progress == null) {
+            sender.sendMessage(ChatColor.YELLOW + "No compaction running");
+            return;
+        }
+        sender.sendMessage(ChatColor.WHITE + progress.getWorld() + ": " + ChatColor.AQUA + progress.getDone() + "/"
+                + progress.getRegions() + ChatColor.WHITE + " regions | " + ChatColor.AQUA
+                + formatSize(progress.getBytesBefore()) + " -> " + formatSize(progress.getBytesAfter()));
+    }
+
+    /**
+     * A loaded world whose folder is the given folder, inside it or around it.
+     */
+    private static World loadedWorldIn(Path folder) {
+        Path target = folder.toAbsolutePath().normalize();
+        for (World world : Bukkit.getWorlds()) {
+            Path path = world.getWorldFolder().toPath().toAbsolutePath().normalize();
+            if (path.startsWith(target) || target.startsWith(path)) {
+                return world;
+            }
+        }
+        return null;
+    }
+
+    private static String formatSize(long bytes) {
+        return String.format(Locale.ROOT, "%.1f MiB", bytes / 1024.0 / 1024.0);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world;
+
+import com.mohistmc.MohistConfig;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.storage.RegionFile;
+import net.minecraft.world.level.chunk.storage.RegionFileVersion;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Rewrites the region files of a world that is not loaded.
+ *
+ * Region files never shrink: a chunk that grows moves to new sectors at the end
+ * and leaves a hole behind. Every chunk of a region is read and written again,
+ * in index order, to a fresh file with the codec the world is configured for,
+ * which then replaces the original. Regions are rewritten in parallel on
+ * chunks.region_compact_threads threads, half the cores when 0.
+ *
+ * A region with a chunk that cannot be read is left as it is, so compaction
+ * never drops data. Chunk timestamps are reset to the time of the rewrite.
+ */
+public class RegionCompactor {
+
+    private static final Logger LOGGER = LogManager.getLogger("Stackmania/RegionCompact");
+    private static final List<String> FOLDERS = List.of("region", "entities", "poi");
+
+    private static volatile Progress running;
+
+    public static class Progress {
+        private final String world;
+        private final int regions;
+        private final AtomicInteger done = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger chunks = new AtomicInteger();
+        private final AtomicLong bytesBefore = new AtomicLong();
+        private final AtomicLong bytesAfter = new AtomicLong();
+
+        private Progress(String world, int regions) {
+            this.world = world;
+            this.regions = regions;
+        }
+
+        public String getWorld() {
+            return world;
+        }
+
+        public int getRegions() {
+            return regions;
+        }
+
+        public int getDone() {
+            return done.get();
+        }
+
+        /**
+         * Regions left untouched because a chunk could not be read or written.
+         */
+        public int getSkipped() {
+            return skipped.get();
+        }
+
+        public int getChunks() {
+            return chunks.get();
+        }
+
+        public long getBytesBefore() {
+            return bytesBefore.get();
+        }
+
+        public long getBytesAfter() {
+            return bytesAfter.get();
+        }
+    }
+
+    /**
+     * The compaction in progress, or null.
+     */
+    public static Progress getRunning() {
+        return running;
+    }
+
+    /**
+     * Compact every region, entities and poi file below the world folder, the
+     * dimensions stored inside it included. The world must not be loaded.
+     */
+    public static synchronized CompletableFuture<Progress> compact(Path worldFolder, String world) throws IOException {
+        if (running != null) {
+            throw new IllegalStateException("Compaction of " + running.world + " is already running");
+        }
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(worldFolder)) {
+            files = stream.filter(path -> path.getFileName().toString().endsWith(".mca")
+                    && path.getParent() != null && FOLDERS.contains(path.getParent().getFileName().toString())).toList();
+        }
+        Progress progress = new Progress(world, files.size());
+        running = progress;
+        RegionFileVersion version = RegionCompression.forWorld(world);
+        int threads = MohistConfig.region_compact_threads > 0 ? MohistConfig.region_compact_threads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "Stackmania-RegionCompact-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Path file : files) {
+            futures.add(CompletableFuture.runAsync(() -> compactRegion(file, version, progress), executor));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).handle((v, t) -> {
+            executor.shutdown();
+            running = null;
+            LOGGER.info("Compacted {} regions of {}: {} chunks, {} KiB -> {} KiB, {} skipped", progress.getDone(), world,
+                    progress.getChunks(), progress.getBytesBefore() / 1024, progress.getBytesAfter() / 1024, progress.getSkipped());
+            return progress;
+        });
+    }
+
+    private static void compactRegion(Path file, RegionFileVersion version, Progress progress) {
+        try {
+            if (!compactRegion(file, version, progress.chunks, progress.bytesBefore, progress.bytesAfter)) {
+                progress.skipped.incrementAndGet();
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to compact {}", file, e);
+            progress.skipped.incrementAndGet();
+        } finally {
+            progress.done.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return false if the region was left untouched
+     */
+    private static boolean compactRegion(Path file, RegionFileVersion version, AtomicInteger chunkCount,
+                                         AtomicLong bytesBefore, AtomicLong bytesAfter) throws IOException {
+        String name = file.getFileName().toString();
+        String[] parts = name.split("\\.");
+        if (parts.length != 4 || Files.size(file) == 0) {
+            return false;
+        }
+        int regionX;
+        int regionZ;
+        try {
+            regionX = Integer.parseInt(parts[1]);
+            regionZ = Integer.parseInt(parts[2]);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+
+        Path folder = file.getParent();
+        Path work = folder.resolve(name + ".compact");
+        deleteRecursively(work);
+        Files.createDirectories(work);
+        Path target = work.resolve(name);
+        long before = Files.size(file);
+        List<ChunkPos> written = new ArrayList<>();
+        try {
+            try (RegionFile in = new RegionFile(file, folder, false);
+                 RegionFile out = new RegionFile(target, work, version, false)) {
+                for (int i = 0; i < 1024; i++) {
+                    ChunkPos pos = new ChunkPos(regionX * 32 + (i & 31), regionZ * 32 + (i >> 5));
+                    if (!in.hasChunk(pos)) {
+                        continue;
+                    }
+                    CompoundTag tag;
+                    try (DataInputStream stream = in.getChunkDataInputStream(pos)) {
+                        tag = stream == null ? null : NbtIo.read(stream);
+                    }
+                    if (tag == null) {
+                        LOGGER.warn("Chunk {} of {} is unreadable, leaving the region as it is", pos, file);
+                        return false;
+                    }
+                    try (DataOutputStream stream = out.getChunkDataOutputStream(pos)) {
+                        NbtIo.write(tag, stream);
+                    }
+                    written.add(pos);
+                }
+            }
+
+            // Oversized chunks live in c.x.z.mcc files next to the region, move them along
+            Files.move(target, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            for (ChunkPos pos : written) {
+                String external = "c." + pos.x + "." + pos.z + ".mcc";
+                if (Files.exists(work.resolve(external))) {
+                    Files.move(work.resolve(external), folder.resolve(external), StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                    Files.deleteIfExists(folder.resolve(external));
+                }
+            }
+        } finally {
+            deleteRecursively(work);
+        }
+        chunkCount.addAndGet(written.size());
+        bytesBefore.addAndGet(before);
+        bytesAfter.addAndGet(Files.size(file));
+        return true;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path path : stream) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(dir);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world;
+
+import com.mohistmc.MohistConfig;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import net.minecraft.world.level.chunk.storage.RegionFileVersion;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Picks the codec region files use for new chunk writes.
+ *
+ * chunks.region_compression sets the default, deflate, gzip, lz4 or none, and
+ * chunks.region_compression_worlds overrides it per world with entries like
+ * "world_nether=none". Every chunk records its own codec, so chunks written
+ * before a change stay readable and are converted when next saved or when the
+ * region is compacted. lz4 needs lz4-java on the classpath and falls back to
+ * deflate without it. Vanilla 1.20.1 reads deflate at any level, gzip and
+ * none, but not lz4.
+ */
+public class RegionCompression {
+
+    private static final Logger LOGGER = LogManager.getLogger("Stackmania/RegionCompression");
+    private static boolean warnedLz4;
+
+    /**
+     * The codec for the region, entities or poi folder of a world.
+     */
+    public static RegionFileVersion forFolder(Path folder) {
+        return forWorld(worldName(folder));
+    }
+
+    public static RegionFileVersion forWorld(String world) {
+        String codec = MohistConfig.region_compression;
+        for (String entry : MohistConfig.region_compression_worlds) {
+            int split = entry.indexOf('=');
+            if (split > 0 && entry.substring(0, split).trim().equals(world)) {
+                codec = entry.substring(split + 1).trim();
+            }
+        }
+        return byName(codec);
+    }
+
+    public static RegionFileVersion byName(String name) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "none":
+                return RegionFileVersion.VERSION_NONE;
+            case "gzip":
+                return RegionFileVersion.VERSION_GZIP;
+            case "lz4":
+                if (RegionFileVersion.VERSION_LZ4 != null) {
+                    return RegionFileVersion.VERSION_LZ4;
+                }
+                if (!warnedLz4) {
+                    warnedLz4 = true;
+                    LOGGER.warn("lz4 region compression needs lz4-java on the classpath, using deflate");
+                }
+                break;
+            case "deflate":
+                break;
+            default:
+                LOGGER.warn("Unknown region compression {}, using deflate", name);
+        }
+        return RegionFileVersion.deflate(MohistConfig.region_compression_level);
+    }
+
+    /**
+     * The name of the world a storage folder belongs to, the nearest parent
+     * holding a level.dat, as Bukkit names worlds after their folder.
+     */
+    public static String worldName(Path folder) {
+        Path absolute = folder.toAbsolutePath().normalize();
+        for (Path dir = absolute.getParent(); dir != null; dir = dir.getParent()) {
+            if (Files.isRegularFile(dir.resolve("level.dat"))) {
+                return dir.getFileName().toString();
+            }
+        }
+        Path parent = absolute.getParent();
+        return parent == null || parent.getFileName() == null ? "" : parent.getFileName().toString();
+    }
+}
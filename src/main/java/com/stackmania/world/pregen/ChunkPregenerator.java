@@ -0,0 +1,106 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world.pregen;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.common.WorldWorkerManager;
+
+/**
+ * Keeps track of the running pregeneration tasks, at most one per dimension.
+ * Only accessed from the server thread.
+ */
+public class ChunkPregenerator {
+
+    private static final Map<ResourceKey<Level>, PregenTask> TASKS = new LinkedHashMap<>();
+
+    public static PregenTask start(ServerLevel level, int centerChunkX, int centerChunkZ, int radiusChunks, PregenShape shape) {
+        if (TASKS.containsKey(level.dimension())) {
+            throw new IllegalStateException("A pregeneration task is already running for " + level.dimension().location());
+        }
+        PregenTask task = new PregenTask(level, centerChunkX, centerChunkZ, radiusChunks, shape);
+        schedule(task);
+        return task;
+    }
+
+    /**
+     * Resume a task from the progress saved in the dimension folder.
+     *
+     * @return the resumed task, or null if there is nothing to resume
+     */
+    public static PregenTask resume(ServerLevel level) throws IOException {
+        if (TASKS.containsKey(level.dimension())) {
+            throw new IllegalStateException("A pregeneration task is already running for " + level.dimension().location());
+        }
+        PregenTask task = PregenTask.load(level);
+        if (task != null) {
+            schedule(task);
+        }
+        return task;
+    }
+
+    private static void schedule(PregenTask task) {
+        TASKS.put(task.getLevel().dimension(), task);
+        WorldWorkerManager.addWorker(task);
+    }
+
+    /**
+     * Stop the task of a dimension.
+     *
+     * @param keepProgress keep the checkpoint file so the task can be resumed later
+     */
+    public static boolean stop(ServerLevel level, boolean keepProgress) {
+        PregenTask task = TASKS.remove(level.dimension());
+        if (task == null) {
+            if (!keepProgress) {
+                try {
+                    PregenTask saved = PregenTask.load(level);
+                    if (saved != null) {
+                        saved.deleteState();
+                        return true;
+                    }
+                } catch (IOException | RuntimeException ignored) {
+                }
+            }
+            return false;
+        }
+        task.cancel(keepProgress);
+        return true;
+    }
+
+    public static boolean setPaused(ServerLevel level, boolean paused) {
+        PregenTask task = TASKS.get(level.dimension());
+        if (task == null) {
+            return false;
+        }
+        task.setPaused(paused);
+        return true;
+    }
+
+    public static Collection<PregenTask> getTasks() {
+        return new ArrayList<>(TASKS.values());
+    }
+
+    /**
+     * Save progress of every running task, called when the server stops.
+     */
+    public static void shutdown() {
+        for (PregenTask task : TASKS.values()) {
+            task.cancel(true);
+        }
+        TASKS.clear();
+    }
+
+    static void onFinished(PregenTask task) {
+        TASKS.remove(task.getLevel().dimension(), task);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Stackmania - Valonia Games
+ * Chunk pregeneration command
+ */
+
+package com.stackmania.world.pregen;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import net.minecraft.server.level.ServerLevel;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.craftbukkit.v1_20_R1.CraftWorld;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * /pregen command - Pregenerate chunks in parallel
+ *
+ * Usage:
+ * /pregen start <world> <radius> [centerX centerZ] [square|circle] - radius and center in blocks
+ * /pregen resume <world> - Continue from the saved checkpoint
+ * /pregen pause|unpause <world>
+ * /pregen stop <world> - Stop and keep the checkpoint
+ * /pregen cancel <world> - Stop and forget the checkpoint
+ * /pregen status - Progress and chunks/s per dimension
+ */
+public class PregenCommand extends Command {
+
+    private static final List<String> SUBCOMMANDS = List.of("start", "resume", "pause", "unpause", "stop", "cancel", "status");
+
+    public PregenCommand(String name) {
+        super(name);
+        this.description = "Stackmania Chunk Pregenerator";
+        this.usageMessage = "/pregen <start|resume|pause|unpause|stop|cancel|status> [world] [radius] [centerX centerZ] [square|circle]";
+        this.setPermission("stackmania.command.pregen");
+    }
+
+    @Override
+    public @NotNull List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, String[] args) {
+        List<String> list = new ArrayList<>();
+        if (!testPermissionSilent(sender)) {
+            return list;
+        }
+        if (args.length == 1) {
+            for (String sub : SUBCOMMANDS) {
+                if (sub.startsWith(args[0].toLowerCase(Locale.ROOT))) list.add(sub);
+            }
+        } else if (args.length == 2 && !args[0].equalsIgnoreCase("status")) {
+            for (World world : Bukkit.getWorlds()) {
+                if (world.getName().startsWith(args[1])) list.add(world.getName());
+            }
+        } else if (args.length == 6 && args[0].equalsIgnoreCase("start")) {
+            list.add("square");
+            list.add("circle");
+        }
+        return list;
+    }
+
+    @Override
+    public boolean execute(@NotNull CommandSender sender, @NotNull String label, String[] args) {
+        if (!testPermission(sender)) {
+            return false;
+        }
+        if (args.length == 0) {
+            sender.sendMessage(ChatColor.RED + "Usage: " + usageMessage);
+            return false;
+        }
+
+        String sub = args[0].toLowerCase(Locale.ROOT);
+        if (sub.equals("status")) {
+            showStatus(sender);
+            return true;
+        }
+
+        if (args.length < 2) {
+            sender.sendMessage(ChatColor.RED + "Usage: " + usageMessage);
+            return false;
+        }
+        World world = Bukkit.getWorld(args[1]);
+        if (world == null) {
+            sender.sendMessage(ChatColor.RED + "Unknown world: " + args[1]);
+            return false;
+        }
+        ServerLevel level = ((CraftWorld) world).getHandle();
+
+        try {
+            switch (sub) {
+                case "start" -> start(sender, world, level, args);
+                case "resume" -> {
+                    PregenTask task = ChunkPregenerator.resume(level);
+                    if (task == null) {
+                        sender.sendMessage(ChatColor.RED + "No saved pregeneration progress for " + world.getName());
+                    } else {
+                        sender.sendMessage(ChatColor.GREEN + "Resumed " + task.getStatusLine());
+                    }
+                }
+                case "pause", "unpause" -> {
+                    if (ChunkPregenerator.setPaused(level, sub.equals("pause"))) {
+                        sender.sendMessage(ChatColor.GREEN + "Pregeneration of " + world.getName() + (sub.equals("pause") ? " paused" : " unpaused"));
+                    } else {
+                        sender.sendMessage(ChatColor.RED + "No pregeneration running for " + world.getName());
+                    }
+                }
+                case "stop", "cancel" -> {
+                    boolean keep = sub.equals("stop");
+                    if (ChunkPregenerator.stop(level, keep)) {
+                        sender.sendMessage(ChatColor.GREEN + "Pregeneration of " + world.getName() + (keep ? " stopped, use /pregen resume to continue" : " cancelled"));
+                    } else {
+                        sender.sendMessage(ChatColor.RED + "No pregeneration running for " + world.getName());
+                    }
+                }
+                default -> {
+                    sender.sendMessage(ChatColor.RED + "Usage: " + usageMessage);
+                    return false;
+                }
+            }
+        } catch (IllegalStateException | IOException e) {
+            sender.sendMessage(ChatColor.RED + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private void start(CommandSender sender, World world, ServerLevel level, String[] args) {
+        if (args.length < 3) {
+            sender.sendMessage(ChatColor.RED + "Usage: /pregen start <world> <radius> [centerX centerZ] [square|circle]");
+            return;
+        }
+
+        int radius;
+        int centerX;
+        int centerZ;
+        PregenShape shape = PregenShape.SQUARE;
+        try {
+            radius = Integer.parseInt(args[2]);
+            if (args.length >= 5) {
+                centerX = Integer.parseInt(args[3]);
+                centerZ = Integer.parseInt(args[4]);
+            } else {
+                Location spawn = world.getSpawnLocation();
+                centerX = spawn.getBlockX();
+                centerZ = spawn.getBlockZ();
+            }
+            if (args.length >= 6) {
+                shape = PregenShape.valueOf(args[5].toUpperCase(Locale.ROOT));
+            }
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage(ChatColor.RED + "Invalid argument: " + e.getMessage());
+            return;
+        }
+        if (radius <= 0) {
+            sender.sendMessage(ChatColor.RED + "Radius must be positive");
+            return;
+        }
+
+        PregenTask task = ChunkPregenerator.start(level, centerX >> 4, centerZ >> 4, (radius + 15) >> 4, shape);
+        sender.sendMessage(ChatColor.GREEN + String.format("Pregenerating %d chunks around %d, %d in %s",
+                task.getTotal(), centerX, centerZ, world.getName()));
+    }
+
+    private void showStatus(CommandSender sender) {
+        Collection<PregenTask> tasks = ChunkPregenerator.getTasks();
+        if (tasks.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "No pregeneration running");
+            return;
+        }
+        sender.sendMessage(ChatColor.GOLD + "═══════ " + ChatColor.WHITE + "Stackmania Pregenerator" + ChatColor.GOLD + " ═══════");
+        for (PregenTask task : tasks) {
+            sender.sendMessage(ChatColor.WHITE + task.getStatusLine());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world.pregen;
+
+/**
+ * Area covered by a pregeneration task, in chunk coordinates around the center.
+ */
+public enum PregenShape {
+
+    SQUARE {
+        @Override
+        public boolean contains(int dx, int dz, int radius) {
+            return Math.abs(dx) <= radius && Math.abs(dz) <= radius;
+        }
+
+        @Override
+        public long count(int radius) {
+            long side = 2L * radius + 1;
+            return side * side;
+        }
+    },
+
+    CIRCLE {
+        @Override
+        public boolean contains(int dx, int dz, int radius) {
+            return (long) dx * dx + (long) dz * dz <= (long) radius * radius;
+        }
+
+        @Override
+        public long count(int radius) {
+            long total = 0;
+            long r2 = (long) radius * radius;
+            for (int dz = -radius; dz <= radius; dz++) {
+                total += 2L * (long) Math.floor(Math.sqrt(r2 - (long) dz * dz)) + 1;
+            }
+            return total;
+        }
+    };
+
+    public abstract boolean contains(int dx, int dz, int radius);
+
+    public abstract long count(int radius);
+}
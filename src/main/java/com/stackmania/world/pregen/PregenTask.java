@@ -0,0 +1,277 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world.pregen;
+
+import com.mohistmc.MohistConfig;
+import it.unimi.dsi.fastutil.ints.Int2IntAVLTreeMap;
+import it.unimi.dsi.fastutil.ints.Int2IntSortedMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Properties;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.minecraftforge.common.WorldWorkerManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Pregenerates one dimension by keeping a bounded number of chunk requests in flight.
+ *
+ * Unlike Forge's ChunkGenWorker, which blocks the main thread on one chunk at a time,
+ * requests are only submitted here; the chunk system generates them on its worldgen
+ * executor and the completions release the tickets so finished chunks unload.
+ * All methods run on the server thread.
+ */
+public class PregenTask implements WorldWorkerManager.IWorker {
+
+    private static final Logger LOGGER = LogManager.getLogger("Stackmania/Pregen");
+    private static final TicketType<ChunkPos> PREGEN_TICKET = TicketType.create("stackmania_pregen", Comparator.comparingLong(ChunkPos::toLong));
+    private static final int TICKET_LEVEL = 0;
+    private static final String STATE_FILE = "stackmania_pregen.properties";
+
+    private final ServerLevel level;
+    private final int centerX;
+    private final int centerZ;
+    private final int radius;
+    private final PregenShape shape;
+    private final long total;
+    private final RegionSpiralIterator iterator;
+    private final Path stateFile;
+
+    // Region index -> requests still in flight, used to find the region checkpoint
+    private final Int2IntSortedMap inFlightPerRegion = new Int2IntAVLTreeMap();
+    private int inFlight;
+    private int checkpoint;
+    private long completed;
+    private long failed;
+    private boolean cancelled;
+    private boolean paused;
+
+    private final long startTime = System.currentTimeMillis();
+    private long rateSampleTime = startTime;
+    private long rateSampleCompleted;
+    private double chunksPerSecond;
+    private long lastReport = startTime;
+
+    PregenTask(ServerLevel level, int centerX, int centerZ, int radius, PregenShape shape) {
+        this.level = level;
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        this.shape = shape;
+        this.total = shape.count(radius);
+        this.iterator = new RegionSpiralIterator(centerX, centerZ, radius, shape);
+        this.stateFile = stateFile(level);
+    }
+
+    static Path stateFile(ServerLevel level) {
+        return level.convertable.getDimensionPath(level.dimension()).resolve("data").resolve(STATE_FILE);
+    }
+
+    /**
+     * Load a task from the checkpoint file of the level, or null if there is none.
+     */
+    static PregenTask load(ServerLevel level) throws IOException {
+        Path file = stateFile(level);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+
+        PregenTask task = new PregenTask(level,
+                Integer.parseInt(properties.getProperty("centerX")),
+                Integer.parseInt(properties.getProperty("centerZ")),
+                Integer.parseInt(properties.getProperty("radius")),
+                PregenShape.valueOf(properties.getProperty("shape", "SQUARE").toUpperCase(Locale.ROOT)));
+        task.checkpoint = Integer.parseInt(properties.getProperty("regionCheckpoint", "0"));
+        // Chunks past the checkpoint are requested again, so only the skipped regions count as done
+        task.completed = task.iterator.skipRegions(task.checkpoint);
+        task.rateSampleCompleted = task.completed;
+        return task;
+    }
+
+    private void saveState() {
+        Properties properties = new Properties();
+        properties.setProperty("centerX", Integer.toString(centerX));
+        properties.setProperty("centerZ", Integer.toString(centerZ));
+        properties.setProperty("radius", Integer.toString(radius));
+        properties.setProperty("shape", shape.name());
+        properties.setProperty("regionCheckpoint", Integer.toString(checkpoint));
+
+        try {
+            Files.createDirectories(stateFile.getParent());
+            Path tmp = stateFile.resolveSibling(STATE_FILE + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                properties.store(out, "Stackmania pregenerator progress");
+            }
+            Files.move(tmp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Could not save pregeneration progress for {}", level.dimension().location(), e);
+        }
+    }
+
+    void deleteState() {
+        try {
+            Files.deleteIfExists(stateFile);
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete pregeneration progress for {}", level.dimension().location(), e);
+        }
+    }
+
+    @Override
+    public boolean hasWork() {
+        return !cancelled && (inFlight > 0 || iterator.hasNext());
+    }
+
+    @Override
+    public boolean doWork() {
+        updateRate();
+
+        ServerChunkCache chunkSource = level.getChunkSource();
+        // Let unloads catch up before loading more, this keeps memory bounded on long runs
+        if (paused || chunkSource.getLoadedChunksCount() > MohistConfig.pregen_max_loaded_chunks) {
+            return false;
+        }
+
+        int budget = MohistConfig.pregen_parallelism - inFlight;
+        while (budget-- > 0 && iterator.hasNext()) {
+            long packed = iterator.next();
+            int region = iterator.currentRegion();
+            ChunkPos pos = new ChunkPos(packed);
+
+            inFlight++;
+            inFlightPerRegion.mergeInt(region, 1, Integer::sum);
+            chunkSource.addRegionTicket(PREGEN_TICKET, pos, TICKET_LEVEL, pos);
+            chunkSource.getChunkFutureNonBlocking(pos.x, pos.z, ChunkStatus.FULL, true).whenCompleteAsync((result, throwable) -> {
+                chunkSource.removeRegionTicket(PREGEN_TICKET, pos, TICKET_LEVEL, pos);
+                if (throwable != null || result == null || result.right().isPresent()) {
+                    failed++;
+                }
+                onChunkDone(region);
+            }, level.getServer());
+        }
+
+        if (!iterator.hasNext() && inFlight == 0) {
+            finish();
+        }
+        return false;
+    }
+
+    private void onChunkDone(int region) {
+        inFlight--;
+        completed++;
+        int remaining = inFlightPerRegion.get(region) - 1;
+        if (remaining <= 0) {
+            inFlightPerRegion.remove(region);
+        } else {
+            inFlightPerRegion.put(region, remaining);
+        }
+
+        if (cancelled) {
+            return;
+        }
+
+        // Every region before the lowest one with pending work (or not yet reached) is fully generated
+        int frontier = iterator.hasNext() ? iterator.currentRegion() : iterator.regionCount();
+        int lowest = inFlightPerRegion.isEmpty() ? frontier : Math.min(frontier, inFlightPerRegion.firstIntKey());
+        if (lowest > checkpoint) {
+            checkpoint = lowest;
+            saveState();
+        }
+
+        if (!iterator.hasNext() && inFlight == 0) {
+            finish();
+        }
+    }
+
+    private void finish() {
+        if (cancelled) return;
+        cancelled = true;
+        deleteState();
+        LOGGER.info("Pregeneration of {} finished: {} chunks in {}s ({} failed)",
+                level.dimension().location(), completed, (System.currentTimeMillis() - startTime) / 1000, failed);
+        ChunkPregenerator.onFinished(this);
+    }
+
+    private void updateRate() {
+        long now = System.currentTimeMillis();
+        long elapsed = now - rateSampleTime;
+        if (elapsed >= 1000) {
+            double current = (completed - rateSampleCompleted) * 1000.0 / elapsed;
+            chunksPerSecond = chunksPerSecond == 0 ? current : chunksPerSecond * 0.7 + current * 0.3;
+            rateSampleTime = now;
+            rateSampleCompleted = completed;
+        }
+
+        if (now - lastReport >= MohistConfig.pregen_report_interval * 1000L) {
+            lastReport = now;
+            LOGGER.info(getStatusLine());
+        }
+    }
+
+    void cancel(boolean keepProgress) {
+        if (keepProgress) {
+            saveState();
+        } else {
+            deleteState();
+        }
+        cancelled = true;
+    }
+
+    void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public ServerLevel getLevel() {
+        return level;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public double getChunksPerSecond() {
+        return chunksPerSecond;
+    }
+
+    public String getStatusLine() {
+        double percent = total == 0 ? 100.0 : Math.min(100.0, completed * 100.0 / total);
+        long etaSeconds = chunksPerSecond > 0 ? (long) ((total - completed) / chunksPerSecond) : -1;
+        return String.format("%s: %d/%d chunks (%.2f%%), %.1f chunks/s, %d in flight, region %d/%d, ETA %s%s",
+                level.dimension().location(), completed, total, percent, chunksPerSecond, inFlight,
+                checkpoint, iterator.regionCount(), etaSeconds < 0 ? "?" : formatDuration(etaSeconds),
+                paused ? " [paused]" : "");
+    }
+
+    private static String formatDuration(long seconds) {
+        return String.format("%dh%02dm%02ds", seconds / 3600, (seconds / 60) % 60, seconds % 60);
+    }
+}
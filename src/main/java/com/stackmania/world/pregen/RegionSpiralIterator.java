@@ -0,0 +1,139 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world.pregen;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * Walks the chunks of a pregeneration area one region file (32x32 chunks) at a time,
+ * visiting regions in a square spiral around the center region.
+ *
+ * Finishing whole regions before moving on keeps each .mca file hot while it is being
+ * written and lets finished regions unload, instead of a chunk spiral touching every
+ * region of the current ring at once.
+ */
+public class RegionSpiralIterator {
+
+    private static final int REGION_SHIFT = 5;
+    private static final int REGION_SIZE = 1 << REGION_SHIFT;
+
+    private final int centerX;
+    private final int centerZ;
+    private final int radius;
+    private final PregenShape shape;
+    private final LongArrayList regions = new LongArrayList();
+
+    private int regionIndex = -1;
+    private int localIndex = REGION_SIZE * REGION_SIZE;
+    private long next = Long.MAX_VALUE;
+    private boolean nextReady;
+
+    public RegionSpiralIterator(int centerX, int centerZ, int radius, PregenShape shape) {
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        this.shape = shape;
+
+        int minRegionX = (centerX - radius) >> REGION_SHIFT;
+        int maxRegionX = (centerX + radius) >> REGION_SHIFT;
+        int minRegionZ = (centerZ - radius) >> REGION_SHIFT;
+        int maxRegionZ = (centerZ + radius) >> REGION_SHIFT;
+        int originX = centerX >> REGION_SHIFT;
+        int originZ = centerZ >> REGION_SHIFT;
+        int rings = Math.max(Math.max(originX - minRegionX, maxRegionX - originX), Math.max(originZ - minRegionZ, maxRegionZ - originZ));
+
+        addRegion(originX, originZ, minRegionX, maxRegionX, minRegionZ, maxRegionZ);
+        for (int ring = 1; ring <= rings; ring++) {
+            for (int q = -ring + 1; q <= ring; q++) addRegion(originX + ring, originZ + q, minRegionX, maxRegionX, minRegionZ, maxRegionZ);
+            for (int q = ring - 1; q >= -ring; q--) addRegion(originX + q, originZ + ring, minRegionX, maxRegionX, minRegionZ, maxRegionZ);
+            for (int q = ring - 1; q >= -ring; q--) addRegion(originX - ring, originZ + q, minRegionX, maxRegionX, minRegionZ, maxRegionZ);
+            for (int q = -ring + 1; q <= ring; q++) addRegion(originX + q, originZ - ring, minRegionX, maxRegionX, minRegionZ, maxRegionZ);
+        }
+    }
+
+    private void addRegion(int regionX, int regionZ, int minX, int maxX, int minZ, int maxZ) {
+        if (regionX >= minX && regionX <= maxX && regionZ >= minZ && regionZ <= maxZ) {
+            regions.add(ChunkPos.asLong(regionX, regionZ));
+        }
+    }
+
+    /**
+     * Skip the first {@code count} regions, used when resuming from a saved checkpoint.
+     *
+     * @return the number of chunks of the area in the skipped regions
+     */
+    public long skipRegions(int count) {
+        this.regionIndex = Math.min(count, regions.size()) - 1;
+        this.localIndex = REGION_SIZE * REGION_SIZE;
+        this.nextReady = false;
+
+        long skipped = 0;
+        for (int i = 0; i <= regionIndex; i++) {
+            long region = regions.getLong(i);
+            int baseX = ChunkPos.getX(region) << REGION_SHIFT;
+            int baseZ = ChunkPos.getZ(region) << REGION_SHIFT;
+            for (int local = 0; local < REGION_SIZE * REGION_SIZE; local++) {
+                if (shape.contains(baseX + (local & (REGION_SIZE - 1)) - centerX, baseZ + (local >> REGION_SHIFT) - centerZ, radius)) {
+                    skipped++;
+                }
+            }
+        }
+        return skipped;
+    }
+
+    public boolean hasNext() {
+        if (nextReady) return true;
+
+        while (true) {
+            if (localIndex >= REGION_SIZE * REGION_SIZE) {
+                if (regionIndex + 1 >= regions.size()) {
+                    return false;
+                }
+                regionIndex++;
+                localIndex = 0;
+            }
+
+            long region = regions.getLong(regionIndex);
+            int baseX = ChunkPos.getX(region) << REGION_SHIFT;
+            int baseZ = ChunkPos.getZ(region) << REGION_SHIFT;
+
+            // Same order as the region file header, so writes go out mostly sequentially
+            while (localIndex < REGION_SIZE * REGION_SIZE) {
+                int x = baseX + (localIndex & (REGION_SIZE - 1));
+                int z = baseZ + (localIndex >> REGION_SHIFT);
+                localIndex++;
+                if (shape.contains(x - centerX, z - centerZ, radius)) {
+                    next = ChunkPos.asLong(x, z);
+                    nextReady = true;
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return packed chunk position, see {@link ChunkPos#asLong(int, int)}
+     */
+    public long next() {
+        if (!hasNext()) {
+            throw new IllegalStateException("No more chunks");
+        }
+        nextReady = false;
+        return next;
+    }
+
+    /**
+     * Index of the region the last returned chunk belongs to.
+     */
+    public int currentRegion() {
+        return regionIndex;
+    }
+
+    public int regionCount() {
+        return regions.size();
+    }
+}
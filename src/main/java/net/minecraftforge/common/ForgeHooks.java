@@ -17,6 +17,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.mojang.serialization.Dynamic;
 import com.mojang.serialization.Lifecycle;
+import com.stackmania.event.ListenerTimings;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -247,18 +248,18 @@ public class ForgeHooks
 
     public static boolean onItemStackedOn(ItemStack carriedItem, ItemStack stackedOnItem, Slot slot, ClickAction action, Player player, SlotAccess carriedSlotAccess)
     {
-        return MinecraftForge.EVENT_BUS.post(new ItemStackedOnOtherEvent(carriedItem, stackedOnItem, slot, action, player, carriedSlotAccess));
+        return ListenerTimings.post(new ItemStackedOnOtherEvent(carriedItem, stackedOnItem, slot, action, player, carriedSlotAccess));
     }
 
     public static void onDifficultyChange(Difficulty difficulty, Difficulty oldDifficulty)
     {
-        MinecraftForge.EVENT_BUS.post(new DifficultyChangeEvent(difficulty, oldDifficulty));
+        ListenerTimings.post(new DifficultyChangeEvent(difficulty, oldDifficulty));
     }
 
     public static LivingChangeTargetEvent onLivingChangeTarget(LivingEntity entity, LivingEntity originalTarget, ILivingTargetType targetType)
     {
         LivingChangeTargetEvent event = new LivingChangeTargetEvent(entity, originalTarget, targetType);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
 
         return event;
     }
@@ -267,64 +268,64 @@ public class ForgeHooks
     {
         BrainBuilder<?> brainBuilder = originalBrain.createBuilder();
         LivingMakeBrainEvent event = new LivingMakeBrainEvent(entity, brainBuilder);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return brainBuilder.makeBrain(dynamic);
     }
 
     public static boolean onLivingTick(LivingEntity entity)
     {
-        return MinecraftForge.EVENT_BUS.post(new LivingTickEvent(entity));
+        return ListenerTimings.post(new LivingTickEvent(entity));
     }
 
     public static boolean onLivingAttack(LivingEntity entity, DamageSource src, float amount)
     {
-        return entity instanceof Player || !MinecraftForge.EVENT_BUS.post(new LivingAttackEvent(entity, src, amount));
+        return entity instanceof Player || !ListenerTimings.post(new LivingAttackEvent(entity, src, amount));
     }
 
     public static boolean onPlayerAttack(LivingEntity entity, DamageSource src, float amount)
     {
-        return !MinecraftForge.EVENT_BUS.post(new LivingAttackEvent(entity, src, amount));
+        return !ListenerTimings.post(new LivingAttackEvent(entity, src, amount));
     }
 
     public static LivingKnockBackEvent onLivingKnockBack(LivingEntity target, float strength, double ratioX, double ratioZ)
     {
         LivingKnockBackEvent event = new LivingKnockBackEvent(target, strength, ratioX, ratioZ);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event;
     }
 
     public static boolean onLivingUseTotem(LivingEntity entity, DamageSource damageSource, ItemStack totem, InteractionHand hand)
     {
-        return !MinecraftForge.EVENT_BUS.post(new LivingUseTotemEvent(entity, damageSource, totem, hand));
+        return !ListenerTimings.post(new LivingUseTotemEvent(entity, damageSource, totem, hand));
     }
 
     public static float onLivingHurt(LivingEntity entity, DamageSource src, float amount)
     {
         LivingHurtEvent event = new LivingHurtEvent(entity, src, amount);
-        return (MinecraftForge.EVENT_BUS.post(event) ? 0 : event.getAmount());
+        return (ListenerTimings.post(event) ? 0 : event.getAmount());
     }
 
     public static float onLivingDamage(LivingEntity entity, DamageSource src, float amount)
     {
         LivingDamageEvent event = new LivingDamageEvent(entity, src, amount);
-        return (MinecraftForge.EVENT_BUS.post(event) ? 0 : event.getAmount());
+        return (ListenerTimings.post(event) ? 0 : event.getAmount());
     }
 
     public static boolean onLivingDeath(LivingEntity entity, DamageSource src)
     {
-        return MinecraftForge.EVENT_BUS.post(new LivingDeathEvent(entity, src));
+        return ListenerTimings.post(new LivingDeathEvent(entity, src));
     }
 
     public static boolean onLivingDrops(LivingEntity entity, DamageSource source, Collection<ItemEntity> drops, int lootingLevel, boolean recentlyHit)
     {
-        return MinecraftForge.EVENT_BUS.post(new LivingDropsEvent(entity, source, drops, lootingLevel, recentlyHit));
+        return ListenerTimings.post(new LivingDropsEvent(entity, source, drops, lootingLevel, recentlyHit));
     }
 
     @Nullable
     public static float[] onLivingFall(LivingEntity entity, float distance, float damageMultiplier)
     {
         LivingFallEvent event = new LivingFallEvent(entity, distance, damageMultiplier);
-        return (MinecraftForge.EVENT_BUS.post(event) ? null : new float[]{event.getDistance(), event.getDamageMultiplier()});
+        return (ListenerTimings.post(event) ? null : new float[]{event.getDistance(), event.getDamageMultiplier()});
     }
 
     public static int getLootingLevel(Entity target, @Nullable Entity killer, @Nullable DamageSource cause)
@@ -340,13 +341,13 @@ public class ForgeHooks
     public static int getLootingLevel(LivingEntity target, @Nullable DamageSource cause, int level)
     {
         LootingLevelEvent event = new LootingLevelEvent(target, cause, level);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event.getLootingLevel();
     }
 
     public static double getEntityVisibilityMultiplier(LivingEntity entity, Entity lookingEntity, double originalMultiplier){
         LivingEvent.LivingVisibilityEvent event = new LivingEvent.LivingVisibilityEvent(entity, lookingEntity, originalMultiplier);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return Math.max(0,event.getVisibilityModifier());
     }
 
@@ -385,7 +386,7 @@ public class ForgeHooks
 
     public static void onLivingJump(LivingEntity entity)
     {
-        MinecraftForge.EVENT_BUS.post(new LivingJumpEvent(entity));
+        ListenerTimings.post(new LivingJumpEvent(entity));
     }
 
     @Nullable
@@ -399,7 +400,7 @@ public class ForgeHooks
             return null;
 
         ItemTossEvent event = new ItemTossEvent(ret, player);
-        if (MinecraftForge.EVENT_BUS.post(event))
+        if (ListenerTimings.post(event))
             return null;
 
         if (!player.level().isClientSide)
@@ -409,7 +410,7 @@ public class ForgeHooks
 
     public static boolean onVanillaGameEvent(Level level, GameEvent vanillaEvent, Vec3 pos, GameEvent.Context context)
     {
-        return !MinecraftForge.EVENT_BUS.post(new VanillaGameEvent(level, vanillaEvent, pos, context));
+        return !ListenerTimings.post(new VanillaGameEvent(level, vanillaEvent, pos, context));
     }
 
     private static String getRawText(Component message)
@@ -421,7 +422,7 @@ public class ForgeHooks
     public static Component onServerChatSubmittedEvent(ServerPlayer player, String plain, Component decorated)
     {
         ServerChatEvent event = new ServerChatEvent(player, plain, decorated);
-        return MinecraftForge.EVENT_BUS.post(event) ? null : event.getMessage();
+        return ListenerTimings.post(event) ? null : event.getMessage();
     }
 
     @NotNull
@@ -561,7 +562,7 @@ public class ForgeHooks
         BlockState state = level.getBlockState(pos);
         BlockEvent.BreakEvent event = new BlockEvent.BreakEvent(level, pos, state, entityPlayer);
         event.setCanceled(preCancelEvent);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
 
         // Handle if the event is canceled
         if (event.isCanceled())
@@ -681,7 +682,7 @@ public class ForgeHooks
     public static boolean onAnvilChange(AnvilMenu container, @NotNull ItemStack left, @NotNull ItemStack right, Container outputSlot, String name, int baseCost, Player player)
     {
         AnvilUpdateEvent e = new AnvilUpdateEvent(left, right, name, baseCost, player);
-        if (MinecraftForge.EVENT_BUS.post(e)) return false;
+        if (ListenerTimings.post(e)) return false;
         if (e.getOutput().isEmpty()) return true;
 
         outputSlot.setItem(0, e.getOutput());
@@ -693,14 +694,14 @@ public class ForgeHooks
     public static float onAnvilRepair(Player player, @NotNull ItemStack output, @NotNull ItemStack left, @NotNull ItemStack right)
     {
         AnvilRepairEvent e = new AnvilRepairEvent(player, left, right, output);
-        MinecraftForge.EVENT_BUS.post(e);
+        ListenerTimings.post(e);
         return e.getBreakChance();
     }
 
     public static int onGrindstoneChange(@NotNull ItemStack top, @NotNull ItemStack bottom, Container outputSlot, int xp)
     {
         GrindstoneEvent.OnPlaceItem e = new GrindstoneEvent.OnPlaceItem(top, bottom, xp);
-        if (MinecraftForge.EVENT_BUS.post(e))
+        if (ListenerTimings.post(e))
         {
             outputSlot.setItem(0, ItemStack.EMPTY);
             return -1;
@@ -716,7 +717,7 @@ public class ForgeHooks
         access.execute((l,p) -> {
             int xp = xpFunction.apply(l);
             GrindstoneEvent.OnTakeItem e = new GrindstoneEvent.OnTakeItem(inputSlots.getItem(0), inputSlots.getItem(1), xp);
-            if (MinecraftForge.EVENT_BUS.post(e))
+            if (ListenerTimings.post(e))
             {
                 return;
             }
@@ -759,7 +760,7 @@ public class ForgeHooks
 
     public static boolean onPlayerAttackTarget(Player player, Entity target)
     {
-        if (MinecraftForge.EVENT_BUS.post(new AttackEntityEvent(player, target))) return false;
+        if (ListenerTimings.post(new AttackEntityEvent(player, target))) return false;
         ItemStack stack = player.getMainHandItem();
         return stack.isEmpty() || !stack.getItem().onLeftClickEntity(stack, player, target);
     }
@@ -767,7 +768,7 @@ public class ForgeHooks
     public static boolean onTravelToDimension(Entity entity, ResourceKey<Level> dimension)
     {
         EntityTravelToDimensionEvent event = new EntityTravelToDimensionEvent(entity, dimension);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return !event.isCanceled();
     }
 
@@ -780,21 +781,21 @@ public class ForgeHooks
     public static InteractionResult onInteractEntityAt(Player player, Entity entity, Vec3 vec3d, InteractionHand hand)
     {
         PlayerInteractEvent.EntityInteractSpecific evt = new PlayerInteractEvent.EntityInteractSpecific(player, hand, entity, vec3d);
-        MinecraftForge.EVENT_BUS.post(evt);
+        ListenerTimings.post(evt);
         return evt.isCanceled() ? evt.getCancellationResult() : null;
     }
 
     public static InteractionResult onInteractEntity(Player player, Entity entity, InteractionHand hand)
     {
         PlayerInteractEvent.EntityInteract evt = new PlayerInteractEvent.EntityInteract(player, hand, entity);
-        MinecraftForge.EVENT_BUS.post(evt);
+        ListenerTimings.post(evt);
         return evt.isCanceled() ? evt.getCancellationResult() : null;
     }
 
     public static InteractionResult onItemRightClick(Player player, InteractionHand hand)
     {
         PlayerInteractEvent.RightClickItem evt = new PlayerInteractEvent.RightClickItem(player, hand);
-        MinecraftForge.EVENT_BUS.post(evt);
+        ListenerTimings.post(evt);
         return evt.isCanceled() ? evt.getCancellationResult() : null;
     }
 
@@ -810,32 +811,32 @@ public class ForgeHooks
     public static PlayerInteractEvent.LeftClickBlock onLeftClickBlock(Player player, BlockPos pos, Direction face, ServerboundPlayerActionPacket.Action action)
     {
         PlayerInteractEvent.LeftClickBlock evt = new PlayerInteractEvent.LeftClickBlock(player, pos, face, PlayerInteractEvent.LeftClickBlock.Action.convert(action));
-        MinecraftForge.EVENT_BUS.post(evt);
+        ListenerTimings.post(evt);
         return evt;
     }
 
     public static PlayerInteractEvent.LeftClickBlock onClientMineHold(Player player, BlockPos pos, Direction face)
     {
         PlayerInteractEvent.LeftClickBlock evt = new PlayerInteractEvent.LeftClickBlock(player, pos, face, PlayerInteractEvent.LeftClickBlock.Action.CLIENT_HOLD);
-        MinecraftForge.EVENT_BUS.post(evt);
+        ListenerTimings.post(evt);
         return evt;
     }
 
     public static PlayerInteractEvent.RightClickBlock onRightClickBlock(Player player, InteractionHand hand, BlockPos pos, BlockHitResult hitVec)
     {
         PlayerInteractEvent.RightClickBlock evt = new PlayerInteractEvent.RightClickBlock(player, hand, pos, hitVec);
-        MinecraftForge.EVENT_BUS.post(evt);
+        ListenerTimings.post(evt);
         return evt;
     }
 
     public static void onEmptyClick(Player player, InteractionHand hand)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerInteractEvent.RightClickEmpty(player, hand));
+        ListenerTimings.post(new PlayerInteractEvent.RightClickEmpty(player, hand));
     }
 
     public static void onEmptyLeftClick(Player player)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerInteractEvent.LeftClickEmpty(player));
+        ListenerTimings.post(new PlayerInteractEvent.LeftClickEmpty(player));
     }
 
     /**
@@ -847,7 +848,7 @@ public class ForgeHooks
         if (currentGameType != newGameType)
         {
             PlayerEvent.PlayerChangeGameModeEvent evt = new PlayerEvent.PlayerChangeGameModeEvent(player, currentGameType, newGameType);
-            MinecraftForge.EVENT_BUS.post(evt);
+            ListenerTimings.post(evt);
             return evt.isCanceled() ? null : evt.getNewGameMode();
         }
         return newGameType;
@@ -992,20 +993,20 @@ public class ForgeHooks
     public static boolean onCropsGrowPre(Level level, BlockPos pos, BlockState state, boolean def)
     {
         BlockEvent ev = new BlockEvent.CropGrowEvent.Pre(level,pos,state);
-        MinecraftForge.EVENT_BUS.post(ev);
+        ListenerTimings.post(ev);
         return (ev.getResult() == net.minecraftforge.eventbus.api.Event.Result.ALLOW || (ev.getResult() == net.minecraftforge.eventbus.api.Event.Result.DEFAULT && def));
     }
 
     public static void onCropsGrowPost(Level level, BlockPos pos, BlockState state)
     {
-        MinecraftForge.EVENT_BUS.post(new BlockEvent.CropGrowEvent.Post(level, pos, state, level.getBlockState(pos)));
+        ListenerTimings.post(new BlockEvent.CropGrowEvent.Post(level, pos, state, level.getBlockState(pos)));
     }
 
     @Nullable
     public static CriticalHitEvent getCriticalHit(Player player, Entity target, boolean vanillaCritical, float damageModifier)
     {
         CriticalHitEvent hitResult = new CriticalHitEvent(player, target, damageModifier, vanillaCritical);
-        MinecraftForge.EVENT_BUS.post(hitResult);
+        ListenerTimings.post(hitResult);
         if (hitResult.getResult() == net.minecraftforge.eventbus.api.Event.Result.ALLOW || (vanillaCritical && hitResult.getResult() == net.minecraftforge.eventbus.api.Event.Result.DEFAULT))
         {
             return hitResult;
@@ -1019,7 +1020,7 @@ public class ForgeHooks
     public static Multimap<Attribute,AttributeModifier> getAttributeModifiers(ItemStack stack, EquipmentSlot equipmentSlot, Multimap<Attribute,AttributeModifier> attributes)
     {
         ItemAttributeModifierEvent event = new ItemAttributeModifierEvent(stack, equipmentSlot, attributes);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event.getModifiers();
     }
 
@@ -1029,7 +1030,7 @@ public class ForgeHooks
     public static ItemStack getProjectile(LivingEntity entity, ItemStack projectileWeaponItem, ItemStack projectile)
     {
         LivingGetProjectileEvent event = new LivingGetProjectileEvent(entity, projectileWeaponItem, projectile);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event.getProjectileItemStack();
     }
 
@@ -1083,7 +1084,7 @@ public class ForgeHooks
         if (entity.canTrample(state, pos, fallDistance))
         {
             BlockEvent.FarmlandTrampleEvent event = new BlockEvent.FarmlandTrampleEvent(level, pos, state, fallDistance, entity);
-            MinecraftForge.EVENT_BUS.post(event);
+            ListenerTimings.post(event);
             return !event.isCanceled();
         }
         return false;
@@ -1091,7 +1092,7 @@ public class ForgeHooks
 
     public static int onNoteChange(Level level, BlockPos pos, BlockState state, int old, int _new) {
         NoteBlockEvent.Change event = new NoteBlockEvent.Change(level, pos, state, old, _new);
-        if (MinecraftForge.EVENT_BUS.post(event))
+        if (ListenerTimings.post(event))
             return -1;
         return event.getVanillaNoteId();
     }
@@ -1260,20 +1261,20 @@ public class ForgeHooks
 
     public static void onEntityEnterSection(Entity entity, long packedOldPos, long packedNewPos)
     {
-        MinecraftForge.EVENT_BUS.post(new EntityEvent.EnteringSection(entity, packedOldPos, packedNewPos));
+        ListenerTimings.post(new EntityEvent.EnteringSection(entity, packedOldPos, packedNewPos));
     }
 
     public static ShieldBlockEvent onShieldBlock(LivingEntity blocker, DamageSource source, float blocked)
     {
         ShieldBlockEvent e = new ShieldBlockEvent(blocker, source, blocked);
-        MinecraftForge.EVENT_BUS.post(e);
+        ListenerTimings.post(e);
         return e;
     }
 
     public static LivingSwapItemsEvent.Hands onLivingSwapHandItems(LivingEntity livingEntity)
     {
         LivingSwapItemsEvent.Hands event = new LivingSwapItemsEvent.Hands(livingEntity);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event;
     }
 
@@ -1472,12 +1473,12 @@ public class ForgeHooks
 
     public static boolean shouldSuppressEnderManAnger(EnderMan enderMan, Player player, ItemStack mask)
     {
-        return mask.isEnderMask(player, enderMan) || MinecraftForge.EVENT_BUS.post(new EnderManAngerEvent(enderMan, player));
+        return mask.isEnderMask(player, enderMan) || ListenerTimings.post(new EnderManAngerEvent(enderMan, player));
     }
 
     private static final Lazy<Map<String, StructuresBecomeConfiguredFix.Conversion>> FORGE_CONVERSION_MAP = Lazy.concurrentOf(() -> {
         Map<String, StructuresBecomeConfiguredFix.Conversion> map = new HashMap<>();
-        MinecraftForge.EVENT_BUS.post(new RegisterStructureConversionsEvent(map));
+        ListenerTimings.post(new RegisterStructureConversionsEvent(map));
         return ImmutableMap.copyOf(map);
     });
 
@@ -1600,7 +1601,7 @@ public class ForgeHooks
         // The following effects cause the entity to not drown, but do not cause the air supply to be increased.
         boolean canBreathe = !entity.canDrownInFluidType(entity.getEyeInFluidType()) || MobEffectUtil.hasWaterBreathing(entity) || (entity instanceof Player && ((Player) entity).getAbilities().invulnerable);
         LivingBreatheEvent breatheEvent = new LivingBreatheEvent(entity, isAir || canBreathe, consumeAirAmount, refillAirAmount, isAir);
-        MinecraftForge.EVENT_BUS.post(breatheEvent);
+        ListenerTimings.post(breatheEvent);
         if (breatheEvent.canBreathe())
         {
             if (breatheEvent.canRefillAir())
@@ -1616,7 +1617,7 @@ public class ForgeHooks
         if (entity.getAirSupply() <= 0)
         {
             LivingDrownEvent drownEvent = new LivingDrownEvent(entity, entity.getAirSupply() <= -20, 2.0F, 8);
-            if (!MinecraftForge.EVENT_BUS.post(drownEvent) && drownEvent.isDrowning())
+            if (!ListenerTimings.post(drownEvent) && drownEvent.isDrowning())
             {
                 entity.setAirSupply(0);
                 Vec3 vec3 = entity.getDeltaMovement();
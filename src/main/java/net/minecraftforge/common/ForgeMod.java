@@ -496,6 +496,7 @@ public class ForgeMod
 
     public void serverStopping(ServerStoppingEvent evt)
     {
+        com.stackmania.world.pregen.ChunkPregenerator.shutdown(); // Stackmania - keep pregeneration progress
         WorldWorkerManager.clear();
     }
 
@@ -5,6 +5,8 @@
 
 package net.minecraftforge.common.capabilities;
 
+import com.mohistmc.MohistConfig;
+import com.stackmania.capability.CapabilityCacheStats;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -37,15 +39,29 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>
     private final INBTSerializable<Tag>[] writers;
     private final String[] names;
     private final List<Runnable> listeners;
+    // Stackmania start - resolved lookups keyed by (capability, side)
+    private static final int MAX_CACHED = 16;
+    // Lookups after which an uncacheable entry is dropped, so a provider that settled on one instance gets cached
+    private static final int UNCACHEABLE_LOOKUPS = 1024;
+    private static final CacheEntry[] EMPTY_CACHE = new CacheEntry[0];
+    private volatile CacheEntry[] cache = EMPTY_CACHE;
+    private final CapabilityCacheStats.Counter stats;
+    // Stackmania end
 
     public CapabilityDispatcher(Map<ResourceLocation, ICapabilityProvider> list, List<Runnable> listeners)
     {
         this(list, listeners, null);
     }
 
-    @SuppressWarnings("unchecked")
     public CapabilityDispatcher(Map<ResourceLocation, ICapabilityProvider> list, List<Runnable> listeners, @Nullable ICapabilityProvider parent)
     {
+        this(list, listeners, parent, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public CapabilityDispatcher(Map<ResourceLocation, ICapabilityProvider> list, List<Runnable> listeners, @Nullable ICapabilityProvider parent, @Nullable Class<?> ownerType)
+    {
+        this.stats = CapabilityCacheStats.forType(ownerType); // Stackmania
         List<ICapabilityProvider> lstCaps = new ArrayList<>();
         List<INBTSerializable<Tag>> lstWriters = new ArrayList<>();
         List<String> lstNames = new ArrayList<>();
@@ -79,7 +95,112 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>
 
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> LazyOptional<T> getCapability(Capability<T> cap, @Nullable Direction side)
+    {
+        // Stackmania start - serve repeated neighbour queries (pipes, cables, hoppers) without walking every provider
+        if (!MohistConfig.capability_cache)
+        {
+            return resolveCapability(cap, side);
+        }
+
+        CacheEntry found = null;
+        for (CacheEntry entry : this.cache)
+        {
+            if (entry.cap == cap && entry.side == side)
+            {
+                found = entry;
+                break;
+            }
+        }
+
+        // Only trust an entry once a provider has handed out the same instance twice: that is the
+        // usual "LazyOptional field invalidated in invalidateCaps" pattern. Providers building a new
+        // LazyOptional per call keep being asked every time, so their answers can still change.
+        // A hit is checked to still be present each time, an invalidated one is asked again and replaced.
+        if (found != null && found.confirmed && found.value.isPresent())
+        {
+            this.stats.record(true);
+            return (LazyOptional<T>) found.value;
+        }
+        this.stats.record(false);
+
+        LazyOptional<T> ret = resolveCapability(cap, side);
+        if (found != null && found.uncacheable)
+        {
+            // A new instance per call, asking again without touching the cache keeps this lock and allocation free.
+            // The count is racy, it only needs to expire the mark eventually.
+            if (++found.uncachedLookups >= UNCACHEABLE_LOOKUPS)
+            {
+                putCache(null, found);
+            }
+            return ret;
+        }
+        if (ret.isPresent())
+        {
+            if (found != null && found.value == ret)
+            {
+                found.confirmed = true;
+            }
+            else if (found != null && !found.confirmed)
+            {
+                found.uncacheable = true;
+            }
+            else
+            {
+                putCache(new CacheEntry(cap, side, ret), found);
+            }
+        }
+        else if (found != null)
+        {
+            putCache(null, found);
+        }
+        return ret;
+    }
+
+    private synchronized void putCache(@Nullable CacheEntry added, @Nullable CacheEntry removed)
+    {
+        CacheEntry[] current = this.cache;
+        List<CacheEntry> next = new ArrayList<>(current.length + 1);
+        for (CacheEntry entry : current)
+        {
+            if (entry != removed && (added == null || entry.cap != added.cap || entry.side != added.side))
+            {
+                next.add(entry);
+            }
+        }
+        if (added != null)
+        {
+            if (next.size() >= MAX_CACHED)
+            {
+                next.remove(0);
+            }
+            next.add(added);
+        }
+        this.cache = next.toArray(EMPTY_CACHE);
+    }
+
+    private static final class CacheEntry
+    {
+        final Capability<?> cap;
+        @Nullable
+        final Direction side;
+        final LazyOptional<?> value;
+        boolean confirmed;
+        boolean uncacheable;
+        int uncachedLookups;
+
+        CacheEntry(Capability<?> cap, @Nullable Direction side, LazyOptional<?> value)
+        {
+            this.cap = cap;
+            this.side = side;
+            this.value = value;
+        }
+    }
+
+    // Stackmania end
+
+    private <T> LazyOptional<T> resolveCapability(Capability<T> cap, @Nullable Direction side) // Stackmania - uncached lookup, was getCapability
     {
         for (ICapabilityProvider c : caps)
         {
@@ -135,6 +256,7 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>
 
     public void invalidate()
     {
+        this.cache = EMPTY_CACHE; // Stackmania
         this.listeners.forEach(Runnable::run);
     }
 }
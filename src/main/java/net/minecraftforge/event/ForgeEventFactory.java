@@ -7,6 +7,7 @@ package net.minecraftforge.event;
 
 import com.mojang.authlib.GameProfile;
 import com.mojang.brigadier.CommandDispatcher;
+import com.stackmania.event.ListenerTimings;
 import java.io.File;
 import java.util.EnumSet;
 import java.util.List;
@@ -83,7 +84,6 @@ import net.minecraft.world.level.storage.ServerLevelData;
 import net.minecraft.world.level.storage.loot.LootTable;
 import net.minecraft.world.phys.HitResult;
 import net.minecraft.world.phys.Vec3;
-import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.ToolAction;
 import net.minecraftforge.common.capabilities.CapabilityDispatcher;
 import net.minecraftforge.common.capabilities.ICapabilityProvider;
@@ -160,7 +160,7 @@ public class ForgeEventFactory
         EntityMultiPlaceEvent event = new EntityMultiPlaceEvent(blockSnapshots, placedAgainst, entity);
         event.setPlaceEventDirection(direction); // Mohist
         event.setPlaceEventHand(hand); // Mohist
-        return MinecraftForge.EVENT_BUS.post(event);
+        return ListenerTimings.post(event);
     }
 
     public static boolean onMultiBlockPlace(@Nullable Entity entity, List<BlockSnapshot> blockSnapshots, Direction direction)
@@ -169,7 +169,7 @@ public class ForgeEventFactory
         BlockState placedAgainst = snap.getLevel().getBlockState(snap.getPos().relative(direction.getOpposite()));
         EntityMultiPlaceEvent event = new EntityMultiPlaceEvent(blockSnapshots, placedAgainst, entity);
         event.setPlaceEventDirection(direction); // Mohist
-        return MinecraftForge.EVENT_BUS.post(event);
+        return ListenerTimings.post(event);
     }
 
     public static boolean onBlockPlace(@Nullable Entity entity, @NotNull BlockSnapshot blockSnapshot, @NotNull Direction direction, InteractionHand hand)
@@ -178,7 +178,7 @@ public class ForgeEventFactory
         EntityPlaceEvent event = new BlockEvent.EntityPlaceEvent(blockSnapshot, placedAgainst, entity);
         event.setPlaceEventDirection(direction); // Mohist
         event.setPlaceEventHand(hand); // Mohist
-        return MinecraftForge.EVENT_BUS.post(event);
+        return ListenerTimings.post(event);
     }
 
     public static boolean onBlockPlace(@Nullable Entity entity, @NotNull BlockSnapshot blockSnapshot, @NotNull Direction direction)
@@ -186,32 +186,32 @@ public class ForgeEventFactory
         BlockState placedAgainst = blockSnapshot.getLevel().getBlockState(blockSnapshot.getPos().relative(direction.getOpposite()));
         EntityPlaceEvent event = new BlockEvent.EntityPlaceEvent(blockSnapshot, placedAgainst, entity);
         event.setPlaceEventDirection(direction); // Mohist
-        return MinecraftForge.EVENT_BUS.post(event);
+        return ListenerTimings.post(event);
     }
 
     public static NeighborNotifyEvent onNeighborNotify(Level level, BlockPos pos, BlockState state, EnumSet<Direction> notifiedSides, boolean forceRedstoneUpdate)
     {
         NeighborNotifyEvent event = new NeighborNotifyEvent(level, pos, state, notifiedSides, forceRedstoneUpdate);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event;
     }
 
     public static boolean doPlayerHarvestCheck(Player player, BlockState state, boolean success)
     {
         PlayerEvent.HarvestCheck event = new PlayerEvent.HarvestCheck(player, state, success);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event.canHarvest();
     }
 
     public static float getBreakSpeed(Player player, BlockState state, float original, BlockPos pos)
     {
         PlayerEvent.BreakSpeed event = new PlayerEvent.BreakSpeed(player, state, original, pos);
-        return (MinecraftForge.EVENT_BUS.post(event) ? -1 : event.getNewSpeed());
+        return (ListenerTimings.post(event) ? -1 : event.getNewSpeed());
     }
 
     public static void onPlayerDestroyItem(Player player, @NotNull ItemStack stack, @Nullable InteractionHand hand)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerDestroyItemEvent(player, stack, hand));
+        ListenerTimings.post(new PlayerDestroyItemEvent(player, stack, hand));
     }
 
     /**
@@ -222,7 +222,7 @@ public class ForgeEventFactory
     public static boolean checkSpawnPlacements(EntityType<?> entityType, ServerLevelAccessor level, MobSpawnType spawnType, BlockPos pos, RandomSource random, boolean defaultResult)
     {
         var event = new SpawnPlacementCheck(entityType, level, spawnType, pos, random, defaultResult);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event.getResult() == Result.DEFAULT ? defaultResult : event.getResult() == Result.ALLOW;
     }
 
@@ -238,7 +238,7 @@ public class ForgeEventFactory
     public static boolean checkSpawnPosition(Mob mob, ServerLevelAccessor level, MobSpawnType spawnType)
     {
         var event = new PositionCheck(mob, level, spawnType, null);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         if (event.getResult() == Result.DEFAULT)
         {
             return mob.checkSpawnRules(level, spawnType) && mob.checkSpawnObstruction(level);
@@ -254,7 +254,7 @@ public class ForgeEventFactory
     public static boolean checkSpawnPositionSpawner(Mob mob, ServerLevelAccessor level, MobSpawnType spawnType, SpawnData spawnData, BaseSpawner spawner)
     {
         var event = new PositionCheck(mob, level, spawnType, null);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         if (event.getResult() == Result.DEFAULT)
         {
             // Spawners do not evaluate Mob#checkSpawnRules if any custom rules are present. This is despite the fact that these two methods do not check the same things.
@@ -298,7 +298,7 @@ public class ForgeEventFactory
     public static SpawnGroupData onFinalizeSpawn(Mob mob, ServerLevelAccessor level, DifficultyInstance difficulty, MobSpawnType spawnType, @Nullable SpawnGroupData spawnData, @Nullable CompoundTag spawnTag)
     {
         var event = new MobSpawnEvent.FinalizeSpawn(mob, level, mob.getX(), mob.getY(), mob.getZ(), difficulty, spawnType, spawnData, spawnTag, null);
-        boolean cancel = MinecraftForge.EVENT_BUS.post(event);
+        boolean cancel = ListenerTimings.post(event);
 
         if (!cancel)
         {
@@ -318,35 +318,35 @@ public class ForgeEventFactory
     public static MobSpawnEvent.FinalizeSpawn onFinalizeSpawnSpawner(Mob mob, ServerLevelAccessor level, DifficultyInstance difficulty, @Nullable SpawnGroupData spawnData, @Nullable CompoundTag spawnTag, BaseSpawner spawner)
     {
         var event = new MobSpawnEvent.FinalizeSpawn(mob, level, mob.getX(), mob.getY(), mob.getZ(), difficulty, MobSpawnType.SPAWNER, spawnData, spawnTag, spawner);
-        boolean cancel = MinecraftForge.EVENT_BUS.post(event);
+        boolean cancel = ListenerTimings.post(event);
         return cancel ? null : event;
     }
 
     public static PlayerSpawnPhantomsEvent onPhantomSpawn(ServerPlayer player, int phantomsToSpawn)
     {
         var event = new PlayerSpawnPhantomsEvent(player, phantomsToSpawn);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event;
     }
 
     public static Result canEntityDespawn(Mob entity, ServerLevelAccessor level)
     {
         AllowDespawn event = new AllowDespawn(entity, level);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event.getResult();
     }
 
     public static int getItemBurnTime(@NotNull ItemStack itemStack, int burnTime, @Nullable RecipeType<?> recipeType)
     {
         FurnaceFuelBurnTimeEvent event = new FurnaceFuelBurnTimeEvent(itemStack, burnTime, recipeType);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event.getBurnTime();
     }
 
     public static int getExperienceDrop(LivingEntity entity, Player attackingPlayer, int originalExperience)
     {
        LivingExperienceDropEvent event = new LivingExperienceDropEvent(entity, attackingPlayer, originalExperience);
-       if (MinecraftForge.EVENT_BUS.post(event))
+       if (ListenerTimings.post(event))
        {
            return 0;
        }
@@ -356,110 +356,110 @@ public class ForgeEventFactory
     public static int getMaxSpawnPackSize(Mob entity)
     {
         LivingPackSizeEvent maxCanSpawnEvent = new LivingPackSizeEvent(entity);
-        MinecraftForge.EVENT_BUS.post(maxCanSpawnEvent);
+        ListenerTimings.post(maxCanSpawnEvent);
         return maxCanSpawnEvent.getResult() == Result.ALLOW ? maxCanSpawnEvent.getMaxPackSize() : entity.getMaxSpawnClusterSize();
     }
 
     public static Component getPlayerDisplayName(Player player, Component username)
     {
         PlayerEvent.NameFormat event = new PlayerEvent.NameFormat(player, username);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event.getDisplayname();
     }
 
     public static Component getPlayerTabListDisplayName(Player player)
     {
         PlayerEvent.TabListNameFormat event = new PlayerEvent.TabListNameFormat(player);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event.getDisplayName();
     }
 
     public static BlockState fireFluidPlaceBlockEvent(LevelAccessor level, BlockPos pos, BlockPos liquidPos, BlockState state)
     {
         BlockEvent.FluidPlaceBlockEvent event = new BlockEvent.FluidPlaceBlockEvent(level, pos, liquidPos, state);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event.getNewState();
     }
 
     public static ItemTooltipEvent onItemTooltip(ItemStack itemStack, @Nullable Player entityPlayer, List<Component> list, TooltipFlag flags)
     {
         ItemTooltipEvent event = new ItemTooltipEvent(itemStack, entityPlayer, list, flags);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event;
     }
 
     public static SummonAidEvent fireZombieSummonAid(Zombie zombie, Level level, int x, int y, int z, LivingEntity attacker, double summonChance)
     {
         SummonAidEvent summonEvent = new SummonAidEvent(zombie, level, x, y, z, attacker, summonChance);
-        MinecraftForge.EVENT_BUS.post(summonEvent);
+        ListenerTimings.post(summonEvent);
         return summonEvent;
     }
 
     public static boolean onEntityStruckByLightning(Entity entity, LightningBolt bolt)
     {
-        return MinecraftForge.EVENT_BUS.post(new EntityStruckByLightningEvent(entity, bolt));
+        return ListenerTimings.post(new EntityStruckByLightningEvent(entity, bolt));
     }
 
     public static int onItemUseStart(LivingEntity entity, ItemStack item, int duration)
     {
         LivingEntityUseItemEvent event = new LivingEntityUseItemEvent.Start(entity, item, duration);
-        return MinecraftForge.EVENT_BUS.post(event) ? -1 : event.getDuration();
+        return ListenerTimings.post(event) ? -1 : event.getDuration();
     }
 
     public static int onItemUseTick(LivingEntity entity, ItemStack item, int duration)
     {
         LivingEntityUseItemEvent event = new LivingEntityUseItemEvent.Tick(entity, item, duration);
-        return MinecraftForge.EVENT_BUS.post(event) ? -1 : event.getDuration();
+        return ListenerTimings.post(event) ? -1 : event.getDuration();
     }
 
     public static boolean onUseItemStop(LivingEntity entity, ItemStack item, int duration)
     {
-        return MinecraftForge.EVENT_BUS.post(new LivingEntityUseItemEvent.Stop(entity, item, duration));
+        return ListenerTimings.post(new LivingEntityUseItemEvent.Stop(entity, item, duration));
     }
 
     public static ItemStack onItemUseFinish(LivingEntity entity, ItemStack item, int duration, ItemStack result)
     {
         LivingEntityUseItemEvent.Finish event = new LivingEntityUseItemEvent.Finish(entity, item, duration, result);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event.getResultStack();
     }
 
     public static void onStartEntityTracking(Entity entity, Player player)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerEvent.StartTracking(player, entity));
+        ListenerTimings.post(new PlayerEvent.StartTracking(player, entity));
     }
 
     public static void onStopEntityTracking(Entity entity, Player player)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerEvent.StopTracking(player, entity));
+        ListenerTimings.post(new PlayerEvent.StopTracking(player, entity));
     }
 
     public static void firePlayerLoadingEvent(Player player, File playerDirectory, String uuidString)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerEvent.LoadFromFile(player, playerDirectory, uuidString));
+        ListenerTimings.post(new PlayerEvent.LoadFromFile(player, playerDirectory, uuidString));
     }
 
     public static void firePlayerSavingEvent(Player player, File playerDirectory, String uuidString)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerEvent.SaveToFile(player, playerDirectory, uuidString));
+        ListenerTimings.post(new PlayerEvent.SaveToFile(player, playerDirectory, uuidString));
     }
 
     public static void firePlayerLoadingEvent(Player player, PlayerDataStorage playerFileData, String uuidString)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerEvent.LoadFromFile(player, playerFileData.getPlayerDataFolder(), uuidString));
+        ListenerTimings.post(new PlayerEvent.LoadFromFile(player, playerFileData.getPlayerDataFolder(), uuidString));
     }
 
     @Nullable
     public static BlockState onToolUse(BlockState originalState, UseOnContext context, ToolAction toolAction, boolean simulate)
     {
         BlockToolModificationEvent event = new BlockToolModificationEvent(originalState, context, toolAction, simulate);
-        return MinecraftForge.EVENT_BUS.post(event) ? null : event.getFinalState();
+        return ListenerTimings.post(event) ? null : event.getFinalState();
     }
 
     public static int onApplyBonemeal(@NotNull Player player, @NotNull Level level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ItemStack stack)
     {
         BonemealEvent event = new BonemealEvent(player, level, pos, state, stack);
-        if (MinecraftForge.EVENT_BUS.post(event)) return -1;
+        if (ListenerTimings.post(event)) return -1;
         if (event.getResult() == Result.ALLOW)
         {
             if (!level.isClientSide)
@@ -473,7 +473,7 @@ public class ForgeEventFactory
     public static InteractionResultHolder<ItemStack> onBucketUse(@NotNull Player player, @NotNull Level level, @NotNull ItemStack stack, @Nullable HitResult target)
     {
         FillBucketEvent event = new FillBucketEvent(player, stack, level, target);
-        if (MinecraftForge.EVENT_BUS.post(event)) return new InteractionResultHolder<ItemStack>(InteractionResult.FAIL, stack);
+        if (ListenerTimings.post(event)) return new InteractionResultHolder<ItemStack>(InteractionResult.FAIL, stack);
 
         if (event.getResult() == Result.ALLOW)
         {
@@ -495,7 +495,7 @@ public class ForgeEventFactory
     public static PlayLevelSoundEvent.AtEntity onPlaySoundAtEntity(Entity entity, Holder<SoundEvent> name, SoundSource category, float volume, float pitch)
     {
         PlayLevelSoundEvent.AtEntity event = new PlayLevelSoundEvent.AtEntity(entity, name, category, volume, pitch);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event;
     }
 
@@ -503,7 +503,7 @@ public class ForgeEventFactory
     public static PlayLevelSoundEvent.AtPosition onPlaySoundAtPosition(Level level, double x, double y, double z, Holder<SoundEvent> name, SoundSource category, float volume, float pitch)
     {
         PlayLevelSoundEvent.AtPosition event = new PlayLevelSoundEvent.AtPosition(level, new Vec3(x, y, z), name, category, volume, pitch);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event;
     }
 
@@ -511,20 +511,20 @@ public class ForgeEventFactory
     {
         if (item.isEmpty()) return -1;
         ItemExpireEvent event = new ItemExpireEvent(entity, (item.isEmpty() ? 6000 : item.getItem().getEntityLifespan(item, entity.level())));
-        if (!MinecraftForge.EVENT_BUS.post(event)) return -1;
+        if (!ListenerTimings.post(event)) return -1;
         return event.getExtraLife();
     }
 
     public static int onItemPickup(ItemEntity entityItem, Player player)
     {
         Event event = new EntityItemPickupEvent(player, entityItem);
-        if (MinecraftForge.EVENT_BUS.post(event)) return -1;
+        if (ListenerTimings.post(event)) return -1;
         return event.getResult() == Result.ALLOW ? 1 : 0;
     }
 
     public static boolean canMountEntity(Entity entityMounting, Entity entityBeingMounted, boolean isMounting)
     {
-        boolean isCanceled = MinecraftForge.EVENT_BUS.post(new EntityMountEvent(entityMounting, entityBeingMounted, entityMounting.level(), isMounting));
+        boolean isCanceled = ListenerTimings.post(new EntityMountEvent(entityMounting, entityBeingMounted, entityMounting.level(), isMounting));
 
         if(isCanceled)
         {
@@ -537,39 +537,39 @@ public class ForgeEventFactory
 
     public static boolean onAnimalTame(Animal animal, Player tamer)
     {
-        return MinecraftForge.EVENT_BUS.post(new AnimalTameEvent(animal, tamer));
+        return ListenerTimings.post(new AnimalTameEvent(animal, tamer));
     }
 
     public static Player.BedSleepingProblem onPlayerSleepInBed(Player player, Optional<BlockPos> pos)
     {
         PlayerSleepInBedEvent event = new PlayerSleepInBedEvent(player, pos);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event.getResultStatus();
     }
 
     public static void onPlayerWakeup(Player player, boolean wakeImmediately, boolean updateLevel)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerWakeUpEvent(player, wakeImmediately, updateLevel));
+        ListenerTimings.post(new PlayerWakeUpEvent(player, wakeImmediately, updateLevel));
     }
 
     public static void onPlayerFall(Player player, float distance, float multiplier)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerFlyableFallEvent(player, distance, multiplier));
+        ListenerTimings.post(new PlayerFlyableFallEvent(player, distance, multiplier));
     }
 
     public static boolean onPlayerSpawnSet(Player player, ResourceKey<Level> levelKey, BlockPos pos, boolean forced)
     {
-        return MinecraftForge.EVENT_BUS.post(new PlayerSetSpawnEvent(player, levelKey, pos, forced));
+        return ListenerTimings.post(new PlayerSetSpawnEvent(player, levelKey, pos, forced));
     }
 
     public static void onPlayerClone(Player player, Player oldPlayer, boolean wasDeath)
     {
-        MinecraftForge.EVENT_BUS.post(new net.minecraftforge.event.entity.player.PlayerEvent.Clone(player, oldPlayer, wasDeath));
+        ListenerTimings.post(new net.minecraftforge.event.entity.player.PlayerEvent.Clone(player, oldPlayer, wasDeath));
     }
 
     public static boolean onExplosionStart(Level level, Explosion explosion)
     {
-        return MinecraftForge.EVENT_BUS.post(new ExplosionEvent.Start(level, explosion));
+        return ListenerTimings.post(new ExplosionEvent.Start(level, explosion));
     }
 
     public static void onExplosionDetonate(Level level, Explosion explosion, List<Entity> list, double diameter)
@@ -585,18 +585,18 @@ public class ForgeEventFactory
             if (e.isImmuneToExplosions() || dist > 1.0F) itr.remove();
         }
         */
-        MinecraftForge.EVENT_BUS.post(new ExplosionEvent.Detonate(level, explosion, list));
+        ListenerTimings.post(new ExplosionEvent.Detonate(level, explosion, list));
     }
 
     public static boolean onCreateWorldSpawn(Level level, ServerLevelData settings)
     {
-        return MinecraftForge.EVENT_BUS.post(new LevelEvent.CreateSpawnPosition(level, settings));
+        return ListenerTimings.post(new LevelEvent.CreateSpawnPosition(level, settings));
     }
 
     public static float onLivingHeal(LivingEntity entity, float amount)
     {
         LivingHealEvent event = new LivingHealEvent(entity, amount);
-        return (MinecraftForge.EVENT_BUS.post(event) ? 0 : event.getAmount());
+        return (ListenerTimings.post(event) ? 0 : event.getAmount());
     }
 
     public static boolean onPotionAttemptBrew(NonNullList<ItemStack> stacks)
@@ -606,7 +606,7 @@ public class ForgeEventFactory
             tmp.set(x, stacks.get(x).copy());
 
         PotionBrewEvent.Pre event = new PotionBrewEvent.Pre(tmp);
-        if (MinecraftForge.EVENT_BUS.post(event))
+        if (ListenerTimings.post(event))
         {
             boolean changed = false;
             for (int x = 0; x < stacks.size(); x++)
@@ -623,12 +623,12 @@ public class ForgeEventFactory
 
     public static void onPotionBrewed(NonNullList<ItemStack> brewingItemStacks)
     {
-        MinecraftForge.EVENT_BUS.post(new PotionBrewEvent.Post(brewingItemStacks));
+        ListenerTimings.post(new PotionBrewEvent.Post(brewingItemStacks));
     }
 
     public static void onPlayerBrewedPotion(Player player, ItemStack stack)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerBrewedPotionEvent(player, stack));
+        ListenerTimings.post(new PlayerBrewedPotionEvent(player, stack));
     }
 
     @Nullable
@@ -647,14 +647,14 @@ public class ForgeEventFactory
     @Nullable
     private static CapabilityDispatcher gatherCapabilities(AttachCapabilitiesEvent<?> event, @Nullable ICapabilityProvider parent)
     {
-        MinecraftForge.EVENT_BUS.post(event);
-        return !event.getCapabilities().isEmpty() || parent != null ? new CapabilityDispatcher(event.getCapabilities(), event.getListeners(), parent) : null;
+        ListenerTimings.post(event);
+        return !event.getCapabilities().isEmpty() || parent != null ? new CapabilityDispatcher(event.getCapabilities(), event.getListeners(), parent, event.getObject().getClass()) : null; // Stackmania - owner type for cache stats
     }
 
     public static boolean fireSleepingLocationCheck(LivingEntity player, BlockPos sleepingLocation)
     {
         SleepingLocationCheckEvent evt = new SleepingLocationCheckEvent(player, sleepingLocation);
-        MinecraftForge.EVENT_BUS.post(evt);
+        ListenerTimings.post(evt);
 
         Result canContinueSleep = evt.getResult();
         if (canContinueSleep == Result.DEFAULT)
@@ -671,7 +671,7 @@ public class ForgeEventFactory
     public static boolean fireSleepingTimeCheck(Player player, Optional<BlockPos> sleepingLocation)
     {
         SleepingTimeCheckEvent evt = new SleepingTimeCheckEvent(player, sleepingLocation);
-        MinecraftForge.EVENT_BUS.post(evt);
+        ListenerTimings.post(evt);
 
         Result canContinueSleep = evt.getResult();
         if (canContinueSleep == Result.DEFAULT)
@@ -683,7 +683,7 @@ public class ForgeEventFactory
     public static InteractionResultHolder<ItemStack> onArrowNock(ItemStack item, Level level, Player player, InteractionHand hand, boolean hasAmmo)
     {
         ArrowNockEvent event = new ArrowNockEvent(player, item, hand, level, hasAmmo);
-        if (MinecraftForge.EVENT_BUS.post(event))
+        if (ListenerTimings.post(event))
             return new InteractionResultHolder<ItemStack>(InteractionResult.FAIL, item);
         return event.getAction();
     }
@@ -691,7 +691,7 @@ public class ForgeEventFactory
     public static int onArrowLoose(ItemStack stack, Level level, Player player, int charge, boolean hasAmmo)
     {
         ArrowLooseEvent event = new ArrowLooseEvent(player, stack, level, charge, hasAmmo);
-        if (MinecraftForge.EVENT_BUS.post(event))
+        if (ListenerTimings.post(event))
             return -1;
         return event.getCharge();
     }
@@ -701,7 +701,7 @@ public class ForgeEventFactory
         ProjectileImpactEvent event = new ProjectileImpactEvent(projectile, ray);
 
         // Remove this when the event is no longer cancelable
-        if (MinecraftForge.EVENT_BUS.post(event))
+        if (ListenerTimings.post(event))
             return ProjectileImpactEvent.ImpactResult.SKIP_ENTITY;
 
         return event.getImpactResult();
@@ -726,7 +726,7 @@ public class ForgeEventFactory
         ProjectileImpactEvent event = new ProjectileImpactEvent(projectile, ray);
 
         // Remove this when the event is no longer cancelable
-        if (MinecraftForge.EVENT_BUS.post(event))
+        if (ListenerTimings.post(event))
             return null;
 
         return event.getImpactResult();
@@ -740,7 +740,7 @@ public class ForgeEventFactory
     public static LootTable loadLootTable(ResourceLocation name, LootTable table)
     {
         LootTableLoadEvent event = new LootTableLoadEvent(name, table);
-        if (MinecraftForge.EVENT_BUS.post(event))
+        if (ListenerTimings.post(event))
             return LootTable.EMPTY;
         return event.getTable();
     }
@@ -748,7 +748,7 @@ public class ForgeEventFactory
     public static boolean canCreateFluidSource(Level level, BlockPos pos, BlockState state, boolean def)
     {
         CreateFluidSourceEvent evt = new CreateFluidSourceEvent(level, pos, state);
-        MinecraftForge.EVENT_BUS.post(evt);
+        ListenerTimings.post(evt);
 
         Result result = evt.getResult();
         return result == Result.DEFAULT ? def : result == Result.ALLOW;
@@ -757,19 +757,19 @@ public class ForgeEventFactory
     public static Optional<PortalShape> onTrySpawnPortal(LevelAccessor level, BlockPos pos, Optional<PortalShape> size)
     {
         if (!size.isPresent()) return size;
-        return !MinecraftForge.EVENT_BUS.post(new BlockEvent.PortalSpawnEvent(level, pos, level.getBlockState(pos), size.get())) ? size : Optional.empty();
+        return !ListenerTimings.post(new BlockEvent.PortalSpawnEvent(level, pos, level.getBlockState(pos), size.get())) ? size : Optional.empty();
     }
 
     public static int onEnchantmentLevelSet(Level level, BlockPos pos, int enchantRow, int power, ItemStack itemStack, int enchantmentLevel)
     {
         net.minecraftforge.event.enchanting.EnchantmentLevelSetEvent e = new net.minecraftforge.event.enchanting.EnchantmentLevelSetEvent(level, pos, enchantRow, power, itemStack, enchantmentLevel);
-        net.minecraftforge.common.MinecraftForge.EVENT_BUS.post(e);
+        com.stackmania.event.ListenerTimings.post(e);
         return e.getEnchantLevel();
     }
 
     public static boolean onEntityDestroyBlock(LivingEntity entity, BlockPos pos, BlockState state)
     {
-        return !MinecraftForge.EVENT_BUS.post(new LivingDestroyBlockEvent(entity, pos, state));
+        return !ListenerTimings.post(new LivingDestroyBlockEvent(entity, pos, state));
     }
 
     public static boolean getMobGriefingEvent(Level level, @Nullable Entity entity)
@@ -778,7 +778,7 @@ public class ForgeEventFactory
             return level.getGameRules().getBoolean(GameRules.RULE_MOBGRIEFING);
 
         EntityMobGriefingEvent event = new EntityMobGriefingEvent(entity);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
 
         Result result = event.getResult();
         return result == Result.DEFAULT ? level.getGameRules().getBoolean(GameRules.RULE_MOBGRIEFING) : result == Result.ALLOW;
@@ -787,68 +787,68 @@ public class ForgeEventFactory
     public static SaplingGrowTreeEvent blockGrowFeature(LevelAccessor level, RandomSource randomSource, BlockPos pos, @Nullable Holder<ConfiguredFeature<?, ?>> holder)
     {
         SaplingGrowTreeEvent event = new SaplingGrowTreeEvent(level, randomSource, pos, holder);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event;
     }
 
     public static BlockState alterGround(LevelSimulatedReader level, RandomSource random, BlockPos pos, BlockState altered)
     {
         AlterGroundEvent event = new AlterGroundEvent(level, random, pos, altered);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event.getNewAlteredState();
     }
 
     public static void fireChunkTicketLevelUpdated(ServerLevel level, long chunkPos, int oldTicketLevel, int newTicketLevel, @Nullable ChunkHolder chunkHolder)
     {
         if (oldTicketLevel != newTicketLevel)
-            MinecraftForge.EVENT_BUS.post(new ChunkTicketLevelUpdatedEvent(level, chunkPos, oldTicketLevel, newTicketLevel, chunkHolder));
+            ListenerTimings.post(new ChunkTicketLevelUpdatedEvent(level, chunkPos, oldTicketLevel, newTicketLevel, chunkHolder));
     }
 
     public static void fireChunkWatch(ServerPlayer entity, LevelChunk chunk, ServerLevel level)
     {
-        MinecraftForge.EVENT_BUS.post(new ChunkWatchEvent.Watch(entity, chunk, level));
+        ListenerTimings.post(new ChunkWatchEvent.Watch(entity, chunk, level));
     }
 
     public static void fireChunkUnWatch(ServerPlayer entity, ChunkPos chunkpos, ServerLevel level)
     {
-        MinecraftForge.EVENT_BUS.post(new ChunkWatchEvent.UnWatch(entity, chunkpos, level));
+        ListenerTimings.post(new ChunkWatchEvent.UnWatch(entity, chunkpos, level));
     }
 
     public static boolean onPistonMovePre(Level level, BlockPos pos, Direction direction, boolean extending)
     {
-        return MinecraftForge.EVENT_BUS.post(new PistonEvent.Pre(level, pos, direction, extending ? PistonEvent.PistonMoveType.EXTEND : PistonEvent.PistonMoveType.RETRACT));
+        return ListenerTimings.post(new PistonEvent.Pre(level, pos, direction, extending ? PistonEvent.PistonMoveType.EXTEND : PistonEvent.PistonMoveType.RETRACT));
     }
 
     public static boolean onPistonMovePost(Level level, BlockPos pos, Direction direction, boolean extending)
     {
-        return MinecraftForge.EVENT_BUS.post(new PistonEvent.Post(level, pos, direction, extending ? PistonEvent.PistonMoveType.EXTEND : PistonEvent.PistonMoveType.RETRACT));
+        return ListenerTimings.post(new PistonEvent.Post(level, pos, direction, extending ? PistonEvent.PistonMoveType.EXTEND : PistonEvent.PistonMoveType.RETRACT));
     }
 
     public static long onSleepFinished(ServerLevel level, long newTime, long minTime)
     {
         SleepFinishedTimeEvent event = new SleepFinishedTimeEvent(level, newTime, minTime);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event.getNewTime();
     }
 
     public static List<PreparableReloadListener> onResourceReload(ReloadableServerResources serverResources, RegistryAccess registryAccess)
     {
         AddReloadListenerEvent event = new AddReloadListenerEvent(serverResources, registryAccess);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event.getListeners();
     }
 
     public static void onCommandRegister(CommandDispatcher<CommandSourceStack> dispatcher, Commands.CommandSelection environment, CommandBuildContext context)
     {
         RegisterCommandsEvent event = new RegisterCommandsEvent(dispatcher, environment, context);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
     }
 
     @Deprecated(forRemoval = true, since = "1.20.1") // Remove Entity Eye/Size hooks, as they need to be redesigned
     public static net.minecraftforge.event.entity.EntityEvent.Size getEntitySizeForge(Entity entity, Pose pose, EntityDimensions size, float eyeHeight)
     {
         var evt = new EntityEvent.Size(entity, pose, size, eyeHeight);
-        MinecraftForge.EVENT_BUS.post(evt);
+        ListenerTimings.post(evt);
         return evt;
     }
 
@@ -856,38 +856,38 @@ public class ForgeEventFactory
     public static net.minecraftforge.event.entity.EntityEvent.Size getEntitySizeForge(Entity entity, Pose pose, EntityDimensions oldSize, EntityDimensions newSize, float newEyeHeight)
     {
         var evt = new EntityEvent.Size(entity, pose, oldSize, newSize, entity.getEyeHeight(), newEyeHeight);
-        MinecraftForge.EVENT_BUS.post(evt);
+        ListenerTimings.post(evt);
         return evt;
     }
 
     public static boolean canLivingConvert(LivingEntity entity, EntityType<? extends LivingEntity> outcome, Consumer<Integer> timer)
     {
-        return !MinecraftForge.EVENT_BUS.post(new LivingConversionEvent.Pre(entity, outcome, timer));
+        return !ListenerTimings.post(new LivingConversionEvent.Pre(entity, outcome, timer));
     }
 
     public static void onLivingConvert(LivingEntity entity, LivingEntity outcome)
     {
-        MinecraftForge.EVENT_BUS.post(new LivingConversionEvent.Post(entity, outcome));
+        ListenerTimings.post(new LivingConversionEvent.Post(entity, outcome));
     }
 
     public static EntityTeleportEvent.TeleportCommand onEntityTeleportCommand(Entity entity, double targetX, double targetY, double targetZ)
     {
         EntityTeleportEvent.TeleportCommand event = new EntityTeleportEvent.TeleportCommand(entity, targetX, targetY, targetZ);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event;
     }
 
     public static EntityTeleportEvent.SpreadPlayersCommand onEntityTeleportSpreadPlayersCommand(Entity entity, double targetX, double targetY, double targetZ)
     {
         EntityTeleportEvent.SpreadPlayersCommand event = new EntityTeleportEvent.SpreadPlayersCommand(entity, targetX, targetY, targetZ);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event;
     }
 
     public static EntityTeleportEvent.EnderEntity onEnderTeleport(LivingEntity entity, double targetX, double targetY, double targetZ)
     {
         EntityTeleportEvent.EnderEntity event = new EntityTeleportEvent.EnderEntity(entity, targetX, targetY, targetZ);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event;
     }
 
@@ -895,14 +895,14 @@ public class ForgeEventFactory
     public static EntityTeleportEvent.EnderPearl onEnderPearlLand(ServerPlayer entity, double targetX, double targetY, double targetZ, ThrownEnderpearl pearlEntity, float attackDamage, HitResult hitResult)
     {
         EntityTeleportEvent.EnderPearl event = new EntityTeleportEvent.EnderPearl(entity, targetX, targetY, targetZ, pearlEntity, attackDamage, hitResult);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event;
     }
 
     public static EntityTeleportEvent.ChorusFruit onChorusFruitTeleport(LivingEntity entity, double targetX, double targetY, double targetZ)
     {
         EntityTeleportEvent.ChorusFruit event = new EntityTeleportEvent.ChorusFruit(entity, targetX, targetY, targetZ);
-        MinecraftForge.EVENT_BUS.post(event);
+        ListenerTimings.post(event);
         return event;
     }
 
@@ -912,100 +912,100 @@ public class ForgeEventFactory
         ServerPlayer player = playerList.getPlayer(gameProfile.getId());
         if (newLevel != oldLevel && player != null)
         {
-            return MinecraftForge.EVENT_BUS.post(new PermissionsChangedEvent(player, newLevel, oldLevel));
+            return ListenerTimings.post(new PermissionsChangedEvent(player, newLevel, oldLevel));
         }
         return false;
     }
 
     public static void firePlayerChangedDimensionEvent(Player player, ResourceKey<Level> fromDim, ResourceKey<Level> toDim)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerEvent.PlayerChangedDimensionEvent(player, fromDim, toDim));
+        ListenerTimings.post(new PlayerEvent.PlayerChangedDimensionEvent(player, fromDim, toDim));
     }
 
     public static void firePlayerLoggedIn(Player player)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerEvent.PlayerLoggedInEvent(player));
+        ListenerTimings.post(new PlayerEvent.PlayerLoggedInEvent(player));
     }
 
     public static void firePlayerLoggedOut(Player player)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerEvent.PlayerLoggedOutEvent(player));
+        ListenerTimings.post(new PlayerEvent.PlayerLoggedOutEvent(player));
     }
 
     public static void firePlayerRespawnEvent(Player player, boolean endConquered)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerEvent.PlayerRespawnEvent(player, endConquered));
+        ListenerTimings.post(new PlayerEvent.PlayerRespawnEvent(player, endConquered));
     }
 
     public static void firePlayerItemPickupEvent(Player player, ItemEntity item, ItemStack clone)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerEvent.ItemPickupEvent(player, item, clone));
+        ListenerTimings.post(new PlayerEvent.ItemPickupEvent(player, item, clone));
     }
 
     public static void firePlayerCraftingEvent(Player player, ItemStack crafted, Container craftMatrix)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerEvent.ItemCraftedEvent(player, crafted, craftMatrix));
+        ListenerTimings.post(new PlayerEvent.ItemCraftedEvent(player, crafted, craftMatrix));
     }
 
     public static void firePlayerSmeltedEvent(Player player, ItemStack smelted)
     {
-        MinecraftForge.EVENT_BUS.post(new PlayerEvent.ItemSmeltedEvent(player, smelted));
+        ListenerTimings.post(new PlayerEvent.ItemSmeltedEvent(player, smelted));
     }
 
     public static void onRenderTickStart(float timer)
     {
-        MinecraftForge.EVENT_BUS.post(new TickEvent.RenderTickEvent(TickEvent.Phase.START, timer));
+        ListenerTimings.post(new TickEvent.RenderTickEvent(TickEvent.Phase.START, timer));
     }
 
     public static void onRenderTickEnd(float timer)
     {
-        MinecraftForge.EVENT_BUS.post(new TickEvent.RenderTickEvent(TickEvent.Phase.END, timer));
+        ListenerTimings.post(new TickEvent.RenderTickEvent(TickEvent.Phase.END, timer));
     }
 
     public static void onPlayerPreTick(Player player)
     {
-        MinecraftForge.EVENT_BUS.post(new TickEvent.PlayerTickEvent(TickEvent.Phase.START, player));
+        ListenerTimings.post(new TickEvent.PlayerTickEvent(TickEvent.Phase.START, player));
     }
 
     public static void onPlayerPostTick(Player player)
     {
-        MinecraftForge.EVENT_BUS.post(new TickEvent.PlayerTickEvent(TickEvent.Phase.END, player));
+        ListenerTimings.post(new TickEvent.PlayerTickEvent(TickEvent.Phase.END, player));
     }
 
     public static void onPreLevelTick(Level level, BooleanSupplier haveTime)
     {
-        MinecraftForge.EVENT_BUS.post(new TickEvent.LevelTickEvent(level.isClientSide ? LogicalSide.CLIENT : LogicalSide.SERVER, TickEvent.Phase.START, level, haveTime));
+        ListenerTimings.post(new TickEvent.LevelTickEvent(level.isClientSide ? LogicalSide.CLIENT : LogicalSide.SERVER, TickEvent.Phase.START, level, haveTime));
     }
 
     public static void onPostLevelTick(Level level, BooleanSupplier haveTime)
     {
-        MinecraftForge.EVENT_BUS.post(new TickEvent.LevelTickEvent(level.isClientSide ? LogicalSide.CLIENT : LogicalSide.SERVER, TickEvent.Phase.END, level, haveTime));
+        ListenerTimings.post(new TickEvent.LevelTickEvent(level.isClientSide ? LogicalSide.CLIENT : LogicalSide.SERVER, TickEvent.Phase.END, level, haveTime));
     }
 
     public static void onPreClientTick()
     {
-        MinecraftForge.EVENT_BUS.post(new TickEvent.ClientTickEvent(TickEvent.Phase.START));
+        ListenerTimings.post(new TickEvent.ClientTickEvent(TickEvent.Phase.START));
     }
 
     public static void onPostClientTick()
     {
-        MinecraftForge.EVENT_BUS.post(new TickEvent.ClientTickEvent(TickEvent.Phase.END));
+        ListenerTimings.post(new TickEvent.ClientTickEvent(TickEvent.Phase.END));
     }
 
     public static void onPreServerTick(BooleanSupplier haveTime, MinecraftServer server)
     {
-        MinecraftForge.EVENT_BUS.post(new TickEvent.ServerTickEvent(TickEvent.Phase.START, haveTime, server));
+        ListenerTimings.post(new TickEvent.ServerTickEvent(TickEvent.Phase.START, haveTime, server));
     }
 
     public static void onPostServerTick(BooleanSupplier haveTime, MinecraftServer server)
     {
-        MinecraftForge.EVENT_BUS.post(new TickEvent.ServerTickEvent(TickEvent.Phase.END, haveTime, server));
+        ListenerTimings.post(new TickEvent.ServerTickEvent(TickEvent.Phase.END, haveTime, server));
     }
 
     public static WeightedRandomList<MobSpawnSettings.SpawnerData> getPotentialSpawns(LevelAccessor level, MobCategory category, BlockPos pos, WeightedRandomList<MobSpawnSettings.SpawnerData> oldList)
     {
         LevelEvent.PotentialSpawns event = new LevelEvent.PotentialSpawns(level, category, pos, oldList);
-        if (MinecraftForge.EVENT_BUS.post(event))
+        if (ListenerTimings.post(event))
             return WeightedRandomList.create();
         return WeightedRandomList.create(event.getSpawnerDataList());
     }
@@ -1013,12 +1013,12 @@ public class ForgeEventFactory
     @ApiStatus.Internal
     public static void onAdvancementEarnedEvent(Player player, Advancement earned)
     {
-        MinecraftForge.EVENT_BUS.post(new AdvancementEarnEvent(player, earned));
+        ListenerTimings.post(new AdvancementEarnEvent(player, earned));
     }
 
     @ApiStatus.Internal
     public static void onAdvancementProgressedEvent(Player player, Advancement progressed, AdvancementProgress advancementProgress, String criterion, ProgressType progressType)
     {
-        MinecraftForge.EVENT_BUS.post(new AdvancementProgressEvent(player, progressed, advancementProgress, criterion, progressType));
+        ListenerTimings.post(new AdvancementProgressEvent(player, progressed, advancementProgress, criterion, progressType));
     }
 }
@@ -43,17 +43,16 @@ public class VanillaInventoryCodeHooks
         return getItemHandler(level, dest, Direction.UP)
                 .map(itemHandlerResult -> {
                     IItemHandler handler = itemHandlerResult.getKey();
-                    Container container = HopperBlockEntity.getSourceContainer(level, dest);
+                    Container container = hasMoveListeners() ? HopperBlockEntity.getSourceContainer(level, dest) : null; // Stackmania - only needed for the event
                     for (int i = 0; i < handler.getSlots(); i++)
                     {
                         ItemStack extractItem = handler.extractItem(i, level.spigotConfig.hopperAmount, true);
 
                         if (!extractItem.isEmpty())
                         {
-                            CraftItemStack oitemstack = CraftItemStack.asCraftMirror(extractItem);
-
-                            InventoryHolder owner = InventoryOwner.get(dest);
                             if (container != null) {
+                                CraftItemStack oitemstack = CraftItemStack.asCraftMirror(extractItem);
+                                InventoryHolder owner = InventoryOwner.get(dest);
                                 Inventory sourceInventory = InventoryOwner.getInventory(container);
                                 Inventory destinationInventory = owner != null ? owner.getInventory() : InventoryOwner.inventoryFromForge(handler);
                                 if (destinationInventory != null && sourceInventory != null) {
@@ -156,7 +155,7 @@ public class VanillaInventoryCodeHooks
                                 ItemStack originalSlotContents = hopper.getItem(i).copy();
                                 ItemStack insertStack = hopper.removeItem(i, hopper.getLevel().spigotConfig.hopperAmount);
                                 ItemStack stack = insertStack;
-                                if (!insertStack.isEmpty()) {
+                                if (!insertStack.isEmpty() && hasMoveListeners()) { // Stackmania - skip the event when nobody listens
                                     CraftItemStack oitemstack = CraftItemStack.asCraftMirror(insertStack);
                                     InventoryHolder owner = InventoryOwner.get((BlockEntity) destination);
                                     Inventory sourceInventory = InventoryOwner.getInventory(hopper);
@@ -252,12 +251,25 @@ public class VanillaInventoryCodeHooks
 
     private static Optional<Pair<IItemHandler, Object>> getItemHandler(Level level, Hopper hopper, Direction hopperFacing)
     {
+        // Stackmania start - hopper block entities keep the handlers they resolved
+        if (com.mohistmc.MohistConfig.hopper_neighbor_cache && hopper instanceof HopperBlockEntity hopperBlockEntity)
+        {
+            return hopperBlockEntity.getNeighborCache().get(level, hopperBlockEntity.getBlockPos(), hopperFacing, hopperFacing.getOpposite());
+        }
+        // Stackmania end
         double x = hopper.getLevelX() + (double) hopperFacing.getStepX();
         double y = hopper.getLevelY() + (double) hopperFacing.getStepY();
         double z = hopper.getLevelZ() + (double) hopperFacing.getStepZ();
         return getItemHandler(level, x, y, z, hopperFacing.getOpposite());
     }
 
+    // Stackmania start
+    private static boolean hasMoveListeners()
+    {
+        return InventoryMoveItemEvent.getHandlerList().getRegisteredListeners().length > 0;
+    }
+    // Stackmania end
+
     private static boolean isFull(IItemHandler itemHandler)
     {
         for (int slot = 0; slot < itemHandler.getSlots(); slot++)
@@ -589,6 +589,7 @@ public class CraftWorld extends CraftRegionAccessor implements World {
         boolean grownTree = generateTree(loc, type);
         world.captureTreeGeneration = false;
         world.captureBlockStates = false;
+        world.capturedTileEntities.clear(); // Stackmania - never placed, do not keep shadowing the real block entities
         if (grownTree) { // Copy block data to delegate
             for (BlockState blockstate : world.capturedBlockStates.values()) {
                 BlockPos position = ((CraftBlockState) blockstate).getPosition();
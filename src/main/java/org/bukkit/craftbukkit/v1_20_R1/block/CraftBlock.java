@@ -521,8 +521,15 @@ public class CraftBlock implements Block {
 
         // SPIGOT-6895: Call StructureGrowEvent and BlockFertilizeEvent
         world.captureTreeGeneration = true;
-        InteractionResult result = BoneMealItem.applyBonemealCB(context);
-        world.captureTreeGeneration = false;
+        InteractionResult result;
+        // Stackmania start - block entities of the captured tree are never placed, do not keep shadowing the real ones
+        try {
+            result = BoneMealItem.applyBonemealCB(context);
+        } finally {
+            world.captureTreeGeneration = false;
+            world.capturedTileEntities.clear();
+        }
+        // Stackmania end
 
         if (world.capturedBlockStates.size() > 0) {
             TreeType treeType = SaplingBlock.treeType;
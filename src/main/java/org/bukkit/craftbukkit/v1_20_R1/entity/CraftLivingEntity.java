@@ -411,7 +411,7 @@ public class CraftLivingEntity extends CraftEntity implements LivingEntity {
     @Override
     public Collection<PotionEffect> getActivePotionEffects() {
         List<PotionEffect> effects = new ArrayList<PotionEffect>();
-        for (MobEffectInstance handle : getHandle().activeEffects.values()) {
+        for (MobEffectInstance handle : getHandle().getActiveEffectsSnapshot().values()) { // Stackmania - may be called async
             effects.add(new PotionEffect(PotionEffectType.getById(MobEffect.getId(handle.getEffect())), handle.getDuration(), handle.getAmplifier(), handle.isAmbient(), handle.isVisible()));
         }
         return effects;
@@ -51,6 +51,8 @@ class CraftAsyncTask extends CraftTask {
                 });
         }
         Throwable thrown = null;
+        long cpuStart = com.stackmania.metrics.ThreadAccounting.currentCpuNanos(); // Stackmania
+        long allocatedStart = com.stackmania.metrics.ThreadAccounting.currentAllocatedBytes(); // Stackmania
         try {
             super.run();
         } catch (final Throwable t) {
@@ -63,6 +65,7 @@ class CraftAsyncTask extends CraftTask {
                         getTaskId()),
                     thrown);
         } finally {
+            com.stackmania.metrics.ThreadAccounting.recordTask(getOwner(), cpuStart, allocatedStart); // Stackmania
             // Cleanup is important for any async task, otherwise ghost tasks are everywhere
             synchronized (workers) {
                 try {
@@ -138,14 +138,58 @@ public final class CraftMagicNumbers implements UnsafeValues {
                 MATERIAL_BLOCK.put(material, block);
             });
         }
+
+        rebuildLookupTables();
+    }
+
+    // Stackmania start - dense lookup tables
+    // The maps above stay the registration-time source of truth. The hot lookups read a Material
+    // slot stored on each Block/Item and arrays indexed by Material.ordinal(), so getType() never
+    // hashes. Registry raw ids are not used as index because resolving them is itself a map lookup
+    // in Forge registries, and the slots survive id remaps without a rebuild.
+    private static Item[] MATERIAL_ITEM_BY_ORDINAL = new Item[0];
+    private static Block[] MATERIAL_BLOCK_BY_ORDINAL = new Block[0];
+
+    /**
+     * Rebuild the dense tables from the maps. Must be called after materials are injected for mods,
+     * since that grows Material.values().
+     */
+    public static void rebuildLookupTables() {
+        int size = Material.values().length;
+        Item[] items = new Item[size];
+        Block[] blocks = new Block[size];
+
+        for (Block block : BuiltInRegistries.BLOCK) {
+            block.stackmania$material = null;
+        }
+        for (Item item : BuiltInRegistries.ITEM) {
+            item.stackmania$material = null;
+        }
+        for (Map.Entry<Block, Material> entry : BLOCK_MATERIAL.entrySet()) {
+            entry.getKey().stackmania$material = entry.getValue();
+        }
+        for (Map.Entry<Item, Material> entry : ITEM_MATERIAL.entrySet()) {
+            entry.getKey().stackmania$material = entry.getValue();
+        }
+        for (Map.Entry<Material, Item> entry : MATERIAL_ITEM.entrySet()) {
+            items[entry.getKey().ordinal()] = entry.getValue();
+        }
+        for (Map.Entry<Material, Block> entry : MATERIAL_BLOCK.entrySet()) {
+            blocks[entry.getKey().ordinal()] = entry.getValue();
+        }
+
+        MATERIAL_ITEM_BY_ORDINAL = items;
+        MATERIAL_BLOCK_BY_ORDINAL = blocks;
     }
+    // Stackmania end
 
     public static Material getMaterial(Block block) {
-        return BLOCK_MATERIAL.get(block);
+        return block.stackmania$material; // Stackmania
     }
 
     public static Material getMaterial(Item item) {
-        return ITEM_MATERIAL.getOrDefault(item, Material.AIR);
+        Material material = item.stackmania$material; // Stackmania
+        return material != null ? material : Material.AIR;
     }
 
     public static Fluid getFluid(net.minecraft.world.level.material.Fluid fluid) {
@@ -157,7 +201,14 @@ public final class CraftMagicNumbers implements UnsafeValues {
             material = CraftLegacy.fromLegacy(material);
         }
 
-        return MATERIAL_ITEM.get(material);
+        // Stackmania start
+        if (material == null) {
+            return null;
+        }
+        Item[] items = MATERIAL_ITEM_BY_ORDINAL;
+        int ordinal = material.ordinal();
+        return ordinal < items.length ? items[ordinal] : MATERIAL_ITEM.get(material);
+        // Stackmania end
     }
 
     public static Block getBlock(Material material) {
@@ -165,7 +216,14 @@ public final class CraftMagicNumbers implements UnsafeValues {
             material = CraftLegacy.fromLegacy(material);
         }
 
-        return MATERIAL_BLOCK.get(material);
+        // Stackmania start
+        if (material == null) {
+            return null;
+        }
+        Block[] blocks = MATERIAL_BLOCK_BY_ORDINAL;
+        int ordinal = material.ordinal();
+        return ordinal < blocks.length ? blocks[ordinal] : MATERIAL_BLOCK.get(material);
+        // Stackmania end
     }
 
     public static net.minecraft.world.level.material.Fluid getFluid(Fluid fluid) {
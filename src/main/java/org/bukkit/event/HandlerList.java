@@ -10,6 +10,7 @@ import java.util.EnumMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map.Entry;
+import java.util.function.Consumer;
 
 /**
  * A list of event handlers, stored per-event. Based on lahwran's fevents.
@@ -34,6 +35,27 @@ public class HandlerList {
      */
     private static ArrayList<HandlerList> allLists = new ArrayList<HandlerList>();
 
+    // Stackmania start - let the Forge event bridge follow listener changes
+    private static volatile Consumer<HandlerList> changeListener;
+
+    /**
+     * Set a callback run after listeners were added to or removed from a
+     * handler list. It is never invoked while the list itself is locked.
+     *
+     * @param listener callback, or null to remove it
+     */
+    public static void setChangeListener(Consumer<HandlerList> listener) {
+        changeListener = listener;
+    }
+
+    private void fireChanged() {
+        Consumer<HandlerList> listener = changeListener;
+        if (listener != null) {
+            listener.accept(this);
+        }
+    }
+    // Stackmania end
+
     /**
      * Bake all handler lists. Best used just after all normal event
      * registration is complete, ie just after all plugins are loaded if
@@ -59,6 +81,7 @@ public class HandlerList {
                     }
                     h.handlers = null;
                 }
+                h.fireChanged(); // Stackmania
             }
         }
     }
@@ -109,11 +132,14 @@ public class HandlerList {
      *
      * @param listener listener to register
      */
-    public synchronized void register(@NotNull RegisteredListener listener) {
-        if (handlerslots.get(listener.getPriority()).contains(listener))
-            throw new IllegalStateException("This listener is already registered to priority " + listener.getPriority().toString());
-        handlers = null;
-        handlerslots.get(listener.getPriority()).add(listener);
+    public void register(@NotNull RegisteredListener listener) {
+        synchronized (this) {
+            if (handlerslots.get(listener.getPriority()).contains(listener))
+                throw new IllegalStateException("This listener is already registered to priority " + listener.getPriority().toString());
+            handlers = null;
+            handlerslots.get(listener.getPriority()).add(listener);
+        }
+        fireChanged(); // Stackmania
     }
 
     /**
@@ -132,10 +158,14 @@ public class HandlerList {
      *
      * @param listener listener to remove
      */
-    public synchronized void unregister(@NotNull RegisteredListener listener) {
-        if (handlerslots.get(listener.getPriority()).remove(listener)) {
+    public void unregister(@NotNull RegisteredListener listener) {
+        synchronized (this) {
+            if (!handlerslots.get(listener.getPriority()).remove(listener)) {
+                return;
+            }
             handlers = null;
         }
+        fireChanged(); // Stackmania
     }
 
     /**
@@ -143,17 +173,20 @@ public class HandlerList {
      *
      * @param plugin plugin to remove
      */
-    public synchronized void unregister(@NotNull Plugin plugin) {
+    public void unregister(@NotNull Plugin plugin) {
         boolean changed = false;
-        for (List<RegisteredListener> list : handlerslots.values()) {
-            for (ListIterator<RegisteredListener> i = list.listIterator(); i.hasNext();) {
-                if (i.next().getPlugin().equals(plugin)) {
-                    i.remove();
-                    changed = true;
+        synchronized (this) {
+            for (List<RegisteredListener> list : handlerslots.values()) {
+                for (ListIterator<RegisteredListener> i = list.listIterator(); i.hasNext();) {
+                    if (i.next().getPlugin().equals(plugin)) {
+                        i.remove();
+                        changed = true;
+                    }
                 }
             }
+            if (changed) handlers = null;
         }
-        if (changed) handlers = null;
+        if (changed) fireChanged(); // Stackmania
     }
 
     /**
@@ -161,17 +194,20 @@ public class HandlerList {
      *
      * @param listener listener to remove
      */
-    public synchronized void unregister(@NotNull Listener listener) {
+    public void unregister(@NotNull Listener listener) {
         boolean changed = false;
-        for (List<RegisteredListener> list : handlerslots.values()) {
-            for (ListIterator<RegisteredListener> i = list.listIterator(); i.hasNext();) {
-                if (i.next().getListener().equals(listener)) {
-                    i.remove();
-                    changed = true;
+        synchronized (this) {
+            for (List<RegisteredListener> list : handlerslots.values()) {
+                for (ListIterator<RegisteredListener> i = list.listIterator(); i.hasNext();) {
+                    if (i.next().getListener().equals(listener)) {
+                        i.remove();
+                        changed = true;
+                    }
                 }
             }
+            if (changed) handlers = null;
         }
-        if (changed) handlers = null;
+        if (changed) fireChanged(); // Stackmania
     }
 
     /**
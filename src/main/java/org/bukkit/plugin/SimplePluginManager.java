@@ -595,11 +595,13 @@ public final class SimplePluginManager implements PluginManager {
         if (listeners.length == 0) {
             return;
         }
+        boolean timed = com.stackmania.event.ListenerTimings.sampleBukkit(); // Stackmania
         for (RegisteredListener registration : listeners) {
             if (!registration.getPlugin().isEnabled()) {
                 continue;
             }
 
+            long start = timed ? System.nanoTime() : 0; // Stackmania
             try {
                 registration.callEvent(event);
             } catch (AuthorNagException ex) {
@@ -618,6 +620,11 @@ public final class SimplePluginManager implements PluginManager {
             } catch (Throwable ex) {
                 server.getLogger().log(Level.SEVERE, "Could not pass event " + event.getEventName() + " to " + registration.getPlugin().getDescription().getFullName(), ex);
             }
+            // Stackmania start
+            if (timed) {
+                com.stackmania.event.ListenerTimings.recordBukkit(registration, event, System.nanoTime() - start);
+            }
+            // Stackmania end
         }
     }
 
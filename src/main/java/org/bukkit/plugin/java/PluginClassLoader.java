@@ -265,6 +265,13 @@ public final class PluginClassLoader extends URLClassLoader implements Remapping
         return classes.values();
     }
 
+    // Stackmania start - lets the sampling profiler attribute stack frames without loading classes
+    @Nullable
+    public Class<?> getLoadedClass(@NotNull String name) {
+        return classes.get(name);
+    }
+    // Stackmania end
+
     synchronized void initialize(@NotNull JavaPlugin javaPlugin) {
         Preconditions.checkArgument(javaPlugin != null, "Initializing plugin cannot be null");
         Preconditions.checkArgument(javaPlugin.getClass().getClassLoader() == this, "Cannot initialize plugin outside of this class loader");
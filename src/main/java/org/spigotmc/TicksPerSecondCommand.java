@@ -31,6 +31,12 @@ public class TicksPerSecondCommand extends Command
             tpsAvg[i] = TicksPerSecondCommand.format( tps[i] );
         }
         sender.sendMessage(ChatColor.GOLD + "TPS from last 5s, 1m, 5m: " + org.apache.commons.lang3.StringUtils.join(tpsAvg, ", ")); // Purpur
+        // Stackmania start - averages hide the slow ticks players notice
+        com.stackmania.metrics.TickHistogram.Summary mspt = com.stackmania.metrics.TickTimes.SERVER.summary(com.stackmania.metrics.TickHistogram.Window.ONE_MINUTE);
+        if (mspt.count() > 0) {
+            sender.sendMessage(ChatColor.GOLD + String.format(java.util.Locale.ROOT, "MSPT from last 1m, p50/p95/p99/max: %.1f, %.1f, %.1f, %.1f", mspt.p50(), mspt.p95(), mspt.p99(), mspt.max()));
+        }
+        // Stackmania end
         if (args.length > 0 && args[0].equals("mem") && sender.hasPermission("bukkit.command.tpsmemory")) {
             sender.sendMessage(ChatColor.GOLD + "Current Memory Usage: " + ChatColor.GREEN + ((Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) / (1024 * 1024)) + "/" + (Runtime.getRuntime().totalMemory() / (1024 * 1024)) + " mb (Max: " + (Runtime.getRuntime().maxMemory() / (1024 * 1024)) + " mb)");
             if (!hasShownMemoryWarning) {
@@ -0,0 +1,316 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.mohistmc.MohistConfig;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.SlabBlock;
+import net.minecraft.world.level.block.StairBlock;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.SlabType;
+import net.minecraft.world.level.chunk.LightChunk;
+import net.minecraft.world.level.chunk.LightChunkGetter;
+import net.minecraft.world.level.lighting.BlockLightEngine;
+import net.minecraft.world.level.lighting.ChunkSkyLightSources;
+import net.minecraft.world.level.material.FluidState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Lights the same random worlds with {@link BlockLightEngine} twice, once the
+ * vanilla way and once through {@link BlockLightFill}, and compares the block
+ * light of the lit chunk and its neighbours.
+ *
+ * The worlds mix opaque, translucent and light absorbing blocks, slabs and stairs
+ * whose faces occlude light, and light sources. The neighbours are lit first so
+ * the chunk is lit over existing light, and a neighbour source is removed in the
+ * same update, so the fill runs after decreases like it does on a server.
+ */
+public class BlockLightFillTest {
+
+    private static final int RADIUS = 2;
+    private static final int HEIGHT = 64;
+    private static final int WORLDS = 200;
+
+    private static List<BlockState> blocks;
+    private static List<BlockState> sources;
+
+    @BeforeAll
+    public static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        blocks = List.of(
+                Blocks.STONE.defaultBlockState(),
+                Blocks.GLASS.defaultBlockState(),
+                Blocks.OAK_LEAVES.defaultBlockState(),
+                Blocks.WATER.defaultBlockState(),
+                Blocks.ICE.defaultBlockState(),
+                Blocks.COBWEB.defaultBlockState(),
+                Blocks.SMOOTH_STONE_SLAB.defaultBlockState().setValue(SlabBlock.TYPE, SlabType.BOTTOM),
+                Blocks.SMOOTH_STONE_SLAB.defaultBlockState().setValue(SlabBlock.TYPE, SlabType.TOP),
+                Blocks.OAK_STAIRS.defaultBlockState().setValue(StairBlock.FACING, Direction.NORTH),
+                Blocks.OAK_STAIRS.defaultBlockState().setValue(StairBlock.FACING, Direction.EAST),
+                Blocks.DIRT_PATH.defaultBlockState(),
+                Blocks.SNOW.defaultBlockState());
+        sources = List.of(
+                Blocks.GLOWSTONE.defaultBlockState(),
+                Blocks.TORCH.defaultBlockState(),
+                Blocks.SOUL_TORCH.defaultBlockState(),
+                Blocks.MAGMA_BLOCK.defaultBlockState(),
+                Blocks.SEA_LANTERN.defaultBlockState(),
+                Blocks.JACK_O_LANTERN.defaultBlockState(),
+                Blocks.SEA_PICKLE.defaultBlockState(),
+                Blocks.SMOOTH_STONE_SLAB.defaultBlockState().setValue(SlabBlock.TYPE, SlabType.BOTTOM).setValue(SlabBlock.WATERLOGGED, true),
+                Blocks.LANTERN.defaultBlockState());
+    }
+
+    @AfterEach
+    public void restoreConfig() {
+        MohistConfig.batched_block_light = false;
+        MohistConfig.verify_block_light = false;
+    }
+
+    @Test
+    public void matchesVanilla() {
+        for (int seed = 0; seed < WORLDS; seed++) {
+            int[] vanilla = light(seed, false);
+            int[] batched = light(seed, true);
+            assertSame(seed, vanilla, batched);
+        }
+    }
+
+    @Test
+    public void verifyKeepsVanillaLight() {
+        for (int seed = 0; seed < 20; seed++) {
+            int[] vanilla = light(seed, false);
+            MohistConfig.verify_block_light = true;
+            int[] verified = light(seed, true);
+            MohistConfig.verify_block_light = false;
+            assertSame(seed, vanilla, verified);
+        }
+    }
+
+    private static void assertSame(int seed, int[] expected, int[] found) {
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] != found[i]) {
+                int x = i % 48 - 16;
+                int z = i / 48 % 48 - 16;
+                int y = i / (48 * 48);
+                assertEquals(expected[i], found[i], "world " + seed + " differs at " + x + "," + y + "," + z);
+            }
+        }
+    }
+
+    /**
+     * Light the neighbours of chunk 0,0, then remove a source and light the chunk,
+     * and read the block light of the 3x3 chunks around it.
+     */
+    private static int[] light(int seed, boolean batched) {
+        World world = new World(seed);
+        BlockLightEngine engine = new BlockLightEngine(world);
+        for (int cx = -RADIUS; cx <= RADIUS; cx++) {
+            for (int cz = -RADIUS; cz <= RADIUS; cz++) {
+                for (int y = -1; y <= HEIGHT / 16; y++) {
+                    engine.updateSectionStatus(SectionPos.of(cx, y, cz), false);
+                }
+            }
+        }
+        engine.runLightUpdates();
+
+        MohistConfig.batched_block_light = false;
+        for (int cx = -1; cx <= 1; cx++) {
+            for (int cz = -1; cz <= 1; cz++) {
+                if (cx != 0 || cz != 0) {
+                    engine.propagateLightSources(new ChunkPos(cx, cz));
+                }
+            }
+        }
+        engine.runLightUpdates();
+
+        BlockPos removed = world.removeSource();
+        if (removed != null) {
+            engine.checkBlock(removed);
+        }
+        MohistConfig.batched_block_light = batched;
+        engine.propagateLightSources(new ChunkPos(0, 0));
+        engine.runLightUpdates();
+        MohistConfig.batched_block_light = false;
+
+        int[] light = new int[48 * 48 * HEIGHT];
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int z = 0; z < 48; z++) {
+                for (int x = 0; x < 48; x++) {
+                    light[(y * 48 + z) * 48 + x] = engine.getLightValue(pos.set(x - 16, y, z - 16));
+                }
+            }
+        }
+        return light;
+    }
+
+    private static final class World implements LightChunkGetter, BlockGetter {
+        private final Chunk[] chunks = new Chunk[(2 * RADIUS + 1) * (2 * RADIUS + 1)];
+        private final Random random;
+
+        private World(int seed) {
+            this.random = new Random(seed);
+            double density = random.nextDouble();
+            double lights = 0.002 + random.nextDouble() * 0.01;
+            for (int i = 0; i < chunks.length; i++) {
+                Chunk chunk = new Chunk(i / (2 * RADIUS + 1) - RADIUS, i % (2 * RADIUS + 1) - RADIUS);
+                for (int j = 0; j < chunk.states.length; j++) {
+                    double roll = random.nextDouble();
+                    if (roll < lights) {
+                        chunk.states[j] = sources.get(random.nextInt(sources.size()));
+                    } else if (roll < lights + density * 0.6) {
+                        chunk.states[j] = blocks.get(random.nextInt(blocks.size()));
+                    } else {
+                        chunk.states[j] = Blocks.AIR.defaultBlockState();
+                    }
+                }
+                chunks[i] = chunk;
+            }
+        }
+
+        /**
+         * Replace a light source of a neighbour next to chunk 0,0 by air.
+         */
+        @Nullable
+        private BlockPos removeSource() {
+            for (int attempt = 0; attempt < 10_000; attempt++) {
+                BlockPos pos = new BlockPos(-8 + random.nextInt(32), random.nextInt(HEIGHT), -8 + random.nextInt(32));
+                if ((pos.getX() >> 4 != 0 || pos.getZ() >> 4 != 0) && getBlockState(pos).getLightEmission(this, pos) > 0) {
+                    chunk(pos.getX() >> 4, pos.getZ() >> 4).set(pos, Blocks.AIR.defaultBlockState());
+                    return pos;
+                }
+            }
+            return null;
+        }
+
+        @Nullable
+        private Chunk chunk(int x, int z) {
+            if (Math.abs(x) > RADIUS || Math.abs(z) > RADIUS) {
+                return null;
+            }
+            return chunks[(x + RADIUS) * (2 * RADIUS + 1) + z + RADIUS];
+        }
+
+        @Nullable
+        @Override
+        public LightChunk getChunkForLighting(int x, int z) {
+            return chunk(x, z);
+        }
+
+        @Override
+        public BlockGetter getLevel() {
+            return this;
+        }
+
+        @Nullable
+        @Override
+        public BlockEntity getBlockEntity(BlockPos pos) {
+            return null;
+        }
+
+        @Override
+        public BlockState getBlockState(BlockPos pos) {
+            Chunk chunk = chunk(pos.getX() >> 4, pos.getZ() >> 4);
+            return chunk == null ? Blocks.AIR.defaultBlockState() : chunk.getBlockState(pos);
+        }
+
+        @Override
+        public FluidState getFluidState(BlockPos pos) {
+            return getBlockState(pos).getFluidState();
+        }
+
+        @Override
+        public int getHeight() {
+            return HEIGHT;
+        }
+
+        @Override
+        public int getMinBuildHeight() {
+            return 0;
+        }
+    }
+
+    private static final class Chunk implements LightChunk {
+        private final BlockState[] states = new BlockState[16 * 16 * HEIGHT];
+        private final int x;
+        private final int z;
+
+        private Chunk(int x, int z) {
+            this.x = x;
+            this.z = z;
+        }
+
+        private static int index(BlockPos pos) {
+            return (pos.getY() * 16 + (pos.getZ() & 15)) * 16 + (pos.getX() & 15);
+        }
+
+        private void set(BlockPos pos, BlockState state) {
+            states[index(pos)] = state;
+        }
+
+        @Override
+        public BlockState getBlockState(BlockPos pos) {
+            return pos.getY() < 0 || pos.getY() >= HEIGHT ? Blocks.AIR.defaultBlockState() : states[index(pos)];
+        }
+
+        @Override
+        public void findBlockLightSources(BiConsumer<BlockPos, BlockState> consumer) {
+            BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+            for (int i = 0; i < states.length; i++) {
+                pos.set((x << 4) + (i & 15), i >> 8, (z << 4) + ((i >> 4) & 15));
+                if (states[i].getLightEmission(this, pos) != 0) {
+                    consumer.accept(pos, states[i]);
+                }
+            }
+        }
+
+        @Nullable
+        @Override
+        public ChunkSkyLightSources getSkyLightSources() {
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public BlockEntity getBlockEntity(BlockPos pos) {
+            return null;
+        }
+
+        @Override
+        public FluidState getFluidState(BlockPos pos) {
+            return getBlockState(pos).getFluidState();
+        }
+
+        @Override
+        public int getHeight() {
+            return HEIGHT;
+        }
+
+        @Override
+        public int getMinBuildHeight() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Stackmania - Valonia Games
+ * Copyright (C) 2024-2025.
+ */
+
+package com.stackmania.world;
+
+import com.mohistmc.MohistConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.gametest.GameTestHolder;
+
+/**
+ * Compares the network wire engine with vanilla's RedStoneWireBlock.
+ *
+ * Each test generates a wire network from its seed: columns of stone and glass
+ * one or two blocks high, so wire steps up, down and is cut by covering blocks,
+ * with wire or a spot for a redstone block on top. The network is built twice on
+ * the platform, then redstone blocks are placed and removed in a random order,
+ * once with redstone.engine set to vanilla and once set to network, and after
+ * each step every block of the two copies must match, wire powers and shapes
+ * included. Only wire and solid blocks are used, so nothing depends on the order
+ * of neighbor updates, which the engines do not share.
+ *
+ * The platform is a stone floor of 29x14 blocks. Run with
+ *
+ *   ./gradlew :stackmania:forge_gametest_server
+ */
+@GameTestHolder("stackmania")
+public class RedstoneWiresGameTest {
+
+    private static final String PLATFORM = "stackmania:redstonewiresgametest.platform";
+    private static final int SIZE = 12;
+    private static final int NETWORKS = 32;
+    private static final int TOGGLES = 24;
+    private static final BlockPos VANILLA = new BlockPos(1, 1, 1);
+    private static final BlockPos NETWORK = new BlockPos(SIZE + 4, 1, 1);
+
+    @GameTestGenerator
+    public static List<TestFunction> networks() {
+        List<TestFunction> tests = new ArrayList<>();
+        for (int seed = 0; seed < NETWORKS; seed++) {
+            Layout layout = new Layout(seed);
+            tests.add(new TestFunction("redstonewires", "redstonewiresgametest.network" + seed, PLATFORM, 20, 0, true, (helper) -> compare(helper, layout)));
+        }
+        return tests;
+    }
+
+    private static void compare(GameTestHelper helper, Layout layout) {
+        ServerLevel level = helper.getLevel();
+        withEngine("vanilla", () -> layout.build(level, helper, VANILLA));
+        withEngine("network", () -> layout.build(level, helper, NETWORK));
+        assertSame(helper, layout, "built");
+
+        for (int i = 0; i < layout.toggles.length; i++) {
+            int cell = layout.toggles[i];
+            withEngine("vanilla", () -> layout.toggle(level, helper, VANILLA, cell));
+            withEngine("network", () -> layout.toggle(level, helper, NETWORK, cell));
+            assertSame(helper, layout, "toggle " + i);
+        }
+        helper.succeed();
+    }
+
+    private static void assertSame(GameTestHelper helper, Layout layout, String step) {
+        for (int y = 0; y <= 3; y++) {
+            for (int z = 0; z < SIZE; z++) {
+                for (int x = 0; x < SIZE; x++) {
+                    BlockPos vanillaPos = VANILLA.offset(x, y, z);
+                    BlockPos networkPos = NETWORK.offset(x, y, z);
+                    BlockState vanilla = helper.getBlockState(vanillaPos);
+                    BlockState network = helper.getBlockState(networkPos);
+                    if (vanilla != network) {
+                        helper.fail("Network " + layout.seed + ", " + step + ": vanilla has " + vanilla + ", network has " + network, networkPos);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void withEngine(String engine, Runnable task) {
+        String engineBefore = MohistConfig.redstone_engine;
+        List<String> worldsBefore = MohistConfig.redstone_engine_worlds;
+        MohistConfig.redstone_engine = engine;
+        MohistConfig.redstone_engine_worlds = List.of();
+        try {
+            task.run();
+        } finally {
+            MohistConfig.redstone_engine = engineBefore;
+            MohistConfig.redstone_engine_worlds = worldsBefore;
+        }
+    }
+
+    /**
+     * A generated wire network, by cell of the SIZE x SIZE area.
+     */
+    private static final class Layout {
+        private final int seed;
+        private final int[] height = new int[SIZE * SIZE];
+        private final boolean[] glass = new boolean[SIZE * SIZE];
+        private final boolean[] wire = new boolean[SIZE * SIZE];
+        private final int[] toggles = new int[TOGGLES];
+
+        private Layout(int seed) {
+            this.seed = seed;
+            Random random = new Random(seed);
+            List<Integer> sources = new ArrayList<>();
+            for (int cell = 0; cell < SIZE * SIZE; cell++) {
+                double roll = random.nextDouble();
+                height[cell] = roll < 0.55 ? 0 : roll < 0.85 ? 1 : 2;
+                glass[cell] = random.nextInt(4) == 0;
+                roll = random.nextDouble();
+                if (roll < 0.75) {
+                    wire[cell] = true;
+                } else if (roll < 0.82) {
+                    sources.add(cell);
+                }
+            }
+            if (sources.isEmpty()) {
+                wire[0] = false;
+                sources.add(0);
+            }
+            for (int i = 0; i < TOGGLES; i++) {
+                toggles[i] = sources.get(random.nextInt(sources.size()));
+            }
+        }
+
+        private void build(ServerLevel level, GameTestHelper helper, BlockPos origin) {
+            for (int cell = 0; cell < SIZE * SIZE; cell++) {
+                BlockState column = glass[cell] ? Blocks.GLASS.defaultBlockState() : Blocks.STONE.defaultBlockState();
+                for (int y = 0; y < height[cell]; y++) {
+                    level.setBlock(pos(helper, origin, cell, y), column, Block.UPDATE_CLIENTS);
+                }
+            }
+            for (int cell = 0; cell < SIZE * SIZE; cell++) {
+                if (wire[cell]) {
+                    level.setBlock(pos(helper, origin, cell, height[cell]), Blocks.REDSTONE_WIRE.defaultBlockState(), Block.UPDATE_CLIENTS);
+                }
+            }
+            // Connect the wires to each other, as placing them by hand would
+            for (int cell = 0; cell < SIZE * SIZE; cell++) {
+                if (wire[cell]) {
+                    BlockPos pos = pos(helper, origin, cell, height[cell]);
+                    level.setBlock(pos, Block.updateFromNeighbourShapes(level.getBlockState(pos), level, pos), Block.UPDATE_CLIENTS);
+                }
+            }
+        }
+
+        private void toggle(ServerLevel level, GameTestHelper helper, BlockPos origin, int cell) {
+            BlockPos pos = pos(helper, origin, cell, height[cell]);
+            BlockState state = level.getBlockState(pos).is(Blocks.REDSTONE_BLOCK) ? Blocks.AIR.defaultBlockState() : Blocks.REDSTONE_BLOCK.defaultBlockState();
+            level.setBlock(pos, state, Block.UPDATE_ALL);
+        }
+
+        private static BlockPos pos(GameTestHelper helper, BlockPos origin, int cell, int y) {
+            return helper.absolutePos(origin.offset(cell % SIZE, y, cell / SIZE));
+        }
+    }
+}